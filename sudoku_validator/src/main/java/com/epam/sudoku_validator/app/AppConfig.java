@@ -1,18 +1,24 @@
 package com.epam.sudoku_validator.app;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
 import org.springframework.context.annotation.Scope;
 import org.springframework.context.annotation.Bean;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 
 import com.epam.sudoku_validator.dao.*; 
+import com.epam.sudoku_validator.domain.GridMutation;
+import com.epam.sudoku_validator.domain.ValidationKernel;
 
 /**
  * Spring configuration
+ * The settings are read from the application.properties on the classpath or in the working directory
  * 
  * @author Istvan_Simo
  */
 @Configuration
+@PropertySource(value = { "classpath:application.properties", "file:./application.properties", "file:./config/application.properties" }, ignoreResourceNotFound = true)
 public class AppConfig {
 	
 	@Bean
@@ -22,5 +28,78 @@ public class AppConfig {
 		sudokuTableDao.init();
 		return sudokuTableDao;
 	}
+	
+	@Bean
+	@Scope(value = ConfigurableBeanFactory.SCOPE_SINGLETON)
+	public CachingSudokuTableDao cachingSudokuTableDao(@Value("${sudoku.validator.cache.size:65536}") int size,
+			@Value("${sudoku.validator.cache.keyMode:EXACT}") CacheKeyMode keyMode) {
+		return new CachingSudokuTableDao(sudokuTableDao(), size, keyMode);
+	}
+	
+	@Bean
+	@Scope(value = ConfigurableBeanFactory.SCOPE_SINGLETON)
+	public AsyncSudokuTableDao asyncSudokuTableDao(@Value("${sudoku.validator.async.threads:0}") int threads) {
+		return new AsyncSudokuTableDao(sudokuTableDao(), threads);
+	}
+	
+	@Bean
+	@Scope(value = ConfigurableBeanFactory.SCOPE_SINGLETON)
+	public ValidationMetrics validationMetrics(@Value("${sudoku.validator.metrics.enabled:false}") boolean enabled,
+			@Value("${sudoku.validator.metrics.jmx:true}") boolean jmx,
+			@Value("${sudoku.validator.metrics.dumpSeconds:0}") int dumpSeconds) {
+		return new ValidationMetrics(enabled, jmx, dumpSeconds);
+	}
+	
+	@Bean
+	@Scope(value = ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+	public ParallelBatchValidator parallelBatchValidator(@Value("${sudoku.validator.workers:0}") int workers,
+			@Value("${sudoku.validator.chunkSize:1024}") int chunkSize,
+			@Value("${sudoku.validator.queueCapacity:64}") int queueCapacity,
+			@Value("${sudoku.validator.kernel:SWAR}") ValidationKernel kernel,
+			ValidationMetrics validationMetrics) {
+		ParallelBatchValidator parallelBatchValidator = new ParallelBatchValidator(sudokuTableDao(), workers, chunkSize, queueCapacity, kernel);
+		parallelBatchValidator.setMetrics(validationMetrics);
+		return parallelBatchValidator;
+	}
+	
+	@Bean
+	@Scope(value = ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+	public LoadGenerator loadGenerator(@Value("${sudoku.validator.generator.threads:0}") int threads,
+			@Value("${sudoku.validator.generator.chunkSize:4096}") int chunkSize,
+			@Value("${sudoku.validator.generator.invalidPercent:10}") int invalidPercent,
+			@Value("${sudoku.validator.generator.mutations:DUPLICATE_ROW,DUPLICATE_COLUMN,DUPLICATE_BOX,BAD_CHARACTER,SHORT_ROW}") GridMutation[] mutations,
+			@Value("${sudoku.validator.generator.seed:1}") long seed) {
+		return new LoadGenerator(threads, chunkSize, invalidPercent, mutations, seed);
+	}
+	
+	@Bean
+	@Scope(value = ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+	public ValidationServer validationServer(@Value("${sudoku.validator.server.address:127.0.0.1}") String address,
+			@Value("${sudoku.validator.server.port:8080}") int port,
+			@Value("${sudoku.validator.server.threads:0}") int threads,
+			@Value("${sudoku.validator.server.queueCapacity:1024}") int queueCapacity,
+			@Value("${sudoku.validator.server.maxTables:10000}") int maxTables,
+			@Value("${sudoku.validator.server.maxBodyBytes:4194304}") long maxBodyBytes,
+			@Value("${sudoku.validator.server.cache:false}") boolean cache,
+			ValidationMetrics validationMetrics,
+			CachingSudokuTableDao cachingSudokuTableDao) {
+		ValidationServer validationServer = new ValidationServer(sudokuTableDao(), address, port, threads, queueCapacity, maxTables);
+		validationServer.setMaxBodyBytes(maxBodyBytes);
+		validationServer.setMetrics(validationMetrics);
+		validationServer.setCache(cache ? cachingSudokuTableDao : null);
+		return validationServer;
+	}
+
+	@Bean
+	@Scope(value = ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+	public DirectoryWatcher directoryWatcher(@Value("${sudoku.validator.watch.workers:0}") int workers,
+			@Value("${sudoku.validator.watch.report:validation.report}") String reportName,
+			@Value("${sudoku.validator.watch.index:.sudoku_validator.index}") String indexName,
+			@Value("${sudoku.validator.watch.settleMillis:500}") long settleMillis,
+			ValidationMetrics validationMetrics) {
+		DirectoryWatcher directoryWatcher = new DirectoryWatcher(sudokuTableDao(), workers, reportName, indexName, settleMillis);
+		directoryWatcher.setMetrics(validationMetrics);
+		return directoryWatcher;
+	}
 
 }
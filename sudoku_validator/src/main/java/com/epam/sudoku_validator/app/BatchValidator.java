@@ -0,0 +1,272 @@
+package com.epam.sudoku_validator.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+
+import com.epam.sudoku_validator.dao.BinaryGridFormat;
+import com.epam.sudoku_validator.dao.SudokuGridReader;
+import com.epam.sudoku_validator.dao.SudokuTableDao;
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+import com.epam.sudoku_validator.domain.GridGeometry;
+import com.epam.sudoku_validator.domain.GridRenderer;
+import com.epam.sudoku_validator.domain.RenderFormat;
+import com.epam.sudoku_validator.domain.ValidationEngine;
+import com.epam.sudoku_validator.domain.ValidationEngineType;
+
+/**
+ * Batch validation of many sudoku tables from one file or from all CSV and binary (.sdkb) files of a directory
+ * It writes one result line for each table and a summary at the end.
+ * Tables are streamed through one reusable grid buffer, so the memory usage is flat for any input size.
+ * The tables are 9x9 by default, CSV files with larger (or smaller) tables can be validated with the size
+ * set in the constructor, see GridGeometry. The tables are validated by the BITMASK engine by default, see setEngine.
+ * Optionally every invalid table is written after its result line as well, see setReportFormat.
+ *
+ * @author Istvan_Simo
+ */
+public class BatchValidator {
+
+	private final SudokuTableDao sudokuTableDao;
+	private final GridGeometry geometry;
+	private ValidationEngine engine;
+	private final byte[] cells;
+	private ValidationMetrics metrics = ValidationMetrics.DISABLED;
+	private GridRenderer renderer = null;
+
+	private long total = 0;
+	private long valid = 0;
+	private long invalid = 0;
+	private long malformed = 0;
+
+	public BatchValidator(SudokuTableDao sudokuTableDao) {
+		this(sudokuTableDao, GridGeometry.STANDARD);
+	}
+
+	/**
+	 * @param sudokuTableDao - DAO to open the input files
+	 * @param geometry - size of the tables
+	 */
+	public BatchValidator(SudokuTableDao sudokuTableDao, GridGeometry geometry) {
+		this.sudokuTableDao = sudokuTableDao;
+		this.geometry = geometry;
+		this.engine = ValidationEngineType.BITMASK.create(geometry);
+		this.cells = new byte[geometry.getCells()];
+	}
+
+	/**
+	 * Sets the metrics, which record every table of the following runs
+	 */
+	public void setMetrics(ValidationMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Sets the validation engine of the following runs, the results are the same with any engine
+	 *
+	 * @param engine - engine of the same table size as the validator
+	 * @throws IllegalArgumentException if the engine is for another table size
+	 */
+	public void setEngine(ValidationEngine engine) {
+		if (engine.getGeometry() != this.geometry) {
+			throw new IllegalArgumentException("The validation engine is for " + engine.getGeometry() + " tables, not for " + this.geometry);
+		}
+		this.engine = engine;
+	}
+
+	public ValidationEngine getEngine() {
+		return this.engine;
+	}
+
+	/**
+	 * Sets the format of the invalid tables written after their result lines, null means no tables (the default)
+	 * The tables are rendered by a reusable GridRenderer with the error cell highlighted, without garbage per table.
+	 */
+	public void setReportFormat(RenderFormat format) {
+		this.renderer = format == null ? null : new GridRenderer(this.geometry, format);
+	}
+
+	/**
+	 * Validates every table of the specified file or directory
+	 *
+	 * @param LOG - the Logger object from the caller (Application.run method)
+	 * @param pathName - file or directory to be validated
+	 * @param out - target of the per table result lines
+	 * @return 0 if all the tables are valid, -1 otherwise
+	 * @throws IOException
+	 */
+	public int run(Logger LOG, String pathName, Writer out) throws IOException {
+		List<File> files = listFiles(new File(pathName));
+		if (files.isEmpty()) {
+			LOG.error("Invalid input file specification: " + pathName);
+			return -1;
+		}
+		long startTime = System.nanoTime();
+		long startTotal = this.total;
+		long startAllocated = this.metrics.isEnabled() ? ValidationMetrics.threadAllocatedBytes() : -1;
+		for (File file : files) {
+			LOG.debug("Validating file: {}", file);
+			validateFile(file, out);
+		}
+		out.flush();
+		if (startAllocated >= 0) {
+			this.metrics.recordAllocation(ValidationMetrics.threadAllocatedBytes() - startAllocated, this.total - startTotal);
+		}
+		long elapsedMillis = Math.max(1, (System.nanoTime() - startTime) / 1_000_000);
+		LOG.info("Batch result: {} tables, {} valid, {} invalid, {} malformed in {} ms ({} tables/s)",
+				this.total, this.valid, this.invalid, this.malformed, elapsedMillis, this.total * 1000 / elapsedMillis);
+		return (this.total > 0 && this.valid == this.total) ? 0 : -1;
+	}
+
+	/**
+	 * Validates every table of one file, without the summary, e.g. for DirectoryWatcher
+	 *
+	 * @param file - the file to be validated
+	 * @param out - target of the per table result lines, it isn't flushed
+	 * @throws IOException
+	 */
+	void validateFile(File file, Writer out) throws IOException {
+		try (SudokuGridReader reader = this.geometry == GridGeometry.STANDARD ? this.sudokuTableDao.openGridReader(file.getPath())
+				: this.sudokuTableDao.openGridReader(file.getPath(), this.geometry)) {
+			validateAll(reader, file.getName(), out);
+		}
+		if (this.metrics.isEnabled()) {
+			this.metrics.recordBytesRead(file.length());
+		}
+	}
+
+	private void validateAll(SudokuGridReader reader, String source, Writer out) throws IOException {
+		boolean timed = this.metrics.isEnabled();
+		long sequence = 0;
+		while (true) {
+			IllegalArgumentException error = null;
+			long parseStart = timed ? System.nanoTime() : 0;
+			try {
+				if (!reader.next(this.cells, 0)) {
+					break;
+				}
+			} catch (IllegalArgumentException e) {
+				error = e;
+			}
+			long validateStart = timed ? System.nanoTime() : 0;
+			sequence++;
+			this.total++;
+			if (error != null) {
+				this.malformed++;
+				if (timed) {
+					this.metrics.recordParse(validateStart - parseStart);
+					this.metrics.recordMalformed();
+				}
+				appendResult(out, source, sequence, error.getMessage(), BitmaskValidator.VALID, this.geometry.getSide());
+				continue;
+			}
+			int errorCell = this.engine.validate(this.cells, 0);
+			if (timed) {
+				this.metrics.recordParse(validateStart - parseStart);
+				this.metrics.recordValidate(System.nanoTime() - validateStart);
+			}
+			if (errorCell == BitmaskValidator.VALID) {
+				this.valid++;
+				if (timed) {
+					this.metrics.recordValid();
+				}
+			} else {
+				this.invalid++;
+				if (timed) {
+					this.metrics.recordInvalid(this.geometry.unitType(this.engine.getFailingUnit()));
+				}
+			}
+			appendResult(out, source, sequence, null, errorCell, this.geometry.getSide());
+			if (this.renderer != null && errorCell != BitmaskValidator.VALID) {
+				this.renderer.render(this.cells, 0, errorCell, out);
+				out.append('\n');
+			}
+		}
+	}
+
+	/**
+	 * Writes the result line of one table
+	 * 
+	 * @param out - target writer
+	 * @param source - name of the source file
+	 * @param sequence - one based number of the table in the file
+	 * @param error - error message of a malformed table, or null
+	 * @param errorCell - the error cell of an invalid table, or BitmaskValidator.VALID
+	 * @throws IOException
+	 */
+	static void appendResult(Writer out, String source, long sequence, String error, int errorCell) throws IOException {
+		appendResult(out, source, sequence, error, errorCell, 9);
+	}
+
+	/**
+	 * Writes the result line of one table of the given size
+	 * 
+	 * @param out - target writer
+	 * @param source - name of the source file
+	 * @param sequence - one based number of the table in the file
+	 * @param error - error message of a malformed table, or null
+	 * @param errorCell - the error cell (row * side + col) of an invalid table, or BitmaskValidator.VALID
+	 * @param side - number of values in a row
+	 * @throws IOException
+	 */
+	static void appendResult(Writer out, String source, long sequence, String error, int errorCell, int side) throws IOException {
+		out.append(source).append('#').append(Long.toString(sequence)).append(": ");
+		if (error != null) {
+			out.append("Error: ").append(error).append('\n');
+		} else if (errorCell == BitmaskValidator.VALID) {
+			out.append("OK\n");
+		} else {
+			out.append("Invalid (row: ").append(Integer.toString(errorCell / side + 1))
+					.append(", column: ").append(Integer.toString(errorCell % side + 1)).append(")\n");
+		}
+	}
+
+	/**
+	 * Returns with the file itself, or with the CSV and binary files of a directory in name order
+	 */
+	static List<File> listFiles(File path) {
+		List<File> files = new ArrayList<>();
+		if (path.isFile()) {
+			files.add(path);
+		} else if (path.isDirectory()) {
+			File[] children = path.listFiles((dir, name) -> isTableFile(name));
+			if (children != null) {
+				Arrays.sort(children);
+				for (File child : children) {
+					if (child.isFile()) {
+						files.add(child);
+					}
+				}
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * Returns with true if the file name has the extension of a CSV or a binary file
+	 */
+	static boolean isTableFile(String name) {
+		return name.toLowerCase().endsWith(".csv") || BinaryGridFormat.isBinaryFile(name);
+	}
+
+	public long getTotal() {
+		return this.total;
+	}
+
+	public long getValid() {
+		return this.valid;
+	}
+
+	public long getInvalid() {
+		return this.invalid;
+	}
+
+	public long getMalformed() {
+		return this.malformed;
+	}
+
+}
@@ -0,0 +1,248 @@
+package com.epam.sudoku_validator.app;
+
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.TimeZone;
+
+import org.slf4j.helpers.FormattingTuple;
+import org.slf4j.helpers.MarkerIgnoringBase;
+import org.slf4j.helpers.MessageFormatter;
+
+/**
+ * Minimal SLF4J logger for SudokuValidatorLauncher, it writes the same lines as the console appender
+ * of SudokuValidatorApplication ("%date{yyyy-MM-dd HH:mm:ss.SSS} %level: %message%n"),
+ * without loading and configuring logback.
+ *
+ * @author Istvan_Simo
+ */
+class ConsoleLogger extends MarkerIgnoringBase {
+
+	private static final long serialVersionUID = 1L;
+
+	static final int TRACE = 0;
+	static final int DEBUG = 10;
+	static final int INFO = 20;
+	static final int WARN = 30;
+	static final int ERROR = 40;
+	static final int OFF = Integer.MAX_VALUE;
+	static final int ALL = Integer.MIN_VALUE;
+
+	private final transient PrintStream out;
+	private int level = INFO;
+
+	ConsoleLogger(String name, PrintStream out) {
+		this.name = name;
+		this.out = out;
+	}
+
+	/**
+	 * Sets the level by name, with the same rules as logback's Level.valueOf: unknown names mean DEBUG
+	 *
+	 * @param levelName - ALL, TRACE, DEBUG, INFO, WARN, ERROR or OFF, in any case
+	 */
+	void setLevel(String levelName) {
+		if ("ALL".equalsIgnoreCase(levelName)) {
+			this.level = ALL;
+		} else if ("TRACE".equalsIgnoreCase(levelName)) {
+			this.level = TRACE;
+		} else if ("INFO".equalsIgnoreCase(levelName)) {
+			this.level = INFO;
+		} else if ("WARN".equalsIgnoreCase(levelName)) {
+			this.level = WARN;
+		} else if ("ERROR".equalsIgnoreCase(levelName)) {
+			this.level = ERROR;
+		} else if ("OFF".equalsIgnoreCase(levelName)) {
+			this.level = OFF;
+		} else {
+			this.level = DEBUG;
+		}
+	}
+
+	private void log(int messageLevel, String levelName, String format, Object... arguments) {
+		if (messageLevel < this.level) {
+			return;
+		}
+		FormattingTuple message = MessageFormatter.arrayFormat(format, arguments);
+		long millis = System.currentTimeMillis();
+		// TimeZone is much cheaper to load than the java.time zone rules, the start time matters here
+		LocalDateTime now = LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L), (int) Math.floorMod(millis, 1000L) * 1_000_000,
+				ZoneOffset.ofTotalSeconds(TimeZone.getDefault().getOffset(millis) / 1000));
+		StringBuilder line = new StringBuilder(64 + (message.getMessage() == null ? 4 : message.getMessage().length()));
+		line.append(now.getYear()).append('-');
+		pad(line, now.getMonthValue(), 2).append('-');
+		pad(line, now.getDayOfMonth(), 2).append(' ');
+		pad(line, now.getHour(), 2).append(':');
+		pad(line, now.getMinute(), 2).append(':');
+		pad(line, now.getSecond(), 2).append('.');
+		pad(line, now.getNano() / 1_000_000, 3).append(' ');
+		line.append(levelName).append(": ").append(message.getMessage()).append(System.lineSeparator());
+		synchronized (this.out) {
+			this.out.print(line);
+			if (message.getThrowable() != null) {
+				message.getThrowable().printStackTrace(this.out);
+			}
+			this.out.flush();
+		}
+	}
+
+	private static StringBuilder pad(StringBuilder line, int value, int width) {
+		for (int limit = 10, i = 1; i < width; i++, limit *= 10) {
+			if (value < limit) {
+				line.append('0');
+			}
+		}
+		return line.append(value);
+	}
+
+	@Override
+	public boolean isTraceEnabled() {
+		return TRACE >= this.level;
+	}
+
+	@Override
+	public void trace(String msg) {
+		log(TRACE, "TRACE", msg);
+	}
+
+	@Override
+	public void trace(String format, Object arg) {
+		log(TRACE, "TRACE", format, arg);
+	}
+
+	@Override
+	public void trace(String format, Object arg1, Object arg2) {
+		log(TRACE, "TRACE", format, arg1, arg2);
+	}
+
+	@Override
+	public void trace(String format, Object... arguments) {
+		log(TRACE, "TRACE", format, arguments);
+	}
+
+	@Override
+	public void trace(String msg, Throwable t) {
+		log(TRACE, "TRACE", msg, t);
+	}
+
+	@Override
+	public boolean isDebugEnabled() {
+		return DEBUG >= this.level;
+	}
+
+	@Override
+	public void debug(String msg) {
+		log(DEBUG, "DEBUG", msg);
+	}
+
+	@Override
+	public void debug(String format, Object arg) {
+		log(DEBUG, "DEBUG", format, arg);
+	}
+
+	@Override
+	public void debug(String format, Object arg1, Object arg2) {
+		log(DEBUG, "DEBUG", format, arg1, arg2);
+	}
+
+	@Override
+	public void debug(String format, Object... arguments) {
+		log(DEBUG, "DEBUG", format, arguments);
+	}
+
+	@Override
+	public void debug(String msg, Throwable t) {
+		log(DEBUG, "DEBUG", msg, t);
+	}
+
+	@Override
+	public boolean isInfoEnabled() {
+		return INFO >= this.level;
+	}
+
+	@Override
+	public void info(String msg) {
+		log(INFO, "INFO", msg);
+	}
+
+	@Override
+	public void info(String format, Object arg) {
+		log(INFO, "INFO", format, arg);
+	}
+
+	@Override
+	public void info(String format, Object arg1, Object arg2) {
+		log(INFO, "INFO", format, arg1, arg2);
+	}
+
+	@Override
+	public void info(String format, Object... arguments) {
+		log(INFO, "INFO", format, arguments);
+	}
+
+	@Override
+	public void info(String msg, Throwable t) {
+		log(INFO, "INFO", msg, t);
+	}
+
+	@Override
+	public boolean isWarnEnabled() {
+		return WARN >= this.level;
+	}
+
+	@Override
+	public void warn(String msg) {
+		log(WARN, "WARN", msg);
+	}
+
+	@Override
+	public void warn(String format, Object arg) {
+		log(WARN, "WARN", format, arg);
+	}
+
+	@Override
+	public void warn(String format, Object arg1, Object arg2) {
+		log(WARN, "WARN", format, arg1, arg2);
+	}
+
+	@Override
+	public void warn(String format, Object... arguments) {
+		log(WARN, "WARN", format, arguments);
+	}
+
+	@Override
+	public void warn(String msg, Throwable t) {
+		log(WARN, "WARN", msg, t);
+	}
+
+	@Override
+	public boolean isErrorEnabled() {
+		return ERROR >= this.level;
+	}
+
+	@Override
+	public void error(String msg) {
+		log(ERROR, "ERROR", msg);
+	}
+
+	@Override
+	public void error(String format, Object arg) {
+		log(ERROR, "ERROR", format, arg);
+	}
+
+	@Override
+	public void error(String format, Object arg1, Object arg2) {
+		log(ERROR, "ERROR", format, arg1, arg2);
+	}
+
+	@Override
+	public void error(String format, Object... arguments) {
+		log(ERROR, "ERROR", format, arguments);
+	}
+
+	@Override
+	public void error(String msg, Throwable t) {
+		log(ERROR, "ERROR", msg, t);
+	}
+
+}
@@ -0,0 +1,513 @@
+package com.epam.sudoku_validator.app;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+
+import com.epam.sudoku_validator.dao.SudokuTableDao;
+import com.epam.sudoku_validator.domain.GridGeometry;
+import com.epam.sudoku_validator.domain.RenderFormat;
+import com.epam.sudoku_validator.domain.ValidationEngineType;
+
+/**
+ * Resident validation of a spool directory, where an upstream system drops CSV and binary (.sdkb) files
+ * The directory is watched by a WatchService, a new or changed file is validated by a worker thread once no more
+ * events came for it during the settle time, i.e. it's completely written. Every file is validated by a BatchValidator
+ * with the table size, validation engine and report format of the batch mode, its result lines (and invalid tables)
+ * are appended to the report file in one block.
+ * The size, modification time and CRC32 of the validated files are kept in an index file, so a file is validated
+ * again only if its content has changed: the same size and time skip it without reading, the same size and CRC32
+ * (e.g. a touched file) skip it after reading. The time is trusted only if it was older than the settle time plus
+ * the timestamp granularity of the coarsest file systems (2 s, FAT) when the file was read, otherwise a rewrite of
+ * the same size could get the same time, so such a time isn't kept in the index, and the next check reads the file. The index is saved after every settle period with new results and
+ * at stop, so after a restart only the files arrived or changed in the meantime are validated.
+ * A file is validated at least once: a file changed during its validation is validated again.
+ * Files should preferably be moved into the directory when they are complete, a file written slower than
+ * the settle time may be validated more than once, the last result is the valid one.
+ * The index is pruned when it's saved, the files removed from the directory are left out of it.
+ * A failed index write is retried after the next settle period, the results stay in memory until then.
+ * If the directory becomes inaccessible, the watcher stops itself and isFailed returns true.
+ *
+ * @author Istvan_Simo
+ */
+public class DirectoryWatcher {
+
+	private final SudokuTableDao sudokuTableDao;
+	private final int workers;
+	private final String reportName;
+	private final String indexName;
+	private final long settleMillis;
+	private ValidationMetrics metrics = ValidationMetrics.DISABLED;
+	private GridGeometry geometry = GridGeometry.STANDARD;
+	private ValidationEngineType engineType = ValidationEngineType.BITMASK;
+	private RenderFormat reportFormat = null;
+
+	/**
+	 * Fingerprints of the validated files by file name
+	 */
+	private final Map<String, Fingerprint> index = new ConcurrentHashMap<>();
+	private final AtomicBoolean indexChanged = new AtomicBoolean(false);
+	private final Object indexLock = new Object();
+
+	/**
+	 * Files with events by the time of their last event (System.nanoTime), owned by the watcher thread
+	 */
+	private final Map<Path, Long> pendingFiles = new ConcurrentHashMap<>();
+
+	/**
+	 * Files being validated, a file is validated by one worker at a time
+	 */
+	private final Map<Path, Boolean> runningFiles = new ConcurrentHashMap<>();
+
+	/**
+	 * Timestamp granularity of the coarsest file systems (FAT) in milliseconds, ext4 and NTFS are much finer
+	 */
+	private static final long TIMESTAMP_GRANULARITY_MILLIS = 2000;
+
+	/**
+	 * Modification time of the fingerprints, which can't tell a rewrite of the same size within the same tick
+	 */
+	private static final long UNKNOWN_TIME = -1;
+
+	private final LongAdder validatedFiles = new LongAdder();
+	private final LongAdder skippedFiles = new LongAdder();
+	private final LongAdder failedFiles = new LongAdder();
+	private final LongAdder tables = new LongAdder();
+	private final CountDownLatch stopped = new CountDownLatch(1);
+	private volatile boolean running = false;
+	private volatile boolean failed = false;
+	private Path directory = null;
+	private Path indexFile = null;
+	/**
+	 * The report file, the workers write it while holding its lock, reportClosed is guarded by the same lock
+	 */
+	private Writer report = null;
+	private boolean reportClosed = false;
+	private WatchService watchService = null;
+	private ExecutorService executor = null;
+	private Thread watcherThread = null;
+
+	/**
+	 * @param sudokuTableDao - DAO to open the files
+	 * @param workers - number of validator threads, 0 means the number of available processors
+	 * @param reportName - file of the result lines, a relative one is in the watched directory
+	 * @param indexName - file of the fingerprints of the validated files, a relative one is in the watched directory
+	 * @param settleMillis - time without events after a file is validated, in milliseconds
+	 */
+	public DirectoryWatcher(SudokuTableDao sudokuTableDao, int workers, String reportName, String indexName, long settleMillis) {
+		if (workers < 0 || settleMillis < 0) {
+			throw new IllegalArgumentException("Invalid watch settings, workers: " + workers + ", settle time: " + settleMillis + " ms");
+		}
+		this.sudokuTableDao = sudokuTableDao;
+		this.workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+		this.reportName = reportName;
+		this.indexName = indexName;
+		this.settleMillis = settleMillis;
+	}
+
+	/**
+	 * Sets the metrics, which record every table of the validated files, it should be called before start
+	 */
+	public void setMetrics(ValidationMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Sets the size of the tables, it should be called before start
+	 */
+	public void setGeometry(GridGeometry geometry) {
+		this.geometry = geometry;
+	}
+
+	/**
+	 * Sets the validation engine, every file gets a new instance of it, it should be called before start
+	 */
+	public void setEngineType(ValidationEngineType engineType) {
+		this.engineType = engineType;
+	}
+
+	/**
+	 * Sets the format of the invalid tables written after their result lines, null means no tables (the default),
+	 * it should be called before start
+	 */
+	public void setReportFormat(RenderFormat reportFormat) {
+		this.reportFormat = reportFormat;
+	}
+
+	/**
+	 * Starts watching the directory, the files already in it are checked against the index first
+	 *
+	 * @param LOG - the Logger object from the caller (Application.run method)
+	 * @param directoryName - the directory to be watched
+	 * @throws IOException if the directory can't be watched, or the index or the report can't be opened
+	 * @throws IllegalArgumentException if the validation engine doesn't support the table size
+	 */
+	public void start(Logger LOG, String directoryName) throws IOException {
+		if (!this.engineType.supports(this.geometry)) {
+			throw new IllegalArgumentException("The " + this.engineType + " validation engine supports 9x9 tables only, not " + this.geometry);
+		}
+		this.directory = Paths.get(directoryName).toAbsolutePath();
+		if (!Files.isDirectory(this.directory)) {
+			throw new NoSuchFileException(directoryName, null, "not a directory");
+		}
+		this.indexFile = this.directory.resolve(this.indexName);
+		loadIndex();
+		this.report = Files.newBufferedWriter(this.directory.resolve(this.reportName), StandardCharsets.UTF_8,
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		this.watchService = this.directory.getFileSystem().newWatchService();
+		this.directory.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+		AtomicInteger count = new AtomicInteger();
+		this.executor = Executors.newFixedThreadPool(this.workers, runnable -> new Thread(runnable, "sudoku-watch-" + count.incrementAndGet()));
+		this.running = true;
+		scan();
+		this.watcherThread = new Thread(() -> watch(LOG), "sudoku-watcher");
+		this.watcherThread.start();
+		LOG.info("Watching {} ({} workers, {} files in the index)", this.directory, this.workers, this.index.size());
+	}
+
+	/**
+	 * Stops watching, the files being validated are finished first (for up to a minute), then the index is saved
+	 * A validation still running after that is cancelled, its file isn't put into the index, so it's validated
+	 * again after a restart.
+	 *
+	 * @param LOG - the Logger object from the caller (Application.run method)
+	 */
+	public synchronized void stop(Logger LOG) {
+		if (this.running) {
+			this.running = false;
+			try {
+				this.watchService.close();
+				this.watcherThread.join();
+				this.executor.shutdown();
+				if (!this.executor.awaitTermination(1, TimeUnit.MINUTES)) {
+					LOG.warn("The validations still running after a minute are cancelled");
+					this.executor.shutdownNow();
+				}
+			} catch (IOException e) {
+				LOG.error("Can't close the watch service: " + e.getMessage());
+			} catch (InterruptedException e) {
+				this.executor.shutdownNow();
+				Thread.currentThread().interrupt();
+			}
+			synchronized (this.report) {
+				this.reportClosed = true;
+				try {
+					this.report.close();
+				} catch (IOException e) {
+					LOG.error("Can't close the report: " + e.getMessage());
+				}
+			}
+			try {
+				saveIndex();
+			} catch (IOException e) {
+				LOG.error("Can't save the index: " + e.getMessage());
+			}
+			LOG.info("Directory watcher stopped after {} validated files ({} tables), {} unchanged, {} failed",
+					this.validatedFiles.sum(), this.tables.sum(), this.skippedFiles.sum(), this.failedFiles.sum());
+		}
+		this.stopped.countDown();
+	}
+
+	/**
+	 * Blocks until the watcher is stopped
+	 *
+	 * @throws InterruptedException
+	 */
+	public void awaitStop() throws InterruptedException {
+		this.stopped.await();
+	}
+
+	/**
+	 * Returns true if the watcher stopped itself, because the directory became inaccessible
+	 */
+	public boolean isFailed() {
+		return this.failed;
+	}
+
+	/**
+	 * Returns with the number of validated files
+	 */
+	public long getValidatedFiles() {
+		return this.validatedFiles.sum();
+	}
+
+	/**
+	 * Returns with the number of files skipped, because their content hasn't changed since their last validation
+	 */
+	public long getSkippedFiles() {
+		return this.skippedFiles.sum();
+	}
+
+	/**
+	 * Returns with the number of files, which couldn't be read
+	 */
+	public long getFailedFiles() {
+		return this.failedFiles.sum();
+	}
+
+	/**
+	 * Returns with the number of tables of the validated files
+	 */
+	public long getTables() {
+		return this.tables.sum();
+	}
+
+	/**
+	 * Event loop of the watcher thread, it hands over the settled files to the workers
+	 */
+	private void watch(Logger LOG) {
+		boolean indexFailing = false;
+		try {
+			while (this.running) {
+				WatchKey key = this.watchService.poll(Math.max(1, this.settleMillis), TimeUnit.MILLISECONDS);
+				if (key != null) {
+					for (WatchEvent<?> event : key.pollEvents()) {
+						if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+							LOG.warn("Too many file events, rescanning {}", this.directory);
+							scan();
+						} else {
+							Path name = (Path) event.context();
+							if (BatchValidator.isTableFile(name.toString())) {
+								this.pendingFiles.put(this.directory.resolve(name), System.nanoTime());
+							}
+						}
+					}
+					if (!key.reset()) {
+						this.failed = true;
+					}
+				}
+				// the key of a removed directory stays valid while a file of it is open, e.g. the report
+				if (this.failed || !Files.isDirectory(this.directory)) {
+					LOG.error("The watched directory is no longer accessible: {}", this.directory);
+					this.failed = true;
+					break;
+				}
+				submitSettled(LOG);
+				if (this.indexChanged.getAndSet(false)) {
+					try {
+						saveIndex();
+						if (indexFailing) {
+							LOG.info("The index is saved again");
+							indexFailing = false;
+						}
+					} catch (IOException e) {
+						if (!indexFailing) {
+							LOG.error("Can't save the index, it's retried after every settle period: " + e.getMessage());
+							indexFailing = true;
+						}
+						this.indexChanged.set(true);
+					}
+				}
+			}
+		} catch (ClosedWatchServiceException e) {
+			// stopped
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (this.failed) {
+			// stop joins this thread, so it's called on another one, and it releases awaitStop
+			new Thread(() -> stop(LOG), "sudoku-watcher-stop").start();
+		}
+	}
+
+	/**
+	 * Adds the table files of the directory to the pending ones, as if they had an event a settle time ago
+	 */
+	private void scan() {
+		long settled = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(this.settleMillis);
+		for (File file : BatchValidator.listFiles(this.directory.toFile())) {
+			this.pendingFiles.put(file.toPath(), settled);
+		}
+	}
+
+	/**
+	 * Submits the pending files without events during the settle time, except the ones being validated
+	 */
+	private void submitSettled(Logger LOG) {
+		long now = System.nanoTime();
+		long settleNanos = TimeUnit.MILLISECONDS.toNanos(this.settleMillis);
+		Iterator<Map.Entry<Path, Long>> entries = this.pendingFiles.entrySet().iterator();
+		while (entries.hasNext()) {
+			Map.Entry<Path, Long> entry = entries.next();
+			Path file = entry.getKey();
+			if (now - entry.getValue() >= settleNanos && this.runningFiles.putIfAbsent(file, Boolean.TRUE) == null) {
+				entries.remove();
+				this.executor.execute(() -> process(LOG, file));
+			}
+		}
+	}
+
+	/**
+	 * Validates the file, unless its content is the same as at its last validation
+	 */
+	private void process(Logger LOG, Path file) {
+		try {
+			long readTime = System.currentTimeMillis();
+			BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+			if (!attributes.isRegularFile()) {
+				return;
+			}
+			String name = file.getFileName().toString();
+			long size = attributes.size();
+			long modified = attributes.lastModifiedTime().toMillis();
+			Fingerprint known = this.index.get(name);
+			if (known != null && known.size == size && known.modified == modified && modified != UNKNOWN_TIME) {
+				this.skippedFiles.increment();
+				LOG.debug("Unchanged file: {}", name);
+				return;
+			}
+			long checksum = checksum(file);
+			if (known == null || known.size != size || known.checksum != checksum) {
+				BatchValidator batchValidator = new BatchValidator(this.sudokuTableDao, this.geometry);
+				batchValidator.setMetrics(this.metrics);
+				batchValidator.setEngine(this.engineType.create(this.geometry));
+				batchValidator.setReportFormat(this.reportFormat);
+				StringWriter results = new StringWriter();
+				batchValidator.validateFile(file.toFile(), results);
+				synchronized (this.report) {
+					if (this.reportClosed) {
+						LOG.warn("The watcher stopped before the results of {} were written, it's validated again after a restart", name);
+						return;
+					}
+					this.report.write(results.toString());
+					this.report.flush();
+				}
+				this.validatedFiles.increment();
+				this.tables.add(batchValidator.getTotal());
+				LOG.info("Validated {}: {} tables, {} valid, {} invalid, {} malformed", name,
+						batchValidator.getTotal(), batchValidator.getValid(), batchValidator.getInvalid(), batchValidator.getMalformed());
+			} else {
+				this.skippedFiles.increment();
+				LOG.debug("Unchanged content: {}", name);
+			}
+			// a later write of a recent file may keep its time, its content will be compared instead
+			boolean settled = readTime - modified > this.settleMillis + TIMESTAMP_GRANULARITY_MILLIS;
+			this.index.put(name, new Fingerprint(size, settled ? modified : UNKNOWN_TIME, checksum));
+			this.indexChanged.set(true);
+		} catch (NoSuchFileException e) {
+			LOG.debug("Removed file: {}", file);
+		} catch (IOException | RuntimeException e) {
+			this.failedFiles.increment();
+			LOG.error("Can't validate {}: {}", file, e.getMessage());
+		} finally {
+			this.runningFiles.remove(file);
+		}
+	}
+
+	private static long checksum(Path file) throws IOException {
+		CRC32 crc = new CRC32();
+		byte[] buffer = new byte[64 * 1024];
+		try (InputStream in = Files.newInputStream(file)) {
+			int length;
+			while ((length = in.read(buffer)) > 0) {
+				crc.update(buffer, 0, length);
+			}
+		}
+		return crc.getValue();
+	}
+
+	/**
+	 * Reads the index, a line for each file: size, modification time in ms, CRC32 in hex and the file name
+	 */
+	private void loadIndex() throws IOException {
+		this.index.clear();
+		if (!Files.exists(this.indexFile)) {
+			return;
+		}
+		for (String line : Files.readAllLines(this.indexFile, StandardCharsets.UTF_8)) {
+			String[] fields = line.split(",", 4);
+			if (fields.length == 4) {
+				try {
+					this.index.put(fields[3], new Fingerprint(Long.parseLong(fields[0]), Long.parseLong(fields[1]), Long.parseLong(fields[2], 16)));
+				} catch (NumberFormatException e) {
+					// a damaged line only means one more validation
+				}
+			}
+		}
+	}
+
+	/**
+	 * Leaves out the removed files, then writes the index into a temporary file and replaces the old one with it,
+	 * so a crash can't damage it
+	 */
+	private void saveIndex() throws IOException {
+		synchronized (this.indexLock) {
+			writeIndex();
+		}
+	}
+
+	private void writeIndex() throws IOException {
+		Set<String> names = new HashSet<>();
+		for (File file : BatchValidator.listFiles(this.directory.toFile())) {
+			names.add(file.getName());
+		}
+		this.index.keySet().retainAll(names);
+		List<String> lines = new ArrayList<>(this.index.size());
+		for (Map.Entry<String, Fingerprint> entry : this.index.entrySet()) {
+			Fingerprint fingerprint = entry.getValue();
+			lines.add(fingerprint.size + "," + fingerprint.modified + "," + Long.toHexString(fingerprint.checksum) + "," + entry.getKey());
+		}
+		Path temporary = this.indexFile.resolveSibling(this.indexFile.getFileName() + ".tmp");
+		try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+			for (String line : lines) {
+				writer.write(line);
+				writer.write('\n');
+			}
+		}
+		try {
+			Files.move(temporary, this.indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temporary, this.indexFile, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Size, modification time and checksum of a validated file
+	 */
+	private static final class Fingerprint {
+		private final long size;
+		private final long modified;
+		private final long checksum;
+
+		Fingerprint(long size, long modified, long checksum) {
+			this.size = size;
+			this.modified = modified;
+			this.checksum = checksum;
+		}
+	}
+
+}
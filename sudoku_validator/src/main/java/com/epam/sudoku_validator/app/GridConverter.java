@@ -0,0 +1,72 @@
+package com.epam.sudoku_validator.app;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+
+import com.epam.sudoku_validator.dao.SudokuGridReader;
+import com.epam.sudoku_validator.dao.SudokuGridWriter;
+import com.epam.sudoku_validator.dao.SudokuTableDao;
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+
+/**
+ * Converts files of many sudoku tables between the CSV and the compact binary format
+ * The format of each file is selected by its extension, the malformed tables of the input are skipped.
+ *
+ * @author Istvan_Simo
+ */
+public class GridConverter {
+
+	private final SudokuTableDao sudokuTableDao;
+	private final byte[] cells = new byte[BitmaskValidator.CELLS];
+
+	private long converted = 0;
+	private long skipped = 0;
+
+	public GridConverter(SudokuTableDao sudokuTableDao) {
+		this.sudokuTableDao = sudokuTableDao;
+	}
+
+	/**
+	 * Converts all the tables of the input file into the output file
+	 *
+	 * @param LOG - the Logger object from the caller (Application.run method)
+	 * @param inputName - the file to be converted
+	 * @param outputName - the target file, it's overwritten if it exists
+	 * @return 0 if all the tables were converted, -1 otherwise
+	 * @throws IOException
+	 */
+	public int run(Logger LOG, String inputName, String outputName) throws IOException {
+		try (SudokuGridReader reader = this.sudokuTableDao.openGridReader(inputName);
+				SudokuGridWriter writer = this.sudokuTableDao.openGridWriter(outputName)) {
+			long sequence = 0;
+			while (true) {
+				boolean hasNext;
+				sequence++;
+				try {
+					hasNext = reader.next(this.cells, 0);
+				} catch (IllegalArgumentException e) {
+					this.skipped++;
+					LOG.warn("Skipping table #{}: {}", sequence, e.getMessage());
+					continue;
+				}
+				if (!hasNext) {
+					break;
+				}
+				writer.write(this.cells, 0);
+				this.converted++;
+			}
+		}
+		LOG.info("Conversion result: {} tables converted, {} skipped", this.converted, this.skipped);
+		return (this.converted > 0 && this.skipped == 0) ? 0 : -1;
+	}
+
+	public long getConverted() {
+		return this.converted;
+	}
+
+	public long getSkipped() {
+		return this.skipped;
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.epam.sudoku_validator.app;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with power of two buckets (bucket b holds the values below 2^b ns)
+ * Recording is two LongAdder increments and a max update, so it can be shared by all the worker threads.
+ * The percentiles are the upper bounds of the buckets, i.e. they are accurate within a factor of 2.
+ *
+ * @author Istvan_Simo
+ */
+class LatencyHistogram {
+
+	private static final int BUCKETS = 64;
+
+	private final LongAdder[] buckets = new LongAdder[BUCKETS];
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	LatencyHistogram() {
+		for (int b = 0; b < BUCKETS; b++) {
+			this.buckets[b] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Records the same latency for a number of operations, e.g. the average of a bulk validation
+	 *
+	 * @param nanos - latency of one operation
+	 * @param operations - number of operations
+	 */
+	void record(long nanos, int operations) {
+		long value = Math.max(0, nanos);
+		this.buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value))].add(operations);
+		this.count.add(operations);
+		this.sum.add(value * operations);
+		this.max.accumulate(value);
+	}
+
+	long getCount() {
+		return this.count.sum();
+	}
+
+	long getMean() {
+		long count = this.count.sum();
+		return count == 0 ? 0 : this.sum.sum() / count;
+	}
+
+	long getMax() {
+		return this.max.get();
+	}
+
+	/**
+	 * Returns with the upper bound of the bucket, which contains the given percentile
+	 *
+	 * @param percentile - between 0 and 100
+	 * @return latency in ns, 0 if nothing is recorded
+	 */
+	long getPercentile(double percentile) {
+		long[] counts = new long[BUCKETS];
+		long total = 0;
+		for (int b = 0; b < BUCKETS; b++) {
+			counts[b] = this.buckets[b].sum();
+			total += counts[b];
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(total * percentile / 100);
+		long seen = 0;
+		for (int b = 0; b < BUCKETS; b++) {
+			seen += counts[b];
+			if (seen >= rank && counts[b] > 0) {
+				return Math.min(b == 0 ? 0 : (1L << b) - 1, getMax());
+			}
+		}
+		return getMax();
+	}
+
+	void reset() {
+		for (LongAdder bucket : this.buckets) {
+			bucket.reset();
+		}
+		this.count.reset();
+		this.sum.reset();
+		this.max.reset();
+	}
+
+}
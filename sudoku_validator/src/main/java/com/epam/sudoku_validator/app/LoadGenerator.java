@@ -0,0 +1,249 @@
+package com.epam.sudoku_validator.app;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+
+import com.epam.sudoku_validator.dao.BinaryGridFormat;
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+import com.epam.sudoku_validator.domain.GridGenerator;
+import com.epam.sudoku_validator.domain.GridMutation;
+
+/**
+ * Parallel generator of large files of 9x9 tables for load and soak tests of the batch, parallel and server modes
+ * The valid tables are made by GridGenerator, the given percent of them is turned invalid by a random mutation of
+ * the enabled ones (see GridMutation). The output is a CSV file as CsvGridWriter writes it, or a binary file with
+ * .sdkb extension, which can hold the duplicate mutations only, the malformed ones are left out of it.
+ *
+ * The tables are generated in chunks on a ForkJoinPool, every chunk has its own random source derived from the seed
+ * and the chunk index, so the output depends only on the seed and the settings, not on the number of threads.
+ * The calling thread writes the chunks in order; a fixed number of chunk buffers are recycled, so the memory usage
+ * is flat for any number of tables.
+ *
+ * @author Istvan_Simo
+ */
+public class LoadGenerator {
+
+	/**
+	 * Length of a CSV table, 9 rows of 9 values, 8 commas and a line break
+	 */
+	private static final int CSV_TABLE_LENGTH = 9 * 18;
+
+	/**
+	 * Characters of the BAD_CHARACTER mutation
+	 */
+	private static final byte[] BAD_CHARACTERS = { 'x', 'O', '?', '-', '#', ' ' };
+
+	private final int threads;
+	private final int chunkSize;
+	private final int invalidPercent;
+	private final GridMutation[] mutations;
+	private final long seed;
+
+	private long total = 0;
+	private long valid = 0;
+	private long invalid = 0;
+	private long malformed = 0;
+
+	/**
+	 * @param threads - number of generator threads, 0 means the number of available processors
+	 * @param chunkSize - number of tables generated as one task
+	 * @param invalidPercent - percent of the invalid (or malformed) tables, 0..100
+	 * @param mutations - mutations of the invalid tables, one of them is chosen at random for every invalid table
+	 * @param seed - seed of the random tables, the same seed gives the same file
+	 */
+	public LoadGenerator(int threads, int chunkSize, int invalidPercent, GridMutation[] mutations, long seed) {
+		if (threads < 0 || chunkSize < 1 || invalidPercent < 0 || invalidPercent > 100 || (invalidPercent > 0 && mutations.length == 0)) {
+			throw new IllegalArgumentException("Invalid generator settings, threads: " + threads + ", chunk size: " + chunkSize
+					+ ", invalid percent: " + invalidPercent + ", mutations: " + Arrays.toString(mutations));
+		}
+		this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		this.chunkSize = chunkSize;
+		this.invalidPercent = invalidPercent;
+		this.mutations = mutations.clone();
+		this.seed = seed;
+	}
+
+	/**
+	 * Generates the tables into the file
+	 *
+	 * @param LOG - the Logger object from the caller (Application.run method)
+	 * @param outputName - the target file, it's overwritten if it exists; .sdkb files are binary, the others CSV
+	 * @param count - number of tables
+	 * @return 0 if the file was written
+	 * @throws IOException if the file can't be written, or the generation of a chunk failed
+	 * @throws InterruptedException
+	 */
+	public int run(Logger LOG, String outputName, long count) throws IOException, InterruptedException {
+		if (count < 1) {
+			LOG.error("Invalid number of tables to generate: " + count);
+			return -1;
+		}
+		boolean binary = BinaryGridFormat.isBinaryFile(outputName);
+		GridMutation[] mutations = binary ? duplicateMutations(this.mutations) : this.mutations;
+		if (mutations.length < this.mutations.length) {
+			LOG.warn("The malformed mutations are left out of the binary file {}", outputName);
+		}
+		int invalidPercent = mutations.length > 0 ? this.invalidPercent : 0;
+		long startTime = System.nanoTime();
+		long chunks = (count + this.chunkSize - 1) / this.chunkSize;
+		ArrayDeque<Future<Chunk>> pending = new ArrayDeque<>();
+		ArrayDeque<Chunk> freeChunks = new ArrayDeque<>();
+		for (int i = 0; i < 2 * this.threads; i++) {
+			freeChunks.add(new Chunk(this.chunkSize, binary, invalidPercent, mutations, this.seed));
+		}
+		ForkJoinPool pool = new ForkJoinPool(this.threads);
+		try (OutputStream out = new FileOutputStream(outputName)) {
+			if (binary) {
+				byte[] header = new byte[BinaryGridFormat.HEADER_SIZE];
+				BinaryGridFormat.writeHeader(header);
+				out.write(header);
+			}
+			for (long index = 0; index < chunks; index++) {
+				if (freeChunks.isEmpty()) {
+					freeChunks.add(write(pending.poll(), out));
+				}
+				Chunk chunk = freeChunks.poll();
+				chunk.index = index;
+				chunk.count = (int) Math.min(this.chunkSize, count - index * this.chunkSize);
+				pending.add(pool.submit(chunk));
+			}
+			while (!pending.isEmpty()) {
+				write(pending.poll(), out);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		long elapsedMillis = Math.max(1, (System.nanoTime() - startTime) / 1_000_000);
+		LOG.info("Generation result: {} tables, {} valid, {} invalid, {} malformed in {} ms ({} tables/s, {} threads, seed {})",
+				this.total, this.valid, this.invalid, this.malformed, elapsedMillis, this.total * 1000 / elapsedMillis, this.threads, this.seed);
+		return 0;
+	}
+
+	private Chunk write(Future<Chunk> future, OutputStream out) throws IOException, InterruptedException {
+		Chunk chunk;
+		try {
+			chunk = future.get();
+		} catch (ExecutionException e) {
+			throw new IOException("Table generation failed: " + e.getCause(), e.getCause());
+		}
+		out.write(chunk.data, 0, chunk.length);
+		this.total += chunk.count;
+		this.valid += chunk.count - chunk.invalid - chunk.malformed;
+		this.invalid += chunk.invalid;
+		this.malformed += chunk.malformed;
+		return chunk;
+	}
+
+	private static GridMutation[] duplicateMutations(GridMutation[] mutations) {
+		List<GridMutation> duplicates = new ArrayList<>();
+		for (GridMutation mutation : mutations) {
+			if (!mutation.isMalformed()) {
+				duplicates.add(mutation);
+			}
+		}
+		return duplicates.toArray(new GridMutation[duplicates.size()]);
+	}
+
+	public long getTotal() {
+		return this.total;
+	}
+
+	public long getValid() {
+		return this.valid;
+	}
+
+	public long getInvalid() {
+		return this.invalid;
+	}
+
+	public long getMalformed() {
+		return this.malformed;
+	}
+
+	/**
+	 * Reusable buffer of a chunk of tables, encoded as they are written into the file
+	 */
+	private static class Chunk implements Callable<Chunk> {
+		private final byte[] cells = new byte[BitmaskValidator.CELLS];
+		private final byte[] data;
+		private final boolean binary;
+		private final int invalidPercent;
+		private final GridMutation[] mutations;
+		private final long seed;
+		private long index;
+		private int count;
+		private int length;
+		private int invalid;
+		private int malformed;
+
+		Chunk(int size, boolean binary, int invalidPercent, GridMutation[] mutations, long seed) {
+			this.data = new byte[size * (binary ? BinaryGridFormat.RECORD_SIZE : CSV_TABLE_LENGTH)];
+			this.binary = binary;
+			this.invalidPercent = invalidPercent;
+			this.mutations = mutations;
+			this.seed = seed;
+		}
+
+		@Override
+		public Chunk call() {
+			SplittableRandom random = new SplittableRandom(this.seed + this.index * 0x9E3779B97F4A7C15L);
+			GridGenerator generator = new GridGenerator(random);
+			this.length = 0;
+			this.invalid = 0;
+			this.malformed = 0;
+			for (int i = 0; i < this.count; i++) {
+				generator.generate(this.cells, 0);
+				GridMutation mutation = null;
+				if (this.invalidPercent > 0 && random.nextInt(100) < this.invalidPercent) {
+					mutation = this.mutations[random.nextInt(this.mutations.length)];
+					if (mutation.isMalformed()) {
+						this.malformed++;
+					} else {
+						this.invalid++;
+						generator.mutate(this.cells, 0, mutation);
+					}
+				}
+				if (this.binary) {
+					BinaryGridFormat.pack(this.cells, 0, this.data, this.length);
+					this.length += BinaryGridFormat.RECORD_SIZE;
+				} else {
+					appendCsv(mutation, random);
+				}
+			}
+			return this;
+		}
+
+		/**
+		 * Appends the table as CsvGridWriter writes it, with the malformed mutation applied to the text
+		 */
+		private void appendCsv(GridMutation mutation, SplittableRandom random) {
+			int badCell = mutation == GridMutation.BAD_CHARACTER ? random.nextInt(BitmaskValidator.CELLS) : -1;
+			int shortRow = mutation == GridMutation.SHORT_ROW ? random.nextInt(9) : -1;
+			byte[] data = this.data;
+			int position = this.length;
+			for (int row = 0; row < 9; row++) {
+				int cols = row == shortRow ? 8 : 9;
+				for (int col = 0; col < cols; col++) {
+					int cell = row * 9 + col;
+					data[position++] = cell == badCell ? BAD_CHARACTERS[random.nextInt(BAD_CHARACTERS.length)] : (byte) ('0' + this.cells[cell]);
+					data[position++] = ',';
+				}
+				data[position - 1] = '\n';
+			}
+			this.length = position;
+		}
+	}
+
+}
@@ -0,0 +1,349 @@
+package com.epam.sudoku_validator.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.slf4j.Logger;
+
+import com.epam.sudoku_validator.dao.SudokuGridReader;
+import com.epam.sudoku_validator.dao.SudokuTableDao;
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+import com.epam.sudoku_validator.domain.BulkValidator;
+import com.epam.sudoku_validator.domain.ValidationKernel;
+
+/**
+ * Multi-core batch validation, with the same input and output as BatchValidator
+ * The calling thread reads the tables into chunks, the chunks are validated on a work-stealing ForkJoinPool
+ * and a writer thread writes the results in input order.
+ * There's a fixed number of chunk buffers, which are recycled after writing, so a slow writer or slow workers
+ * block the reader (backpressure) and the memory usage stays flat.
+ * A chunk is validated in bulk by BulkValidator, with the SWAR kernel by default.
+ *
+ * @author Istvan_Simo
+ */
+public class ParallelBatchValidator {
+
+	/**
+	 * Marks the end of the pending chunks, it's never validated
+	 */
+	private static final Chunk END = new Chunk(0, null, null);
+
+	private final SudokuTableDao sudokuTableDao;
+	private final int workers;
+	private final int chunkSize;
+	private final int queueCapacity;
+	private final ValidationKernel kernel;
+	private final ThreadLocal<BulkValidator> validator;
+	private ValidationMetrics metrics = ValidationMetrics.DISABLED;
+
+	private long total = 0;
+	private long valid = 0;
+	private long invalid = 0;
+	private long malformed = 0;
+
+	/**
+	 * @param sudokuTableDao - DAO to open the input files
+	 * @param workers - number of validator threads, 0 means the number of available processors
+	 * @param chunkSize - number of tables in a chunk
+	 * @param queueCapacity - maximum number of chunks being read, validated or written at the same time
+	 */
+	public ParallelBatchValidator(SudokuTableDao sudokuTableDao, int workers, int chunkSize, int queueCapacity) {
+		this(sudokuTableDao, workers, chunkSize, queueCapacity, ValidationKernel.SWAR);
+	}
+
+	/**
+	 * @param sudokuTableDao - DAO to open the input files
+	 * @param workers - number of validator threads, 0 means the number of available processors
+	 * @param chunkSize - number of tables in a chunk
+	 * @param queueCapacity - maximum number of chunks being read, validated or written at the same time
+	 * @param kernel - validation kernel of the chunks
+	 */
+	public ParallelBatchValidator(SudokuTableDao sudokuTableDao, int workers, int chunkSize, int queueCapacity, ValidationKernel kernel) {
+		if (chunkSize < 1 || queueCapacity < 1 || workers < 0) {
+			throw new IllegalArgumentException("Invalid parallel batch settings, workers: " + workers + ", chunk size: " + chunkSize + ", queue capacity: " + queueCapacity);
+		}
+		this.sudokuTableDao = sudokuTableDao;
+		this.workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+		this.chunkSize = chunkSize;
+		this.queueCapacity = queueCapacity;
+		this.kernel = kernel;
+		this.validator = ThreadLocal.withInitial(() -> new BulkValidator(kernel));
+	}
+
+	/**
+	 * Sets the metrics, which record every table of the following runs
+	 */
+	public void setMetrics(ValidationMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Validates every table of the specified file or directory
+	 *
+	 * @param LOG - the Logger object from the caller (Application.run method)
+	 * @param pathName - file or directory to be validated
+	 * @param out - target of the per table result lines
+	 * @return 0 if all the tables are valid, -1 otherwise
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public int run(Logger LOG, String pathName, Writer out) throws IOException, InterruptedException {
+		List<File> files = BatchValidator.listFiles(new File(pathName));
+		if (files.isEmpty()) {
+			LOG.error("Invalid input file specification: " + pathName);
+			return -1;
+		}
+		long startTime = System.nanoTime();
+		long startTotal = this.total;
+		long startAllocated = this.metrics.isEnabled() ? ValidationMetrics.threadAllocatedBytes() : -1;
+		BlockingQueue<Chunk> freeChunks = new ArrayBlockingQueue<>(this.queueCapacity);
+		for (int i = 0; i < this.queueCapacity; i++) {
+			freeChunks.add(new Chunk(this.chunkSize, this.validator, this.metrics));
+		}
+		BlockingQueue<Chunk> pendingChunks = new ArrayBlockingQueue<>(this.queueCapacity + 1);
+		ForkJoinPool pool = new ForkJoinPool(this.workers);
+		ResultWriter resultWriter = new ResultWriter(pendingChunks, freeChunks, out);
+		Thread writerThread = new Thread(resultWriter, "sudoku-result-writer");
+		writerThread.start();
+		try {
+			for (File file : files) {
+				LOG.debug("Validating file: {}", file);
+				try (SudokuGridReader reader = this.sudokuTableDao.openGridReader(file.getPath())) {
+					long sequence = 0;
+					boolean hasMore = true;
+					while (hasMore && !resultWriter.isFailed()) {
+						Chunk chunk = freeChunks.take();
+						hasMore = chunk.fill(reader, file.getName(), sequence);
+						sequence += chunk.count;
+						if (chunk.count > 0) {
+							// a FutureTask keeps the exception of a failed validation, ForkJoinTask.get would throw a copy of it
+							FutureTask<Chunk> task = new FutureTask<>(chunk);
+							chunk.future = task;
+							pool.execute(task);
+							pendingChunks.put(chunk);
+						} else {
+							freeChunks.put(chunk);
+						}
+					}
+				}
+				if (this.metrics.isEnabled()) {
+					this.metrics.recordBytesRead(file.length());
+				}
+			}
+		} finally {
+			pendingChunks.put(END);
+			writerThread.join();
+			pool.shutdown();
+		}
+		if (resultWriter.validationError != null) {
+			throw new IOException("Table validation failed: " + resultWriter.validationError, resultWriter.validationError);
+		}
+		if (resultWriter.writeError != null) {
+			throw new IOException("Can't write the validation results: " + resultWriter.writeError.getMessage(), resultWriter.writeError);
+		}
+		if (startAllocated >= 0) {
+			// the workers validate the chunks in place, so only the reader and the writer thread allocate per table
+			this.metrics.recordAllocation(ValidationMetrics.threadAllocatedBytes() - startAllocated + resultWriter.allocated,
+					this.total - startTotal);
+		}
+		long elapsedMillis = Math.max(1, (System.nanoTime() - startTime) / 1_000_000);
+		LOG.info("Batch result: {} tables, {} valid, {} invalid, {} malformed in {} ms ({} tables/s, {} workers, {} kernel)",
+				this.total, this.valid, this.invalid, this.malformed, elapsedMillis, this.total * 1000 / elapsedMillis, this.workers, this.kernel);
+		return (this.total > 0 && this.valid == this.total) ? 0 : -1;
+	}
+
+	public int getWorkers() {
+		return this.workers;
+	}
+
+	public ValidationKernel getKernel() {
+		return this.kernel;
+	}
+
+	public long getTotal() {
+		return this.total;
+	}
+
+	public long getValid() {
+		return this.valid;
+	}
+
+	public long getInvalid() {
+		return this.invalid;
+	}
+
+	public long getMalformed() {
+		return this.malformed;
+	}
+
+	/**
+	 * Reusable buffer of a chunk of tables from one source file, validated as one task
+	 */
+	private static class Chunk implements Callable<Chunk> {
+		private final byte[] cells;
+		private final String[] errors;
+		private final int[] results;
+		private final ThreadLocal<BulkValidator> validator;
+		private final ValidationMetrics metrics;
+		private String source;
+		private long firstSequence;
+		private int count;
+		/**
+		 * The validation task of the chunk, set by the reader when it's submitted
+		 */
+		private Future<Chunk> future;
+
+		Chunk(int size, ThreadLocal<BulkValidator> validator, ValidationMetrics metrics) {
+			this.cells = new byte[size * BitmaskValidator.CELLS];
+			this.errors = new String[size];
+			this.results = new int[size];
+			this.validator = validator;
+			this.metrics = metrics;
+		}
+
+		/**
+		 * Reads the next tables into the chunk
+		 *
+		 * @return false if the reader has no more tables
+		 */
+		boolean fill(SudokuGridReader reader, String source, long firstSequence) throws IOException {
+			this.source = source;
+			this.firstSequence = firstSequence;
+			this.count = 0;
+			long parseStart = this.metrics.isEnabled() ? System.nanoTime() : 0;
+			boolean hasMore = true;
+			while (this.count < this.errors.length) {
+				this.errors[this.count] = null;
+				try {
+					if (!reader.next(this.cells, this.count * BitmaskValidator.CELLS)) {
+						hasMore = false;
+						break;
+					}
+				} catch (IllegalArgumentException e) {
+					this.errors[this.count] = e.getMessage();
+				}
+				this.count++;
+			}
+			if (this.metrics.isEnabled()) {
+				this.metrics.recordParse(System.nanoTime() - parseStart, this.count);
+			}
+			return hasMore;
+		}
+
+		@Override
+		public Chunk call() {
+			// the cells of the malformed tables are validated too, it's cheaper than breaking up the bulk, the result is ignored
+			long validateStart = this.metrics.isEnabled() ? System.nanoTime() : 0;
+			this.validator.get().validate(this.cells, 0, this.count, this.results);
+			if (this.metrics.isEnabled()) {
+				this.metrics.recordValidate(System.nanoTime() - validateStart, this.count);
+			}
+			return this;
+		}
+	}
+
+	/**
+	 * Writes the results of the validated chunks in input order and gives back the chunks for reading
+	 * After a failed validation or write it keeps giving back the chunks without writing, so the reader isn't blocked
+	 * until it notices the failure.
+	 */
+	private class ResultWriter implements Runnable {
+		private final BlockingQueue<Chunk> pendingChunks;
+		private final BlockingQueue<Chunk> freeChunks;
+		private final Writer out;
+		private final BitmaskValidator failureValidator = new BitmaskValidator();
+		/**
+		 * Cause of the first failed validation task
+		 */
+		private volatile Throwable validationError = null;
+		private volatile IOException writeError = null;
+		private volatile long allocated = 0;
+
+		ResultWriter(BlockingQueue<Chunk> pendingChunks, BlockingQueue<Chunk> freeChunks, Writer out) {
+			this.pendingChunks = pendingChunks;
+			this.freeChunks = freeChunks;
+			this.out = out;
+		}
+
+		@Override
+		public void run() {
+			long startAllocated = metrics.isEnabled() ? ValidationMetrics.threadAllocatedBytes() : -1;
+			try {
+				Chunk chunk;
+				while ((chunk = this.pendingChunks.take()) != END) {
+					try {
+						chunk.future.get();
+						if (!isFailed()) {
+							write(chunk);
+						}
+					} catch (ExecutionException e) {
+						if (this.validationError == null) {
+							this.validationError = e.getCause();
+						}
+					} catch (IOException e) {
+						this.writeError = e;
+					}
+					// the task is done even if it failed, so the chunk can be reused
+					this.freeChunks.put(chunk);
+				}
+				if (!isFailed()) {
+					this.out.flush();
+				}
+				if (startAllocated >= 0) {
+					this.allocated = ValidationMetrics.threadAllocatedBytes() - startAllocated;
+				}
+			} catch (IOException e) {
+				this.writeError = e;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		boolean isFailed() {
+			return this.validationError != null || this.writeError != null;
+		}
+
+		private void write(Chunk chunk) throws IOException {
+			for (int i = 0; i < chunk.count; i++) {
+				String error = chunk.errors[i];
+				int errorCell = chunk.results[i];
+				total++;
+				if (error != null) {
+					malformed++;
+				} else if (errorCell == BitmaskValidator.VALID) {
+					valid++;
+				} else {
+					invalid++;
+				}
+				if (metrics.isEnabled()) {
+					record(chunk, i, error, errorCell);
+				}
+				BatchValidator.appendResult(this.out, chunk.source, chunk.firstSequence + i + 1, error, errorCell);
+			}
+		}
+
+		/**
+		 * Records the result of one table, the failing unit isn't known from the bulk result, so invalid tables are checked again
+		 */
+		private void record(Chunk chunk, int index, String error, int errorCell) {
+			if (error != null) {
+				metrics.recordMalformed();
+			} else if (errorCell == BitmaskValidator.VALID) {
+				metrics.recordValid();
+			} else {
+				this.failureValidator.validate(chunk.cells, index * BitmaskValidator.CELLS);
+				metrics.recordInvalid(BitmaskValidator.unitType(this.failureValidator.getFailingUnit()));
+			}
+		}
+	}
+
+}
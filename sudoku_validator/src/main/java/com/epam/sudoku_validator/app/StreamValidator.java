@@ -0,0 +1,192 @@
+package com.epam.sudoku_validator.app;
+
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.slf4j.Logger;
+
+import com.epam.sudoku_validator.dao.SudokuGridReader;
+import com.epam.sudoku_validator.dao.SudokuTableDao;
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+import com.epam.sudoku_validator.domain.GridGeometry;
+import com.epam.sudoku_validator.domain.ValidationEngine;
+
+/**
+ * Validation of a stream of 9x9 tables, e.g. the standard input of a pipeline stage, with NDJSON output
+ * The tables are CSV blocks of 9 rows or single lines of 81 digits, mixed in any order (see CsvGridReader),
+ * or the whole stream is in compact binary format (.sdkb content).
+ * The output has one JSON line for each table in input order, the same objects as the results of
+ * ValidationServer's POST /validate: {"valid":true}, {"valid":false,"row":4,"column":8} or {"error":"..."}.
+ * The output is buffered, it's flushed when the buffer is full, and whenever the input has no more data
+ * available, so a result never waits for the next table of a slow producer. The summary goes to the log,
+ * which shouldn't be on the same stream as the output.
+ *
+ * @author Istvan_Simo
+ */
+public class StreamValidator {
+
+	private final SudokuTableDao sudokuTableDao;
+	private ValidationEngine engine = new BitmaskValidator();
+	private final byte[] cells = new byte[BitmaskValidator.CELLS];
+	private final StringBuilder line = new StringBuilder(256);
+	private ValidationMetrics metrics = ValidationMetrics.DISABLED;
+
+	private long total = 0;
+	private long valid = 0;
+	private long invalid = 0;
+	private long malformed = 0;
+
+	public StreamValidator(SudokuTableDao sudokuTableDao) {
+		this.sudokuTableDao = sudokuTableDao;
+	}
+
+	/**
+	 * Sets the validation engine of the following runs, the results are the same with any engine
+	 *
+	 * @param engine - engine of 9x9 tables
+	 * @throws IllegalArgumentException if the engine is for another table size
+	 */
+	public void setEngine(ValidationEngine engine) {
+		if (engine.getGeometry() != GridGeometry.STANDARD) {
+			throw new IllegalArgumentException("The validation engine is for " + engine.getGeometry() + " tables, not for 9x9");
+		}
+		this.engine = engine;
+	}
+
+	/**
+	 * Sets the metrics, which record every table of the following runs
+	 */
+	public void setMetrics(ValidationMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Validates every table of the input until its end
+	 *
+	 * @param LOG - the Logger object from the caller (Application.run method)
+	 * @param in - the tables, it's closed at the end
+	 * @param out - target of the NDJSON result lines (UTF-8), it's flushed but not closed
+	 * @return 0 if all the tables are valid, -1 otherwise
+	 * @throws IOException
+	 */
+	public int run(Logger LOG, InputStream in, OutputStream out) throws IOException {
+		long startTime = System.nanoTime();
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+		FlushingInputStream input = new FlushingInputStream(in, writer);
+		try (SudokuGridReader reader = this.sudokuTableDao.openStreamGridReader(input)) {
+			validateAll(reader, writer);
+		}
+		writer.flush();
+		if (this.metrics.isEnabled()) {
+			this.metrics.recordBytesRead(input.count);
+		}
+		long elapsedMillis = Math.max(1, (System.nanoTime() - startTime) / 1_000_000);
+		LOG.info("Stream result: {} tables, {} valid, {} invalid, {} malformed in {} ms ({} tables/s)",
+				this.total, this.valid, this.invalid, this.malformed, elapsedMillis, this.total * 1000 / elapsedMillis);
+		return (this.total > 0 && this.valid == this.total) ? 0 : -1;
+	}
+
+	private void validateAll(SudokuGridReader reader, Writer out) throws IOException {
+		boolean timed = this.metrics.isEnabled();
+		while (true) {
+			String error = null;
+			try {
+				if (!reader.next(this.cells, 0)) {
+					break;
+				}
+			} catch (IllegalArgumentException e) {
+				error = e.getMessage();
+			}
+			this.total++;
+			int errorCell = BitmaskValidator.VALID;
+			if (error != null) {
+				this.malformed++;
+				if (timed) {
+					this.metrics.recordMalformed();
+				}
+			} else {
+				long validateStart = timed ? System.nanoTime() : 0;
+				errorCell = this.engine.validate(this.cells, 0);
+				if (timed) {
+					this.metrics.recordValidate(System.nanoTime() - validateStart);
+				}
+				if (errorCell == BitmaskValidator.VALID) {
+					this.valid++;
+					if (timed) {
+						this.metrics.recordValid();
+					}
+				} else {
+					this.invalid++;
+					if (timed) {
+						this.metrics.recordInvalid(BitmaskValidator.unitType(this.engine.getFailingUnit()));
+					}
+				}
+			}
+			this.line.setLength(0);
+			ValidationServer.appendResult(this.line, error, errorCell);
+			out.append(this.line).append('\n');
+		}
+	}
+
+	public long getTotal() {
+		return this.total;
+	}
+
+	public long getValid() {
+		return this.valid;
+	}
+
+	public long getInvalid() {
+		return this.invalid;
+	}
+
+	public long getMalformed() {
+		return this.malformed;
+	}
+
+	/**
+	 * Input, which flushes the output before it would wait for the producer, and counts the bytes read
+	 */
+	private static class FlushingInputStream extends FilterInputStream {
+		private final Writer out;
+		private long count = 0;
+
+		FlushingInputStream(InputStream in, Writer out) {
+			super(in);
+			this.out = out;
+		}
+
+		@Override
+		public int read() throws IOException {
+			flushIfDry();
+			int b = super.read();
+			if (b >= 0) {
+				this.count++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			flushIfDry();
+			int n = super.read(b, off, len);
+			if (n > 0) {
+				this.count += n;
+			}
+			return n;
+		}
+
+		private void flushIfDry() throws IOException {
+			if (this.in.available() == 0) {
+				this.out.flush();
+			}
+		}
+	}
+
+}
@@ -1,5 +1,13 @@
 package com.epam.sudoku_validator.app;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.slf4j.LoggerFactory;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
@@ -8,19 +16,52 @@ import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.ConsoleAppender;
 
+import org.springframework.beans.BeansException;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.ApplicationContext;
-import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
 import com.epam.sudoku_validator.dao.SimpleSudokuTableDao;
+import com.epam.sudoku_validator.domain.GridGeometry;
+import com.epam.sudoku_validator.domain.RenderFormat;
+import com.epam.sudoku_validator.domain.ValidationEngine;
+import com.epam.sudoku_validator.domain.ValidationEngineType;
 
 /**
  * Spring Boot Console application to validate standard 9x9 sudoku tables, which stored in a standard CVS file
  * Usage:
  * java -jar -Dfile.encoding=UTF8 sudoku_validator.jar [fileName] [debugLevel]
- * [fileName]   - the full path of the file to be validated
+ * java -jar -Dfile.encoding=UTF8 sudoku_validator.jar --batch [path] [debugLevel]
+ * java -jar -Dfile.encoding=UTF8 sudoku_validator.jar --parallel [path] [debugLevel]
+ * java -jar -Dfile.encoding=UTF8 sudoku_validator.jar --convert [inputFile] [outputFile] [debugLevel]
+ * java -jar -Dfile.encoding=UTF8 sudoku_validator.jar --server [port] [debugLevel]
+ * java -jar -Dfile.encoding=UTF8 sudoku_validator.jar --stdin [debugLevel]
+ * java -jar -Dfile.encoding=UTF8 sudoku_validator.jar --generate [outputFile] [count] [debugLevel]
+ * java -jar -Dfile.encoding=UTF8 sudoku_validator.jar --watch [directory] [debugLevel]
+ * [fileName]   - the full path of the file to be validated, a file of n² rows of n² values (e.g. 16x16)
+ *                is validated as an n²×n² table with n×n subtables
+ * --batch      - batch mode, validates all the tables of the file, or of all CSV and .sdkb files in the directory,
+ *                the size of the tables is set in application.properties (sudoku.validator.boxSize)
+ * --parallel   - parallel batch mode, the number of threads is set in application.properties
+ * [path]       - the full path of the file or directory to be validated in batch mode
+ * --convert    - converts the tables of [inputFile] into [outputFile], files with .sdkb extension are in
+ *                compact binary format (41 bytes per table), the others are CSV files
+ * --server     - resident server mode, tables can be validated with POST http://127.0.0.1:[port]/validate,
+ *                the other server settings are in application.properties, it runs until it's killed
+ * --stdin      - pipeline mode, validates the 9x9 tables of the standard input (CSV blocks, lines of 81 digits,
+ *                or .sdkb content) and writes one NDJSON result line for each table to the standard output,
+ *                the log goes to the standard error
+ * --generate   - load test mode, generates [count] random tables into [outputFile], valid ones and invalid or
+ *                malformed mutations of them, a file with .sdkb extension is binary, the others are CSV files,
+ *                the other settings (e.g. the seed) are in application.properties
+ * --watch      - directory watch mode, validates the CSV and .sdkb files of [directory] as they arrive or change,
+ *                the results are appended to a report file, unchanged files are skipped even after a restart,
+ *                the table size and report format are the ones of the batch mode (sudoku.validator.boxSize and
+ *                sudoku.validator.report), the other settings are in application.properties, it runs until it's killed
+ * --engine=... - validation engine of the batch, pipeline and watch modes, it can be anywhere in the arguments and
+ *                overrides sudoku.validator.engine: SET, REGEX, BITMASK, PACKED, or AUTO for the fastest
+ *                one measured at startup (see EngineCalibrator)
  * [debugLevel] - debug level, possible values are:
  * 				  TRACE   - trace messages
  * 				  DEBUG   - debug messages
@@ -28,6 +69,14 @@ import com.epam.sudoku_validator.dao.SimpleSudokuTableDao;
  * 				  WARNING - warning messages
  * 				  ERROR   - error messages
  * The program will return 0 if the table is valid, -1 if invalid 
+ * In batch mode it will return 0 if all the tables are valid, -1 otherwise
+ * In server mode it will return 0 after a normal shutdown, -1 if the server can't start
+ * In pipeline mode it will return 0 if all the tables are valid, -1 otherwise
+ * In load test mode it will return 0 if the file is written, -1 otherwise
+ * In watch mode it will return 0 after a normal shutdown, -1 if the directory can't be watched or becomes inaccessible
+ * The metrics of the batch, parallel and server modes can be enabled in application.properties,
+ * they are available through JMX and dumped to the log.
+ * The plain jar starts with SudokuValidatorLauncher, which validates one file without starting Spring.
  * 
  * @author Istvan_Simo
  */
@@ -35,14 +84,42 @@ import com.epam.sudoku_validator.dao.SimpleSudokuTableDao;
 public class SudokuValidatorApplication implements CommandLineRunner {
 	
 	/**
-	 * Create application context, this will load Spring application configuration 
+	 * Application context of SpringApplication.run, AppConfig is found by its component scan,
+	 * so there's one context and one instance of every singleton bean
 	 */
-	private static ApplicationContext context = new AnnotationConfigApplicationContext (AppConfig.class);
+	private final ApplicationContext context;
 	
 	/**
 	 * Create logger object for logging 
 	 */
 	private static Logger LOG = (Logger) LoggerFactory.getLogger(SudokuValidatorApplication.class);
+	
+	/**
+	 * The original standard output, in pipeline mode it's reserved for the results
+	 */
+	private static final PrintStream STDOUT = System.out;
+	
+	/**
+	 * Validation engine given on the command line, or null for the configured one
+	 */
+	private String engineName = null;
+	
+	static final String USAGE = "Usage: java -jar -Dfile.encoding=UTF8 sudoku_validator.jar [fileName] [debugLevel]\n"
+			+ "       java -jar -Dfile.encoding=UTF8 sudoku_validator.jar --batch [path] [debugLevel]\n"
+			+ "       java -jar -Dfile.encoding=UTF8 sudoku_validator.jar --parallel [path] [debugLevel]\n"
+			+ "       java -jar -Dfile.encoding=UTF8 sudoku_validator.jar --convert [inputFile] [outputFile] [debugLevel]\n"
+			+ "       java -jar -Dfile.encoding=UTF8 sudoku_validator.jar --server [port] [debugLevel]\n"
+			+ "       java -jar -Dfile.encoding=UTF8 sudoku_validator.jar --stdin [debugLevel]\n"
+			+ "       java -jar -Dfile.encoding=UTF8 sudoku_validator.jar --generate [outputFile] [count] [debugLevel]\n"
+			+ "       java -jar -Dfile.encoding=UTF8 sudoku_validator.jar --watch [directory] [debugLevel]\n"
+			+ "       --engine=SET|REGEX|BITMASK|PACKED|AUTO can be added to the --batch, --stdin and --watch arguments";
+
+	/**
+	 * @param context - the application context, it's created in main, after the standard output is redirected in pipeline mode
+	 */
+	public SudokuValidatorApplication(ApplicationContext context) {
+		this.context = context;
+	}
 
 	/**
 	 * Main procedure for application
@@ -52,6 +129,10 @@ public class SudokuValidatorApplication implements CommandLineRunner {
 	 */
 	public static void main(String[] args) {
 		//System.out.println("Application name: " + context.getApplicationName());
+		if (args.length > 0 && "--stdin".equals(args[0])) {
+			// the banner and the log lines of Spring and logback go to the standard error
+			System.setOut(System.err);
+		}
         SpringApplication.run(SudokuValidatorApplication.class, args);
     }
   
@@ -85,47 +166,316 @@ public class SudokuValidatorApplication implements CommandLineRunner {
         // ----------------------------------------------------
         LOG.debug("Executing command line runner");
         LOG.debug("Command line arguments:");
+        String mode = null;
         String fileName = null;
+        String outputName = null;
         String logLevel = null;
-        for (int i = 0; i < args.length; ++i) {
+        int firstArg = 0;
+        List<String> arguments = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--engine=")) {
+                engineName = arg.substring("--engine=".length());
+            } else {
+                arguments.add(arg);
+            }
+        }
+        args = arguments.toArray(new String[arguments.size()]);
+        if (args.length > 0 && args[0].startsWith("--")) {
+            mode = args[0];
+            firstArg = 1;
+        }
+        int fileArgs = "--convert".equals(mode) || "--generate".equals(mode) ? 2 : "--stdin".equals(mode) ? 0 : 1;
+        for (int i = firstArg; i < args.length; ++i) {
             LOG.debug("[{}]: {}", i, args[i]);
-            switch (i) {
-            	case 0:
-            		fileName = args[i];
-            		break;
-            	case 1:
-            		logLevel = args[i];
-            		break;
+            int position = i - firstArg;
+            if (position == fileArgs) {
+            	logLevel = args[i];
+            } else if (position == 0) {
+            	fileName = args[i];
+            } else if (position < fileArgs) {
+            	outputName = args[i];
             }
         }
         if (logLevel != null) {
             LOG.setLevel(Level.valueOf(logLevel));
         }
-        if (fileName != null) {
+        ValidationMetrics metrics = context.getBean(ValidationMetrics.class);
+        if (mode != null) {
+            metrics.start(LOG);
+        }
+        if (fileName != null && "--batch".equals(mode)) {
+            // ------------------------------------------------
+        	// Batch action - validate all the tables of a file or directory
+            // ------------------------------------------------
+            exitCode = runBatch(fileName);
+        } else if (fileName != null && "--parallel".equals(mode)) {
+            // ------------------------------------------------
+        	// Parallel batch action - validate all the tables of a file or directory on all cores
+            // ------------------------------------------------
+            exitCode = runParallel(fileName);
+        } else if (outputName != null && "--convert".equals(mode)) {
+            // ------------------------------------------------
+        	// Conversion action - convert tables between CSV and binary format
+            // ------------------------------------------------
+            exitCode = runConvert(fileName, outputName);
+        } else if (outputName != null && "--generate".equals(mode)) {
+            // ------------------------------------------------
+        	// Load test action - generate a file of random tables
+            // ------------------------------------------------
+            exitCode = runGenerate(fileName, outputName);
+        } else if ("--server".equals(mode)) {
+            // ------------------------------------------------
+        	// Server action - validate the tables of HTTP requests until shutdown
+            // ------------------------------------------------
+            exitCode = runServer(fileName);
+        } else if (fileName != null && "--watch".equals(mode)) {
+            // ------------------------------------------------
+        	// Watch action - validate the new and changed files of a directory until shutdown
+            // ------------------------------------------------
+            exitCode = runWatch(fileName);
+        } else if ("--stdin".equals(mode)) {
+            // ------------------------------------------------
+        	// Pipeline action - validate the tables of the standard input with NDJSON output
+            // ------------------------------------------------
+            exitCode = runStdin();
+        } else if (mode != null) {
+        	LOG.error("Unknown mode or missing file name argument: " + mode + "\n" + USAGE);
+            exitCode = -1;
+        } else if (fileName != null) {
             // ------------------------------------------------
         	// Main action - load CSV, populate sudoku table and validate it
             // ------------------------------------------------
-            SimpleSudokuTableDao sudokuTableDao = context.getBean(SimpleSudokuTableDao.class);
-    		
-    		if (sudokuTableDao.loadFromFile(LOG, args[0])) {
-                if (sudokuTableDao.validate(LOG)) {
-                    LOG.info(sudokuTableDao.toString());
-                    LOG.info("Validation result: OK");
-                } else {
-                    LOG.error(sudokuTableDao.toString());
-                    LOG.error("Validation result: Invalid");
-                    exitCode = -1;
-                }
-    		} else {
-                LOG.error("Can't validate sudoku table!");
-                exitCode = -1;
-    		}
+            exitCode = SudokuValidatorLauncher.validateFile(LOG, context.getBean(SimpleSudokuTableDao.class), fileName);
         } else {
-        	LOG.error("Can't run this tool without at least one file name argument!\nUsage: java -jar -Dfile.encoding=UTF8 sudoku_validator.jar [fileName] [debugLevel]");
+        	LOG.error("Can't run this tool without at least one file name argument!\n" + USAGE);
             exitCode = -1;
         }
+        metrics.stop(LOG);
         LOG.debug("Application finished");
         System.exit(exitCode);
     }
 
+    /**
+     * Batch mode, the per table results go to the standard output, the summary goes to the log
+     * 
+     * @param pathName - file or directory to be validated
+     * @return exit code
+     */
+    private int runBatch(String pathName) {
+        GridGeometry geometry;
+        RenderFormat reportFormat;
+        ValidationEngine engine;
+        try {
+            geometry = GridGeometry.of(context.getEnvironment().getProperty("sudoku.validator.boxSize", Integer.class, 3));
+            String report = context.getEnvironment().getProperty("sudoku.validator.report", "NONE");
+            reportFormat = "NONE".equalsIgnoreCase(report) ? null : RenderFormat.valueOf(report.toUpperCase());
+            engine = createEngine(geometry);
+        } catch (IllegalArgumentException e) {
+            LOG.error(e.getMessage());
+            return -1;
+        }
+        BatchValidator batchValidator = new BatchValidator(context.getBean(SimpleSudokuTableDao.class), geometry);
+        batchValidator.setMetrics(context.getBean(ValidationMetrics.class));
+        batchValidator.setReportFormat(reportFormat);
+        batchValidator.setEngine(engine);
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out), 64 * 1024);
+        try {
+            return batchValidator.run(LOG, pathName, out);
+        } catch (IOException e) {
+            LOG.error("Batch validation failed: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Conversion mode, the formats are selected by the file extensions
+     * 
+     * @param inputName - file to be converted
+     * @param outputName - target file
+     * @return exit code
+     */
+    private int runConvert(String inputName, String outputName) {
+        GridConverter gridConverter = new GridConverter(context.getBean(SimpleSudokuTableDao.class));
+        try {
+            return gridConverter.run(LOG, inputName, outputName);
+        } catch (IOException e) {
+            LOG.error("Conversion failed: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Load test mode, the settings of the tables are in application.properties
+     * 
+     * @param outputName - file to be written
+     * @param countText - number of tables
+     * @return exit code
+     */
+    private int runGenerate(String outputName, String countText) {
+        long count;
+        LoadGenerator loadGenerator;
+        try {
+            count = Long.parseLong(countText);
+            loadGenerator = context.getBean(LoadGenerator.class);
+        } catch (NumberFormatException e) {
+            LOG.error("Invalid number of tables: " + countText + "\n" + USAGE);
+            return -1;
+        } catch (BeansException e) {
+            LOG.error("Invalid generator settings: " + e.getMostSpecificCause().getMessage());
+            return -1;
+        }
+        try {
+            return loadGenerator.run(LOG, outputName, count);
+        } catch (IOException e) {
+            LOG.error("Generation failed: " + e.getMessage());
+            return -1;
+        } catch (InterruptedException e) {
+            LOG.error("Generation interrupted");
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    /**
+     * Server mode, it blocks until the JVM is shut down
+     * 
+     * @param portName - port to listen on, or null for the configured one
+     * @return exit code
+     */
+    private int runServer(String portName) {
+        ValidationServer server;
+        try {
+            server = context.getBean(ValidationServer.class);
+        } catch (BeansException e) {
+            LOG.error("Invalid server settings: " + e.getMostSpecificCause().getMessage());
+            return -1;
+        }
+        if (portName != null) {
+            try {
+                server.setPort(Integer.parseInt(portName));
+            } catch (IllegalArgumentException e) {
+                LOG.error("Invalid server port: " + portName + "\n" + USAGE);
+                return -1;
+            }
+        }
+        try {
+            server.start(LOG);
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.error("Can't start the validation server: " + e.getMessage());
+            return -1;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(LOG), "sudoku-server-shutdown"));
+        try {
+            server.awaitStop();
+        } catch (InterruptedException e) {
+            server.stop(LOG);
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+
+    /**
+     * Directory watch mode, it blocks until the JVM is shut down or the directory becomes inaccessible
+     * 
+     * @param directoryName - directory to be watched
+     * @return exit code
+     */
+    private int runWatch(String directoryName) {
+        DirectoryWatcher watcher;
+        try {
+            watcher = context.getBean(DirectoryWatcher.class);
+            GridGeometry geometry = GridGeometry.of(context.getEnvironment().getProperty("sudoku.validator.boxSize", Integer.class, 3));
+            String report = context.getEnvironment().getProperty("sudoku.validator.report", "NONE");
+            watcher.setGeometry(geometry);
+            watcher.setReportFormat("NONE".equalsIgnoreCase(report) ? null : RenderFormat.valueOf(report.toUpperCase()));
+            watcher.setEngineType(createEngineType(geometry));
+            watcher.start(LOG, directoryName);
+        } catch (BeansException e) {
+            LOG.error("Invalid watch settings: " + e.getMostSpecificCause().getMessage());
+            return -1;
+        } catch (IllegalArgumentException e) {
+            LOG.error(e.getMessage());
+            return -1;
+        } catch (IOException e) {
+            LOG.error("Can't watch the directory: " + e.getMessage());
+            return -1;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> watcher.stop(LOG), "sudoku-watcher-shutdown"));
+        try {
+            watcher.awaitStop();
+        } catch (InterruptedException e) {
+            watcher.stop(LOG);
+            Thread.currentThread().interrupt();
+        }
+        return watcher.isFailed() ? -1 : 0;
+    }
+
+    /**
+     * Pipeline mode, the results go to the original standard output, the log and the summary to the standard error
+     * 
+     * @return exit code
+     */
+    private int runStdin() {
+        StreamValidator streamValidator = new StreamValidator(context.getBean(SimpleSudokuTableDao.class));
+        streamValidator.setMetrics(context.getBean(ValidationMetrics.class));
+        try {
+            streamValidator.setEngine(createEngine(GridGeometry.STANDARD));
+        } catch (IllegalArgumentException e) {
+            LOG.error(e.getMessage());
+            return -1;
+        }
+        try {
+            return streamValidator.run(LOG, System.in, STDOUT);
+        } catch (IOException e) {
+            LOG.error("Stream validation failed: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Creates the validation engine of the batch and pipeline modes, set on the command line or in application.properties
+     * AUTO means the fastest engine on this JVM and hardware, measured by EngineCalibrator, which logs the throughput.
+     * 
+     * @param geometry - size of the tables
+     * @return the engine
+     * @throws IllegalArgumentException if the engine is unknown, or it doesn't support the size
+     */
+    private ValidationEngine createEngine(GridGeometry geometry) {
+        return createEngineType(geometry).create(geometry);
+    }
+
+    /**
+     * Returns with the type of the validation engine, see createEngine, e.g. for the watch mode with one engine per file
+     * 
+     * @param geometry - size of the tables, AUTO measures the engines supporting it
+     * @return the engine type
+     * @throws IllegalArgumentException if the engine is unknown
+     */
+    private ValidationEngineType createEngineType(GridGeometry geometry) {
+        String name = engineName != null ? engineName : context.getEnvironment().getProperty("sudoku.validator.engine", "BITMASK");
+        long millis = context.getEnvironment().getProperty("sudoku.validator.engine.calibrationMillis", Long.class, 200L);
+        return ValidationEngineType.of(name, geometry, millis, LOG);
+    }
+
+    /**
+     * Parallel batch mode, the output is the same as in batch mode
+     * 
+     * @param pathName - file or directory to be validated
+     * @return exit code
+     */
+    private int runParallel(String pathName) {
+        ParallelBatchValidator batchValidator = context.getBean(ParallelBatchValidator.class);
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out), 64 * 1024);
+        try {
+            return batchValidator.run(LOG, pathName, out);
+        } catch (IOException e) {
+            LOG.error("Batch validation failed: " + e.getMessage());
+            return -1;
+        } catch (InterruptedException e) {
+            LOG.error("Batch validation interrupted");
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
 }
@@ -0,0 +1,155 @@
+package com.epam.sudoku_validator.app;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+
+import com.epam.sudoku_validator.dao.SimpleSudokuTableDao;
+import com.epam.sudoku_validator.domain.GridGeometry;
+import com.epam.sudoku_validator.domain.ValidationEngine;
+import com.epam.sudoku_validator.domain.ValidationEngineType;
+
+/**
+ * Fast starting entry point of the plain jar, it validates one file without Spring
+ * Usage:
+ * java -jar -Dfile.encoding=UTF8 sudoku_validator.jar [fileName] [debugLevel]
+ * java -jar -Dfile.encoding=UTF8 sudoku_validator.jar --stdin [debugLevel] [--engine=...]
+ * The output and the exit code are the same as the ones of SudokuValidatorApplication, the other modes
+ * (--batch, --parallel, --convert, --server) are passed to SudokuValidatorApplication.
+ * The pipeline mode (--stdin) runs without Spring as well, and the log lines go to the standard error,
+ * so a pipeline stage starts fast and its standard output has only the results. Its validation engine is
+ * the --engine=... argument or sudoku.validator.engine of application.properties, which is read from the same
+ * places as by AppConfig.
+ * Neither Spring nor logback is loaded for one file, the log lines are written by ConsoleLogger in the same format,
+ * so a single-file check takes about 0.15-0.2 s wall time instead of about 4 s with Spring Boot (the JVM alone takes about 0.08 s).
+ * It can be made even faster with a class data sharing archive, e.g. on JDK 19+:
+ * java -XX:+AutoCreateSharedArchive -XX:SharedArchiveFile=target/sudoku_validator.jsa -jar sudoku_validator.jar [fileName]
+ *
+ * @author Istvan_Simo
+ */
+public class SudokuValidatorLauncher {
+
+	/**
+	 * Main procedure for the plain jar
+	 *
+	 * @param args - command line arguments
+	 */
+	public static void main(String[] args) {
+		if (args.length > 0 && "--stdin".equals(args[0])) {
+			ConsoleLogger LOG = new ConsoleLogger(SudokuValidatorLauncher.class.getName(), System.err);
+			String engineName = null;
+			boolean levelSet = false;
+			for (int i = 1; i < args.length; i++) {
+				if (args[i].startsWith("--engine=")) {
+					engineName = args[i].substring("--engine=".length());
+				} else if (!levelSet) {
+					LOG.setLevel(args[i]);
+					levelSet = true;
+				}
+			}
+			System.exit(validateStdin(LOG, engineName));
+			return;
+		}
+		if (args.length > 0 && args[0].startsWith("--")) {
+			SudokuValidatorApplication.main(args);
+			return;
+		}
+		ConsoleLogger LOG = new ConsoleLogger(SudokuValidatorLauncher.class.getName(), System.out);
+		int exitCode;
+		if (args.length > 0) {
+			if (args.length > 1) {
+				LOG.setLevel(args[1]);
+			}
+			SimpleSudokuTableDao sudokuTableDao = new SimpleSudokuTableDao();
+			sudokuTableDao.init();
+			exitCode = validateFile(LOG, sudokuTableDao, args[0]);
+		} else {
+			LOG.error("Can't run this tool without at least one file name argument!\n" + SudokuValidatorApplication.USAGE);
+			exitCode = -1;
+		}
+		System.exit(exitCode);
+	}
+
+	/**
+	 * Main action - load CSV, populate sudoku table and validate it
+	 *
+	 * @param LOG - the logger of the application
+	 * @param sudokuTableDao - the DAO of the table
+	 * @param fileName - the file to be validated
+	 * @return exit code, 0 if the table is valid, -1 otherwise
+	 */
+	static int validateFile(Logger LOG, SimpleSudokuTableDao sudokuTableDao, String fileName) {
+		if (sudokuTableDao.loadFromFile(LOG, fileName)) {
+			if (sudokuTableDao.validate(LOG)) {
+				LOG.info(sudokuTableDao.toString());
+				LOG.info("Validation result: OK");
+				return 0;
+			}
+			LOG.error(sudokuTableDao.toString());
+			LOG.error("Validation result: Invalid");
+			return -1;
+		}
+		LOG.error("Can't validate sudoku table!");
+		return -1;
+	}
+
+	/**
+	 * Pipeline action - validate the tables of the standard input, NDJSON results to the standard output
+	 *
+	 * @param LOG - the logger of the application, it shouldn't write to the standard output
+	 * @param engineName - the validation engine of the command line, or null for the configured one
+	 * @return exit code, 0 if all the tables are valid, -1 otherwise
+	 */
+	static int validateStdin(Logger LOG, String engineName) {
+		Properties properties = loadProperties();
+		String name = engineName != null ? engineName : properties.getProperty("sudoku.validator.engine", "BITMASK").trim();
+		ValidationEngine engine;
+		try {
+			long millis = Long.parseLong(properties.getProperty("sudoku.validator.engine.calibrationMillis", "200").trim());
+			engine = ValidationEngineType.of(name, GridGeometry.STANDARD, millis, LOG).create(GridGeometry.STANDARD);
+		} catch (IllegalArgumentException e) {
+			LOG.error(e.getMessage());
+			return -1;
+		}
+		SimpleSudokuTableDao sudokuTableDao = new SimpleSudokuTableDao();
+		sudokuTableDao.init();
+		StreamValidator streamValidator = new StreamValidator(sudokuTableDao);
+		streamValidator.setEngine(engine);
+		try {
+			return streamValidator.run(LOG, System.in, System.out);
+		} catch (IOException e) {
+			LOG.error("Stream validation failed: " + e.getMessage());
+			return -1;
+		}
+	}
+
+	/**
+	 * Reads application.properties from the same places as AppConfig, the later ones override the earlier ones
+	 */
+	static Properties loadProperties() {
+		Properties properties = new Properties();
+		try (InputStream in = SudokuValidatorLauncher.class.getResourceAsStream("/application.properties")) {
+			if (in != null) {
+				properties.load(in);
+			}
+		} catch (IOException e) {
+			// the defaults are used
+		}
+		for (String fileName : new String[] { "application.properties", "config/application.properties" }) {
+			File file = new File(fileName);
+			if (file.isFile()) {
+				try (InputStream in = new FileInputStream(file)) {
+					properties.load(in);
+				} catch (IOException e) {
+					// the defaults are used
+				}
+			}
+		}
+		return properties;
+	}
+
+}
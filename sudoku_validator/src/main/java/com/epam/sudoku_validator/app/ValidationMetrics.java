@@ -0,0 +1,349 @@
+package com.epam.sudoku_validator.app;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+
+import com.epam.sudoku_validator.domain.ValidateType;
+
+/**
+ * Counters and latency histograms of the validation hot paths (batch, parallel batch and server mode)
+ * They can be read through JMX (see ValidationMetricsMXBean) and dumped periodically to the log.
+ * Recording is a few LongAdder increments, and the callers check isEnabled before taking any timestamp,
+ * so the disabled metrics cost one predictable branch per table.
+ *
+ * @author Istvan_Simo
+ */
+public class ValidationMetrics implements ValidationMetricsMXBean {
+
+	/**
+	 * Metrics which record nothing, the default of the validators
+	 */
+	public static final ValidationMetrics DISABLED = new ValidationMetrics(false, false, 0);
+
+	static final String OBJECT_NAME = "com.epam.sudoku_validator:type=ValidationMetrics";
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+	private final boolean enabled;
+	private final boolean jmx;
+	private final int dumpSeconds;
+
+	private final LongAdder tables = new LongAdder();
+	private final LongAdder valid = new LongAdder();
+	private final LongAdder invalid = new LongAdder();
+	private final LongAdder malformed = new LongAdder();
+	private final LongAdder[] failures = new LongAdder[ValidateType.values().length];
+	private final LongAdder bytesRead = new LongAdder();
+	private final LongAdder allocatedBytes = new LongAdder();
+	private final LongAdder allocationTables = new LongAdder();
+	private final LatencyHistogram parseLatency = new LatencyHistogram();
+	private final LatencyHistogram validateLatency = new LatencyHistogram();
+	private volatile long startNanos = System.nanoTime();
+
+	private boolean started = false;
+	private ScheduledExecutorService dumper = null;
+	private ObjectName objectName = null;
+	private long lastDumpTables = 0;
+	private long lastDumpNanos = 0;
+
+	/**
+	 * @param enabled - false means the metrics record nothing
+	 * @param jmx - register the metrics as an MBean on start
+	 * @param dumpSeconds - period of the log dump, 0 means only one dump on stop
+	 */
+	public ValidationMetrics(boolean enabled, boolean jmx, int dumpSeconds) {
+		if (dumpSeconds < 0) {
+			throw new IllegalArgumentException("Invalid metrics dump period: " + dumpSeconds);
+		}
+		this.enabled = enabled;
+		this.jmx = jmx;
+		this.dumpSeconds = dumpSeconds;
+		for (int i = 0; i < this.failures.length; i++) {
+			this.failures[i] = new LongAdder();
+		}
+	}
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	/**
+	 * Registers the MBean and starts the periodic dump, as configured
+	 *
+	 * @param LOG - the Logger object from the caller (Application.run method), target of the dumps
+	 */
+	public synchronized void start(Logger LOG) {
+		if (!this.enabled || this.started) {
+			return;
+		}
+		this.started = true;
+		if (this.jmx) {
+			try {
+				MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+				ObjectName name = new ObjectName(OBJECT_NAME);
+				if (!server.isRegistered(name)) {
+					server.registerMBean(this, name);
+					this.objectName = name;
+				}
+			} catch (JMException e) {
+				LOG.warn("Can't register the validation metrics MBean: {}", e.getMessage());
+			}
+		}
+		// the throughput is measured from here, not from the construction of the bean (Spring startup)
+		this.startNanos = System.nanoTime();
+		this.lastDumpNanos = this.startNanos;
+		if (this.dumpSeconds > 0) {
+			this.dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "sudoku-metrics");
+				thread.setDaemon(true);
+				return thread;
+			});
+			this.dumper.scheduleAtFixedRate(() -> dump(LOG), this.dumpSeconds, this.dumpSeconds, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * Stops the periodic dump, writes the final one and unregisters the MBean
+	 *
+	 * @param LOG - the Logger object from the caller (Application.run method)
+	 */
+	public synchronized void stop(Logger LOG) {
+		if (!this.started) {
+			return;
+		}
+		this.started = false;
+		if (this.dumper != null) {
+			this.dumper.shutdownNow();
+			this.dumper = null;
+		}
+		dump(LOG);
+		if (this.objectName != null) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.objectName);
+			} catch (JMException e) {
+				LOG.warn("Can't unregister the validation metrics MBean: {}", e.getMessage());
+			}
+			this.objectName = null;
+		}
+	}
+
+	/**
+	 * Writes the metrics to the log, the throughput is the one since the previous dump
+	 */
+	synchronized void dump(Logger LOG) {
+		long now = System.nanoTime();
+		long tables = this.tables.sum();
+		long rate = (tables - this.lastDumpTables) * 1_000_000_000L / Math.max(1, now - this.lastDumpNanos);
+		this.lastDumpTables = tables;
+		this.lastDumpNanos = now;
+		LOG.info("Metrics: {}", format(rate));
+	}
+
+	/**
+	 * Returns with the one line text form of the metrics, with the average throughput
+	 */
+	public String format() {
+		return format(getTablesPerSecond());
+	}
+
+	private String format(long tablesPerSecond) {
+		return new StringBuilder(320)
+				.append(this.tables.sum()).append(" tables (").append(tablesPerSecond).append("/s), ")
+				.append(this.valid.sum()).append(" valid, ")
+				.append(this.invalid.sum()).append(" invalid (row: ").append(getRowFailures())
+				.append(", column: ").append(getColumnFailures())
+				.append(", subtable: ").append(getSubtableFailures()).append("), ")
+				.append(this.malformed.sum()).append(" malformed, ")
+				.append(this.bytesRead.sum()).append(" bytes read, ")
+				.append(getAllocatedBytesPerTable()).append(" bytes allocated/table, parse mean/p50/p99/max: ")
+				.append(getParseMeanNanos()).append('/').append(getParseP50Nanos()).append('/')
+				.append(getParseP99Nanos()).append('/').append(getParseMaxNanos())
+				.append(" ns, validate mean/p50/p99/max: ")
+				.append(getValidateMeanNanos()).append('/').append(getValidateP50Nanos()).append('/')
+				.append(getValidateP99Nanos()).append('/').append(getValidateMaxNanos()).append(" ns")
+				.toString();
+	}
+
+	/**
+	 * Records the parse latency of one table
+	 */
+	public void recordParse(long nanos) {
+		this.parseLatency.record(nanos, 1);
+	}
+
+	/**
+	 * Records the parse latency of a chunk of tables as the same per table latency
+	 */
+	public void recordParse(long nanos, int tables) {
+		if (tables > 0) {
+			this.parseLatency.record(nanos / tables, tables);
+		}
+	}
+
+	/**
+	 * Records the validation latency of one table
+	 */
+	public void recordValidate(long nanos) {
+		this.validateLatency.record(nanos, 1);
+	}
+
+	/**
+	 * Records the validation latency of a chunk of tables as the same per table latency
+	 */
+	public void recordValidate(long nanos, int tables) {
+		if (tables > 0) {
+			this.validateLatency.record(nanos / tables, tables);
+		}
+	}
+
+	public void recordValid() {
+		this.tables.increment();
+		this.valid.increment();
+	}
+
+	/**
+	 * @param failingType - type of the first failing unit, see BitmaskValidator.getFailingUnit
+	 */
+	public void recordInvalid(ValidateType failingType) {
+		this.tables.increment();
+		this.invalid.increment();
+		this.failures[failingType.ordinal()].increment();
+	}
+
+	public void recordMalformed() {
+		this.tables.increment();
+		this.malformed.increment();
+	}
+
+	public void recordBytesRead(long bytes) {
+		this.bytesRead.add(bytes);
+	}
+
+	/**
+	 * Records the heap allocation of a thread while it processed some tables
+	 *
+	 * @param bytes - difference of two threadAllocatedBytes calls, it's ignored if the JVM can't measure it
+	 * @param tables - number of tables processed in between
+	 */
+	public void recordAllocation(long bytes, long tables) {
+		if (bytes >= 0 && tables > 0) {
+			this.allocatedBytes.add(bytes);
+			this.allocationTables.add(tables);
+		}
+	}
+
+	/**
+	 * Returns with the number of bytes allocated by the current thread so far, or -1 if the JVM can't measure it
+	 */
+	public static long threadAllocatedBytes() {
+		if (THREADS instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+			if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+				return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+		return -1;
+	}
+
+	public long getTables() {
+		return this.tables.sum();
+	}
+
+	public long getValid() {
+		return this.valid.sum();
+	}
+
+	public long getInvalid() {
+		return this.invalid.sum();
+	}
+
+	public long getMalformed() {
+		return this.malformed.sum();
+	}
+
+	public long getRowFailures() {
+		return this.failures[ValidateType.ROW.ordinal()].sum();
+	}
+
+	public long getColumnFailures() {
+		return this.failures[ValidateType.COLUMN.ordinal()].sum();
+	}
+
+	public long getSubtableFailures() {
+		return this.failures[ValidateType.SUBTABLE.ordinal()].sum();
+	}
+
+	public long getBytesRead() {
+		return this.bytesRead.sum();
+	}
+
+	public long getTablesPerSecond() {
+		return this.tables.sum() * 1_000_000_000L / Math.max(1, System.nanoTime() - this.startNanos);
+	}
+
+	public long getAllocatedBytesPerTable() {
+		long tables = this.allocationTables.sum();
+		return tables == 0 ? -1 : this.allocatedBytes.sum() / tables;
+	}
+
+	public long getParseMeanNanos() {
+		return this.parseLatency.getMean();
+	}
+
+	public long getParseP50Nanos() {
+		return this.parseLatency.getPercentile(50);
+	}
+
+	public long getParseP99Nanos() {
+		return this.parseLatency.getPercentile(99);
+	}
+
+	public long getParseMaxNanos() {
+		return this.parseLatency.getMax();
+	}
+
+	public long getValidateMeanNanos() {
+		return this.validateLatency.getMean();
+	}
+
+	public long getValidateP50Nanos() {
+		return this.validateLatency.getPercentile(50);
+	}
+
+	public long getValidateP99Nanos() {
+		return this.validateLatency.getPercentile(99);
+	}
+
+	public long getValidateMaxNanos() {
+		return this.validateLatency.getMax();
+	}
+
+	public synchronized void reset() {
+		this.tables.reset();
+		this.valid.reset();
+		this.invalid.reset();
+		this.malformed.reset();
+		for (LongAdder failure : this.failures) {
+			failure.reset();
+		}
+		this.bytesRead.reset();
+		this.allocatedBytes.reset();
+		this.allocationTables.reset();
+		this.parseLatency.reset();
+		this.validateLatency.reset();
+		this.startNanos = System.nanoTime();
+		this.lastDumpTables = 0;
+		this.lastDumpNanos = this.startNanos;
+	}
+
+}
@@ -0,0 +1,58 @@
+package com.epam.sudoku_validator.app;
+
+/**
+ * JMX view of ValidationMetrics, registered as com.epam.sudoku_validator:type=ValidationMetrics
+ * The latencies are per table in ns, the percentiles are accurate within a factor of 2.
+ *
+ * @author Istvan_Simo
+ */
+public interface ValidationMetricsMXBean {
+
+	public long getTables();
+
+	public long getValid();
+
+	public long getInvalid();
+
+	public long getMalformed();
+
+	public long getRowFailures();
+
+	public long getColumnFailures();
+
+	public long getSubtableFailures();
+
+	public long getBytesRead();
+
+	/**
+	 * Returns with the average throughput since the start or the last reset
+	 */
+	public long getTablesPerSecond();
+
+	/**
+	 * Returns with the heap allocation per table of the reading and writing threads, or -1 if the JVM can't measure it
+	 */
+	public long getAllocatedBytesPerTable();
+
+	public long getParseMeanNanos();
+
+	public long getParseP50Nanos();
+
+	public long getParseP99Nanos();
+
+	public long getParseMaxNanos();
+
+	public long getValidateMeanNanos();
+
+	public long getValidateP50Nanos();
+
+	public long getValidateP99Nanos();
+
+	public long getValidateMaxNanos();
+
+	/**
+	 * Sets all the counters and histograms to zero
+	 */
+	public void reset();
+
+}
@@ -0,0 +1,635 @@
+package com.epam.sudoku_validator.app;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+
+import com.epam.sudoku_validator.dao.CachingSudokuTableDao;
+import com.epam.sudoku_validator.dao.SudokuGridReader;
+import com.epam.sudoku_validator.dao.SudokuTableDao;
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+import com.epam.sudoku_validator.domain.PartialGridValidator;
+import com.epam.sudoku_validator.domain.ValidationResult;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Resident validation server with a local HTTP/JSON endpoint, so the JVM, the Spring context and the DAO stay warm
+ * POST /validate - the body is one or more tables, CSV (UTF-8, like a batch file) or compact binary (.sdkb content),
+ *                  the response has one result for each table in input order:
+ *                  {"results":[{"valid":true},{"valid":false,"row":4,"column":8}],"tables":2,"valid":1,"invalid":1,"malformed":0}
+ * POST /candidates - the body is one or more partial tables in CSV, the empty cells are 0 or blank values,
+ *                  the response has the consistency of the givens and the candidate masks of the cells
+ *                  (bit 0 is digit 1, 0 for the givens) for each table, see PartialGridValidator:
+ *                  {"results":[{"valid":true,"empty":51,"candidates":[0,0,11,...]}],"tables":1,"valid":1,"invalid":0,"malformed":0}
+ *                  An empty cell without any candidate is reported as "deadCell":{"row":..,"column":..}.
+ * GET /health    - {"status":"UP"}
+ * The requests are handled on a fixed number of threads with a bounded queue. When the queue is full, the request
+ * is rejected with 503 and a Retry-After header on the accepting thread, it doesn't validate anything there, so the other
+ * connections aren't stalled. The request body is limited (see setMaxBodyBytes), a bigger one is rejected with 413
+ * by its Content-Length or as soon as the limit is read, so a huge or endless body can't hold a handler thread.
+ * Every thread has its own validator and grid buffer, and the tables are streamed from the request body,
+ * so there's no per table allocation apart from the response.
+ * With a result cache (see setCache) the /validate tables are looked up in CachingSudokuTableDao first, so the repeated
+ * grids (daily puzzles, retries) aren't validated again.
+ *
+ * @author Istvan_Simo
+ */
+public class ValidationServer {
+
+	private static final ThreadLocal<BitmaskValidator> VALIDATOR = ThreadLocal.withInitial(BitmaskValidator::new);
+
+	private static final ThreadLocal<PartialGridValidator> PARTIAL_VALIDATOR = ThreadLocal.withInitial(PartialGridValidator::new);
+
+	private static final ThreadLocal<short[]> CANDIDATES = ThreadLocal.withInitial(() -> new short[BitmaskValidator.CELLS]);
+
+	private static final ThreadLocal<byte[]> CELLS = ThreadLocal.withInitial(() -> new byte[BitmaskValidator.CELLS]);
+
+	private static final ThreadLocal<StringBuilder> RESPONSE = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+	/**
+	 * Set while a rejected request is answered on the accepting thread
+	 */
+	private static final ThreadLocal<Boolean> BUSY = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+	/**
+	 * Default limit of the request body, 10000 CSV tables are about 1.7 MB
+	 */
+	public static final long DEFAULT_MAX_BODY_BYTES = 4L * 1024 * 1024;
+
+	private final SudokuTableDao sudokuTableDao;
+	private final String address;
+	private final int threads;
+	private final int queueCapacity;
+	private final int maxTables;
+	private int port;
+	private long maxBodyBytes = DEFAULT_MAX_BODY_BYTES;
+	private ValidationMetrics metrics = ValidationMetrics.DISABLED;
+	private CachingSudokuTableDao cache = null;
+
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder tables = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final CountDownLatch stopped = new CountDownLatch(1);
+	private HttpServer server = null;
+	private ThreadPoolExecutor executor = null;
+
+	/**
+	 * @param sudokuTableDao - DAO to read the tables of the requests
+	 * @param address - address to listen on, 127.0.0.1 means local connections only
+	 * @param port - port to listen on, 0 means any free port
+	 * @param threads - number of request handler threads, 0 means the number of available processors
+	 * @param queueCapacity - maximum number of requests waiting for a handler thread
+	 * @param maxTables - maximum number of tables in one request
+	 */
+	public ValidationServer(SudokuTableDao sudokuTableDao, String address, int port, int threads, int queueCapacity, int maxTables) {
+		if (port < 0 || threads < 0 || queueCapacity < 1 || maxTables < 1) {
+			throw new IllegalArgumentException("Invalid server settings, port: " + port + ", threads: " + threads + ", queue capacity: " + queueCapacity + ", max tables: " + maxTables);
+		}
+		this.sudokuTableDao = sudokuTableDao;
+		this.address = address;
+		this.port = port;
+		this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		this.queueCapacity = queueCapacity;
+		this.maxTables = maxTables;
+	}
+
+	/**
+	 * Overrides the configured port, it should be called before start
+	 *
+	 * @param port - port to listen on, 0 means any free port
+	 */
+	public void setPort(int port) {
+		if (port < 0 || port > 65535) {
+			throw new IllegalArgumentException("Invalid server port: " + port);
+		}
+		this.port = port;
+	}
+
+	/**
+	 * Sets the maximum size of a request body, it should be called before start
+	 *
+	 * @param maxBodyBytes - the limit in bytes
+	 */
+	public void setMaxBodyBytes(long maxBodyBytes) {
+		if (maxBodyBytes < 1) {
+			throw new IllegalArgumentException("Invalid request body limit: " + maxBodyBytes);
+		}
+		this.maxBodyBytes = maxBodyBytes;
+	}
+
+	/**
+	 * Sets the metrics, which record every table of the requests, it should be called before start
+	 */
+	public void setMetrics(ValidationMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Sets the result cache of the /validate tables, null means no cache, it should be called before start
+	 */
+	public void setCache(CachingSudokuTableDao cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * Starts listening, the requests are handled on background threads
+	 *
+	 * @param LOG - the Logger object from the caller (Application.run method)
+	 * @throws IOException if the server can't listen on the address and port
+	 */
+	public void start(Logger LOG) throws IOException {
+		this.executor = new ThreadPoolExecutor(this.threads, this.threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(this.queueCapacity), new HandlerThreadFactory(), new BusyHandler());
+		this.server = HttpServer.create(new InetSocketAddress(this.address, this.port), this.queueCapacity);
+		this.server.setExecutor(this.executor);
+		this.server.createContext("/validate", this::handleValidate);
+		this.server.createContext("/candidates", this::handleCandidates);
+		this.server.createContext("/health", this::handleHealth);
+		this.server.start();
+		this.port = this.server.getAddress().getPort();
+		LOG.info("Validation server listening on http://{}:{}/validate ({} threads)", this.address, this.port, this.threads);
+	}
+
+	/**
+	 * Stops the server, the requests being handled are finished first
+	 *
+	 * @param LOG - the Logger object from the caller (Application.run method)
+	 */
+	public void stop(Logger LOG) {
+		if (this.server != null) {
+			this.server.stop(1);
+			this.executor.shutdown();
+			try {
+				this.executor.awaitTermination(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			this.server = null;
+			LOG.info("Validation server stopped after {} requests, {} tables, {} rejected as busy", this.requests.sum(), this.tables.sum(), this.rejected.sum());
+			if (this.cache != null) {
+				LOG.info("Result cache: {} hits, {} misses, {} evictions", this.cache.getHits(), this.cache.getMisses(), this.cache.getEvictions());
+			}
+		}
+		this.stopped.countDown();
+	}
+
+	/**
+	 * Blocks until the server is stopped
+	 *
+	 * @throws InterruptedException
+	 */
+	public void awaitStop() throws InterruptedException {
+		this.stopped.await();
+	}
+
+	/**
+	 * Returns with the port the server is listening on, the actual one after start
+	 */
+	public int getPort() {
+		return this.port;
+	}
+
+	public long getRequests() {
+		return this.requests.sum();
+	}
+
+	public long getTables() {
+		return this.tables.sum();
+	}
+
+	/**
+	 * Returns with the number of requests rejected with 503, because the queue was full
+	 */
+	public long getRejected() {
+		return this.rejected.sum();
+	}
+
+	private void handleValidate(HttpExchange exchange) throws IOException {
+		this.requests.increment();
+		StringBuilder response = RESPONSE.get();
+		response.setLength(0);
+		try {
+			if (sendBusy(exchange, response)) {
+				return;
+			}
+			if (!"POST".equals(exchange.getRequestMethod())) {
+				appendError(response, "Only POST is supported");
+				send(exchange, 405, response);
+				return;
+			}
+			if (contentLength(exchange) > this.maxBodyBytes) {
+				appendTooLarge(response);
+				send(exchange, 413, response);
+				return;
+			}
+			int status = validateAll(exchange, response);
+			send(exchange, status, response);
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private void handleCandidates(HttpExchange exchange) throws IOException {
+		this.requests.increment();
+		StringBuilder response = RESPONSE.get();
+		response.setLength(0);
+		try {
+			if (sendBusy(exchange, response)) {
+				return;
+			}
+			if (!"POST".equals(exchange.getRequestMethod())) {
+				appendError(response, "Only POST is supported");
+				send(exchange, 405, response);
+				return;
+			}
+			if (contentLength(exchange) > this.maxBodyBytes) {
+				appendTooLarge(response);
+				send(exchange, 413, response);
+				return;
+			}
+			int status = candidatesAll(exchange, response);
+			send(exchange, status, response);
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private void handleHealth(HttpExchange exchange) throws IOException {
+		StringBuilder response = RESPONSE.get();
+		response.setLength(0);
+		try {
+			response.append("{\"status\":\"UP\"}");
+			send(exchange, 200, response);
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Validates the tables of the request body and builds the response
+	 *
+	 * @return HTTP status code
+	 */
+	private int validateAll(HttpExchange exchange, StringBuilder response) {
+		BitmaskValidator validator = VALIDATOR.get();
+		byte[] cells = CELLS.get();
+		int count = 0;
+		int valid = 0;
+		int invalid = 0;
+		int malformed = 0;
+		boolean timed = this.metrics.isEnabled();
+		long startAllocated = timed ? ValidationMetrics.threadAllocatedBytes() : -1;
+		RequestBodyInputStream body = new RequestBodyInputStream(exchange.getRequestBody(), this.maxBodyBytes);
+		response.append("{\"results\":[");
+		try (SudokuGridReader reader = this.sudokuTableDao.openGridReader(body)) {
+			while (true) {
+				String error = null;
+				int errorCell = BitmaskValidator.VALID;
+				int failingUnit = -1;
+				long parseStart = timed ? System.nanoTime() : 0;
+				try {
+					if (!reader.next(cells, 0)) {
+						break;
+					}
+					long validateStart = timed ? System.nanoTime() : 0;
+					if (this.cache != null) {
+						ValidationResult result = this.cache.validate(cells, 0);
+						errorCell = result.getErrorCell();
+						failingUnit = result.getFirstFailingUnit();
+					} else {
+						errorCell = validator.validate(cells, 0);
+						failingUnit = validator.getFailingUnit();
+					}
+					if (timed) {
+						this.metrics.recordParse(validateStart - parseStart);
+						this.metrics.recordValidate(System.nanoTime() - validateStart);
+					}
+				} catch (IllegalArgumentException e) {
+					error = e.getMessage();
+					if (timed) {
+						this.metrics.recordParse(System.nanoTime() - parseStart);
+					}
+				}
+				if (++count > this.maxTables) {
+					response.setLength(0);
+					appendError(response, "Too many tables in the request, the limit is " + this.maxTables);
+					return 413;
+				}
+				if (error != null) {
+					malformed++;
+				} else if (errorCell == BitmaskValidator.VALID) {
+					valid++;
+				} else {
+					invalid++;
+				}
+				if (timed) {
+					record(error, errorCell, failingUnit);
+				}
+				if (count > 1) {
+					response.append(',');
+				}
+				appendResult(response, error, errorCell);
+			}
+		} catch (BodyTooLargeException e) {
+			response.setLength(0);
+			appendTooLarge(response);
+			return 413;
+		} catch (IOException e) {
+			response.setLength(0);
+			appendError(response, "Can't read the request: " + e.getMessage());
+			return 400;
+		}
+		this.tables.add(count);
+		if (timed) {
+			this.metrics.recordBytesRead(body.count);
+			if (startAllocated >= 0) {
+				this.metrics.recordAllocation(ValidationMetrics.threadAllocatedBytes() - startAllocated, count);
+			}
+		}
+		if (count == 0) {
+			response.setLength(0);
+			appendError(response, "There's no sudoku table in the request");
+			return 400;
+		}
+		response.append("],\"tables\":").append(count)
+				.append(",\"valid\":").append(valid)
+				.append(",\"invalid\":").append(invalid)
+				.append(",\"malformed\":").append(malformed)
+				.append('}');
+		return 200;
+	}
+
+	private void record(String error, int errorCell, int failingUnit) {
+		if (error != null) {
+			this.metrics.recordMalformed();
+		} else if (errorCell == BitmaskValidator.VALID) {
+			this.metrics.recordValid();
+		} else {
+			this.metrics.recordInvalid(BitmaskValidator.unitType(failingUnit));
+		}
+	}
+
+	/**
+	 * Checks the partial tables of the request body and builds the response with the candidates
+	 *
+	 * @return HTTP status code
+	 */
+	private int candidatesAll(HttpExchange exchange, StringBuilder response) {
+		PartialGridValidator validator = PARTIAL_VALIDATOR.get();
+		byte[] cells = CELLS.get();
+		short[] candidates = CANDIDATES.get();
+		int count = 0;
+		int valid = 0;
+		int invalid = 0;
+		int malformed = 0;
+		response.append("{\"results\":[");
+		try (SudokuGridReader reader = this.sudokuTableDao.openPartialGridReader(new RequestBodyInputStream(exchange.getRequestBody(), this.maxBodyBytes))) {
+			while (true) {
+				String error = null;
+				int errorCell = BitmaskValidator.VALID;
+				try {
+					if (!reader.next(cells, 0)) {
+						break;
+					}
+					errorCell = validator.validate(cells, 0, candidates, 0);
+				} catch (IllegalArgumentException e) {
+					error = e.getMessage();
+				}
+				if (++count > this.maxTables) {
+					response.setLength(0);
+					appendError(response, "Too many tables in the request, the limit is " + this.maxTables);
+					return 413;
+				}
+				if (count > 1) {
+					response.append(',');
+				}
+				if (error != null) {
+					malformed++;
+					appendError(response, error);
+				} else if (errorCell != BitmaskValidator.VALID) {
+					invalid++;
+					appendResult(response, null, errorCell);
+				} else {
+					valid++;
+					appendCandidates(response, validator, candidates);
+				}
+			}
+		} catch (BodyTooLargeException e) {
+			response.setLength(0);
+			appendTooLarge(response);
+			return 413;
+		} catch (IOException e) {
+			response.setLength(0);
+			appendError(response, "Can't read the request: " + e.getMessage());
+			return 400;
+		}
+		this.tables.add(count);
+		if (count == 0) {
+			response.setLength(0);
+			appendError(response, "There's no sudoku table in the request");
+			return 400;
+		}
+		response.append("],\"tables\":").append(count)
+				.append(",\"valid\":").append(valid)
+				.append(",\"invalid\":").append(invalid)
+				.append(",\"malformed\":").append(malformed)
+				.append('}');
+		return 200;
+	}
+
+	/**
+	 * Appends the JSON result of a consistent partial table, the dead cell is one-based like the error cells
+	 */
+	static void appendCandidates(StringBuilder out, PartialGridValidator validator, short[] candidates) {
+		out.append("{\"valid\":true,\"empty\":").append(validator.getEmptyCells());
+		int deadCell = validator.getDeadCell();
+		if (deadCell >= 0) {
+			out.append(",\"deadCell\":{\"row\":").append(deadCell / 9 + 1)
+					.append(",\"column\":").append(deadCell % 9 + 1).append('}');
+		}
+		out.append(",\"candidates\":[");
+		for (int cell = 0; cell < BitmaskValidator.CELLS; cell++) {
+			if (cell > 0) {
+				out.append(',');
+			}
+			out.append(candidates[cell]);
+		}
+		out.append("]}");
+	}
+
+	/**
+	 * Answers a rejected request with 503, it's called on the accepting thread, so the body isn't read
+	 *
+	 * @return true if the request was rejected
+	 */
+	private static boolean sendBusy(HttpExchange exchange, StringBuilder response) throws IOException {
+		if (!BUSY.get()) {
+			return false;
+		}
+		appendError(response, "The server is busy, try again later");
+		exchange.getResponseHeaders().set("Retry-After", "1");
+		send(exchange, 503, response);
+		return true;
+	}
+
+	/**
+	 * Returns with the Content-Length of the request or -1 if it's unknown (chunked body)
+	 */
+	private static long contentLength(HttpExchange exchange) {
+		String value = exchange.getRequestHeaders().getFirst("Content-Length");
+		if (value == null) {
+			return -1;
+		}
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	private void appendTooLarge(StringBuilder response) {
+		appendError(response, "The request body is too large, the limit is " + this.maxBodyBytes + " bytes");
+	}
+
+	private static void send(HttpExchange exchange, int status, StringBuilder response) throws IOException {
+		byte[] body = response.toString().getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	/**
+	 * Appends the JSON result of one table, the row and column are one-based like in the batch output
+	 *
+	 * @param out - the target
+	 * @param error - error message of a malformed table or null
+	 * @param errorCell - result of BitmaskValidator.validate
+	 */
+	static void appendResult(StringBuilder out, String error, int errorCell) {
+		if (error != null) {
+			appendError(out, error);
+		} else if (errorCell == BitmaskValidator.VALID) {
+			out.append("{\"valid\":true}");
+		} else {
+			out.append("{\"valid\":false,\"row\":").append(errorCell / 9 + 1)
+					.append(",\"column\":").append(errorCell % 9 + 1)
+					.append('}');
+		}
+	}
+
+	private static void appendError(StringBuilder out, String message) {
+		out.append("{\"error\":");
+		appendString(out, message);
+		out.append('}');
+	}
+
+	/**
+	 * Appends a JSON string literal
+	 */
+	static void appendString(StringBuilder out, String value) {
+		out.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				out.append('\\').append(c);
+			} else if (c < ' ') {
+				out.append(String.format("\\u%04x", (int) c));
+			} else {
+				out.append(c);
+			}
+		}
+		out.append('"');
+	}
+
+	/**
+	 * Request body, which counts the bytes read for the metrics and fails as soon as the limit is exceeded
+	 */
+	private static class RequestBodyInputStream extends FilterInputStream {
+		private final long limit;
+		private long count = 0;
+
+		RequestBodyInputStream(InputStream in, long limit) {
+			super(in);
+			this.limit = limit;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b >= 0) {
+				add(1);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if (n > 0) {
+				add(n);
+			}
+			return n;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			add(skipped);
+			return skipped;
+		}
+
+		private void add(long n) throws BodyTooLargeException {
+			this.count += n;
+			if (this.count > this.limit) {
+				throw new BodyTooLargeException();
+			}
+		}
+	}
+
+	private static class BodyTooLargeException extends IOException {
+		private static final long serialVersionUID = 1L;
+	}
+
+	/**
+	 * Rejects the requests when the queue is full: the exchange runs on the accepting thread with the BUSY flag,
+	 * so the handler only sends the 503 response
+	 */
+	private class BusyHandler implements RejectedExecutionHandler {
+		@Override
+		public void rejectedExecution(Runnable exchange, ThreadPoolExecutor executor) {
+			rejected.increment();
+			BUSY.set(Boolean.TRUE);
+			try {
+				exchange.run();
+			} finally {
+				BUSY.set(Boolean.FALSE);
+			}
+		}
+	}
+
+	private static class HandlerThreadFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			return new Thread(runnable, "sudoku-server-" + this.count.incrementAndGet());
+		}
+	}
+
+}
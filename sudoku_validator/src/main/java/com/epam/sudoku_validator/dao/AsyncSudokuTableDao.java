@@ -0,0 +1,301 @@
+package com.epam.sudoku_validator.dao;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+import com.epam.sudoku_validator.domain.SudokuGrid;
+import com.epam.sudoku_validator.domain.ValidationResult;
+
+/**
+ * Non-blocking validation API in front of another SudokuTableDao, without a Logger: failures complete the futures
+ * and the subscriptions exceptionally, the caller decides what to log.
+ * Single files are read with an AsynchronousFileChannel opened on the executor, so the caller's thread doesn't wait
+ * for the disk, and the validation continues on the executor. It isn't kernel asynchronous I/O: on Linux the channel
+ * emulates it with blocking reads on the threads of the executor, so a slow disk still holds an executor thread.
+ * The bulk API is a ValidationFlow.Publisher, it reads the file with the memory-mapped reader of the wrapped DAO
+ * (openGridReader), so a page fault blocks the executor thread as well. It reads and validates a table only when the
+ * subscriber requested one, and it gives up its thread after every BATCH_SIZE tables, so many subscriptions can share
+ * a few threads.
+ * Only 9x9 tables are supported (see SudokuGrid), CSV and binary (.sdkb) files are recognized by their content.
+ *
+ * @author Istvan_Simo
+ */
+public class AsyncSudokuTableDao implements Closeable {
+
+	/**
+	 * Maximum size of a single table file, a 9x9 CSV table is about 200 bytes
+	 */
+	static final int MAX_FILE_SIZE = 64 * 1024;
+
+	/**
+	 * Number of tables a subscription validates before it lets the other tasks of the executor run
+	 */
+	static final int BATCH_SIZE = 256;
+
+	private final SudokuTableDao sudokuTableDao;
+	private final ExecutorService executor;
+	private final boolean ownExecutor;
+
+	/**
+	 * @param sudokuTableDao - the DAO which validates the grids and opens the bulk readers
+	 * @param executor - runs the validations and the file reads, the caller shuts it down
+	 */
+	public AsyncSudokuTableDao(SudokuTableDao sudokuTableDao, ExecutorService executor) {
+		this.sudokuTableDao = sudokuTableDao;
+		this.executor = executor;
+		this.ownExecutor = false;
+	}
+
+	/**
+	 * @param sudokuTableDao - the DAO which validates the grids and opens the bulk readers
+	 * @param threads - number of daemon threads of its own executor, 0 means the number of available processors
+	 */
+	public AsyncSudokuTableDao(SudokuTableDao sudokuTableDao, int threads) {
+		AtomicInteger count = new AtomicInteger();
+		this.sudokuTableDao = sudokuTableDao;
+		this.executor = Executors.newFixedThreadPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors(), runnable -> {
+			Thread thread = new Thread(runnable, "sudoku-async-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.ownExecutor = true;
+	}
+
+	/**
+	 * Validates the grid on the executor
+	 *
+	 * @param grid - the grid to be validated
+	 * @return future of ValidationResult.VALID, or of the result with all the errors
+	 */
+	public CompletableFuture<ValidationResult> validateAsync(SudokuGrid grid) {
+		return CompletableFuture.supplyAsync(() -> this.sudokuTableDao.validate(grid), this.executor);
+	}
+
+	/**
+	 * Reads the first table of the file asynchronously
+	 * The future fails with IOException if the file can't be read, and with IllegalArgumentException
+	 * in case of wrong content, with the same messages as the batch mode.
+	 *
+	 * @param fileName - CSV or binary file
+	 * @return future of the grid
+	 */
+	public CompletableFuture<SudokuGrid> readGridAsync(String fileName) {
+		CompletableFuture<SudokuGrid> future = new CompletableFuture<>();
+		AsynchronousFileChannel channel;
+		ByteBuffer buffer;
+		try {
+			channel = AsynchronousFileChannel.open(Paths.get(fileName), Collections.singleton(StandardOpenOption.READ), this.executor);
+			long size = channel.size();
+			if (size > MAX_FILE_SIZE) {
+				channel.close();
+				throw new IllegalArgumentException("The file is too large (" + size + " bytes) for one table: " + fileName);
+			}
+			buffer = ByteBuffer.allocate((int) size);
+		} catch (IOException | RuntimeException e) {
+			future.completeExceptionally(e);
+			return future;
+		}
+		channel.read(buffer, 0, buffer, new CompletionHandler<Integer, ByteBuffer>() {
+			@Override
+			public void completed(Integer read, ByteBuffer target) {
+				if (read >= 0 && target.hasRemaining()) {
+					channel.read(target, target.position(), target, this);
+					return;
+				}
+				close(channel);
+				try {
+					future.complete(parse(target.array(), target.position(), fileName));
+				} catch (IOException | RuntimeException e) {
+					future.completeExceptionally(e);
+				}
+			}
+
+			@Override
+			public void failed(Throwable e, ByteBuffer target) {
+				close(channel);
+				future.completeExceptionally(e);
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * Reads and validates the first table of the file, without blocking the caller
+	 *
+	 * @param fileName - CSV or binary file
+	 * @return future of the result, see readGridAsync for the failures
+	 */
+	public CompletableFuture<ValidationResult> validateFileAsync(String fileName) {
+		return readGridAsync(fileName).thenApplyAsync(this.sudokuTableDao::validate, this.executor);
+	}
+
+	/**
+	 * Returns with a publisher of the results of every table of the file, in file order
+	 * Every subscriber reads the file on its own, from the beginning. The file is opened at the first request,
+	 * a read failure or a malformed table fails the subscription (onError) and closes the file.
+	 *
+	 * @param fileName - CSV or binary file
+	 * @return the publisher
+	 */
+	public ValidationFlow.Publisher<ValidationResult> validateAll(String fileName) {
+		return subscriber -> new TableSubscription(fileName, subscriber).start();
+	}
+
+	/**
+	 * Shuts down the executor, if it was created by this object
+	 */
+	public void close() {
+		if (this.ownExecutor) {
+			this.executor.shutdown();
+		}
+	}
+
+	private SudokuGrid parse(byte[] content, int length, String fileName) throws IOException {
+		byte[] cells = new byte[BitmaskValidator.CELLS];
+		try (SudokuGridReader reader = this.sudokuTableDao.openGridReader(new ByteArrayInputStream(content, 0, length))) {
+			if (!reader.next(cells, 0)) {
+				throw new IllegalArgumentException("There is no table in the file: " + fileName);
+			}
+		}
+		return SudokuGrid.of(cells, 0);
+	}
+
+	private static void close(Closeable closeable) {
+		try {
+			closeable.close();
+		} catch (IOException e) {
+			// nothing to do, the content has been read or the read has already failed
+		}
+	}
+
+	/**
+	 * Subscription of validateAll, it runs on the executor only while there's demand
+	 * The work-in-progress counter makes sure that one task at a time emits, and none is lost: request and cancel
+	 * increment it, and only the caller which increments it from zero submits the task.
+	 */
+	private final class TableSubscription implements ValidationFlow.Subscription, Runnable {
+		private final String fileName;
+		private final ValidationFlow.Subscriber<? super ValidationResult> subscriber;
+		private final byte[] cells = new byte[BitmaskValidator.CELLS];
+		private final AtomicLong demand = new AtomicLong();
+		private final AtomicInteger workInProgress = new AtomicInteger();
+		private volatile boolean cancelled = false;
+		private volatile Throwable requestError = null;
+		private SudokuGridReader reader = null;
+		private boolean done = false;
+
+		TableSubscription(String fileName, ValidationFlow.Subscriber<? super ValidationResult> subscriber) {
+			this.fileName = fileName;
+			this.subscriber = subscriber;
+		}
+
+		void start() {
+			this.subscriber.onSubscribe(this);
+		}
+
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				this.requestError = new IllegalArgumentException("Non-positive request: " + n);
+			} else {
+				this.demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+			}
+			schedule();
+		}
+
+		@Override
+		public void cancel() {
+			this.cancelled = true;
+			schedule();
+		}
+
+		private void schedule() {
+			if (this.workInProgress.getAndIncrement() == 0) {
+				executor.execute(this);
+			}
+		}
+
+		@Override
+		public void run() {
+			int missed = this.workInProgress.get();
+			while (true) {
+				if (!this.done) {
+					emit();
+				}
+				if (this.done) {
+					closeReader();
+				} else if (this.demand.get() > 0 && !this.cancelled) {
+					// the batch is over, the rest of the demand continues behind the other tasks
+					executor.execute(this);
+					return;
+				}
+				missed = this.workInProgress.addAndGet(-missed);
+				if (missed == 0) {
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Emits up to BATCH_SIZE results of the current demand
+		 */
+		private void emit() {
+			long emitted = 0;
+			try {
+				for (long requested = Math.min(this.demand.get(), BATCH_SIZE); emitted < requested; emitted++) {
+					if (checkTerminated()) {
+						return;
+					}
+					if (this.reader == null) {
+						this.reader = sudokuTableDao.openGridReader(this.fileName);
+					}
+					if (!this.reader.next(this.cells, 0)) {
+						this.done = true;
+						this.subscriber.onComplete();
+						return;
+					}
+					this.subscriber.onNext(sudokuTableDao.validate(SudokuGrid.of(this.cells, 0)));
+				}
+				checkTerminated();
+			} catch (IOException | RuntimeException e) {
+				this.done = true;
+				this.subscriber.onError(e);
+			} finally {
+				if (this.demand.get() != Long.MAX_VALUE) {
+					this.demand.addAndGet(-emitted);
+				}
+			}
+		}
+
+		private boolean checkTerminated() {
+			if (this.cancelled) {
+				this.done = true;
+			} else if (this.requestError != null) {
+				this.done = true;
+				this.subscriber.onError(this.requestError);
+			}
+			return this.done;
+		}
+
+		private void closeReader() {
+			if (this.reader != null) {
+				close(this.reader);
+				this.reader = null;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,141 @@
+package com.epam.sudoku_validator.dao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.epam.sudoku_validator.domain.GridParser;
+
+/**
+ * Compact binary format of sudoku tables
+ * The file starts with an 8 byte header: "SDKB" magic, format version, box size (3 for 9x9 tables) and 2 reserved bytes.
+ * It's followed by 41 byte records, one for each table: 4 bits for each of the 81 cells in row-major order,
+ * the first cell of a pair is in the high nibble, the low nibble of the last byte is unused.
+ * 
+ * @author Istvan_Simo
+ */
+public final class BinaryGridFormat {
+	
+	public static final String FILE_EXTENSION = ".sdkb";
+	public static final int HEADER_SIZE = 8;
+	public static final int RECORD_SIZE = 41;
+	public static final byte VERSION = 1;
+	public static final byte BOX_SIZE = 3;
+	
+	private static final byte[] MAGIC = { 'S', 'D', 'K', 'B' };
+	
+	private BinaryGridFormat() {
+	}
+	
+	/**
+	 * Returns true if the file name has the binary format extension
+	 */
+	public static boolean isBinaryFile(String fileName) {
+		return fileName.toLowerCase().endsWith(FILE_EXTENSION);
+	}
+	
+	public static void writeHeader(byte[] header) {
+		System.arraycopy(MAGIC, 0, header, 0, MAGIC.length);
+		header[4] = VERSION;
+		header[5] = BOX_SIZE;
+		header[6] = 0;
+		header[7] = 0;
+	}
+	
+	/**
+	 * Returns true if the bytes start with the magic of the binary format
+	 */
+	public static boolean hasMagic(byte[] header, int length) {
+		return length >= MAGIC.length && header[0] == MAGIC[0] && header[1] == MAGIC[1] && header[2] == MAGIC[2] && header[3] == MAGIC[3];
+	}
+	
+	public static void checkHeader(byte[] header, int length) throws IOException {
+		if (length < HEADER_SIZE || !hasMagic(header, length)) {
+			throw new IOException("Not a binary sudoku file, the header is missing");
+		}
+		if (header[4] != VERSION || header[5] != BOX_SIZE) {
+			throw new IOException("Unsupported binary sudoku file, version: " + header[4] + ", box size: " + header[5]);
+		}
+	}
+	
+	/**
+	 * Packs a grid into a record
+	 * 
+	 * @param cells - the grid in row-major order, values between 0 and 15
+	 * @param offset - index of the first cell of the grid
+	 * @param record - the target buffer
+	 * @param recordOffset - index of the first byte of the record
+	 */
+	public static void pack(byte[] cells, int offset, byte[] record, int recordOffset) {
+		for (int i = 0; i < RECORD_SIZE - 1; i++) {
+			record[recordOffset + i] = (byte) ((cells[offset + 2 * i] << 4) | (cells[offset + 2 * i + 1] & 0x0F));
+		}
+		record[recordOffset + RECORD_SIZE - 1] = (byte) (cells[offset + 80] << 4);
+	}
+	
+	/**
+	 * Unpacks a record into a grid and checks the cell values
+	 * 
+	 * @param record - the source buffer
+	 * @param recordOffset - index of the first byte of the record
+	 * @param cells - the target grid in row-major order
+	 * @param offset - index of the first cell of the grid
+	 * @throws IllegalArgumentException if a cell value isn't between 1 and 9
+	 */
+	public static void unpack(byte[] record, int recordOffset, byte[] cells, int offset) {
+		int invalid = 0;
+		for (int i = 0; i < RECORD_SIZE - 1; i++) {
+			int pair = record[recordOffset + i] & 0xFF;
+			int high = pair >>> 4;
+			int low = pair & 0x0F;
+			cells[offset + 2 * i] = (byte) high;
+			cells[offset + 2 * i + 1] = (byte) low;
+			invalid |= (high - 1) | (9 - high) | (low - 1) | (9 - low);
+		}
+		int last = (record[recordOffset + RECORD_SIZE - 1] & 0xFF) >>> 4;
+		cells[offset + 80] = (byte) last;
+		invalid |= (last - 1) | (9 - last);
+		if (invalid < 0) {
+			throwOutOfRange(cells, offset);
+		}
+	}
+	
+	/**
+	 * Unpacks a record of a buffer, e.g. a mapped file, into a grid and checks the cell values
+	 * It reads with absolute gets, so the position of the buffer doesn't change and threads can share the buffer.
+	 * 
+	 * @param buffer - the source buffer
+	 * @param recordOffset - index of the first byte of the record
+	 * @param cells - the target grid in row-major order
+	 * @param offset - index of the first cell of the grid
+	 * @throws IllegalArgumentException if a cell value isn't between 1 and 9
+	 */
+	public static void unpack(ByteBuffer buffer, int recordOffset, byte[] cells, int offset) {
+		int invalid = 0;
+		for (int i = 0; i < RECORD_SIZE - 1; i++) {
+			int pair = buffer.get(recordOffset + i) & 0xFF;
+			int high = pair >>> 4;
+			int low = pair & 0x0F;
+			cells[offset + 2 * i] = (byte) high;
+			cells[offset + 2 * i + 1] = (byte) low;
+			invalid |= (high - 1) | (9 - high) | (low - 1) | (9 - low);
+		}
+		int last = (buffer.get(recordOffset + RECORD_SIZE - 1) & 0xFF) >>> 4;
+		cells[offset + 80] = (byte) last;
+		invalid |= (last - 1) | (9 - last);
+		if (invalid < 0) {
+			throwOutOfRange(cells, offset);
+		}
+	}
+	
+	/**
+	 * A value was out of the 1..9 range, finds the first one for the error message
+	 */
+	private static void throwOutOfRange(byte[] cells, int offset) {
+		for (int cell = 0; cell < 81; cell++) {
+			if (cells[offset + cell] < 1 || cells[offset + cell] > 9) {
+				throw GridParser.outOfRange(cells[offset + cell], cell / 9 + 1, cell % 9 + 1);
+			}
+		}
+	}
+
+}
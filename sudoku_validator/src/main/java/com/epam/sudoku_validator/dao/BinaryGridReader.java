@@ -0,0 +1,66 @@
+package com.epam.sudoku_validator.dao;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streaming reader of the compact binary format, see BinaryGridFormat
+ * The records are read in bulk into one reusable buffer and unpacked straight into the grid buffer of the caller.
+ * 
+ * @author Istvan_Simo
+ */
+public class BinaryGridReader implements SudokuGridReader {
+	
+	private static final int RECORDS_PER_READ = 4096;
+	
+	private final InputStream in;
+	private final byte[] buffer = new byte[RECORDS_PER_READ * BinaryGridFormat.RECORD_SIZE];
+	private int position = 0;
+	private int limit = 0;
+	private boolean headerChecked = false;
+	
+	public BinaryGridReader(InputStream in) {
+		this.in = in;
+	}
+	
+	@Override
+	public boolean next(byte[] cells, int offset) throws IOException {
+		if (!this.headerChecked) {
+			int length = readFully(this.buffer, 0, BinaryGridFormat.HEADER_SIZE);
+			BinaryGridFormat.checkHeader(this.buffer, length);
+			this.headerChecked = true;
+		}
+		if (this.position == this.limit) {
+			this.limit = readFully(this.buffer, 0, this.buffer.length);
+			this.position = 0;
+			if (this.limit == 0) {
+				return false;
+			}
+		}
+		if (this.limit - this.position < BinaryGridFormat.RECORD_SIZE) {
+			throw new IOException("Truncated record at the end of the binary sudoku file");
+		}
+		int recordOffset = this.position;
+		this.position += BinaryGridFormat.RECORD_SIZE;
+		BinaryGridFormat.unpack(this.buffer, recordOffset, cells, offset);
+		return true;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		this.in.close();
+	}
+	
+	private int readFully(byte[] target, int offset, int length) throws IOException {
+		int total = 0;
+		while (total < length) {
+			int count = this.in.read(target, offset + total, length - total);
+			if (count < 0) {
+				break;
+			}
+			total += count;
+		}
+		return total;
+	}
+
+}
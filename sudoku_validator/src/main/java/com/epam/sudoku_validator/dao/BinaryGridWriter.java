@@ -0,0 +1,67 @@
+package com.epam.sudoku_validator.dao;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Bulk writer of the compact binary format, see BinaryGridFormat
+ * The records are packed into one reusable buffer, which is written when it's full.
+ * 
+ * @author Istvan_Simo
+ */
+public class BinaryGridWriter implements SudokuGridWriter {
+	
+	private static final int RECORDS_PER_WRITE = 4096;
+	
+	private final OutputStream out;
+	private final byte[] buffer = new byte[RECORDS_PER_WRITE * BinaryGridFormat.RECORD_SIZE];
+	private int position = 0;
+	private long count = 0;
+	
+	public BinaryGridWriter(OutputStream out) throws IOException {
+		this.out = out;
+		byte[] header = new byte[BinaryGridFormat.HEADER_SIZE];
+		BinaryGridFormat.writeHeader(header);
+		this.out.write(header);
+	}
+	
+	@Override
+	public void write(byte[] cells, int offset) throws IOException {
+		if (this.position == this.buffer.length) {
+			flushBuffer();
+		}
+		BinaryGridFormat.pack(cells, offset, this.buffer, this.position);
+		this.position += BinaryGridFormat.RECORD_SIZE;
+		this.count++;
+	}
+	
+	/**
+	 * Returns with the number of written grids
+	 */
+	public long getCount() {
+		return this.count;
+	}
+	
+	@Override
+	public void flush() throws IOException {
+		flushBuffer();
+		this.out.flush();
+	}
+	
+	@Override
+	public void close() throws IOException {
+		try {
+			flushBuffer();
+		} finally {
+			this.out.close();
+		}
+	}
+	
+	private void flushBuffer() throws IOException {
+		if (this.position > 0) {
+			this.out.write(this.buffer, 0, this.position);
+			this.position = 0;
+		}
+	}
+
+}
@@ -0,0 +1,23 @@
+package com.epam.sudoku_validator.dao;
+
+/**
+ * Key modes of CachingSudokuTableDao, i.e. which grids share one cache entry
+ *
+ * @author Istvan_Simo
+ */
+public enum CacheKeyMode {
+	/**
+	 * Only the same 81 cells
+	 */
+	EXACT,
+	/**
+	 * Grids which differ only in the digit labels, e.g. all 1s and 2s swapped
+	 */
+	RELABEL,
+	/**
+	 * Grids which differ in the digit labels, the order of the bands and stacks, and transposition
+	 * The key is the smallest of the 72 geometric variants, so it costs more than a validation; CachingSudokuTableDao
+	 * computes it only if the RELABEL key of the grid misses.
+	 */
+	SYMMETRY
+}
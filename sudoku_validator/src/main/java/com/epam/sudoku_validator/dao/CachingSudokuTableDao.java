@@ -0,0 +1,257 @@
+package com.epam.sudoku_validator.dao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+import com.epam.sudoku_validator.domain.GridGeometry;
+import com.epam.sudoku_validator.domain.SudokuGrid;
+import com.epam.sudoku_validator.domain.ValidationResult;
+
+/**
+ * Result cache in front of the validation of another SudokuTableDao
+ * The cache is bounded, it's split into segments by the key hash, every segment is an LRU map with its own lock,
+ * so concurrent callers rarely wait for each other. The key is the packed grid (see CacheKeyMode), not a digest,
+ * so a hit can't return the result of another grid.
+ * With CacheKeyMode.SYMMETRY a grid can hit the entry of a geometrically different variant: the result is reused only
+ * if it's valid, an invalid one is validated again, because its error positions belong to the other variant.
+ * The symmetry key is more expensive than a validation, so every result is cached under the cheap RELABEL key as well,
+ * and the symmetry key is only computed if that one misses, i.e. for the first occurrence of a variant.
+ * All the other methods are passed to the underlying DAO.
+ *
+ * @author Istvan_Simo
+ */
+public class CachingSudokuTableDao implements SudokuTableDao {
+
+	private static final int SEGMENTS = 16;
+
+	private static final ThreadLocal<byte[]> CELLS = ThreadLocal.withInitial(() -> new byte[BitmaskValidator.CELLS]);
+
+	private final SudokuTableDao sudokuTableDao;
+	private final CacheKeyMode keyMode;
+	private final int maxSize;
+	private final Segment[] segments = new Segment[SEGMENTS];
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * @param sudokuTableDao - the DAO which validates on a cache miss
+	 * @param maxSize - maximum number of cached results
+	 * @param keyMode - which grids share one cache entry
+	 */
+	public CachingSudokuTableDao(SudokuTableDao sudokuTableDao, int maxSize, CacheKeyMode keyMode) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Invalid cache size: " + maxSize);
+		}
+		this.sudokuTableDao = sudokuTableDao;
+		this.keyMode = keyMode;
+		this.maxSize = maxSize;
+		int segmentSize = (maxSize + SEGMENTS - 1) / SEGMENTS;
+		for (int i = 0; i < SEGMENTS; i++) {
+			this.segments[i] = new Segment(segmentSize, this.evictions);
+		}
+	}
+
+	/**
+	 * Returns with the cached result of the grid, or validates it with the underlying DAO and caches the result
+	 *
+	 * @param grid - the grid to be validated
+	 * @return ValidationResult.VALID, or the result with all the errors
+	 */
+	public ValidationResult validate(SudokuGrid grid) {
+		byte[] cells = CELLS.get();
+		grid.copyTo(cells, 0);
+		return validate(cells, grid);
+	}
+
+	/**
+	 * Returns with the cached result of the grid in a cell buffer, or validates it and caches the result
+	 * A hit doesn't create the SudokuGrid, so it's cheaper than a validation, e.g. for the tables of the server requests.
+	 *
+	 * @param cells - cell values in row-major order, 1..9 for each cell
+	 * @param offset - index of the first cell of the grid
+	 * @return ValidationResult.VALID, or the result with all the errors
+	 * @throws IllegalArgumentException if a value is out of the 1..9 range
+	 */
+	public ValidationResult validate(byte[] cells, int offset) {
+		byte[] copy = CELLS.get();
+		System.arraycopy(cells, offset, copy, 0, BitmaskValidator.CELLS);
+		return validate(copy, null);
+	}
+
+	/**
+	 * Looks up the cells, the grid is created from them on a miss, if it's null
+	 */
+	private ValidationResult validate(byte[] cells, SudokuGrid grid) {
+		boolean symmetry = this.keyMode == CacheKeyMode.SYMMETRY;
+		GridKey key = GridKey.of(symmetry ? CacheKeyMode.RELABEL : this.keyMode, cells);
+		ValidationResult result = lookup(key);
+		if (result != null) {
+			this.hits.increment();
+			return result;
+		}
+		GridKey symmetryKey = null;
+		if (symmetry) {
+			symmetryKey = GridKey.of(CacheKeyMode.SYMMETRY, cells);
+			result = lookup(symmetryKey);
+			if (result != null) {
+				this.hits.increment();
+				store(key, result);
+				return result;
+			}
+		}
+		this.misses.increment();
+		result = this.sudokuTableDao.validate(grid != null ? grid : SudokuGrid.of(cells, 0));
+		store(key, result);
+		if (symmetryKey != null) {
+			store(symmetryKey, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns with the cached result of the key, if it can be reused for the grid of the key, otherwise null
+	 */
+	private ValidationResult lookup(GridKey key) {
+		Segment segment = segment(key);
+		CachedResult entry;
+		synchronized (segment) {
+			entry = segment.get(key);
+		}
+		if (entry != null && (entry.transform == key.getTransform() || entry.result.isValid())) {
+			return entry.result;
+		}
+		return null;
+	}
+
+	/**
+	 * Caches the result, unless the key already has a result (of another variant of the grid)
+	 */
+	private void store(GridKey key, ValidationResult result) {
+		Segment segment = segment(key);
+		synchronized (segment) {
+			if (!segment.containsKey(key)) {
+				segment.put(key, new CachedResult(result, key.getTransform()));
+			}
+		}
+	}
+
+	private Segment segment(GridKey key) {
+		return this.segments[(key.hashCode() ^ (key.hashCode() >>> 16)) & (SEGMENTS - 1)];
+	}
+
+	public long getHits() {
+		return this.hits.sum();
+	}
+
+	public long getMisses() {
+		return this.misses.sum();
+	}
+
+	public long getEvictions() {
+		return this.evictions.sum();
+	}
+
+	/**
+	 * Returns with the number of cached results
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : this.segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	public int getMaxSize() {
+		return this.maxSize;
+	}
+
+	public CacheKeyMode getKeyMode() {
+		return this.keyMode;
+	}
+
+	public boolean loadFromFile(Logger LOG, String fileName) {
+		return this.sudokuTableDao.loadFromFile(LOG, fileName);
+	}
+
+	public SudokuGridReader openGridReader(String fileName) throws IOException {
+		return this.sudokuTableDao.openGridReader(fileName);
+	}
+
+	public SudokuGridReader openGridReader(InputStream in) throws IOException {
+		return this.sudokuTableDao.openGridReader(in);
+	}
+
+	public SudokuGridReader openGridReader(String fileName, GridGeometry geometry) throws IOException {
+		return this.sudokuTableDao.openGridReader(fileName, geometry);
+	}
+
+	public SudokuGridReader openPartialGridReader(InputStream in) throws IOException {
+		return this.sudokuTableDao.openPartialGridReader(in);
+	}
+
+	public SudokuGridReader openStreamGridReader(InputStream in) throws IOException {
+		return this.sudokuTableDao.openStreamGridReader(in);
+	}
+
+	public MappedGridStore openGridStore(String fileName) throws IOException {
+		return this.sudokuTableDao.openGridStore(fileName);
+	}
+
+	public SudokuGridWriter openGridWriter(String fileName) throws IOException {
+		return this.sudokuTableDao.openGridWriter(fileName);
+	}
+
+	public SudokuGrid readGrid(String fileName) throws IOException {
+		return this.sudokuTableDao.readGrid(fileName);
+	}
+
+	/**
+	 * Cached result and the transform of the grid, which it belongs to
+	 */
+	private static final class CachedResult {
+		final ValidationResult result;
+		final int transform;
+
+		CachedResult(ValidationResult result, int transform) {
+			this.result = result;
+			this.transform = transform;
+		}
+	}
+
+	/**
+	 * LRU map of one segment, it counts its evictions
+	 */
+	private static final class Segment extends LinkedHashMap<GridKey, CachedResult> {
+		private static final long serialVersionUID = 1L;
+
+		private final int maxSize;
+		private final transient LongAdder evictions;
+
+		Segment(int maxSize, LongAdder evictions) {
+			super(16, 0.75f, true);
+			this.maxSize = maxSize;
+			this.evictions = evictions;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<GridKey, CachedResult> eldest) {
+			if (size() > this.maxSize) {
+				this.evictions.increment();
+				return true;
+			}
+			return false;
+		}
+	}
+
+}
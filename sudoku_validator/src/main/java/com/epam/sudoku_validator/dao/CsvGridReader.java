@@ -0,0 +1,124 @@
+package com.epam.sudoku_validator.dao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+import com.epam.sudoku_validator.domain.GridGeometry;
+import com.epam.sudoku_validator.domain.GridParser;
+
+/**
+ * Streaming reader for CSV files with many sudoku tables
+ * Every table is 9 rows of 9 comma separated values, the tables follow each other back to back.
+ * Other table sizes (see GridGeometry) can be set in the constructor, e.g. 16 rows of 16 values of 1..16.
+ * Partial 9x9 tables with empty cells (0 or blank, see PartialGridValidator) can be read as well.
+ * Optionally a 9x9 table can be a single line of 81 digits too (a line without comma), mixed with the CSV tables,
+ * as puzzle collections and pipelines often have them.
+ * Blank lines between tables are allowed, but a blank line inside a table ends it with a too few rows error.
+ * Only one line is kept in memory, so the memory usage doesn't depend on the size of the input.
+ * 
+ * @author Istvan_Simo
+ */
+public class CsvGridReader implements SudokuGridReader {
+	
+	private final BufferedReader reader;
+	private final int side;
+	private final boolean partial;
+	private final boolean oneLineTables;
+	
+	public CsvGridReader(Reader reader) {
+		this(reader, GridGeometry.STANDARD);
+	}
+	
+	public CsvGridReader(Reader reader, GridGeometry geometry) {
+		this(reader, geometry, false);
+	}
+	
+	/**
+	 * @param reader - the CSV content
+	 * @param oneLineTables - true if a line without comma is a whole 9x9 table of 81 digits
+	 */
+	public CsvGridReader(Reader reader, boolean oneLineTables) {
+		this(reader, GridGeometry.STANDARD, false, oneLineTables);
+	}
+	
+	/**
+	 * @param reader - the CSV content
+	 * @param geometry - size of the tables
+	 * @param partial - true if the tables can have empty cells, only 9x9 tables are supported then
+	 */
+	public CsvGridReader(Reader reader, GridGeometry geometry, boolean partial) {
+		this(reader, geometry, partial, false);
+	}
+	
+	private CsvGridReader(Reader reader, GridGeometry geometry, boolean partial, boolean oneLineTables) {
+		if (partial && geometry != GridGeometry.STANDARD) {
+			throw new IllegalArgumentException("Partial tables are only supported in 9x9, not in " + geometry);
+		}
+		this.reader = new BufferedReader(reader, 64 * 1024);
+		this.side = geometry.getSide();
+		this.partial = partial;
+		this.oneLineTables = oneLineTables;
+	}
+	
+	@Override
+	public boolean next(byte[] cells, int offset) throws IOException {
+		String line;
+		do {
+			line = this.reader.readLine();
+			if (line == null) {
+				return false;
+			}
+		} while (isBlank(line));
+		if (this.oneLineTables && line.indexOf(',') < 0) {
+			GridParser.parseLine(line, cells, offset);
+			return true;
+		}
+		IllegalArgumentException error = null;
+		int rowIndex = 0;
+		while (true) {
+			if (error == null) {
+				try {
+					if (this.partial) {
+						GridParser.parsePartialRow(line, rowIndex, cells, offset);
+					} else {
+						GridParser.parseRow(line, rowIndex, cells, offset, this.side);
+					}
+				} catch (IllegalArgumentException e) {
+					// keep reading the rest of the table, so the next call starts at the next table
+					error = e;
+				}
+			}
+			rowIndex++;
+			if (rowIndex == this.side) {
+				break;
+			}
+			line = this.reader.readLine();
+			if (line == null || isBlank(line)) {
+				if (error == null) {
+					error = GridParser.tooFewRows(rowIndex, this.side);
+				}
+				break;
+			}
+		}
+		if (error != null) {
+			throw error;
+		}
+		return true;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		this.reader.close();
+	}
+	
+	private static boolean isBlank(String line) {
+		for (int i = 0; i < line.length(); i++) {
+			if (line.charAt(i) > ' ') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,42 @@
+package com.epam.sudoku_validator.dao;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Bulk writer of CSV files with many sudoku tables back to back, as CsvGridReader reads them
+ * 
+ * @author Istvan_Simo
+ */
+public class CsvGridWriter implements SudokuGridWriter {
+	
+	private final Writer out;
+	private final char[] line = new char[18];
+	
+	public CsvGridWriter(Writer out) {
+		this.out = out;
+	}
+	
+	@Override
+	public void write(byte[] cells, int offset) throws IOException {
+		for (int row = 0; row < 9; row++) {
+			for (int col = 0; col < 9; col++) {
+				this.line[col * 2] = (char) ('0' + cells[offset + row * 9 + col]);
+				this.line[col * 2 + 1] = ',';
+			}
+			this.line[17] = '\n';
+			this.out.write(this.line, 0, this.line.length);
+		}
+	}
+	
+	@Override
+	public void flush() throws IOException {
+		this.out.flush();
+	}
+	
+	@Override
+	public void close() throws IOException {
+		this.out.close();
+	}
+
+}
@@ -0,0 +1,174 @@
+package com.epam.sudoku_validator.dao;
+
+import java.util.Arrays;
+
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+
+/**
+ * Cache key of a grid, the 81 cells packed into 4 bits each (6 longs), see CacheKeyMode
+ * The key is the grid itself, not a digest, so different grids never share a key.
+ * The transform, which produced the key, isn't part of the equality.
+ *
+ * @author Istvan_Simo
+ */
+final class GridKey {
+
+	/**
+	 * Number of geometric variants: 2 orientations, 6 band orders and 6 stack orders
+	 */
+	static final int TRANSFORMS = 72;
+
+	/**
+	 * Identity transform
+	 */
+	static final int IDENTITY = 0;
+
+	private static final int WORDS = 6;
+
+	private static final byte[][] PERMUTATIONS = { { 0, 1, 2 }, { 0, 2, 1 }, { 1, 0, 2 }, { 1, 2, 0 }, { 2, 0, 1 }, { 2, 1, 0 } };
+
+	/**
+	 * Source cell of every target cell of every transform, at index transform * 81 + cell
+	 */
+	private static final byte[] SOURCE_CELLS = new byte[TRANSFORMS * BitmaskValidator.CELLS];
+
+	static {
+		for (int transpose = 0; transpose < 2; transpose++) {
+			for (int bands = 0; bands < 6; bands++) {
+				for (int stacks = 0; stacks < 6; stacks++) {
+					int transform = transpose * 36 + bands * 6 + stacks;
+					for (int row = 0; row < 9; row++) {
+						for (int col = 0; col < 9; col++) {
+							int sourceRow = PERMUTATIONS[bands][row / 3] * 3 + row % 3;
+							int sourceCol = PERMUTATIONS[stacks][col / 3] * 3 + col % 3;
+							SOURCE_CELLS[transform * BitmaskValidator.CELLS + row * 9 + col] =
+									(byte) (transpose == 0 ? sourceRow * 9 + sourceCol : sourceCol * 9 + sourceRow);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private final long[] words;
+	private final int transform;
+	private final int hash;
+
+	private GridKey(long[] words, int transform) {
+		this.words = words;
+		this.transform = transform;
+		long h = 0;
+		for (long word : words) {
+			h = (h + word) * 0x9E3779B97F4A7C15L;
+		}
+		this.hash = (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * Creates the key of the specified mode
+	 *
+	 * @param mode - the key mode
+	 * @param cells - the 81 cells of the grid
+	 * @return the key
+	 */
+	static GridKey of(CacheKeyMode mode, byte[] cells) {
+		long[] words = new long[WORDS];
+		switch (mode) {
+			case EXACT:
+				pack(cells, IDENTITY, null, words, null);
+				return new GridKey(words, IDENTITY);
+			case RELABEL:
+				pack(cells, IDENTITY, new byte[16], words, null);
+				return new GridKey(words, IDENTITY);
+			default:
+				byte[] labels = new byte[16];
+				pack(cells, IDENTITY, labels, words, null);
+				int best = IDENTITY;
+				long[] candidate = new long[WORDS];
+				for (int transform = 1; transform < TRANSFORMS; transform++) {
+					if (pack(cells, transform, labels, candidate, words)) {
+						long[] swap = words;
+						words = candidate;
+						candidate = swap;
+						best = transform;
+					}
+				}
+				return new GridKey(words, best);
+		}
+	}
+
+	/**
+	 * Packs the transformed grid, optionally relabelled in the order of first appearance
+	 * With a bound the grids are compared cell by cell, and it stops at the first cell which is greater than the bound.
+	 *
+	 * @param labels - work array of the relabelling (16 elements), or null to keep the digits
+	 * @return true if there's no bound, or the packed grid is less than the bound
+	 */
+	private static boolean pack(byte[] cells, int transform, byte[] labels, long[] words, long[] bound) {
+		boolean relabel = labels != null;
+		if (relabel) {
+			Arrays.fill(labels, (byte) 0);
+		}
+		byte nextLabel = 1;
+		int sourceBase = transform * BitmaskValidator.CELLS;
+		boolean less = bound == null;
+		for (int w = 0; w < WORDS; w++) {
+			long word = 0;
+			int first = w * 16;
+			int last = Math.min(first + 16, BitmaskValidator.CELLS);
+			for (int cell = first; cell < last; cell++) {
+				int value = cells[SOURCE_CELLS[sourceBase + cell]] & 0xF;
+				if (relabel) {
+					int label = labels[value];
+					if (label == 0) {
+						label = nextLabel++;
+						labels[value] = (byte) label;
+					}
+					value = label;
+				}
+				int shift = (cell - first) * 4;
+				if (!less) {
+					int boundValue = (int) (bound[w] >>> shift) & 0xF;
+					if (value > boundValue) {
+						return false;
+					}
+					less = value < boundValue;
+				}
+				word |= (long) value << shift;
+			}
+			words[w] = word;
+		}
+		return less;
+	}
+
+	/**
+	 * Returns with the geometric transform, which produced the key
+	 * Two grids with the same key and the same transform differ only in the digit labels.
+	 */
+	int getTransform() {
+		return this.transform;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof GridKey)) {
+			return false;
+		}
+		long[] other = ((GridKey) obj).words;
+		for (int w = 0; w < WORDS; w++) {
+			if (this.words[w] != other[w]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		return this.hash;
+	}
+
+}
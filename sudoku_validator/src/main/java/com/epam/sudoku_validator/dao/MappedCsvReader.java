@@ -0,0 +1,265 @@
+package com.epam.sudoku_validator.dao;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.epam.sudoku_validator.domain.GridGeometry;
+import com.epam.sudoku_validator.domain.GridParser;
+
+/**
+ * Memory-mapped CSV reader, which parses the cell values straight from the mapped bytes into a primitive grid
+ * The file is mapped in windows, so files larger than 2 GB can be read as well.
+ * Lines are split like BufferedReader.readLine does, and the cells like SudokuTable.populateGrid does,
+ * the error messages are the same, but there's no String or other object per line or cell.
+ *
+ * readTable reads the whole file as exactly one table, like SimpleSudokuTableDao.loadFromFile,
+ * next reads many tables back to back, like CsvGridReader.
+ * The tables are 9x9 by default, other sizes (see GridGeometry) can be set in the constructor.
+ *
+ * @author Istvan_Simo
+ */
+public class MappedCsvReader implements SudokuGridReader {
+
+	private static final long DEFAULT_WINDOW_SIZE = 64L * 1024 * 1024;
+
+	private final FileChannel channel;
+	private final long size;
+	private final long windowSize;
+	private final int side;
+	private final MappedLine line = new MappedLine();
+	private MappedByteBuffer buffer = null;
+	private long bufferStart = 0;
+	private int position = 0;
+
+	public MappedCsvReader(Path file) throws IOException {
+		this(file, DEFAULT_WINDOW_SIZE);
+	}
+	
+	public MappedCsvReader(Path file, GridGeometry geometry) throws IOException {
+		this(file, DEFAULT_WINDOW_SIZE, geometry);
+	}
+	
+	/**
+	 * @param file - the CSV file
+	 * @param windowSize - size of the mapped windows, a line can't be longer than this
+	 * @throws IOException
+	 */
+	public MappedCsvReader(Path file, long windowSize) throws IOException {
+		this(file, windowSize, GridGeometry.STANDARD);
+	}
+	
+	/**
+	 * @param file - the CSV file
+	 * @param windowSize - size of the mapped windows, a line can't be longer than this
+	 * @param geometry - size of the tables
+	 * @throws IOException
+	 */
+	public MappedCsvReader(Path file, long windowSize, GridGeometry geometry) throws IOException {
+		this.channel = FileChannel.open(file, StandardOpenOption.READ);
+		this.size = this.channel.size();
+		this.windowSize = windowSize;
+		this.side = geometry.getSide();
+	}
+
+	/**
+	 * Reads the whole file as one table with the rules of SudokuTable.populateGrid
+	 *
+	 * @param cells - the target grid
+	 * @param offset - index of the first cell of the grid
+	 * @throws IOException
+	 */
+	public void readTable(byte[] cells, int offset) throws IOException {
+		int rowIndex = 0;
+		while (nextLine()) {
+			if (rowIndex >= this.side) {
+				throw GridParser.tooManyRows(rowIndex + 1, this.side);
+			}
+			parseRow(rowIndex, cells, offset);
+			rowIndex++;
+		}
+		if (rowIndex < this.side) {
+			throw GridParser.tooFewRows(rowIndex, this.side);
+		}
+	}
+
+	@Override
+	public boolean next(byte[] cells, int offset) throws IOException {
+		boolean parsed = nextDigitRow(cells, offset);
+		if (!parsed) {
+			do {
+				if (!nextLine()) {
+					return false;
+				}
+			} while (this.line.isBlank());
+		}
+		IllegalArgumentException error = null;
+		int rowIndex = 0;
+		while (true) {
+			if (error == null && !parsed) {
+				try {
+					parseRow(rowIndex, cells, offset);
+				} catch (IllegalArgumentException e) {
+					// keep reading the rest of the table, so the next call starts at the next table
+					error = e;
+				}
+			}
+			rowIndex++;
+			if (rowIndex == this.side) {
+				break;
+			}
+			parsed = error == null && nextDigitRow(cells, offset + rowIndex * this.side);
+			if (!parsed && (!nextLine() || this.line.isBlank())) {
+				if (error == null) {
+					error = GridParser.tooFewRows(rowIndex, this.side);
+				}
+				break;
+			}
+		}
+		if (error != null) {
+			throw error;
+		}
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.buffer = null;
+		this.channel.close();
+	}
+
+	/**
+	 * Parses the current line as the row of a table, the usual rows of single digits straight from the mapped bytes
+	 */
+	private void parseRow(int rowIndex, byte[] cells, int offset) {
+		if (this.side > 9 || !GridParser.parseDigitRow(this.buffer, this.line.start, this.line.end, cells, offset + rowIndex * this.side, this.side)) {
+			GridParser.parseRow(this.line, rowIndex, cells, offset, this.side);
+		}
+	}
+
+	/**
+	 * Reads the next line, if it's a row of single digits in the canonical form, in one pass over the mapped bytes:
+	 * the terminator is expected right after the row, so there's no separate scan for the end of the line
+	 *
+	 * @param cells - the target grid
+	 * @param rowOffset - index of the first cell of the row
+	 * @return false if the next line is anything else (e.g. blank or malformed), nextLine and parseRow read it then
+	 */
+	private boolean nextDigitRow(byte[] cells, int rowOffset) {
+		MappedByteBuffer mapped = this.buffer;
+		int start = this.position;
+		int end = start + 2 * this.side - 1;
+		// the terminator and the byte after it should be in the window, like in nextLine
+		if (mapped == null || this.side > 9 || end + 1 >= mapped.limit()) {
+			return false;
+		}
+		byte terminator = mapped.get(end);
+		if ((terminator != '\n' && terminator != '\r') || !GridParser.parseDigitRow(mapped, start, end, cells, rowOffset, this.side)) {
+			return false;
+		}
+		this.line.set(mapped, start, end);
+		this.position = terminator == '\r' && mapped.get(end + 1) == '\n' ? end + 2 : end + 1;
+		return true;
+	}
+
+	/**
+	 * Moves the line view to the next line, line terminators are \n, \r and \r\n
+	 *
+	 * @return false at the end of the file
+	 */
+	private boolean nextLine() throws IOException {
+		if (this.bufferStart + this.position >= this.size) {
+			return false;
+		}
+		while (true) {
+			if (this.buffer == null) {
+				map(this.bufferStart + this.position);
+			}
+			int limit = this.buffer.limit();
+			boolean lastWindow = this.bufferStart + limit >= this.size;
+			int end = this.position;
+			while (end < limit) {
+				byte b = this.buffer.get(end);
+				if (b == '\n' || b == '\r') {
+					break;
+				}
+				end++;
+			}
+			// the line and its terminator should be in the window, otherwise remap from the start of the line
+			if (!lastWindow && end + 1 >= limit) {
+				if (this.position == 0) {
+					throw new IOException("Too long line in CSV file at byte " + this.bufferStart);
+				}
+				map(this.bufferStart + this.position);
+				continue;
+			}
+			this.line.set(this.buffer, this.position, end);
+			if (end < limit && this.buffer.get(end) == '\r' && end + 1 < limit && this.buffer.get(end + 1) == '\n') {
+				end++;
+			}
+			this.position = end + 1;
+			return true;
+		}
+	}
+
+	private void map(long start) throws IOException {
+		long length = Math.min(this.windowSize, this.size - start);
+		this.buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+		this.bufferStart = start;
+		this.position = 0;
+	}
+
+	/**
+	 * Reusable character view of one line in the mapped buffer
+	 * Every byte is a character, that's the same as the default charset for the valid ASCII content,
+	 * only the text of an invalid cell in the error messages is decoded with the default charset.
+	 */
+	private static class MappedLine implements CharSequence {
+		private MappedByteBuffer buffer;
+		private int start;
+		private int end;
+
+		void set(MappedByteBuffer buffer, int start, int end) {
+			this.buffer = buffer;
+			this.start = start;
+			this.end = end;
+		}
+
+		boolean isBlank() {
+			for (int i = this.start; i < this.end; i++) {
+				if ((this.buffer.get(i) & 0xFF) > ' ') {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int length() {
+			return this.end - this.start;
+		}
+
+		@Override
+		public char charAt(int index) {
+			return (char) (this.buffer.get(this.start + index) & 0xFF);
+		}
+
+		@Override
+		public CharSequence subSequence(int from, int to) {
+			byte[] bytes = new byte[to - from];
+			for (int i = 0; i < bytes.length; i++) {
+				bytes[i] = this.buffer.get(this.start + from + i);
+			}
+			return new String(bytes, Charset.defaultCharset());
+		}
+
+		@Override
+		public String toString() {
+			return subSequence(0, length()).toString();
+		}
+	}
+
+}
@@ -0,0 +1,200 @@
+package com.epam.sudoku_validator.dao;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Off-heap store of a corpus of 9x9 grids, a memory-mapped binary file (see BinaryGridFormat)
+ * A grid takes 41 bytes of the page cache and nothing of the heap, so a corpus of hundreds of millions of grids
+ * can be validated with a small fixed heap: the grids are unpacked straight from the mapped records into the
+ * reusable grid buffer of the caller, there's no object per grid.
+ * The file is mapped in windows of whole records, so it can be larger than 2 GB.
+ *
+ * The store is read-only and thread-safe, any number of cursors and random reads can use it at the same time.
+ * A cursor reads a range of the grids sequentially, it isn't thread-safe, use one cursor per thread.
+ * The binary files can be written with SudokuTableDao.openGridWriter, or converted from CSV with --convert.
+ *
+ * @author Istvan_Simo
+ */
+public class MappedGridStore implements Closeable {
+
+	private static final int DEFAULT_WINDOW_RECORDS = (1 << 30) / BinaryGridFormat.RECORD_SIZE;
+
+	private final FileChannel channel;
+	private final long size;
+	private final boolean truncated;
+	private final int windowRecords;
+	private final MappedByteBuffer[] windows;
+
+	/**
+	 * Opens the binary file and maps it in 1 GB windows
+	 *
+	 * @param file - the binary file
+	 * @return the store, the caller should close it
+	 * @throws IOException if the file can't be read, or it isn't a binary sudoku file
+	 */
+	public static MappedGridStore open(Path file) throws IOException {
+		return new MappedGridStore(file, DEFAULT_WINDOW_RECORDS);
+	}
+
+	/**
+	 * @param file - the binary file
+	 * @param windowRecords - number of records in a mapped window
+	 * @throws IOException if the file can't be read, or it isn't a binary sudoku file
+	 */
+	public MappedGridStore(Path file, int windowRecords) throws IOException {
+		if (windowRecords < 1) {
+			throw new IllegalArgumentException("Invalid window size: " + windowRecords);
+		}
+		this.channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			long fileSize = this.channel.size();
+			byte[] header = new byte[BinaryGridFormat.HEADER_SIZE];
+			ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+			while (headerBuffer.hasRemaining() && this.channel.read(headerBuffer, headerBuffer.position()) > 0) {
+				// the header is read in one go, except in rare cases
+			}
+			BinaryGridFormat.checkHeader(header, headerBuffer.position());
+			long recordBytes = fileSize - BinaryGridFormat.HEADER_SIZE;
+			this.size = recordBytes / BinaryGridFormat.RECORD_SIZE;
+			this.truncated = recordBytes % BinaryGridFormat.RECORD_SIZE != 0;
+			this.windowRecords = windowRecords;
+			this.windows = new MappedByteBuffer[(int) ((this.size + windowRecords - 1) / windowRecords)];
+			for (int i = 0; i < this.windows.length; i++) {
+				long first = (long) i * windowRecords;
+				long records = Math.min(windowRecords, this.size - first);
+				this.windows[i] = this.channel.map(FileChannel.MapMode.READ_ONLY,
+						BinaryGridFormat.HEADER_SIZE + first * BinaryGridFormat.RECORD_SIZE, records * BinaryGridFormat.RECORD_SIZE);
+			}
+		} catch (IOException | RuntimeException e) {
+			this.channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns with the number of grids
+	 */
+	public long size() {
+		return this.size;
+	}
+
+	/**
+	 * Unpacks one grid
+	 *
+	 * @param index - zero based index of the grid
+	 * @param cells - the target grid in row-major order
+	 * @param offset - index of the first cell of the grid
+	 * @throws IndexOutOfBoundsException if there's no grid at the index
+	 * @throws IllegalArgumentException if a cell value isn't between 1 and 9
+	 */
+	public void read(long index, byte[] cells, int offset) {
+		if (index < 0 || index >= this.size) {
+			throw new IndexOutOfBoundsException("Invalid grid index: " + index + ", size: " + this.size);
+		}
+		BinaryGridFormat.unpack(this.windows[(int) (index / this.windowRecords)],
+				(int) (index % this.windowRecords) * BinaryGridFormat.RECORD_SIZE, cells, offset);
+	}
+
+	/**
+	 * Returns with a cursor of all the grids
+	 */
+	public Cursor cursor() {
+		return new Cursor(0, this.size, false);
+	}
+
+	/**
+	 * Returns with a cursor of a range of the grids, e.g. the share of one thread
+	 *
+	 * @param from - index of the first grid, inclusive
+	 * @param to - index of the last grid, exclusive
+	 */
+	public Cursor cursor(long from, long to) {
+		if (from < 0 || to > this.size || from > to) {
+			throw new IndexOutOfBoundsException("Invalid grid range: " + from + " - " + to + ", size: " + this.size);
+		}
+		return new Cursor(from, to, false);
+	}
+
+	/**
+	 * Returns with a cursor of all the grids, which closes the store as well
+	 */
+	Cursor closingCursor() {
+		return new Cursor(0, this.size, true);
+	}
+
+	/**
+	 * Closes the file, the mapped windows are released by the garbage collector
+	 */
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+
+	/**
+	 * Sequential reader of a range of the grids, with the same errors as BinaryGridReader
+	 * Closing the cursor doesn't close the store, except the one of SudokuTableDao.openGridReader.
+	 */
+	public class Cursor implements SudokuGridReader {
+		private final long from;
+		private final long to;
+		private final boolean closeStore;
+		private long position;
+
+		private Cursor(long from, long to, boolean closeStore) {
+			this.from = from;
+			this.to = to;
+			this.closeStore = closeStore;
+			this.position = from;
+		}
+
+		/**
+		 * Returns with the index of the next grid
+		 */
+		public long getPosition() {
+			return this.position;
+		}
+
+		/**
+		 * Moves the cursor to the specified grid of its range
+		 *
+		 * @param index - index of the next grid to be read
+		 */
+		public void seek(long index) {
+			if (index < this.from || index > this.to) {
+				throw new IndexOutOfBoundsException("Invalid grid index: " + index + ", cursor range: " + this.from + " - " + this.to);
+			}
+			this.position = index;
+		}
+
+		/**
+		 * Reads the next grid, a malformed grid is skipped, like in the other readers
+		 *
+		 * @throws IOException at the end of a file with a truncated last record
+		 */
+		@Override
+		public boolean next(byte[] cells, int offset) throws IOException {
+			if (this.position == this.to) {
+				if (this.to == size && truncated) {
+					throw new IOException("Truncated record at the end of the binary sudoku file");
+				}
+				return false;
+			}
+			read(this.position++, cells, offset);
+			return true;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (this.closeStore) {
+				MappedGridStore.this.close();
+			}
+		}
+	}
+
+}
@@ -1,26 +1,41 @@
 package com.epam.sudoku_validator.dao;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import org.slf4j.Logger;
 
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+import com.epam.sudoku_validator.domain.GridGeometry;
+import com.epam.sudoku_validator.domain.SudokuGrid;
 import com.epam.sudoku_validator.domain.SudokuTable;
+import com.epam.sudoku_validator.domain.ValidationResult;
 
 /**
  * Sudoku table DAO class
+ * The load, validate and diagnose methods work on the one sudoku table of the DAO, so they are not thread-safe.
+ * readGrid, validate(SudokuGrid) and the grid readers and writers are stateless, one DAO instance can serve
+ * any number of threads with them, without locking.
  * 
  * @author Istvan_Simo
  */
 public class SimpleSudokuTableDao implements SudokuTableDao {
 	
 	private SudokuTable sudokuTable = new SudokuTable();
+	private byte[] cells = new byte[BitmaskValidator.CELLS];
 	
 	public void init() {
 		
@@ -28,6 +43,8 @@ public class SimpleSudokuTableDao implements SudokuTableDao {
 	
 	/**
 	 * Loads the specified file and populate the sudoku table
+	 * The size of the table is detected from the file: if it has n² rows of n² values (e.g. 16 rows of 16 values),
+	 * it's loaded as an n²×n² table, otherwise as a 9x9 table with the usual error messages.
 	 * 
 	 * @param fileName
 	 */
@@ -48,6 +65,10 @@ public class SimpleSudokuTableDao implements SudokuTableDao {
 	        	bufReader.close();
 	        	inputSR.close();
 	        	fileIS.close();
+	        	GridGeometry geometry = detectGeometry(rows);
+	        	if (geometry != this.sudokuTable.getGeometry()) {
+	        		this.sudokuTable = new SudokuTable(geometry);
+	        	}
 	        	this.sudokuTable.populateGrid(rows);
 	        	retVal = true;
 	        } catch (FileNotFoundException e) {
@@ -65,6 +86,187 @@ public class SimpleSudokuTableDao implements SudokuTableDao {
 		return retVal;
 	}
 	
+	/**
+	 * Returns with the size of a well-formed table of other than 9x9, or with the standard size
+	 */
+	private static GridGeometry detectGeometry(List<List<String>> rows) {
+		GridGeometry geometry = rows.isEmpty() ? null : GridGeometry.ofSide(rows.get(0).size());
+		if (geometry != null && geometry.getSide() == rows.size()) {
+			return geometry;
+		}
+		return GridGeometry.STANDARD;
+	}
+	
+	/**
+	 * Loads the specified file through a memory mapping and populates the sudoku table
+	 * It gives the same result and error messages as loadFromFile, but it parses the values straight from the file
+	 * 
+	 * @param fileName
+	 */
+	public boolean loadFromMappedFile(Logger LOG, String fileName) {
+		boolean retVal = false;
+		File f = new File(fileName);
+		if(f.exists() && !f.isDirectory()) {
+			try (MappedCsvReader reader = new MappedCsvReader(f.toPath())) {
+				reader.readTable(this.cells, 0);
+				if (this.sudokuTable.getGeometry() != GridGeometry.STANDARD) {
+					this.sudokuTable = new SudokuTable();
+				}
+				this.sudokuTable.populateCells(this.cells, 0);
+				retVal = true;
+			} catch (IllegalArgumentException e) {
+				LOG.error("Can't populate sudoku table because of wrong CSV content: " + e.getMessage());
+			} catch (IOException e) {
+				LOG.error("Can't read the specified input file: " + fileName + " (" + e.getMessage() + ")");
+			}
+		} else {
+			LOG.error("Invalid input file specification: " + fileName);
+		}
+		return retVal;
+	}
+	
+	/**
+	 * Reads the specified CSV file as one immutable grid, with the same rules and error messages as loadFromFile
+	 * It's stateless, so it can be called from many threads at the same time
+	 * 
+	 * @param fileName
+	 * @return the grid of the file
+	 * @throws IOException if the file can't be read
+	 * @throws IllegalArgumentException in case of wrong CSV content
+	 */
+	public SudokuGrid readGrid(String fileName) throws IOException {
+		byte[] gridCells = new byte[BitmaskValidator.CELLS];
+		try (MappedCsvReader reader = new MappedCsvReader(new File(fileName).toPath())) {
+			reader.readTable(gridCells, 0);
+		}
+		return SudokuGrid.of(gridCells, 0);
+	}
+	
+	/**
+	 * Validates an immutable grid, it's stateless, so it can be called from many threads at the same time
+	 * Every thread uses its own validator, there's no locking and no allocation for valid grids.
+	 * 
+	 * @param grid - the grid to be validated
+	 * @return ValidationResult.VALID, or the result with all the errors
+	 */
+	public ValidationResult validate(SudokuGrid grid) {
+		return ValidatorHolder.VALIDATOR.get().diagnose(grid);
+	}
+	
+	/**
+	 * Opens the specified file for streaming validation of many sudoku tables
+	 * Files with .sdkb extension are read as compact binary files (see BinaryGridFormat), the others as CSV files.
+	 * Both are memory-mapped, so even multi-gigabyte files are read without per line or per cell objects
+	 * 
+	 * @param fileName
+	 * @return the reader of the tables, the caller should close it
+	 * @throws IOException
+	 */
+	public SudokuGridReader openGridReader(String fileName) throws IOException {
+		if (BinaryGridFormat.isBinaryFile(fileName)) {
+			return MappedGridStore.open(new File(fileName).toPath()).closingCursor();
+		}
+		return new MappedCsvReader(new File(fileName).toPath());
+	}
+	
+	/**
+	 * Opens the specified binary file as an off-heap store of grids, with random access and range cursors
+	 * It's stateless, the store can be shared by any number of threads.
+	 * 
+	 * @param fileName - binary (.sdkb) file
+	 * @return the store, the caller should close it
+	 * @throws IOException
+	 */
+	public MappedGridStore openGridStore(String fileName) throws IOException {
+		return MappedGridStore.open(new File(fileName).toPath());
+	}
+	
+	/**
+	 * Opens the specified CSV file for streaming validation of many sudoku tables of the given size
+	 * The binary format holds 9x9 tables only.
+	 * 
+	 * @param fileName
+	 * @param geometry - size of the tables
+	 * @return the reader of the tables, the caller should close it
+	 * @throws IOException
+	 */
+	public SudokuGridReader openGridReader(String fileName, GridGeometry geometry) throws IOException {
+		if (geometry == GridGeometry.STANDARD) {
+			return openGridReader(fileName);
+		}
+		if (BinaryGridFormat.isBinaryFile(fileName)) {
+			throw new IOException("The binary format holds 9x9 tables only: " + fileName);
+		}
+		return new MappedCsvReader(new File(fileName).toPath(), geometry);
+	}
+	
+	/**
+	 * Opens a stream of tables, e.g. a request body, the format is detected from the content:
+	 * binary if it starts with the header of the binary format, UTF-8 CSV otherwise
+	 * 
+	 * @param in - the stream of tables, it's closed with the reader
+	 * @return the reader of the tables, the caller should close it
+	 * @throws IOException
+	 */
+	public SudokuGridReader openGridReader(InputStream in) throws IOException {
+		return openGridReader(in, false);
+	}
+	
+	/**
+	 * Opens a stream of 9x9 tables from a pipe, e.g. the standard input, the format is detected like in
+	 * openGridReader(InputStream), but in a CSV stream a table can be a single line of 81 digits as well
+	 * 
+	 * @param in - the stream of tables, it's closed with the reader
+	 * @return the reader of the tables, the caller should close it
+	 * @throws IOException
+	 */
+	public SudokuGridReader openStreamGridReader(InputStream in) throws IOException {
+		return openGridReader(in, true);
+	}
+	
+	private SudokuGridReader openGridReader(InputStream in, boolean oneLineTables) throws IOException {
+		BufferedInputStream buffered = new BufferedInputStream(in, 64 * 1024);
+		byte[] header = new byte[BinaryGridFormat.HEADER_SIZE];
+		buffered.mark(header.length);
+		int length = 0;
+		int count;
+		while (length < header.length && (count = buffered.read(header, length, header.length - length)) > 0) {
+			length += count;
+		}
+		buffered.reset();
+		if (BinaryGridFormat.hasMagic(header, length)) {
+			return new BinaryGridReader(buffered);
+		}
+		return new CsvGridReader(new InputStreamReader(buffered, StandardCharsets.UTF_8), oneLineTables);
+	}
+	
+	/**
+	 * Opens a stream of partial 9x9 tables in UTF-8 CSV format, the empty cells are 0 or blank values
+	 * The cells are read into the buffer of the caller as 0 for the empty cells, see PartialGridValidator.
+	 * 
+	 * @param in - the stream of tables, it's closed with the reader
+	 * @return the reader of the tables, the caller should close it
+	 * @throws IOException
+	 */
+	public SudokuGridReader openPartialGridReader(InputStream in) throws IOException {
+		return new CsvGridReader(new InputStreamReader(in, StandardCharsets.UTF_8), GridGeometry.STANDARD, true);
+	}
+	
+	/**
+	 * Creates the specified file for writing many sudoku tables
+	 * Files with .sdkb extension are written as compact binary files (see BinaryGridFormat), the others as CSV files.
+	 * 
+	 * @param fileName
+	 * @return the writer of the tables, the caller should close it
+	 * @throws IOException
+	 */
+	public SudokuGridWriter openGridWriter(String fileName) throws IOException {
+		if (BinaryGridFormat.isBinaryFile(fileName)) {
+			return new BinaryGridWriter(new FileOutputStream(fileName));
+		}
+		return new CsvGridWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileName)), 64 * 1024));
+	}
+	
 	/**
 	 * Returns with the string representation of the sudoku table
 	 */
@@ -79,5 +281,29 @@ public class SimpleSudokuTableDao implements SudokuTableDao {
 	public boolean validate(Logger LOG) {
 		return this.sudokuTable.validate(LOG);
 	}
+	
+	/**
+	 * Returns with the sudoku table validation result of the allocation-free bitmask validator
+	 * @return
+	 */
+	public boolean validate() {
+		return this.sudokuTable.validate();
+	}
+	
+	/**
+	 * Returns with all the failing units and conflicting cells of the sudoku table
+	 * @return
+	 */
+	public ValidationResult diagnose() {
+		return this.sudokuTable.diagnose();
+	}
+	
+	/**
+	 * Holder of the per thread validators, it's initialized on the first validate(SudokuGrid) call only,
+	 * so the lambda bootstrap doesn't slow down the start of SudokuValidatorLauncher
+	 */
+	private static class ValidatorHolder {
+		static final ThreadLocal<BitmaskValidator> VALIDATOR = ThreadLocal.withInitial(BitmaskValidator::new);
+	}
 
 }
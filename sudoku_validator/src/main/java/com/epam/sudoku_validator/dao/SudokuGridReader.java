@@ -0,0 +1,23 @@
+package com.epam.sudoku_validator.dao;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Interface for streaming readers, which read many sudoku grids one after the other into a primitive grid buffer
+ * 
+ * @author Istvan_Simo
+ */
+public interface SudokuGridReader extends Closeable {
+	/**
+	 * Reads the next grid into the given buffer in row-major order (81 cells)
+	 * If the grid is malformed, the reader skips the rest of it and throws IllegalArgumentException,
+	 * so the caller can continue with the next grid
+	 * 
+	 * @param cells - the target buffer
+	 * @param offset - index of the first cell of the grid in the buffer
+	 * @return false at the end of the input
+	 * @throws IOException
+	 */
+	public boolean next(byte[] cells, int offset) throws IOException;
+}
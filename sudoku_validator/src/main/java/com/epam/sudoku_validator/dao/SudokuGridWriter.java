@@ -0,0 +1,21 @@
+package com.epam.sudoku_validator.dao;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * Interface for bulk writers, which write many sudoku grids one after the other from a primitive grid buffer
+ * 
+ * @author Istvan_Simo
+ */
+public interface SudokuGridWriter extends Closeable, Flushable {
+	/**
+	 * Writes one grid from the given buffer in row-major order (81 cells)
+	 * 
+	 * @param cells - the source buffer
+	 * @param offset - index of the first cell of the grid in the buffer
+	 * @throws IOException
+	 */
+	public void write(byte[] cells, int offset) throws IOException;
+}
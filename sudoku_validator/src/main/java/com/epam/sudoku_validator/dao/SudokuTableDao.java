@@ -1,7 +1,14 @@
 package com.epam.sudoku_validator.dao;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 import org.slf4j.Logger;
 
+import com.epam.sudoku_validator.domain.GridGeometry;
+import com.epam.sudoku_validator.domain.SudokuGrid;
+import com.epam.sudoku_validator.domain.ValidationResult;
+
 /**
  * Interface for SudokuTable
  * 
@@ -9,4 +16,22 @@ import org.slf4j.Logger;
  */
 public interface SudokuTableDao {
 	public boolean loadFromFile(Logger LOG, String fileName);
+	
+	public SudokuGridReader openGridReader(String fileName) throws IOException;
+	
+	public SudokuGridReader openGridReader(InputStream in) throws IOException;
+	
+	public SudokuGridReader openGridReader(String fileName, GridGeometry geometry) throws IOException;
+	
+	public SudokuGridReader openPartialGridReader(InputStream in) throws IOException;
+	
+	public SudokuGridReader openStreamGridReader(InputStream in) throws IOException;
+	
+	public MappedGridStore openGridStore(String fileName) throws IOException;
+	
+	public SudokuGridWriter openGridWriter(String fileName) throws IOException;
+	
+	public SudokuGrid readGrid(String fileName) throws IOException;
+	
+	public ValidationResult validate(SudokuGrid grid);
 }
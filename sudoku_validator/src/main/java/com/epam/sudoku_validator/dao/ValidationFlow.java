@@ -0,0 +1,61 @@
+package com.epam.sudoku_validator.dao;
+
+/**
+ * Publish-subscribe interfaces of the asynchronous bulk validation, see AsyncSudokuTableDao
+ * They have the same methods and rules as java.util.concurrent.Flow (and Reactive Streams), which aren't available
+ * on Java 8, so an adapter to a reactive library is a one-line delegation per method.
+ * The publisher emits only as many items as the subscriber requested, the demand is the backpressure.
+ *
+ * @author Istvan_Simo
+ */
+public final class ValidationFlow {
+
+	private ValidationFlow() {
+	}
+
+	/**
+	 * Producer of items, every subscriber gets its own subscription
+	 */
+	@FunctionalInterface
+	public interface Publisher<T> {
+		public void subscribe(Subscriber<? super T> subscriber);
+	}
+
+	/**
+	 * Receiver of items, the methods of one subscription are called one at a time, never concurrently
+	 */
+	public interface Subscriber<T> {
+		/**
+		 * Called first, before any other method, no item is sent until the subscription is requested
+		 */
+		public void onSubscribe(Subscription subscription);
+
+		public void onNext(T item);
+
+		/**
+		 * Terminal failure, no more calls follow
+		 */
+		public void onError(Throwable throwable);
+
+		/**
+		 * Terminal completion, no more calls follow
+		 */
+		public void onComplete();
+	}
+
+	/**
+	 * Link between a publisher and one subscriber
+	 */
+	public interface Subscription {
+		/**
+		 * Adds n items to the demand, a non-positive n fails the subscription with IllegalArgumentException
+		 */
+		public void request(long n);
+
+		/**
+		 * Stops sending items, some already in flight may still arrive
+		 */
+		public void cancel();
+	}
+
+}
@@ -0,0 +1,226 @@
+package com.epam.sudoku_validator.domain;
+
+import java.util.Arrays;
+
+/**
+ * Allocation-free validator for standard 9x9 sudoku grids stored as 81 primitive bytes in row-major order
+ * Every row, column and subtable gets a 9-bit occupancy mask, all of them are filled in one pass over the cells.
+ * A unit is valid only if its mask is complete, because 9 cells can cover all 9 digits only without duplication.
+ * The failing unit and the reported error cell are the same as the ones found by SudokuTable.validate(Logger).
+ *
+ * It's the BITMASK validation engine of 9x9 grids, see ValidationEngineType.
+ *
+ * An instance holds its mask buffer, so it isn't thread-safe, use one instance per thread.
+ *
+ * @author Istvan_Simo
+ */
+public final class BitmaskValidator implements ValidationEngine {
+	/**
+	 * Return value of validate for valid grids
+	 */
+	public static final int VALID = -1;
+
+	/**
+	 * Number of cells in a grid
+	 */
+	public static final int CELLS = 81;
+
+	/**
+	 * Number of units (9 rows, 9 columns, 9 subtables)
+	 */
+	public static final int UNITS = 27;
+
+	static final int FULL_MASK = 0x1FF;
+
+	private static final ValidateType[] UNIT_TYPES = ValidateType.values();
+
+	/**
+	 * Digit bit for every possible byte value, it's 0 for values out of the 1..9 range
+	 */
+	static final int[] DIGIT_BITS = new int[256];
+
+	static final byte[] ROW_OF = new byte[CELLS];
+	static final byte[] COL_OF = new byte[CELLS];
+	static final byte[] BOX_OF = new byte[CELLS];
+
+	/**
+	 * Cells of every unit in the order as SudokuTable.validateSet visits them
+	 * Units 0..8 are the rows, 9..17 the columns and 18..26 the subtables
+	 */
+	static final byte[] UNIT_CELLS = new byte[UNITS * 9];
+
+	/**
+	 * Unit order of SudokuTable.validate: row 0, column 0, subtable 0, row 1, ...
+	 */
+	static final byte[] CHECK_ORDER = new byte[UNITS];
+
+	static {
+		for (int digit = 1; digit <= 9; digit++) {
+			DIGIT_BITS[digit] = 1 << (digit - 1);
+		}
+		for (int cell = 0; cell < CELLS; cell++) {
+			ROW_OF[cell] = (byte) (cell / 9);
+			COL_OF[cell] = (byte) (cell % 9);
+			BOX_OF[cell] = (byte) ((cell / 27) * 3 + (cell % 9) / 3);
+		}
+		for (int itemIndex = 0; itemIndex < 9; itemIndex++) {
+			for (int index = 0; index < 9; index++) {
+				UNIT_CELLS[itemIndex * 9 + index] = (byte) (itemIndex * 9 + index);
+				UNIT_CELLS[(9 + itemIndex) * 9 + index] = (byte) (index * 9 + itemIndex);
+				int rowIndex = (itemIndex / 3) * 3 + index / 3;
+				int colIndex = (itemIndex % 3) * 3 + index % 3;
+				UNIT_CELLS[(18 + itemIndex) * 9 + index] = (byte) (rowIndex * 9 + colIndex);
+			}
+			CHECK_ORDER[itemIndex * 3] = (byte) itemIndex;
+			CHECK_ORDER[itemIndex * 3 + 1] = (byte) (9 + itemIndex);
+			CHECK_ORDER[itemIndex * 3 + 2] = (byte) (18 + itemIndex);
+		}
+	}
+
+	private final int[] unitMasks = new int[UNITS];
+	private int failingUnit = -1;
+	private long conflictsLow = 0;
+	private long conflictsHigh = 0;
+
+	public GridGeometry getGeometry() {
+		return GridGeometry.STANDARD;
+	}
+
+	/**
+	 * Validates the grid starting at the given offset
+	 *
+	 * @param cells - cell values in row-major order, 1..9 for each cell
+	 * @param offset - index of the first cell of the grid
+	 * @return VALID, or the index (row * 9 + col) of the error cell in the first failing unit
+	 */
+	public int validate(byte[] cells, int offset) {
+		int[] masks = this.unitMasks;
+		Arrays.fill(masks, 0);
+		for (int cell = 0; cell < CELLS; cell++) {
+			int bit = DIGIT_BITS[cells[offset + cell] & 0xFF];
+			masks[ROW_OF[cell]] |= bit;
+			masks[9 + COL_OF[cell]] |= bit;
+			masks[18 + BOX_OF[cell]] |= bit;
+		}
+		for (int i = 0; i < UNITS; i++) {
+			int unit = CHECK_ORDER[i];
+			if (masks[unit] != FULL_MASK) {
+				this.failingUnit = unit;
+				return errorCell(cells, offset, unit);
+			}
+		}
+		this.failingUnit = -1;
+		return VALID;
+	}
+
+	/**
+	 * Full diagnostic validation of an immutable grid, see diagnose(byte[], int)
+	 *
+	 * @param grid - the grid to be validated
+	 * @return ValidationResult.VALID, or the result with all the errors
+	 */
+	public ValidationResult diagnose(SudokuGrid grid) {
+		return diagnose(grid.cells(), 0);
+	}
+
+	/**
+	 * Full diagnostic validation of the grid starting at the given offset
+	 * The grid is read once, by the mask pass of validate, so a valid grid costs exactly as much as validate.
+	 * Every unit with an incomplete mask is failing, and every conflicting cell is in a failing unit, so the conflicts
+	 * are found inside the failing units only, 9 cells each, without another pass over the grid.
+	 *
+	 * @param cells - cell values in row-major order, 1..9 for each cell
+	 * @param offset - index of the first cell of the grid
+	 * @return ValidationResult.VALID, or the result with all the errors
+	 */
+	public ValidationResult diagnose(byte[] cells, int offset) {
+		int errorCell = validate(cells, offset);
+		if (errorCell == VALID) {
+			return ValidationResult.VALID;
+		}
+		int[] masks = this.unitMasks;
+		this.conflictsLow = 0;
+		this.conflictsHigh = 0;
+		int failingUnits = 0;
+		for (int unit = 0; unit < UNITS; unit++) {
+			if (masks[unit] != FULL_MASK) {
+				failingUnits |= 1 << unit;
+				markConflicts(cells, offset, unit);
+			}
+		}
+		return new ValidationResult(errorCell, failingUnits, this.conflictsLow, this.conflictsHigh);
+	}
+
+	/**
+	 * Marks the cells of the unit with invalid or repeated values as conflicting
+	 */
+	private void markConflicts(byte[] cells, int offset, int unit) {
+		int seen = 0;
+		int repeated = 0;
+		for (int index = 0; index < 9; index++) {
+			int bit = DIGIT_BITS[cells[offset + UNIT_CELLS[unit * 9 + index]] & 0xFF];
+			repeated |= seen & bit;
+			seen |= bit;
+		}
+		for (int index = 0; index < 9; index++) {
+			int cell = UNIT_CELLS[unit * 9 + index];
+			int bit = DIGIT_BITS[cells[offset + cell] & 0xFF];
+			if (bit == 0 || (repeated & bit) != 0) {
+				markConflict(cell);
+			}
+		}
+	}
+
+	private void markConflict(int cell) {
+		if (cell < 64) {
+			this.conflictsLow |= 1L << cell;
+		} else {
+			this.conflictsHigh |= 1L << (cell - 64);
+		}
+	}
+
+	/**
+	 * Returns with the first failing unit of the last validation, or -1 if the grid was valid
+	 * Units 0..8 are the rows, 9..17 the columns and 18..26 the subtables
+	 */
+	public int getFailingUnit() {
+		return this.failingUnit;
+	}
+
+	/**
+	 * Returns with the type of the given unit
+	 *
+	 * @param unit - unit index, 0..26
+	 */
+	public static ValidateType unitType(int unit) {
+		return UNIT_TYPES[unit / 9];
+	}
+
+	/**
+	 * Returns with the row, column or subtable index of the given unit
+	 *
+	 * @param unit - unit index, 0..26
+	 */
+	public static int unitIndex(int unit) {
+		return unit % 9;
+	}
+
+	/**
+	 * Finds the error cell of a failing unit the same way as SudokuTable.validateSet does: the last repeated value
+	 * Values out of the 1..9 range are reported as error as well
+	 */
+	private static int errorCell(byte[] cells, int offset, int unit) {
+		int seen = 0;
+		int errorCell = UNIT_CELLS[unit * 9];
+		for (int index = 0; index < 9; index++) {
+			int cell = UNIT_CELLS[unit * 9 + index];
+			int bit = DIGIT_BITS[cells[offset + cell] & 0xFF];
+			if (bit == 0 || (seen & bit) != 0) {
+				errorCell = cell;
+			}
+			seen |= bit;
+		}
+		return errorCell;
+	}
+
+}
@@ -0,0 +1,143 @@
+package com.epam.sudoku_validator.domain;
+
+import java.util.Arrays;
+
+/**
+ * Validator for many 9x9 grids stored back to back, 81 bytes each in row-major order
+ * The SWAR kernel validates 7 grids at a time: the 9-bit unit masks of the 7 grids are packed side by side
+ * into one long (lane i is bits 9*i..9*i+8), so one OR updates a unit of all 7 grids. The 27 unit masks are
+ * ANDed together at the end, a lane is valid only if its 9 bits are all set.
+ * Only the failing grids go through BitmaskValidator again, so the error cells are the same as the scalar ones.
+ *
+ * An instance holds its mask buffers, so it isn't thread-safe, use one instance per thread.
+ *
+ * @author Istvan_Simo
+ */
+public final class BulkValidator {
+
+	/**
+	 * Number of grids validated at a time by the SWAR kernel
+	 */
+	public static final int LANES = 7;
+
+	private static final int LANE_BITS = 9;
+
+	/**
+	 * Digit bit of every byte value shifted into every lane, at index lane * 256 + value
+	 */
+	private static final long[] LANE_DIGIT_BITS = new long[LANES * 256];
+
+	/**
+	 * Full masks of the first n lanes at index n
+	 */
+	private static final long[] FULL_LANES = new long[LANES + 1];
+
+	static {
+		for (int lane = 0; lane < LANES; lane++) {
+			for (int digit = 1; digit <= 9; digit++) {
+				LANE_DIGIT_BITS[lane * 256 + digit] = (1L << (digit - 1)) << (lane * LANE_BITS);
+			}
+			FULL_LANES[lane + 1] = FULL_LANES[lane] | (0x1FFL << (lane * LANE_BITS));
+		}
+	}
+
+	private final ValidationKernel kernel;
+	private final BitmaskValidator validator = new BitmaskValidator();
+	private final long[] unitMasks = new long[BitmaskValidator.UNITS];
+
+	public BulkValidator(ValidationKernel kernel) {
+		this.kernel = kernel;
+	}
+
+	public ValidationKernel getKernel() {
+		return this.kernel;
+	}
+
+	/**
+	 * Validates the grids starting at the given offset
+	 *
+	 * @param cells - cell values of the grids, 81 bytes each
+	 * @param offset - index of the first cell of the first grid
+	 * @param count - number of grids
+	 * @param results - target of the results: VALID or the error cell (row * 9 + col) as BitmaskValidator.validate returns
+	 */
+	public void validate(byte[] cells, int offset, int count, int[] results) {
+		if (this.kernel == ValidationKernel.SCALAR) {
+			for (int i = 0; i < count; i++) {
+				results[i] = this.validator.validate(cells, offset + i * BitmaskValidator.CELLS);
+			}
+			return;
+		}
+		int grid = 0;
+		for (; grid + LANES <= count; grid += LANES) {
+			validateLanes(cells, offset + grid * BitmaskValidator.CELLS, results, grid);
+		}
+		if (grid < count) {
+			validateLanes(cells, offset + grid * BitmaskValidator.CELLS, count - grid, results, grid);
+		}
+	}
+
+	/**
+	 * Validates 7 grids, the lanes are unrolled
+	 */
+	private void validateLanes(byte[] cells, int offset, int[] results, int resultOffset) {
+		long[] masks = this.unitMasks;
+		Arrays.fill(masks, 0L);
+		final int c = BitmaskValidator.CELLS;
+		for (int cell = 0; cell < c; cell++) {
+			int index = offset + cell;
+			long word = LANE_DIGIT_BITS[cells[index] & 0xFF]
+					| LANE_DIGIT_BITS[256 | (cells[index + c] & 0xFF)]
+					| LANE_DIGIT_BITS[512 | (cells[index + 2 * c] & 0xFF)]
+					| LANE_DIGIT_BITS[768 | (cells[index + 3 * c] & 0xFF)]
+					| LANE_DIGIT_BITS[1024 | (cells[index + 4 * c] & 0xFF)]
+					| LANE_DIGIT_BITS[1280 | (cells[index + 5 * c] & 0xFF)]
+					| LANE_DIGIT_BITS[1536 | (cells[index + 6 * c] & 0xFF)];
+			masks[BitmaskValidator.ROW_OF[cell]] |= word;
+			masks[9 + BitmaskValidator.COL_OF[cell]] |= word;
+			masks[18 + BitmaskValidator.BOX_OF[cell]] |= word;
+		}
+		collect(cells, offset, LANES, results, resultOffset);
+	}
+
+	/**
+	 * Validates the first lanes grids, for the remainder of a batch
+	 */
+	private void validateLanes(byte[] cells, int offset, int lanes, int[] results, int resultOffset) {
+		long[] masks = this.unitMasks;
+		Arrays.fill(masks, 0L);
+		for (int cell = 0; cell < BitmaskValidator.CELLS; cell++) {
+			long word = 0L;
+			for (int lane = 0; lane < lanes; lane++) {
+				word |= LANE_DIGIT_BITS[(lane << 8) | (cells[offset + lane * BitmaskValidator.CELLS + cell] & 0xFF)];
+			}
+			masks[BitmaskValidator.ROW_OF[cell]] |= word;
+			masks[9 + BitmaskValidator.COL_OF[cell]] |= word;
+			masks[18 + BitmaskValidator.BOX_OF[cell]] |= word;
+		}
+		collect(cells, offset, lanes, results, resultOffset);
+	}
+
+	/**
+	 * ANDs the unit masks together, the failing lanes are validated again one by one for the error cell
+	 */
+	private void collect(byte[] cells, int offset, int lanes, int[] results, int resultOffset) {
+		long[] masks = this.unitMasks;
+		long all = FULL_LANES[lanes];
+		for (int unit = 0; unit < BitmaskValidator.UNITS; unit++) {
+			all &= masks[unit];
+		}
+		if (all == FULL_LANES[lanes]) {
+			Arrays.fill(results, resultOffset, resultOffset + lanes, BitmaskValidator.VALID);
+			return;
+		}
+		for (int lane = 0; lane < lanes; lane++) {
+			if (((all >>> (lane * LANE_BITS)) & 0x1FF) == 0x1FF) {
+				results[resultOffset + lane] = BitmaskValidator.VALID;
+			} else {
+				results[resultOffset + lane] = this.validator.validate(cells, offset + lane * BitmaskValidator.CELLS);
+			}
+		}
+	}
+
+}
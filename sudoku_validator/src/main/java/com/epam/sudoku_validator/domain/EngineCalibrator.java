@@ -0,0 +1,130 @@
+package com.epam.sudoku_validator.domain;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.slf4j.Logger;
+
+/**
+ * Warm-up calibration, which measures the validation engines on the current JVM and hardware and picks the fastest
+ * Every engine supporting the grid size validates the same corpus of generated grids (every eighth of them
+ * invalid) for a warm-up period, so the JIT compiles it, then for a measurement period of the same length.
+ * The engines are measured through the single grid validate, the one used by the batch and stream validators.
+ * The whole calibration takes 2 * millis for every engine, e.g. 2 seconds with the default 200 ms for 9x9 grids.
+ *
+ * @author Istvan_Simo
+ */
+public final class EngineCalibrator {
+
+	/**
+	 * Target number of cells of the corpus, the larger grids have fewer copies
+	 */
+	private static final int CORPUS_CELLS = 64 * 1024;
+
+	private final GridGeometry geometry;
+	private final long millis;
+	private final Map<ValidationEngineType, Long> throughputs = new EnumMap<>(ValidationEngineType.class);
+	private long checksum = 0;
+
+	/**
+	 * @param geometry - the size of the grids to be validated
+	 * @param millis - length of the warm-up and of the measurement of one engine in milliseconds
+	 */
+	public EngineCalibrator(GridGeometry geometry, long millis) {
+		if (millis < 1) {
+			throw new IllegalArgumentException("Invalid calibration time: " + millis + " ms");
+		}
+		this.geometry = geometry;
+		this.millis = millis;
+	}
+
+	/**
+	 * Measures every engine supporting the grid size, and logs their throughput
+	 *
+	 * @param LOG - the Logger object from the caller (Application.run method)
+	 * @return the fastest engine
+	 */
+	public ValidationEngineType calibrate(Logger LOG) {
+		byte[] corpus = corpus(this.geometry);
+		int count = corpus.length / this.geometry.getCells();
+		ValidationEngineType fastest = null;
+		this.throughputs.clear();
+		for (ValidationEngineType type : ValidationEngineType.values()) {
+			if (!type.supports(this.geometry)) {
+				continue;
+			}
+			ValidationEngine engine = type.create(this.geometry);
+			run(engine, corpus, count, this.millis * 1_000_000);
+			long startTime = System.nanoTime();
+			long tables = run(engine, corpus, count, this.millis * 1_000_000);
+			long throughput = tables * 1_000_000_000 / Math.max(1, System.nanoTime() - startTime);
+			this.throughputs.put(type, throughput);
+			LOG.info("Validation engine {}: {} tables/s", type, throughput);
+			if (fastest == null || throughput > this.throughputs.get(fastest)) {
+				fastest = type;
+			}
+		}
+		LOG.info("Selected validation engine for {} tables: {} ({} tables/s)", this.geometry, fastest, this.throughputs.get(fastest));
+		return fastest;
+	}
+
+	/**
+	 * Returns with the measured throughput of the engine in tables/s, or -1 if it wasn't measured
+	 *
+	 * @param type - the engine
+	 */
+	public long getThroughput(ValidationEngineType type) {
+		Long throughput = this.throughputs.get(type);
+		return throughput == null ? -1 : throughput;
+	}
+
+	/**
+	 * Validates the corpus again and again for the given time
+	 *
+	 * @return the number of validated grids
+	 */
+	private long run(ValidationEngine engine, byte[] corpus, int count, long nanos) {
+		int cells = this.geometry.getCells();
+		long sum = 0;
+		long tables = 0;
+		long deadline = System.nanoTime() + nanos;
+		do {
+			for (int grid = 0; grid < count; grid++) {
+				sum += engine.validate(corpus, grid * cells);
+			}
+			tables += count;
+		} while (System.nanoTime() < deadline);
+		// the results are kept, so the JIT can't drop the validation
+		this.checksum += sum;
+		return tables;
+	}
+
+	/**
+	 * Returns with grids of the pattern solution with random digit labels, every eighth of them has a duplicate
+	 */
+	private static byte[] corpus(GridGeometry geometry) {
+		int side = geometry.getSide();
+		int boxSize = geometry.getBoxSize();
+		int cells = geometry.getCells();
+		int count = Math.max(16, CORPUS_CELLS / cells);
+		byte[] corpus = new byte[count * cells];
+		Random random = new Random(cells);
+		for (int grid = 0; grid < count; grid++) {
+			int shift = random.nextInt(side);
+			int offset = grid * cells;
+			for (int row = 0; row < side; row++) {
+				for (int col = 0; col < side; col++) {
+					corpus[offset + row * side + col] = (byte) (((row % boxSize) * boxSize + row / boxSize + col + shift) % side + 1);
+				}
+			}
+			if (grid % 8 == 7) {
+				int cell = random.nextInt(cells);
+				int other = cell % side == 0 ? cell + 1 : cell - 1;
+				corpus[offset + cell] = corpus[offset + other];
+			}
+		}
+		return corpus;
+	}
+
+}
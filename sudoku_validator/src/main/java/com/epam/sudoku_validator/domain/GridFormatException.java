@@ -0,0 +1,115 @@
+package com.epam.sudoku_validator.domain;
+
+/**
+ * Malformed table, thrown by GridParser and the readers with the error messages of SudokuTable.populateGrid
+ * Batch validation counts and reports malformed tables by the thousands, so the exception is cheap: it has no
+ * stack trace (the message holds the position in the input, the stack would only show the parser), and the message
+ * is built only when it's asked for. The reason gives the category of the error without parsing the message.
+ *
+ * @author Istvan_Simo
+ */
+public class GridFormatException extends IllegalArgumentException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Category of the error
+	 */
+	public enum Reason {
+		TOO_MANY_ROWS,
+		TOO_FEW_ROWS,
+		TOO_MANY_VALUES,
+		TOO_FEW_VALUES,
+		/**
+		 * Wrong number of values in a one-line table
+		 */
+		LINE_LENGTH,
+		NOT_AN_INTEGER,
+		OUT_OF_RANGE,
+		/**
+		 * Value out of the range of a partial table, where 0 means an empty cell
+		 */
+		OUT_OF_PARTIAL_RANGE
+	}
+
+	private final Reason reason;
+	private final int value;
+	private final int row;
+	private final int col;
+	private final int side;
+	private final String cell;
+	private String message = null;
+
+	/**
+	 * @param reason - category of the error
+	 * @param value - the number of rows or values, or the wrong value
+	 * @param row - one based row number, or 0 if the error isn't in a row
+	 * @param col - one based column number, or 0 if the error isn't in a cell
+	 * @param side - number of values in a row
+	 * @param cell - the text of a value, which isn't an integer, otherwise null
+	 */
+	public GridFormatException(Reason reason, int value, int row, int col, int side, String cell) {
+		this.reason = reason;
+		this.value = value;
+		this.row = row;
+		this.col = col;
+		this.side = side;
+		this.cell = cell;
+	}
+
+	public Reason getReason() {
+		return this.reason;
+	}
+
+	/**
+	 * Returns with the one based row number, or 0 if the error isn't in a row
+	 */
+	public int getRow() {
+		return this.row;
+	}
+
+	/**
+	 * Returns with the one based column number, or 0 if the error isn't in a cell
+	 */
+	public int getCol() {
+		return this.col;
+	}
+
+	@Override
+	public String getMessage() {
+		if (this.message == null) {
+			this.message = buildMessage();
+		}
+		return this.message;
+	}
+
+	private String buildMessage() {
+		switch (this.reason) {
+			case TOO_MANY_ROWS:
+				return "There are too many rows (" + this.value + ") in CSV file, it should be exactly " + this.side + "!";
+			case TOO_FEW_ROWS:
+				return "There are too few rows (" + this.value + ") in CSV file, it should be exactly " + this.side + "!";
+			case TOO_MANY_VALUES:
+				return "There are too many values (" + this.value + ") in row " + this.row + ", it should be exactly " + this.side + "!";
+			case TOO_FEW_VALUES:
+				return "There are too few values (" + this.value + ") in row " + this.row + ", it should be exactly " + this.side + "!";
+			case LINE_LENGTH:
+				return "There are too " + (this.value < this.side ? "few" : "many") + " values (" + this.value + ") in the line, it should be exactly " + this.side + "!";
+			case NOT_AN_INTEGER:
+				return "Invalid sudoku cell value (\"" + this.cell + "\") at (row: " + this.row + ", column: " + this.col + "), it should be an integer value!";
+			case OUT_OF_RANGE:
+				return "Invalid sudoku cell value (" + this.value + ") at (row: " + this.row + ", column: " + this.col + "), it should be between 1 and " + this.side + "!";
+			default:
+				return "Invalid sudoku cell value (" + this.value + ") at (row: " + this.row + ", column: " + this.col + "), it should be between 1 and 9, or 0 / empty for an empty cell!";
+		}
+	}
+
+	/**
+	 * No stack trace, see the class comment
+	 */
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this;
+	}
+
+}
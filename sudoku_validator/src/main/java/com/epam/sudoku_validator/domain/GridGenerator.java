@@ -0,0 +1,189 @@
+package com.epam.sudoku_validator.domain;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Seedable generator of random valid 9x9 grids and of their invalid mutations, e.g. for load tests
+ * A base solution is made by SudokuSolver from a few random givens, then every grid is the base transformed by
+ * the validity preserving symmetries: digit relabelling, band and stack order, row order inside the bands, column order
+ * inside the stacks and transposition. That's more than 10^12 different grids from a base, and a new base is
+ * solved after every BASE_GRIDS grids, so a grid costs about a hundred random bits and one pass over the cells.
+ * The same seed gives the same grids.
+ *
+ * An instance holds its solver and buffers, so it isn't thread-safe, use one instance per thread.
+ *
+ * @author Istvan_Simo
+ */
+public final class GridGenerator {
+
+	/**
+	 * Number of grids generated from one base solution
+	 */
+	public static final int BASE_GRIDS = 1024;
+
+	/**
+	 * Number of random givens of the base puzzles, few enough to be solvable most of the time
+	 */
+	private static final int BASE_GIVENS = 12;
+
+	/**
+	 * The 6 orders of 3 items
+	 */
+	private static final byte[][] ORDERS = { { 0, 1, 2 }, { 0, 2, 1 }, { 1, 0, 2 }, { 1, 2, 0 }, { 2, 0, 1 }, { 2, 1, 0 } };
+
+	private final SplittableRandom random;
+	private final SudokuSolver solver = new SudokuSolver();
+	private final byte[] puzzle = new byte[BitmaskValidator.CELLS];
+	private final byte[] base = new byte[BitmaskValidator.CELLS];
+	private final byte[] labels = new byte[10];
+	private final byte[] rowOrder = new byte[9];
+	private final byte[] colOrder = new byte[9];
+	private int baseGrids = BASE_GRIDS;
+
+	/**
+	 * @param seed - seed of the random grids
+	 */
+	public GridGenerator(long seed) {
+		this(new SplittableRandom(seed));
+	}
+
+	/**
+	 * @param random - source of the random grids, it can be shared with the caller, e.g. to choose the mutations
+	 */
+	public GridGenerator(SplittableRandom random) {
+		this.random = random;
+	}
+
+	/**
+	 * Generates a random valid grid
+	 *
+	 * @param cells - the target grid in row-major order
+	 * @param offset - index of the first cell of the grid
+	 */
+	public void generate(byte[] cells, int offset) {
+		if (this.baseGrids == BASE_GRIDS) {
+			newBase();
+			this.baseGrids = 0;
+		}
+		this.baseGrids++;
+		for (int digit = 1; digit <= 9; digit++) {
+			this.labels[digit] = (byte) digit;
+		}
+		for (int i = 9; i > 1; i--) {
+			int j = 1 + this.random.nextInt(i);
+			byte label = this.labels[i];
+			this.labels[i] = this.labels[j];
+			this.labels[j] = label;
+		}
+		order(this.rowOrder);
+		order(this.colOrder);
+		boolean transposed = this.random.nextBoolean();
+		byte[] base = this.base;
+		for (int row = 0; row < 9; row++) {
+			int sourceRow = this.rowOrder[row];
+			for (int col = 0; col < 9; col++) {
+				int sourceCol = this.colOrder[col];
+				int value = transposed ? base[sourceCol * 9 + sourceRow] : base[sourceRow * 9 + sourceCol];
+				cells[offset + row * 9 + col] = this.labels[value];
+			}
+		}
+	}
+
+	/**
+	 * Applies a duplicate mutation to a valid grid, see GridMutation
+	 *
+	 * @param cells - the grid in row-major order, it has to be valid
+	 * @param offset - index of the first cell of the grid
+	 * @param mutation - one of the duplicate mutations
+	 * @throws IllegalArgumentException for a malformed mutation, a grid buffer can't hold them
+	 */
+	public void mutate(byte[] cells, int offset, GridMutation mutation) {
+		switch (mutation) {
+			case DUPLICATE_ROW:
+			case DUPLICATE_COLUMN: {
+				boolean rows = mutation == GridMutation.DUPLICATE_ROW;
+				int line = this.random.nextInt(9);
+				int first = this.random.nextInt(3);
+				int second = (first + 1 + this.random.nextInt(2)) % 3;
+				int band = this.random.nextInt(3) * 3;
+				// the two cells are in the same subtable and in the same column (row), only the rows (columns) change
+				swap(cells, offset + cell(!rows, line, band + first), offset + cell(!rows, line, band + second));
+				break;
+			}
+			case DUPLICATE_BOX: {
+				boolean rows = this.random.nextBoolean();
+				int first;
+				int second;
+				do {
+					first = this.random.nextInt(9);
+					second = (first / 3 + 1 + this.random.nextInt(2)) % 3 * 3 + this.random.nextInt(3);
+				} while (sameSubtableValues(cells, offset, rows, first, second));
+				for (int index = 0; index < 9; index++) {
+					swap(cells, offset + cell(rows, first, index), offset + cell(rows, second, index));
+				}
+				break;
+			}
+			default:
+				throw new IllegalArgumentException("The " + mutation + " mutation can't be applied to a grid buffer");
+		}
+	}
+
+	/**
+	 * Solves a puzzle of random givens, until it has a solution
+	 */
+	private void newBase() {
+		do {
+			Arrays.fill(this.puzzle, PartialGridValidator.EMPTY);
+			for (int i = 0; i < BASE_GIVENS; i++) {
+				this.puzzle[this.random.nextInt(BitmaskValidator.CELLS)] = (byte) (1 + this.random.nextInt(9));
+			}
+		} while (this.solver.solve(this.puzzle, 0, this.base, 0) == SolutionCount.NONE);
+	}
+
+	/**
+	 * Random order of the bands (stacks) and of the rows (columns) inside them
+	 */
+	private void order(byte[] lines) {
+		byte[] bands = ORDERS[this.random.nextInt(6)];
+		for (int band = 0; band < 3; band++) {
+			byte[] inside = ORDERS[this.random.nextInt(6)];
+			for (int line = 0; line < 3; line++) {
+				lines[band * 3 + line] = (byte) (bands[band] * 3 + inside[line]);
+			}
+		}
+	}
+
+	/**
+	 * Returns with true if the two rows (columns) have the same values in each of their subtables,
+	 * i.e. swapping them wouldn't make a duplicate
+	 */
+	private static boolean sameSubtableValues(byte[] cells, int offset, boolean rows, int first, int second) {
+		for (int stack = 0; stack < 3; stack++) {
+			int firstMask = 0;
+			int secondMask = 0;
+			for (int index = stack * 3; index < stack * 3 + 3; index++) {
+				firstMask |= 1 << cells[offset + cell(rows, first, index)];
+				secondMask |= 1 << cells[offset + cell(rows, second, index)];
+			}
+			if (firstMask != secondMask) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns with the index of the cell at the given position of a row, or of a column if rows is false
+	 */
+	private static int cell(boolean rows, int line, int index) {
+		return rows ? line * 9 + index : index * 9 + line;
+	}
+
+	private static void swap(byte[] cells, int first, int second) {
+		byte value = cells[first];
+		cells[first] = cells[second];
+		cells[second] = value;
+	}
+
+}
@@ -0,0 +1,149 @@
+package com.epam.sudoku_validator.domain;
+
+/**
+ * Shape of an n²×n² sudoku grid with n×n subtables, e.g. box size 2 is 4x4, 3 is the standard 9x9, 4 is 16x16
+ * The box size can be 2..8, so a unit has at most 64 values and its occupancy fits into one long mask.
+ * Units 0..side-1 are the rows, side..2*side-1 the columns and the rest the subtables, like in BitmaskValidator.
+ * Instances are immutable and shared, see of(int).
+ *
+ * @author Istvan_Simo
+ */
+public final class GridGeometry {
+
+	public static final int MIN_BOX_SIZE = 2;
+
+	public static final int MAX_BOX_SIZE = 8;
+
+	private static final ValidateType[] UNIT_TYPES = ValidateType.values();
+
+	private static final GridGeometry[] GEOMETRIES = new GridGeometry[MAX_BOX_SIZE + 1];
+
+	static {
+		for (int boxSize = MIN_BOX_SIZE; boxSize <= MAX_BOX_SIZE; boxSize++) {
+			GEOMETRIES[boxSize] = new GridGeometry(boxSize);
+		}
+	}
+
+	/**
+	 * The standard 9x9 grid
+	 */
+	public static final GridGeometry STANDARD = GEOMETRIES[3];
+
+	private final int boxSize;
+	private final int side;
+	private final int cells;
+
+	/**
+	 * Subtable index of every column within its band, i.e. col / boxSize
+	 */
+	final byte[] stackOf;
+
+	/**
+	 * Cells of every unit in the order as SudokuTable.validateSet visits them
+	 */
+	final short[] unitCells;
+
+	/**
+	 * Unit order of SudokuTable.validate: row 0, column 0, subtable 0, row 1, ...
+	 */
+	final short[] checkOrder;
+
+	private GridGeometry(int boxSize) {
+		this.boxSize = boxSize;
+		this.side = boxSize * boxSize;
+		this.cells = this.side * this.side;
+		this.stackOf = new byte[this.side];
+		this.unitCells = new short[3 * this.side * this.side];
+		this.checkOrder = new short[3 * this.side];
+		for (int col = 0; col < this.side; col++) {
+			this.stackOf[col] = (byte) (col / boxSize);
+		}
+		for (int itemIndex = 0; itemIndex < this.side; itemIndex++) {
+			for (int index = 0; index < this.side; index++) {
+				this.unitCells[itemIndex * this.side + index] = (short) (itemIndex * this.side + index);
+				this.unitCells[(this.side + itemIndex) * this.side + index] = (short) (index * this.side + itemIndex);
+				int rowIndex = (itemIndex / boxSize) * boxSize + index / boxSize;
+				int colIndex = (itemIndex % boxSize) * boxSize + index % boxSize;
+				this.unitCells[(2 * this.side + itemIndex) * this.side + index] = (short) (rowIndex * this.side + colIndex);
+			}
+			this.checkOrder[itemIndex * 3] = (short) itemIndex;
+			this.checkOrder[itemIndex * 3 + 1] = (short) (this.side + itemIndex);
+			this.checkOrder[itemIndex * 3 + 2] = (short) (2 * this.side + itemIndex);
+		}
+	}
+
+	/**
+	 * Returns with the geometry of the given box size
+	 *
+	 * @param boxSize - size of the subtables, 2..8
+	 * @throws IllegalArgumentException if the box size is out of range
+	 */
+	public static GridGeometry of(int boxSize) {
+		if (boxSize < MIN_BOX_SIZE || boxSize > MAX_BOX_SIZE) {
+			throw new IllegalArgumentException("Invalid sudoku box size (" + boxSize + "), it should be between " + MIN_BOX_SIZE + " and " + MAX_BOX_SIZE + "!");
+		}
+		return GEOMETRIES[boxSize];
+	}
+
+	/**
+	 * Returns with the geometry of the given side length, or null if it isn't a supported square, e.g. 8 or 81
+	 *
+	 * @param side - number of values in a row
+	 */
+	public static GridGeometry ofSide(int side) {
+		for (int boxSize = MIN_BOX_SIZE; boxSize <= MAX_BOX_SIZE; boxSize++) {
+			if (boxSize * boxSize == side) {
+				return GEOMETRIES[boxSize];
+			}
+		}
+		return null;
+	}
+
+	public int getBoxSize() {
+		return this.boxSize;
+	}
+
+	/**
+	 * Returns with the number of rows, columns, subtables and digits
+	 */
+	public int getSide() {
+		return this.side;
+	}
+
+	/**
+	 * Returns with the number of cells
+	 */
+	public int getCells() {
+		return this.cells;
+	}
+
+	/**
+	 * Returns with the number of units (rows, columns and subtables)
+	 */
+	public int getUnits() {
+		return 3 * this.side;
+	}
+
+	/**
+	 * Returns with the type of the given unit
+	 *
+	 * @param unit - unit index
+	 */
+	public ValidateType unitType(int unit) {
+		return UNIT_TYPES[unit / this.side];
+	}
+
+	/**
+	 * Returns with the row, column or subtable index of the given unit
+	 *
+	 * @param unit - unit index
+	 */
+	public int unitIndex(int unit) {
+		return unit % this.side;
+	}
+
+	public String toString() {
+		return this.side + "x" + this.side;
+	}
+
+}
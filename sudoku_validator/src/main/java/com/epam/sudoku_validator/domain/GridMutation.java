@@ -0,0 +1,45 @@
+package com.epam.sudoku_validator.domain;
+
+/**
+ * Mutations of valid 9x9 grids made by GridGenerator and the load generator
+ * The duplicate mutations make exactly one kind of unit fail, the other two stay valid, so the failing unit type
+ * of the result is known in advance. The malformed mutations exist only in text, a grid buffer can't hold them.
+ *
+ * @author Istvan_Simo
+ */
+public enum GridMutation {
+	/**
+	 * Two cells of a column swapped inside their subtable, some rows have a duplicate
+	 */
+	DUPLICATE_ROW(false),
+	/**
+	 * Two cells of a row swapped inside their subtable, some columns have a duplicate
+	 */
+	DUPLICATE_COLUMN(false),
+	/**
+	 * Two rows of different bands (or two columns of different stacks) swapped, some subtables have a duplicate
+	 */
+	DUPLICATE_BOX(false),
+	/**
+	 * A value replaced by a character, which isn't a digit
+	 */
+	BAD_CHARACTER(true),
+	/**
+	 * The last value of a row is missing
+	 */
+	SHORT_ROW(true);
+
+	private final boolean malformed;
+
+	private GridMutation(boolean malformed) {
+		this.malformed = malformed;
+	}
+
+	/**
+	 * Returns with true if the mutation makes the table malformed, so it can be written to a text file only
+	 */
+	public boolean isMalformed() {
+		return this.malformed;
+	}
+
+}
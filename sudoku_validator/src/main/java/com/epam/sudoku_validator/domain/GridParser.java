@@ -0,0 +1,298 @@
+package com.epam.sudoku_validator.domain;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Character level CSV row parser, which puts the values straight into a primitive grid
+ * It follows the rules of SudokuTable.populateGrid: String.split(","), trim and Integer.parseInt for each cell,
+ * and it throws the same IllegalArgumentException messages, but it doesn't create any object for valid rows.
+ * Rows of larger grids (see GridGeometry) have multi-character values, e.g. 16 values of 1..16 in a 16x16 grid.
+ * Rows of partial grids (see PartialGridValidator) can have empty cells: 0 or a blank value.
+ * A whole 9x9 grid can be given in one line of 81 digits as well, see parseLine.
+ * The errors are GridFormatExceptions, which are cheap to throw, malformed input costs hardly more than valid input.
+ *
+ * @author Istvan_Simo
+ */
+public final class GridParser {
+
+	/**
+	 * Bytes of the commas in 8 bytes of a canonical 9x9 row ("d,d,d,d," in big-endian order), and their expected values
+	 */
+	private static final long COMMA_MASK = 0x00FF00FF00FF00FFL;
+	private static final long COMMAS = 0x002C002C002C002CL;
+	private static final long DIGIT_HIGH_BITS = 0x8000800080008000L;
+
+	private GridParser() {
+	}
+
+	/**
+	 * Parses one CSV row into the grid
+	 *
+	 * @param line - the row of the CSV file, without line terminator
+	 * @param rowIndex - zero based index of the row
+	 * @param cells - the target grid in row-major order
+	 * @param offset - index of the first cell of the grid
+	 */
+	public static void parseRow(CharSequence line, int rowIndex, byte[] cells, int offset) {
+		parseRow(line, rowIndex, cells, offset, 9);
+	}
+
+	/**
+	 * Parses one CSV row of a grid of the given size into the grid
+	 *
+	 * @param line - the row of the CSV file, without line terminator
+	 * @param rowIndex - zero based index of the row
+	 * @param cells - the target grid in row-major order
+	 * @param offset - index of the first cell of the grid
+	 * @param side - number of values in a row, it's the maximum value as well
+	 */
+	public static void parseRow(CharSequence line, int rowIndex, byte[] cells, int offset, int side) {
+		parseRow(line, rowIndex, cells, offset, side, false);
+	}
+
+	/**
+	 * Parses one CSV row of a partial 9x9 grid into the grid, an empty cell is 0 or a blank value, e.g. "5,3,,,7,,,,"
+	 * Unlike in a full row, the trailing empty values count, so every row has exactly 9 values (8 commas).
+	 *
+	 * @param line - the row of the CSV file, without line terminator
+	 * @param rowIndex - zero based index of the row
+	 * @param cells - the target grid in row-major order, 0 for the empty cells
+	 * @param offset - index of the first cell of the grid
+	 */
+	public static void parsePartialRow(CharSequence line, int rowIndex, byte[] cells, int offset) {
+		parseRow(line, rowIndex, cells, offset, 9, true);
+	}
+
+	/**
+	 * Parses a whole 9x9 grid from one line of 81 digits in row-major order, e.g. "534678912672195348...",
+	 * the whitespace around the digits is ignored
+	 *
+	 * @param line - the line, without line terminator
+	 * @param cells - the target grid in row-major order
+	 * @param offset - index of the first cell of the grid
+	 */
+	public static void parseLine(CharSequence line, byte[] cells, int offset) {
+		int start = 0;
+		int end = line.length();
+		while (start < end && line.charAt(start) <= ' ') {
+			start++;
+		}
+		while (end > start && line.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		if (end - start != 81) {
+			throw lineLength(end - start);
+		}
+		for (int cell = 0; cell < 81; cell++) {
+			char c = line.charAt(start + cell);
+			if (c < '0' || c > '9') {
+				throw notAnInteger(String.valueOf(c), cell / 9 + 1, cell % 9 + 1);
+			}
+			if (c == '0') {
+				throw outOfRange(0, cell / 9 + 1, cell % 9 + 1);
+			}
+			cells[offset + cell] = (byte) (c - '0');
+		}
+	}
+
+	/**
+	 * Fast path of parseRow for rows of single digit values in the canonical form, e.g. "5,3,4,6,7,8,9,1,2",
+	 * straight from the bytes of the input (e.g. a mapped file)
+	 * It checks and stores the values in one pass and gives up at the first byte, which doesn't fit the form.
+	 * The row can still be valid then (e.g. with spaces), parseRow decides, and it gives the error message as well.
+	 * A 9x9 row is checked 8 bytes at a time (SWAR), see isDigitsAndCommas.
+	 *
+	 * @param buffer - the input
+	 * @param start - index of the first byte of the row
+	 * @param end - index after the last byte of the row, without line terminator
+	 * @param cells - the target grid in row-major order
+	 * @param offset - index of the first cell of the row
+	 * @param side - number of values in a row, at most 9
+	 * @return true if the row was parsed, false if parseRow should parse it
+	 */
+	public static boolean parseDigitRow(ByteBuffer buffer, int start, int end, byte[] cells, int offset, int side) {
+		if (end - start != 2 * side - 1) {
+			return false;
+		}
+		if (side == 9) {
+			long first = buffer.getLong(start);
+			long second = buffer.getLong(start + 8);
+			int last = buffer.get(start + 16) - '0';
+			if (!isDigitsAndCommas(first) || !isDigitsAndCommas(second) || last < 1 || last > 9) {
+				return false;
+			}
+			for (int col = 0; col < 4; col++) {
+				cells[offset + col] = (byte) ((first >>> (56 - 16 * col)) & 0x0F);
+				cells[offset + 4 + col] = (byte) ((second >>> (56 - 16 * col)) & 0x0F);
+			}
+			cells[offset + 8] = (byte) last;
+			return true;
+		}
+		for (int col = 0, pos = start; col < side; col++, pos += 2) {
+			int value = buffer.get(pos) - '0';
+			if (value < 1 || value > side || (col < side - 1 && buffer.get(pos + 1) != ',')) {
+				return false;
+			}
+			cells[offset + col] = (byte) value;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns true if the 8 bytes (big-endian) are "d,d,d,d," with digits of 1..9
+	 * The digit bytes are checked all at once: with the high bit clear, adding 0x4F sets the high bit if the byte is
+	 * at least '1', and adding 0x46 sets it if the byte is greater than '9'. No addition carries into the next byte.
+	 */
+	private static boolean isDigitsAndCommas(long word) {
+		if ((word & COMMA_MASK) != COMMAS) {
+			return false;
+		}
+		long digits = word & ~COMMA_MASK;
+		if ((digits & DIGIT_HIGH_BITS) != 0) {
+			return false;
+		}
+		return ((digits + 0x4F004F004F004F00L) & ~(digits + 0x4600460046004600L) & DIGIT_HIGH_BITS) == DIGIT_HIGH_BITS;
+	}
+
+	private static void parseRow(CharSequence line, int rowIndex, byte[] cells, int offset, int side, boolean partial) {
+		int end = line.length();
+		boolean hasComma = false;
+		for (int i = 0; i < end && !hasComma; i++) {
+			hasComma = line.charAt(i) == ',';
+		}
+		if (hasComma && !partial) {
+			// String.split drops the trailing empty values
+			while (end > 0 && line.charAt(end - 1) == ',') {
+				end--;
+			}
+		}
+		int colIndex = 0;
+		int start = 0;
+		if (!hasComma || end > 0) {
+			while (true) {
+				int stop = start;
+				while (stop < end && line.charAt(stop) != ',') {
+					stop++;
+				}
+				if (colIndex >= side) {
+					throw tooManyValues(colIndex + 1, rowIndex + 1, side);
+				}
+				cells[offset + rowIndex * side + colIndex] = (byte) parseCell(line, start, stop, rowIndex, colIndex, side, partial);
+				colIndex++;
+				if (stop >= end) {
+					break;
+				}
+				start = stop + 1;
+			}
+		}
+		if (colIndex < side) {
+			throw tooFewValues(colIndex, rowIndex + 1, side);
+		}
+	}
+
+	/**
+	 * Parses a cell value like Integer.parseInt(cell.trim()) and checks the 1..side range, or 0..side for partial grids
+	 */
+	private static int parseCell(CharSequence line, int start, int stop, int rowIndex, int colIndex, int side, boolean partial) {
+		int first = start;
+		int last = stop;
+		while (first < last && line.charAt(first) <= ' ') {
+			first++;
+		}
+		while (last > first && line.charAt(last - 1) <= ' ') {
+			last--;
+		}
+		if (partial && first == last) {
+			return PartialGridValidator.EMPTY;
+		}
+		int pos = first;
+		boolean negative = false;
+		if (pos < last && (line.charAt(pos) == '-' || line.charAt(pos) == '+')) {
+			negative = line.charAt(pos) == '-';
+			pos++;
+		}
+		if (pos >= last) {
+			throw notAnInteger(line.subSequence(start, stop), rowIndex + 1, colIndex + 1);
+		}
+		long value = 0;
+		for (; pos < last; pos++) {
+			int digit = Character.digit(line.charAt(pos), 10);
+			if (digit < 0) {
+				throw notAnInteger(line.subSequence(start, stop), rowIndex + 1, colIndex + 1);
+			}
+			value = value * 10 + digit;
+			if (value > (long) Integer.MAX_VALUE + 1) {
+				throw notAnInteger(line.subSequence(start, stop), rowIndex + 1, colIndex + 1);
+			}
+		}
+		if (negative) {
+			value = -value;
+		} else if (value > Integer.MAX_VALUE) {
+			throw notAnInteger(line.subSequence(start, stop), rowIndex + 1, colIndex + 1);
+		}
+		if (partial && (value < 0 || value > side)) {
+			throw outOfPartialRange((int) value, rowIndex + 1, colIndex + 1);
+		}
+		if (!partial && (value < 1 || value > side)) {
+			throw outOfRange((int) value, rowIndex + 1, colIndex + 1, side);
+		}
+		return (int) value;
+	}
+
+	// ----------------------------------------------------
+	// Error messages of SudokuTable.populateGrid, row and column numbers are one based, see GridFormatException
+	// ----------------------------------------------------
+
+	public static GridFormatException tooManyRows(int rowCount) {
+		return tooManyRows(rowCount, 9);
+	}
+
+	public static GridFormatException tooManyRows(int rowCount, int side) {
+		return new GridFormatException(GridFormatException.Reason.TOO_MANY_ROWS, rowCount, 0, 0, side, null);
+	}
+
+	public static GridFormatException tooFewRows(int rowCount) {
+		return tooFewRows(rowCount, 9);
+	}
+
+	public static GridFormatException tooFewRows(int rowCount, int side) {
+		return new GridFormatException(GridFormatException.Reason.TOO_FEW_ROWS, rowCount, 0, 0, side, null);
+	}
+
+	public static GridFormatException tooManyValues(int valueCount, int row) {
+		return tooManyValues(valueCount, row, 9);
+	}
+
+	public static GridFormatException tooManyValues(int valueCount, int row, int side) {
+		return new GridFormatException(GridFormatException.Reason.TOO_MANY_VALUES, valueCount, row, 0, side, null);
+	}
+
+	public static GridFormatException tooFewValues(int valueCount, int row) {
+		return tooFewValues(valueCount, row, 9);
+	}
+
+	public static GridFormatException tooFewValues(int valueCount, int row, int side) {
+		return new GridFormatException(GridFormatException.Reason.TOO_FEW_VALUES, valueCount, row, 0, side, null);
+	}
+
+	public static GridFormatException lineLength(int valueCount) {
+		return new GridFormatException(GridFormatException.Reason.LINE_LENGTH, valueCount, 0, 0, 81, null);
+	}
+
+	public static GridFormatException notAnInteger(CharSequence cell, int row, int col) {
+		return new GridFormatException(GridFormatException.Reason.NOT_AN_INTEGER, 0, row, col, 9, cell.toString());
+	}
+
+	public static GridFormatException outOfRange(int value, int row, int col) {
+		return outOfRange(value, row, col, 9);
+	}
+
+	public static GridFormatException outOfRange(int value, int row, int col, int side) {
+		return new GridFormatException(GridFormatException.Reason.OUT_OF_RANGE, value, row, col, side, null);
+	}
+
+	public static GridFormatException outOfPartialRange(int value, int row, int col) {
+		return new GridFormatException(GridFormatException.Reason.OUT_OF_PARTIAL_RANGE, value, row, col, 9, null);
+	}
+
+}
@@ -0,0 +1,233 @@
+package com.epam.sudoku_validator.domain;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Garbage-free renderer of tables stored as cell values (see BitmaskValidator), with the error cell highlighted
+ * The box-drawing table has a fixed layout for a given size, so it's prepared once as a character template with
+ * the position of every cell: rendering a table is a copy of the template and the values written into it.
+ * The template is encoded to UTF-8 once as well, so the byte output of a box-drawing table needs no encoding.
+ * The one-line format is written value by value. The output goes straight into a reusable StringBuilder,
+ * a Writer or a UTF-8 byte buffer, without any intermediate String.
+ *
+ * An instance holds its work buffer, so it isn't thread-safe, use one instance per thread.
+ *
+ * @author Istvan_Simo
+ */
+public final class GridRenderer {
+
+	private static final char THICK_SEPARATOR = '║';
+
+	private final GridGeometry geometry;
+	private final RenderFormat format;
+	private final int side;
+	private final int width;
+	private final char[] template;
+	private final int[] cellPositions;
+	private final byte[] byteTemplate;
+	private final int[] byteCellPositions;
+	private final char[] buffer;
+
+	/**
+	 * @param geometry - size of the tables
+	 * @param format - output format
+	 */
+	public GridRenderer(GridGeometry geometry, RenderFormat format) {
+		this.geometry = geometry;
+		this.format = format;
+		this.side = geometry.getSide();
+		this.width = Integer.toString(this.side).length();
+		if (format == RenderFormat.BOX) {
+			this.cellPositions = new int[geometry.getCells()];
+			this.template = boxTemplate(this.cellPositions);
+			this.buffer = new char[this.template.length];
+			this.byteTemplate = new String(this.template).getBytes(StandardCharsets.UTF_8);
+			this.byteCellPositions = new int[this.cellPositions.length];
+			for (int cell = 0, position = 0, bytePosition = 0; cell < this.cellPositions.length; cell++) {
+				for (; position < this.cellPositions[cell]; position++) {
+					char c = this.template[position];
+					bytePosition += c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+				}
+				this.byteCellPositions[cell] = bytePosition;
+			}
+		} else {
+			this.cellPositions = null;
+			this.template = null;
+			this.byteTemplate = null;
+			this.byteCellPositions = null;
+			this.buffer = new char[getMaxLength()];
+		}
+	}
+
+	public GridGeometry getGeometry() {
+		return this.geometry;
+	}
+
+	public RenderFormat getFormat() {
+		return this.format;
+	}
+
+	/**
+	 * Returns with the maximum number of characters of a rendered table
+	 */
+	public int getMaxLength() {
+		if (this.format == RenderFormat.BOX) {
+			return this.template.length;
+		}
+		int cells = this.geometry.getCells();
+		return this.width == 1 ? cells + 2 : cells * this.width + cells - 1 + 2;
+	}
+
+	/**
+	 * Appends the table to the builder
+	 *
+	 * @param cells - cell values in row-major order
+	 * @param offset - index of the first cell of the table
+	 * @param errorCell - the error cell (row * side + col) to be highlighted, or BitmaskValidator.VALID
+	 * @param out - the target
+	 */
+	public void render(byte[] cells, int offset, int errorCell, StringBuilder out) {
+		out.append(this.buffer, 0, render(cells, offset, errorCell));
+	}
+
+	/**
+	 * Writes the table to the writer
+	 *
+	 * @param cells - cell values in row-major order
+	 * @param offset - index of the first cell of the table
+	 * @param errorCell - the error cell (row * side + col) to be highlighted, or BitmaskValidator.VALID
+	 * @param out - the target
+	 * @throws IOException
+	 */
+	public void render(byte[] cells, int offset, int errorCell, Writer out) throws IOException {
+		out.write(this.buffer, 0, render(cells, offset, errorCell));
+	}
+
+	/**
+	 * Writes the table into the byte buffer in UTF-8, a BOX table needs up to 3 bytes for a character
+	 *
+	 * @param cells - cell values in row-major order
+	 * @param offset - index of the first cell of the table
+	 * @param errorCell - the error cell (row * side + col) to be highlighted, or BitmaskValidator.VALID
+	 * @param out - the target
+	 * @param position - index of the first byte in the target
+	 * @return the position after the last byte written
+	 * @throws IndexOutOfBoundsException if the table doesn't fit into the target
+	 */
+	public int render(byte[] cells, int offset, int errorCell, byte[] out, int position) {
+		if (this.format == RenderFormat.BOX) {
+			System.arraycopy(this.byteTemplate, 0, out, position, this.byteTemplate.length);
+			for (int cell = 0; cell < this.byteCellPositions.length; cell++) {
+				int target = position + this.byteCellPositions[cell];
+				int value = cells[offset + cell];
+				for (int i = this.width - 1; i >= 0; i--) {
+					out[target + i] = value == 0 && i < this.width - 1 ? (byte) ' ' : (byte) ('0' + value % 10);
+					value /= 10;
+				}
+			}
+			if (errorCell >= 0 && errorCell < this.byteCellPositions.length) {
+				out[position + this.byteCellPositions[errorCell] - 1] = '<';
+				out[position + this.byteCellPositions[errorCell] + this.width] = '>';
+			}
+			return position + this.byteTemplate.length;
+		}
+		int length = render(cells, offset, errorCell);
+		for (int i = 0; i < length; i++) {
+			char c = this.buffer[i];
+			if (c < 0x80) {
+				out[position++] = (byte) c;
+			} else if (c < 0x800) {
+				out[position++] = (byte) (0xC0 | (c >> 6));
+				out[position++] = (byte) (0x80 | (c & 0x3F));
+			} else {
+				out[position++] = (byte) (0xE0 | (c >> 12));
+				out[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				out[position++] = (byte) (0x80 | (c & 0x3F));
+			}
+		}
+		return position;
+	}
+
+	/**
+	 * Renders the table into the work buffer
+	 *
+	 * @return the number of characters
+	 */
+	private int render(byte[] cells, int offset, int errorCell) {
+		if (this.format == RenderFormat.BOX) {
+			char[] target = this.buffer;
+			System.arraycopy(this.template, 0, target, 0, this.template.length);
+			for (int cell = 0; cell < this.cellPositions.length; cell++) {
+				int position = this.cellPositions[cell];
+				int value = cells[offset + cell];
+				for (int i = this.width - 1; i >= 0; i--) {
+					target[position + i] = value == 0 && i < this.width - 1 ? ' ' : (char) ('0' + value % 10);
+					value /= 10;
+				}
+			}
+			if (errorCell >= 0 && errorCell < this.cellPositions.length) {
+				target[this.cellPositions[errorCell] - 1] = '<';
+				target[this.cellPositions[errorCell] + this.width] = '>';
+			}
+			return target.length;
+		}
+		char[] target = this.buffer;
+		int length = 0;
+		for (int cell = 0; cell < this.geometry.getCells(); cell++) {
+			if (cell > 0 && this.width > 1) {
+				target[length++] = ',';
+			}
+			if (cell == errorCell) {
+				target[length++] = '<';
+			}
+			int value = cells[offset + cell];
+			if (value >= 10) {
+				target[length++] = (char) ('0' + value / 10);
+			}
+			target[length++] = (char) ('0' + value % 10);
+			if (cell == errorCell) {
+				target[length++] = '>';
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * Builds the BOX table with blank values, the layout of SudokuTable.toString:
+	 * every row starts with a line break and a border line, the last border line has no line break after it
+	 */
+	private char[] boxTemplate(int[] positions) {
+		int boxSize = this.geometry.getBoxSize();
+		StringBuilder table = new StringBuilder();
+		for (int row = 0; row < this.side; row++) {
+			appendBorder(table, row > 0 && row % boxSize == 0 ? '=' : '-');
+			table.append("\n|");
+			for (int col = 0; col < this.side; col++) {
+				table.append(' ');
+				positions[row * this.side + col] = table.length();
+				for (int i = 0; i < this.width; i++) {
+					table.append(' ');
+				}
+				table.append(' ');
+				table.append(col % boxSize == boxSize - 1 && col < this.side - 1 ? THICK_SEPARATOR : '|');
+			}
+		}
+		appendBorder(table, '-');
+		char[] template = new char[table.length()];
+		table.getChars(0, template.length, template, 0);
+		return template;
+	}
+
+	private void appendBorder(StringBuilder table, char line) {
+		table.append("\n+");
+		for (int col = 0; col < this.side; col++) {
+			for (int i = 0; i < this.width + 2; i++) {
+				table.append(line);
+			}
+			table.append('+');
+		}
+	}
+
+}
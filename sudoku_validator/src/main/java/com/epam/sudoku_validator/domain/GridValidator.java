@@ -0,0 +1,166 @@
+package com.epam.sudoku_validator.domain;
+
+import java.util.Arrays;
+
+/**
+ * Allocation-free validator for n²×n² sudoku grids of any supported size (see GridGeometry), one byte per cell
+ * It works like BitmaskValidator, but with a long occupancy mask per unit, so grids up to 64x64 are checked
+ * in one pass over the cells, and it gives the same failing unit and error cell for 9x9 grids.
+ * The subtable of a cell is derived from the band of the row and the stack of the column, so the work
+ * per cell is the same for every size.
+ *
+ * It's the BITMASK validation engine of the grids other than 9x9, see ValidationEngineType.
+ *
+ * An instance holds its mask buffer, so it isn't thread-safe, use one instance per thread.
+ *
+ * @author Istvan_Simo
+ */
+public final class GridValidator implements ValidationEngine {
+
+	private final GridGeometry geometry;
+	private final int side;
+	private final long fullMask;
+
+	/**
+	 * Digit bit for every possible byte value, it's 0 for values out of the 1..side range
+	 */
+	private final long[] digitBits = new long[256];
+	private final long[] unitMasks;
+	private final ValidationResult valid;
+	private int failingUnit = -1;
+
+	/**
+	 * @param geometry - the size of the grids to be validated
+	 */
+	public GridValidator(GridGeometry geometry) {
+		this.geometry = geometry;
+		this.side = geometry.getSide();
+		this.fullMask = this.side == 64 ? -1L : (1L << this.side) - 1;
+		for (int digit = 1; digit <= this.side; digit++) {
+			this.digitBits[digit] = 1L << (digit - 1);
+		}
+		this.unitMasks = new long[geometry.getUnits()];
+		this.valid = new ValidationResult(geometry, BitmaskValidator.VALID, new long[words(geometry.getUnits())], new long[words(geometry.getCells())]);
+	}
+
+	private static int words(int bits) {
+		return (bits + 63) >>> 6;
+	}
+
+	public GridGeometry getGeometry() {
+		return this.geometry;
+	}
+
+	/**
+	 * Validates the grid starting at the given offset
+	 *
+	 * @param cells - cell values in row-major order, 1..side for each cell
+	 * @param offset - index of the first cell of the grid
+	 * @return BitmaskValidator.VALID, or the index (row * side + col) of the error cell in the first failing unit
+	 */
+	public int validate(byte[] cells, int offset) {
+		int side = this.side;
+		int boxSize = this.geometry.getBoxSize();
+		long[] masks = this.unitMasks;
+		long[] bits = this.digitBits;
+		byte[] stackOf = this.geometry.stackOf;
+		Arrays.fill(masks, 0);
+		int cell = offset;
+		for (int row = 0; row < side; row++) {
+			int boxBase = 2 * side + (row / boxSize) * boxSize;
+			long rowMask = 0;
+			for (int col = 0; col < side; col++, cell++) {
+				long bit = bits[cells[cell] & 0xFF];
+				rowMask |= bit;
+				masks[side + col] |= bit;
+				masks[boxBase + stackOf[col]] |= bit;
+			}
+			masks[row] = rowMask;
+		}
+		short[] checkOrder = this.geometry.checkOrder;
+		for (int i = 0; i < checkOrder.length; i++) {
+			int unit = checkOrder[i];
+			if (masks[unit] != this.fullMask) {
+				this.failingUnit = unit;
+				return errorCell(cells, offset, unit);
+			}
+		}
+		this.failingUnit = -1;
+		return BitmaskValidator.VALID;
+	}
+
+	/**
+	 * Full diagnostic validation of the grid starting at the given offset, like BitmaskValidator.diagnose
+	 * The grid is read once, by the mask pass of validate, then the conflicts are searched in the failing units only.
+	 *
+	 * @param cells - cell values in row-major order, 1..side for each cell
+	 * @param offset - index of the first cell of the grid
+	 * @return the valid result of the geometry, or the result with all the errors
+	 */
+	public ValidationResult diagnose(byte[] cells, int offset) {
+		int errorCell = validate(cells, offset);
+		if (errorCell == BitmaskValidator.VALID) {
+			return this.valid;
+		}
+		long[] masks = this.unitMasks;
+		long[] unitBits = new long[words(masks.length)];
+		long[] conflictBits = new long[words(this.geometry.getCells())];
+		for (int unit = 0; unit < masks.length; unit++) {
+			if (masks[unit] != this.fullMask) {
+				unitBits[unit >>> 6] |= 1L << unit;
+				markConflicts(cells, offset, unit, conflictBits);
+			}
+		}
+		return new ValidationResult(this.geometry, errorCell, unitBits, conflictBits);
+	}
+
+	/**
+	 * Marks the cells of the unit with invalid or repeated values as conflicting
+	 */
+	private void markConflicts(byte[] cells, int offset, int unit, long[] conflictBits) {
+		short[] unitCells = this.geometry.unitCells;
+		int first = unit * this.side;
+		long seen = 0;
+		long repeated = 0;
+		for (int index = 0; index < this.side; index++) {
+			long bit = this.digitBits[cells[offset + unitCells[first + index]] & 0xFF];
+			repeated |= seen & bit;
+			seen |= bit;
+		}
+		for (int index = 0; index < this.side; index++) {
+			int cell = unitCells[first + index];
+			long bit = this.digitBits[cells[offset + cell] & 0xFF];
+			if (bit == 0 || (repeated & bit) != 0) {
+				conflictBits[cell >>> 6] |= 1L << cell;
+			}
+		}
+	}
+
+	/**
+	 * Returns with the first failing unit of the last validation, or -1 if the grid was valid
+	 */
+	public int getFailingUnit() {
+		return this.failingUnit;
+	}
+
+	/**
+	 * Finds the error cell of a failing unit the same way as SudokuTable.validateSet does: the last repeated value
+	 * Values out of the 1..side range are reported as error as well
+	 */
+	private int errorCell(byte[] cells, int offset, int unit) {
+		short[] unitCells = this.geometry.unitCells;
+		int first = unit * this.side;
+		long seen = 0;
+		int errorCell = unitCells[first];
+		for (int index = 0; index < this.side; index++) {
+			int cell = unitCells[first + index];
+			long bit = this.digitBits[cells[offset + cell] & 0xFF];
+			if (bit == 0 || (seen & bit) != 0) {
+				errorCell = cell;
+			}
+			seen |= bit;
+		}
+		return errorCell;
+	}
+
+}
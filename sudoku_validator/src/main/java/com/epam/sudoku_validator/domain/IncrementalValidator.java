@@ -0,0 +1,231 @@
+package com.epam.sudoku_validator.domain;
+
+import java.util.Arrays;
+
+/**
+ * Incremental validator for interactive clients, which change one cell at a time
+ * It keeps a counter for every digit in every row, column and subtable, so an update touches only the 3 units
+ * of the changed cell, instead of validating all the 27 units again.
+ * A cell is conflicting if its value appears more than once in any of its units, empty cells (0) never conflict.
+ * Every change is recorded, so search and editor clients can backtrack with undo / undoTo.
+ * 
+ * An instance isn't thread-safe.
+ *
+ * @author Istvan_Simo
+ */
+public class IncrementalValidator {
+
+	private final byte[] cells = new byte[BitmaskValidator.CELLS];
+	private final int[] counts = new int[BitmaskValidator.UNITS * 10];
+	private final boolean[] conflicting = new boolean[BitmaskValidator.CELLS];
+	private int conflictCount = 0;
+	private int filledCount = 0;
+
+	/**
+	 * Undo history, every entry is (cell index << 8 | previous value)
+	 */
+	private int[] history = new int[256];
+	private int historySize = 0;
+
+	/**
+	 * Loads a whole grid and clears the undo history
+	 *
+	 * @param source - the cell values in row-major order, 0 for empty cells
+	 * @param offset - index of the first cell of the grid
+	 */
+	public void load(byte[] source, int offset) {
+		for (int cell = 0; cell < BitmaskValidator.CELLS; cell++) {
+			checkValue(source[offset + cell], cell / 9, cell % 9);
+		}
+		Arrays.fill(this.cells, (byte) 0);
+		Arrays.fill(this.counts, 0);
+		Arrays.fill(this.conflicting, false);
+		this.conflictCount = 0;
+		this.filledCount = 0;
+		this.historySize = 0;
+		for (int cell = 0; cell < BitmaskValidator.CELLS; cell++) {
+			apply(cell, source[offset + cell]);
+		}
+	}
+
+	/**
+	 * Sets a cell value and records the previous one for undo
+	 *
+	 * @param row - row index, 0..8
+	 * @param col - column index, 0..8
+	 * @param value - the new value, 1..9, or 0 to clear the cell
+	 * @return the change of the number of conflicting cells
+	 */
+	public int setCell(int row, int col, int value) {
+		if (row < 0 || row > 8 || col < 0 || col > 8) {
+			throw new IllegalArgumentException("Invalid sudoku cell position (row: " + (row + 1) + ", column: " + (col + 1) + ")");
+		}
+		checkValue(value, row, col);
+		int cell = row * 9 + col;
+		if (this.cells[cell] == value) {
+			return 0;
+		}
+		if (this.historySize == this.history.length) {
+			this.history = Arrays.copyOf(this.history, this.history.length * 2);
+		}
+		this.history[this.historySize++] = (cell << 8) | this.cells[cell];
+		return apply(cell, value);
+	}
+
+	/**
+	 * Reverts the last change
+	 *
+	 * @return the change of the number of conflicting cells
+	 */
+	public int undo() {
+		if (this.historySize == 0) {
+			throw new IllegalStateException("There is nothing to undo");
+		}
+		int entry = this.history[--this.historySize];
+		return apply(entry >>> 8, entry & 0xFF);
+	}
+
+	/**
+	 * Returns with the current position of the undo history, see undoTo
+	 */
+	public int mark() {
+		return this.historySize;
+	}
+
+	/**
+	 * Reverts all the changes after the given mark
+	 *
+	 * @param mark - a value returned by mark
+	 * @return the change of the number of conflicting cells
+	 */
+	public int undoTo(int mark) {
+		if (mark < 0 || mark > this.historySize) {
+			throw new IllegalArgumentException("Invalid undo mark: " + mark);
+		}
+		int delta = 0;
+		while (this.historySize > mark) {
+			delta += undo();
+		}
+		return delta;
+	}
+
+	public int getCell(int row, int col) {
+		return this.cells[row * 9 + col];
+	}
+
+	public boolean isConflicting(int row, int col) {
+		return this.conflicting[row * 9 + col];
+	}
+
+	/**
+	 * Returns with the number of conflicting cells
+	 */
+	public int getConflictCount() {
+		return this.conflictCount;
+	}
+
+	/**
+	 * Copies the indexes (row * 9 + col) of the conflicting cells into the target in increasing order
+	 *
+	 * @param target - array of at least getConflictCount() elements
+	 * @return the number of conflicting cells
+	 */
+	public int getConflictingCells(int[] target) {
+		int count = 0;
+		for (int cell = 0; cell < BitmaskValidator.CELLS; cell++) {
+			if (this.conflicting[cell]) {
+				target[count++] = cell;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns with the number of occurrences of a digit in a row, column or subtable
+	 *
+	 * @param validateType - ROW, COLUMN or SUBTABLE
+	 * @param index - index of the row, column or subtable, 0..8
+	 * @param digit - 1..9
+	 */
+	public int getDigitCount(ValidateType validateType, int index, int digit) {
+		return this.counts[(validateType.ordinal() * 9 + index) * 10 + digit];
+	}
+
+	/**
+	 * Returns true if the grid is complete and there's no conflict, the same as SudokuTable.validate would return
+	 */
+	public boolean isValid() {
+		return this.filledCount == BitmaskValidator.CELLS && this.conflictCount == 0;
+	}
+
+	/**
+	 * Returns true if all the cells are filled
+	 */
+	public boolean isComplete() {
+		return this.filledCount == BitmaskValidator.CELLS;
+	}
+
+	private int apply(int cell, int value) {
+		int before = this.conflictCount;
+		int old = this.cells[cell];
+		this.cells[cell] = (byte) value;
+		int row = BitmaskValidator.ROW_OF[cell];
+		int col = 9 + BitmaskValidator.COL_OF[cell];
+		int box = 18 + BitmaskValidator.BOX_OF[cell];
+		if (old != 0) {
+			this.filledCount--;
+			// the last remaining cell of a former duplicate may be resolved
+			if (--this.counts[row * 10 + old] == 1) {
+				refreshUnit(row, old);
+			}
+			if (--this.counts[col * 10 + old] == 1) {
+				refreshUnit(col, old);
+			}
+			if (--this.counts[box * 10 + old] == 1) {
+				refreshUnit(box, old);
+			}
+		}
+		if (value != 0) {
+			this.filledCount++;
+			// a new duplicate makes the other cell conflicting as well
+			if (++this.counts[row * 10 + value] == 2) {
+				refreshUnit(row, value);
+			}
+			if (++this.counts[col * 10 + value] == 2) {
+				refreshUnit(col, value);
+			}
+			if (++this.counts[box * 10 + value] == 2) {
+				refreshUnit(box, value);
+			}
+		}
+		refreshCell(cell);
+		return this.conflictCount - before;
+	}
+
+	private void refreshUnit(int unit, int value) {
+		for (int index = 0; index < 9; index++) {
+			int cell = BitmaskValidator.UNIT_CELLS[unit * 9 + index];
+			if (this.cells[cell] == value) {
+				refreshCell(cell);
+			}
+		}
+	}
+
+	private void refreshCell(int cell) {
+		int value = this.cells[cell];
+		boolean isConflicting = value != 0 && (this.counts[BitmaskValidator.ROW_OF[cell] * 10 + value] > 1
+				|| this.counts[(9 + BitmaskValidator.COL_OF[cell]) * 10 + value] > 1
+				|| this.counts[(18 + BitmaskValidator.BOX_OF[cell]) * 10 + value] > 1);
+		if (isConflicting != this.conflicting[cell]) {
+			this.conflicting[cell] = isConflicting;
+			this.conflictCount += isConflicting ? 1 : -1;
+		}
+	}
+
+	private static void checkValue(int value, int row, int col) {
+		if (value < 0 || value > 9) {
+			throw new IllegalArgumentException("Invalid sudoku cell value (" + value + ") at (row: " + (row + 1) + ", column: " + (col + 1) + "), it should be between 0 and 9!");
+		}
+	}
+
+}
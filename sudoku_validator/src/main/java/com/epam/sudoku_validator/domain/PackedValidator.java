@@ -0,0 +1,76 @@
+package com.epam.sudoku_validator.domain;
+
+/**
+ * Validator for standard 9x9 grids, which keeps all the 27 unit masks in local variables
+ * The 9-bit masks of the columns are packed side by side into a long and an int, the masks of the 3 subtables
+ * of a band into an int, so a row of 9 cells updates every unit with a few shifts and ORs, without the memory
+ * traffic of the mask array of BitmaskValidator. The row and the band masks are ANDed together, the grid is valid
+ * only if all of them are complete.
+ * Only the invalid grids go through BitmaskValidator again, so the error cells are the same as the ones of
+ * BitmaskValidator. It's the PACKED validation engine, see ValidationEngineType.
+ *
+ * An instance holds a BitmaskValidator, so it isn't thread-safe, use one instance per thread.
+ *
+ * @author Istvan_Simo
+ */
+public final class PackedValidator implements ValidationEngine {
+
+	private static final int[] DIGIT_BITS = BitmaskValidator.DIGIT_BITS;
+
+	private static final int FULL_BAND = 0x7FFFFFF;
+
+	private static final long FULL_COLUMNS_LOW = (1L << 63) - 1;
+
+	private static final int FULL_COLUMNS_HIGH = 0x3FFFF;
+
+	private final BitmaskValidator validator = new BitmaskValidator();
+	private boolean valid = true;
+
+	public GridGeometry getGeometry() {
+		return GridGeometry.STANDARD;
+	}
+
+	public int validate(byte[] cells, int offset) {
+		int[] bits = DIGIT_BITS;
+		long columnsLow = 0;
+		int columnsHigh = 0;
+		int rows = BitmaskValidator.FULL_MASK;
+		int bands = FULL_BAND;
+		int cell = offset;
+		for (int band = 0; band < 3; band++) {
+			int boxes = 0;
+			for (int row = 0; row < 3; row++, cell += 9) {
+				int b0 = bits[cells[cell] & 0xFF];
+				int b1 = bits[cells[cell + 1] & 0xFF];
+				int b2 = bits[cells[cell + 2] & 0xFF];
+				int b3 = bits[cells[cell + 3] & 0xFF];
+				int b4 = bits[cells[cell + 4] & 0xFF];
+				int b5 = bits[cells[cell + 5] & 0xFF];
+				int b6 = bits[cells[cell + 6] & 0xFF];
+				int b7 = bits[cells[cell + 7] & 0xFF];
+				int b8 = bits[cells[cell + 8] & 0xFF];
+				int left = b0 | b1 | b2;
+				int middle = b3 | b4 | b5;
+				int right = b6 | b7 | b8;
+				rows &= left | middle | right;
+				boxes |= left | (middle << 9) | (right << 18);
+				columnsLow |= b0 | ((long) b1 << 9) | ((long) b2 << 18) | ((long) b3 << 27)
+						| ((long) b4 << 36) | ((long) b5 << 45) | ((long) b6 << 54);
+				columnsHigh |= b7 | (b8 << 9);
+			}
+			bands &= boxes;
+		}
+		if (rows == BitmaskValidator.FULL_MASK && bands == FULL_BAND
+				&& columnsLow == FULL_COLUMNS_LOW && columnsHigh == FULL_COLUMNS_HIGH) {
+			this.valid = true;
+			return BitmaskValidator.VALID;
+		}
+		this.valid = false;
+		return this.validator.validate(cells, offset);
+	}
+
+	public int getFailingUnit() {
+		return this.valid ? -1 : this.validator.getFailingUnit();
+	}
+
+}
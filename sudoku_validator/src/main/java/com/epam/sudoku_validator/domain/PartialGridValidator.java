@@ -0,0 +1,170 @@
+package com.epam.sudoku_validator.domain;
+
+import java.util.Arrays;
+
+/**
+ * Allocation-free validator for partially filled 9x9 grids, e.g. puzzles in progress, where 0 means an empty cell
+ * The givens (non-empty cells) are consistent if no digit appears twice in a row, column or subtable.
+ * For a consistent grid it computes the candidates of every empty cell as well: a 9-bit mask of the digits,
+ * which aren't used in any of its units (bit 0 is digit 1). The occupancy masks are built in one pass over
+ * the givens, the candidates in one pass over the empty cells, so it's as cheap as BitmaskValidator.
+ * A consistent grid can still be a dead end, if an empty cell has no candidate at all, see getDeadCell.
+ *
+ * An instance holds its mask buffer, so it isn't thread-safe, use one instance per thread.
+ *
+ * @author Istvan_Simo
+ */
+public final class PartialGridValidator {
+
+	/**
+	 * Value of an empty cell
+	 */
+	public static final byte EMPTY = 0;
+
+	private final int[] unitMasks = new int[BitmaskValidator.UNITS];
+	private int failingUnit = -1;
+	private int deadCell = -1;
+	private int emptyCells = 0;
+
+	/**
+	 * Checks the givens of the grid and computes the candidates of the empty cells
+	 *
+	 * @param cells - cell values in row-major order, 1..9 for the givens, 0 for the empty cells
+	 * @param offset - index of the first cell of the grid
+	 * @param candidates - target of the 81 candidate masks, 0 for the givens, or null if they aren't needed;
+	 *                     they are written only if the givens are consistent
+	 * @param candidatesOffset - index of the first candidate mask in the target
+	 * @return BitmaskValidator.VALID if the givens are consistent, otherwise the index (row * 9 + col) of the
+	 *         error cell in the first failing unit, in the order of BitmaskValidator
+	 */
+	public int validate(byte[] cells, int offset, short[] candidates, int candidatesOffset) {
+		int[] masks = this.unitMasks;
+		Arrays.fill(masks, 0);
+		int conflictingUnits = 0;
+		for (int cell = 0; cell < BitmaskValidator.CELLS; cell++) {
+			int value = cells[offset + cell];
+			if (value == EMPTY) {
+				continue;
+			}
+			int bit = BitmaskValidator.DIGIT_BITS[value & 0xFF];
+			int row = BitmaskValidator.ROW_OF[cell];
+			int col = 9 + BitmaskValidator.COL_OF[cell];
+			int box = 18 + BitmaskValidator.BOX_OF[cell];
+			if (bit == 0 || (masks[row] & bit) != 0) {
+				conflictingUnits |= 1 << row;
+			}
+			if (bit == 0 || (masks[col] & bit) != 0) {
+				conflictingUnits |= 1 << col;
+			}
+			if (bit == 0 || (masks[box] & bit) != 0) {
+				conflictingUnits |= 1 << box;
+			}
+			masks[row] |= bit;
+			masks[col] |= bit;
+			masks[box] |= bit;
+		}
+		this.deadCell = -1;
+		this.emptyCells = 0;
+		if (conflictingUnits != 0) {
+			for (int i = 0; i < BitmaskValidator.UNITS; i++) {
+				int unit = BitmaskValidator.CHECK_ORDER[i];
+				if ((conflictingUnits & (1 << unit)) != 0) {
+					this.failingUnit = unit;
+					return errorCell(cells, offset, unit);
+				}
+			}
+		}
+		this.failingUnit = -1;
+		for (int cell = 0; cell < BitmaskValidator.CELLS; cell++) {
+			int candidateMask = 0;
+			if (cells[offset + cell] == EMPTY) {
+				candidateMask = ~(masks[BitmaskValidator.ROW_OF[cell]] | masks[9 + BitmaskValidator.COL_OF[cell]]
+						| masks[18 + BitmaskValidator.BOX_OF[cell]]) & BitmaskValidator.FULL_MASK;
+				if (candidateMask == 0 && this.deadCell < 0) {
+					this.deadCell = cell;
+				}
+				this.emptyCells++;
+			}
+			if (candidates != null) {
+				candidates[candidatesOffset + cell] = (short) candidateMask;
+			}
+		}
+		return BitmaskValidator.VALID;
+	}
+
+	/**
+	 * Validates many grids stored back to back, e.g. a chunk of a batch
+	 *
+	 * @param cells - the grids, 81 cells each
+	 * @param offset - index of the first cell of the first grid
+	 * @param count - number of grids
+	 * @param results - target of the results of validate, one for each grid
+	 * @param candidates - target of the candidate masks, 81 for each grid, or null
+	 */
+	public void validate(byte[] cells, int offset, int count, int[] results, short[] candidates) {
+		for (int grid = 0; grid < count; grid++) {
+			results[grid] = validate(cells, offset + grid * BitmaskValidator.CELLS, candidates, grid * BitmaskValidator.CELLS);
+		}
+	}
+
+	/**
+	 * Returns with the first failing unit of the last validation, or -1 if the givens were consistent
+	 */
+	public int getFailingUnit() {
+		return this.failingUnit;
+	}
+
+	/**
+	 * Returns with the first empty cell without any candidate after the last validation, or -1 if there isn't any
+	 * (or the givens were inconsistent)
+	 */
+	public int getDeadCell() {
+		return this.deadCell;
+	}
+
+	/**
+	 * Returns with the number of empty cells of the last consistent grid
+	 */
+	public int getEmptyCells() {
+		return this.emptyCells;
+	}
+
+	/**
+	 * Returns with the candidate digits of a mask in increasing order, e.g. 0b1011 gives 1, 2 and 4
+	 *
+	 * @param candidateMask - a candidate mask
+	 * @return the digits
+	 */
+	public static int[] digits(int candidateMask) {
+		int[] digits = new int[Integer.bitCount(candidateMask)];
+		int index = 0;
+		for (int digit = 1; digit <= 9; digit++) {
+			if ((candidateMask & (1 << (digit - 1))) != 0) {
+				digits[index++] = digit;
+			}
+		}
+		return digits;
+	}
+
+	/**
+	 * Finds the error cell of a failing unit like BitmaskValidator: the last repeated given of the unit
+	 */
+	private static int errorCell(byte[] cells, int offset, int unit) {
+		int seen = 0;
+		int errorCell = BitmaskValidator.UNIT_CELLS[unit * 9];
+		for (int index = 0; index < 9; index++) {
+			int cell = BitmaskValidator.UNIT_CELLS[unit * 9 + index];
+			int value = cells[offset + cell];
+			if (value == EMPTY) {
+				continue;
+			}
+			int bit = BitmaskValidator.DIGIT_BITS[value & 0xFF];
+			if (bit == 0 || (seen & bit) != 0) {
+				errorCell = cell;
+			}
+			seen |= bit;
+		}
+		return errorCell;
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.epam.sudoku_validator.domain;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * REGEX validation engine, the backreference based algorithm of sudoku_validator_nerd
+ * Every unit is written into a string, one character per value, and a unit fails if the pattern finds a character
+ * repeated later in the string. Only the failing unit is scanned once more for the error cell, which is the same
+ * as the one of GridValidator. The values are checked against the 1..side range separately, the pattern can't
+ * tell them apart.
+ * The matcher and the string buffer are reused, so it allocates far less than the original, but it's still slow.
+ *
+ * An instance holds its matcher, so it isn't thread-safe, use one instance per thread.
+ *
+ * @author Istvan_Simo
+ */
+public final class RegexValidationEngine implements ValidationEngine {
+
+	private static final Pattern DUPLICATE = Pattern.compile("(.).*?\\1");
+
+	private final GridGeometry geometry;
+	private final int side;
+	private final StringBuilder unit;
+	private final Matcher matcher;
+	private int failingUnit = -1;
+
+	/**
+	 * @param geometry - the size of the grids to be validated
+	 */
+	public RegexValidationEngine(GridGeometry geometry) {
+		this.geometry = geometry;
+		this.side = geometry.getSide();
+		this.unit = new StringBuilder(this.side);
+		this.matcher = DUPLICATE.matcher(this.unit);
+	}
+
+	public GridGeometry getGeometry() {
+		return this.geometry;
+	}
+
+	public int validate(byte[] cells, int offset) {
+		short[] unitCells = this.geometry.unitCells;
+		short[] checkOrder = this.geometry.checkOrder;
+		for (int i = 0; i < checkOrder.length; i++) {
+			int unit = checkOrder[i];
+			boolean outOfRange = false;
+			this.unit.setLength(0);
+			for (int index = 0; index < this.side; index++) {
+				int value = cells[offset + unitCells[unit * this.side + index]] & 0xFF;
+				outOfRange |= value < 1 || value > this.side;
+				this.unit.append((char) ('0' + value));
+			}
+			if (outOfRange || this.matcher.reset(this.unit).find()) {
+				this.failingUnit = unit;
+				return errorCell(cells, offset, unit);
+			}
+		}
+		this.failingUnit = -1;
+		return BitmaskValidator.VALID;
+	}
+
+	public int getFailingUnit() {
+		return this.failingUnit;
+	}
+
+	/**
+	 * Finds the error cell of a failing unit the same way as SudokuTable.validateSet does: the last repeated value
+	 */
+	private int errorCell(byte[] cells, int offset, int unit) {
+		short[] unitCells = this.geometry.unitCells;
+		long seen = 0;
+		int errorCell = unitCells[unit * this.side];
+		for (int index = 0; index < this.side; index++) {
+			int cell = unitCells[unit * this.side + index];
+			int value = cells[offset + cell] & 0xFF;
+			long bit = value < 1 || value > this.side ? 0 : 1L << (value - 1);
+			if (bit == 0 || (seen & bit) != 0) {
+				errorCell = cell;
+			}
+			seen |= bit;
+		}
+		return errorCell;
+	}
+
+}
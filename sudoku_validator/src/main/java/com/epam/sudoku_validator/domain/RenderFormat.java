@@ -0,0 +1,18 @@
+package com.epam.sudoku_validator.domain;
+
+/**
+ * Output formats of GridRenderer
+ *
+ * @author Istvan_Simo
+ */
+public enum RenderFormat {
+	/**
+	 * The box-drawing table of SudokuTable.toString, the error cell is shown as <v> instead of " v "
+	 */
+	BOX,
+	/**
+	 * One line of the values in row-major order, digits without separator in 9x9 (and 4x4) tables, comma separated
+	 * values in larger ones, the error cell between < and >, e.g. "53<5>678912..."
+	 */
+	LINE
+}
@@ -0,0 +1,62 @@
+package com.epam.sudoku_validator.domain;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * SET validation engine, the HashSet based algorithm of SudokuTable.validate(Logger) without the logging
+ * The units are visited in the same order as SudokuTable.validate visits them, a unit fails when the set of its values
+ * doesn't grow at a cell. The error cell is the last such cell, a value out of the 1..side range counts as error as well.
+ * It's the slowest engine, it boxes every value, it's kept as the reference implementation.
+ *
+ * An instance holds its set, so it isn't thread-safe, use one instance per thread.
+ *
+ * @author Istvan_Simo
+ */
+public final class SetValidationEngine implements ValidationEngine {
+
+	private final GridGeometry geometry;
+	private final int side;
+	private final Set<Integer> items = new HashSet<Integer>();
+	private int failingUnit = -1;
+
+	/**
+	 * @param geometry - the size of the grids to be validated
+	 */
+	public SetValidationEngine(GridGeometry geometry) {
+		this.geometry = geometry;
+		this.side = geometry.getSide();
+	}
+
+	public GridGeometry getGeometry() {
+		return this.geometry;
+	}
+
+	public int validate(byte[] cells, int offset) {
+		short[] unitCells = this.geometry.unitCells;
+		short[] checkOrder = this.geometry.checkOrder;
+		for (int i = 0; i < checkOrder.length; i++) {
+			int unit = checkOrder[i];
+			int errorCell = BitmaskValidator.VALID;
+			this.items.clear();
+			for (int index = 0; index < this.side; index++) {
+				int cell = unitCells[unit * this.side + index];
+				Integer item = cells[offset + cell] & 0xFF;
+				if (!this.items.add(item) || item < 1 || item > this.side) {
+					errorCell = cell;
+				}
+			}
+			if (errorCell != BitmaskValidator.VALID) {
+				this.failingUnit = unit;
+				return errorCell;
+			}
+		}
+		this.failingUnit = -1;
+		return BitmaskValidator.VALID;
+	}
+
+	public int getFailingUnit() {
+		return this.failingUnit;
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.epam.sudoku_validator.domain;
+
+/**
+ * Number of solutions of a puzzle, as far as SudokuSolver counts them
+ *
+ * @author Istvan_Simo
+ */
+public enum SolutionCount {
+	/**
+	 * The puzzle has no solution, e.g. its givens conflict or lead to a dead end
+	 */
+	NONE,
+	/**
+	 * The puzzle has exactly one solution, i.e. it can be published
+	 */
+	UNIQUE,
+	/**
+	 * The puzzle has at least two solutions, the search stops at the second one
+	 */
+	MULTIPLE
+}
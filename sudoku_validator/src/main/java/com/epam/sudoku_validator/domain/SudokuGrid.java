@@ -0,0 +1,141 @@
+package com.epam.sudoku_validator.domain;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable 9x9 sudoku grid, every cell value is between 1 and 9
+ * It can be shared between threads freely, the values are copied in and out, never exposed.
+ *
+ * @author Istvan_Simo
+ */
+public final class SudokuGrid {
+
+	private final byte[] cells;
+
+	private SudokuGrid(byte[] cells) {
+		this.cells = cells;
+	}
+
+	/**
+	 * Creates a grid from cell values in row-major order
+	 *
+	 * @param cells - cell values, they are copied
+	 * @param offset - index of the first cell of the grid
+	 * @return the new grid
+	 * @throws IllegalArgumentException if a value is out of the 1..9 range
+	 */
+	public static SudokuGrid of(byte[] cells, int offset) {
+		byte[] copy = Arrays.copyOfRange(cells, offset, offset + BitmaskValidator.CELLS);
+		for (int cell = 0; cell < BitmaskValidator.CELLS; cell++) {
+			if (copy[cell] < 1 || copy[cell] > 9) {
+				throw GridParser.outOfRange(copy[cell], cell / 9 + 1, cell % 9 + 1);
+			}
+		}
+		return new SudokuGrid(copy);
+	}
+
+	/**
+	 * Creates a grid from 9 rows of 9 values
+	 *
+	 * @param rows - the rows of the grid
+	 * @return the new grid
+	 * @throws IllegalArgumentException if the size is not 9x9 or a value is out of the 1..9 range
+	 */
+	public static SudokuGrid of(int[][] rows) {
+		if (rows.length != 9) {
+			throw rows.length > 9 ? GridParser.tooManyRows(rows.length) : GridParser.tooFewRows(rows.length);
+		}
+		byte[] cells = new byte[BitmaskValidator.CELLS];
+		for (int row = 0; row < 9; row++) {
+			if (rows[row].length != 9) {
+				throw rows[row].length > 9 ? GridParser.tooManyValues(rows[row].length, row + 1) : GridParser.tooFewValues(rows[row].length, row + 1);
+			}
+			for (int col = 0; col < 9; col++) {
+				int value = rows[row][col];
+				if (value < 1 || value > 9) {
+					throw GridParser.outOfRange(value, row + 1, col + 1);
+				}
+				cells[row * 9 + col] = (byte) value;
+			}
+		}
+		return new SudokuGrid(cells);
+	}
+
+	/**
+	 * Parses 9 CSV lines with the rules and error messages of SudokuTable.populateGrid
+	 *
+	 * @param lines - the lines of the table
+	 * @return the new grid
+	 * @throws IllegalArgumentException in case of wrong CSV content
+	 */
+	public static SudokuGrid parse(List<? extends CharSequence> lines) {
+		if (lines.size() > 9) {
+			throw GridParser.tooManyRows(lines.size());
+		}
+		if (lines.size() < 9) {
+			throw GridParser.tooFewRows(lines.size());
+		}
+		byte[] cells = new byte[BitmaskValidator.CELLS];
+		for (int row = 0; row < 9; row++) {
+			GridParser.parseRow(lines.get(row), row, cells, 0);
+		}
+		return new SudokuGrid(cells);
+	}
+
+	/**
+	 * Returns with the value of a cell
+	 *
+	 * @param row - zero-based row index
+	 * @param col - zero-based column index
+	 */
+	public int getCell(int row, int col) {
+		if (row < 0 || row > 8 || col < 0 || col > 8) {
+			throw new IndexOutOfBoundsException("Invalid cell position (row: " + row + ", column: " + col + ")");
+		}
+		return this.cells[row * 9 + col];
+	}
+
+	/**
+	 * Copies the cell values in row-major order into the specified buffer
+	 *
+	 * @param target - the target buffer
+	 * @param offset - index of the first cell in the buffer
+	 */
+	public void copyTo(byte[] target, int offset) {
+		System.arraycopy(this.cells, 0, target, offset, BitmaskValidator.CELLS);
+	}
+
+	/**
+	 * Gives the cells to the validator of the same package without copying
+	 */
+	byte[] cells() {
+		return this.cells;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return this == obj || (obj instanceof SudokuGrid && Arrays.equals(this.cells, ((SudokuGrid) obj).cells));
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(this.cells);
+	}
+
+	/**
+	 * Returns with the grid in CSV format, 9 lines of 9 comma separated values
+	 */
+	@Override
+	public String toString() {
+		StringBuilder retVal = new StringBuilder(2 * BitmaskValidator.CELLS);
+		for (int cell = 0; cell < BitmaskValidator.CELLS; cell++) {
+			if (cell > 0) {
+				retVal.append(cell % 9 == 0 ? '\n' : ',');
+			}
+			retVal.append(this.cells[cell]);
+		}
+		return retVal.toString();
+	}
+
+}
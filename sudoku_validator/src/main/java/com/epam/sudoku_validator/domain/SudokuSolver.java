@@ -0,0 +1,484 @@
+package com.epam.sudoku_validator.domain;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Solver and uniqueness checker of 9x9 puzzles, where 0 means an empty cell (see PartialGridValidator)
+ * The candidates are stored by digit and band: a 27-bit int holds the possible places of a digit in the 3 rows
+ * of a band (bit (row % 3) * 9 + col), so 27 ints describe the whole grid and a placement is a few ANDs.
+ * Between the guesses the constraints are propagated until nothing changes:
+ * - a digit has to be in a different row of each subtable of a band, every place of the digit, which doesn't take
+ *   part in such an arrangement is removed (pointing and claiming), by a table of the 512 row/subtable patterns;
+ *   the same applies to the columns and the bands of a stack
+ * - an empty cell with a single candidate gets that digit (naked single)
+ * - a digit with a single place in a row, column or subtable is placed there (hidden single)
+ * Then it branches on a cell with the fewest candidates, on a copy of the 30 ints, so backtracking is just going
+ * back one level. The search stops at the second solution, which is enough to tell a unique puzzle from
+ * an ambiguous one.
+ *
+ * An instance holds its search stack, so it isn't thread-safe, use one instance per thread, or solveAll for a batch.
+ *
+ * @author Istvan_Simo
+ */
+public final class SudokuSolver {
+
+	private static final int BAND_CELLS = 27;
+	private static final int FULL_BAND = (1 << BAND_CELLS) - 1;
+	private static final int ROW_BITS = 0x1FF;
+
+	/**
+	 * Candidates of the 9 digits in the 3 bands (index digit * 3 + band), then the unsolved cells of the 3 bands
+	 */
+	private static final int LEVEL_SIZE = 32;
+	private static final int UNSOLVED = 27;
+
+	/**
+	 * Number of grids solved by one task of solveAll
+	 */
+	private static final int CHUNK_SIZE = 64;
+
+	/**
+	 * Places of a column in a band
+	 */
+	private static final int[] COLUMN_MASK = new int[9];
+
+	/**
+	 * Places of the 3 subtables in a band
+	 */
+	private static final int[] BOX_MASK = { 0x1C0E07, 0x1C0E07 << 3, 0x1C0E07 << 6 };
+
+	/**
+	 * Peers of every cell in its own band (row, subtable and column), without the cell, at index cell % 27
+	 */
+	private static final int[] BAND_PEERS = new int[BAND_CELLS];
+
+	/**
+	 * Subtables with a place in a row of a band: bit k is set if the 9-bit row has a place in subtable k
+	 */
+	private static final byte[] ROW_BOXES = new byte[512];
+
+	/**
+	 * Places which can be part of a consistent arrangement of a digit in a band, by the pattern of its rows and
+	 * subtables (bit row * 3 + box): the union of the permutations (a different row in every subtable) inside the
+	 * pattern, expanded to 27 bits; 0 if there isn't any
+	 */
+	private static final int[] ARRANGEMENTS = new int[512];
+
+	/**
+	 * The same as ARRANGEMENTS for the columns of a stack (bit band * 3 + column), without the expansion
+	 */
+	private static final short[] STACK_ARRANGEMENTS = new short[512];
+
+	/**
+	 * Places of the columns of a 9-bit column mask in a band
+	 */
+	private static final int[] COLUMN_PLACES = new int[512];
+
+	private static final ThreadLocal<SudokuSolver> SOLVER = ThreadLocal.withInitial(SudokuSolver::new);
+
+	static {
+		for (int col = 0; col < 9; col++) {
+			COLUMN_MASK[col] = 1 << col | 1 << (9 + col) | 1 << (18 + col);
+		}
+		for (int bit = 0; bit < BAND_CELLS; bit++) {
+			int row = bit / 9;
+			int col = bit % 9;
+			BAND_PEERS[bit] = (ROW_BITS << (row * 9) | BOX_MASK[col / 3] | COLUMN_MASK[col]) & ~(1 << bit);
+		}
+		for (int row = 0; row < 512; row++) {
+			ROW_BOXES[row] = (byte) (((row & 0x7) != 0 ? 1 : 0) | ((row & 0x38) != 0 ? 2 : 0) | ((row & 0x1C0) != 0 ? 4 : 0));
+		}
+		int[][] permutations = { { 0, 1, 2 }, { 0, 2, 1 }, { 1, 0, 2 }, { 1, 2, 0 }, { 2, 0, 1 }, { 2, 1, 0 } };
+		for (int pattern = 0; pattern < 512; pattern++) {
+			int allowed = 0;
+			for (int[] boxOfRow : permutations) {
+				int permutation = 1 << boxOfRow[0] | 1 << (3 + boxOfRow[1]) | 1 << (6 + boxOfRow[2]);
+				if ((pattern & permutation) == permutation) {
+					allowed |= permutation;
+				}
+			}
+			STACK_ARRANGEMENTS[pattern] = (short) allowed;
+			COLUMN_PLACES[pattern] = pattern | pattern << 9 | pattern << 18;
+			int places = 0;
+			for (int row = 0; row < 3; row++) {
+				for (int box = 0; box < 3; box++) {
+					if ((allowed & (1 << (row * 3 + box))) != 0) {
+						places |= (ROW_BITS << (row * 9)) & BOX_MASK[box];
+					}
+				}
+			}
+			ARRANGEMENTS[pattern] = places;
+		}
+	}
+
+	/**
+	 * Candidates of every search level; a level can't be deeper than the number of cells
+	 */
+	private final int[] stack = new int[(BitmaskValidator.CELLS + 1) * LEVEL_SIZE];
+	private int unsolvedCount;
+	private int solutions;
+	private byte[] solution;
+	private int solutionOffset;
+	private long guesses;
+
+	/**
+	 * Counts the solutions of the puzzle, up to two
+	 *
+	 * @param cells - cell values in row-major order, 1..9 for the givens, 0 for the empty cells;
+	 *                any other value makes the puzzle unsolvable
+	 * @param offset - index of the first cell of the puzzle
+	 * @param solution - target of the first solution (81 cells), or null if it isn't needed;
+	 *                   it's written only if there's a solution
+	 * @param solutionOffset - index of the first cell of the solution in the target
+	 * @return the number of solutions
+	 */
+	public SolutionCount solve(byte[] cells, int offset, byte[] solution, int solutionOffset) {
+		int[] state = this.stack;
+		for (int i = 0; i < UNSOLVED + 3; i++) {
+			state[i] = FULL_BAND;
+		}
+		this.unsolvedCount = BitmaskValidator.CELLS;
+		for (int cell = 0; cell < BitmaskValidator.CELLS; cell++) {
+			int value = cells[offset + cell];
+			if (value == PartialGridValidator.EMPTY) {
+				continue;
+			}
+			// an invalid value, or a peer with the same given
+			if (value < 1 || value > 9 || !place(0, value - 1, cell / BAND_CELLS, cell % BAND_CELLS)) {
+				return SolutionCount.NONE;
+			}
+		}
+		this.solutions = 0;
+		this.solution = solution;
+		this.solutionOffset = solutionOffset;
+		if (propagate(0)) {
+			search(0);
+		}
+		this.solution = null;
+		return this.solutions == 0 ? SolutionCount.NONE : this.solutions == 1 ? SolutionCount.UNIQUE : SolutionCount.MULTIPLE;
+	}
+
+	/**
+	 * Solves many puzzles stored back to back, e.g. a chunk of a batch
+	 *
+	 * @param cells - the puzzles, 81 cells each
+	 * @param offset - index of the first cell of the first puzzle
+	 * @param count - number of puzzles
+	 * @param results - target of the results, one for each puzzle
+	 * @param solutions - target of the first solutions, 81 cells for each puzzle, or null
+	 */
+	public void solve(byte[] cells, int offset, int count, SolutionCount[] results, byte[] solutions) {
+		for (int grid = 0; grid < count; grid++) {
+			results[grid] = solve(cells, offset + grid * BitmaskValidator.CELLS, solutions, grid * BitmaskValidator.CELLS);
+		}
+	}
+
+	/**
+	 * Solves many puzzles stored back to back on a ForkJoinPool, in chunks of 64 puzzles; every worker thread
+	 * uses its own solver
+	 *
+	 * @param pool - the pool of the workers, e.g. ForkJoinPool.commonPool()
+	 * @param cells - the puzzles, 81 cells each, starting at index 0
+	 * @param count - number of puzzles
+	 * @param results - target of the results, one for each puzzle
+	 * @param solutions - target of the first solutions, 81 cells for each puzzle, or null
+	 */
+	public static void solveAll(ForkJoinPool pool, byte[] cells, int count, SolutionCount[] results, byte[] solutions) {
+		pool.invoke(new SolveTask(cells, 0, count, results, solutions));
+	}
+
+	/**
+	 * Returns with the number of branches tried since the creation of the solver, a measure of the puzzle difficulty
+	 */
+	public long getGuesses() {
+		return this.guesses;
+	}
+
+	/**
+	 * Branches on a cell with the fewest candidates, until the second solution is found
+	 *
+	 * @param level - search level of the propagated candidates
+	 */
+	private void search(int level) {
+		int base = level * LEVEL_SIZE;
+		int[] state = this.stack;
+		if (this.unsolvedCount == 0) {
+			if (this.solutions++ == 0 && this.solution != null) {
+				writeSolution(base);
+			}
+			return;
+		}
+		int band = -1;
+		int bit = 0;
+		// a cell with two candidates is the best branch, it's found by counting the candidates of all cells at once
+		for (int b = 0; b < 3 && band < 0; b++) {
+			int unsolved = state[base + UNSOLVED + b];
+			if (unsolved == 0) {
+				continue;
+			}
+			int once = 0;
+			int twice = 0;
+			int more = 0;
+			for (int digit = 0; digit < 9; digit++) {
+				int places = state[base + digit * 3 + b];
+				more |= twice & places;
+				twice |= once & places;
+				once |= places;
+			}
+			int pairs = twice & ~more & unsolved;
+			if (pairs != 0) {
+				band = b;
+				bit = Integer.numberOfTrailingZeros(pairs);
+			}
+		}
+		if (band < 0) {
+			int fewest = 10;
+			for (int b = 0; b < 3; b++) {
+				for (int unsolved = state[base + UNSOLVED + b]; unsolved != 0; unsolved &= unsolved - 1) {
+					int cellBit = unsolved & -unsolved;
+					int count = 0;
+					for (int digit = 0; digit < 9; digit++) {
+						if ((state[base + digit * 3 + b] & cellBit) != 0) {
+							count++;
+						}
+					}
+					if (count < fewest) {
+						fewest = count;
+						band = b;
+						bit = Integer.numberOfTrailingZeros(cellBit);
+					}
+				}
+			}
+		}
+		int unsolvedCount = this.unsolvedCount;
+		int nextBase = base + LEVEL_SIZE;
+		for (int digit = 0; digit < 9 && this.solutions < 2; digit++) {
+			if ((state[base + digit * 3 + band] & (1 << bit)) == 0) {
+				continue;
+			}
+			this.guesses++;
+			System.arraycopy(state, base, state, nextBase, LEVEL_SIZE);
+			this.unsolvedCount = unsolvedCount;
+			if (place(level + 1, digit, band, bit) && propagate(level + 1)) {
+				search(level + 1);
+			}
+		}
+	}
+
+	/**
+	 * Places the digit and removes it from the peers, and the other digits from the cell
+	 *
+	 * @param band - band of the cell
+	 * @param bit - place of the cell in the band, (row % 3) * 9 + col
+	 * @return false if the digit isn't a candidate of the cell any more, true if it's placed (now or before)
+	 */
+	private boolean place(int level, int digit, int band, int bit) {
+		int base = level * LEVEL_SIZE;
+		int[] state = this.stack;
+		int cellBit = 1 << bit;
+		int index = base + digit * 3 + band;
+		if ((state[index] & cellBit) == 0) {
+			return false;
+		}
+		if ((state[base + UNSOLVED + band] & cellBit) == 0) {
+			// already placed
+			return true;
+		}
+		state[index] &= ~BAND_PEERS[bit];
+		int column = COLUMN_MASK[bit % 9];
+		for (int b = 0; b < 3; b++) {
+			if (b != band) {
+				state[base + digit * 3 + b] &= ~column;
+			}
+		}
+		for (int other = 0; other < 9; other++) {
+			if (other != digit) {
+				state[base + other * 3 + band] &= ~cellBit;
+			}
+		}
+		state[base + UNSOLVED + band] &= ~cellBit;
+		this.unsolvedCount--;
+		return true;
+	}
+
+	/**
+	 * Applies the arrangements, the naked singles and the hidden singles, until nothing changes
+	 * The placed digits stay in the candidates of their cells, so every row, column and subtable has at least one
+	 * place of every digit, otherwise the candidates are contradictory.
+	 *
+	 * @return false if the candidates are contradictory
+	 */
+	private boolean propagate(int level) {
+		int base = level * LEVEL_SIZE;
+		int[] state = this.stack;
+		boolean changed = true;
+		while (changed && this.unsolvedCount > 0) {
+			changed = false;
+			for (int index = base; index < base + UNSOLVED; index++) {
+				int places = state[index];
+				int pattern = ROW_BOXES[places & ROW_BITS] | ROW_BOXES[(places >>> 9) & ROW_BITS] << 3
+						| ROW_BOXES[places >>> 18] << 6;
+				int arranged = places & ARRANGEMENTS[pattern];
+				if (arranged == 0) {
+					return false;
+				}
+				if (arranged != places) {
+					state[index] = arranged;
+					changed = true;
+				}
+			}
+			for (int index = base; index < base + UNSOLVED; index += 3) {
+				int columns0 = columns(state[index]);
+				int columns1 = columns(state[index + 1]);
+				int columns2 = columns(state[index + 2]);
+				for (int shift = 0; shift < 9; shift += 3) {
+					int pattern = (columns0 >>> shift) & 0x7 | ((columns1 >>> shift) & 0x7) << 3 | ((columns2 >>> shift) & 0x7) << 6;
+					int removed = pattern & ~STACK_ARRANGEMENTS[pattern];
+					if (removed == 0) {
+						continue;
+					}
+					if (removed == pattern) {
+						return false;
+					}
+					state[index] &= ~COLUMN_PLACES[(removed & 0x7) << shift];
+					state[index + 1] &= ~COLUMN_PLACES[((removed >>> 3) & 0x7) << shift];
+					state[index + 2] &= ~COLUMN_PLACES[(removed >>> 6) << shift];
+					changed = true;
+				}
+			}
+			for (int band = 0; band < 3; band++) {
+				int unsolved = state[base + UNSOLVED + band];
+				if (unsolved == 0) {
+					continue;
+				}
+				int once = 0;
+				int twice = 0;
+				for (int digit = 0; digit < 9; digit++) {
+					int places = state[base + digit * 3 + band];
+					twice |= once & places;
+					once |= places;
+				}
+				if ((unsolved & ~once) != 0) {
+					return false;
+				}
+				for (int singles = unsolved & ~twice; singles != 0; singles &= singles - 1) {
+					int bit = Integer.numberOfTrailingZeros(singles);
+					int digit = 0;
+					while (digit < 9 && (state[base + digit * 3 + band] & (1 << bit)) == 0) {
+						digit++;
+					}
+					if (digit == 9 || !place(level, digit, band, bit)) {
+						return false;
+					}
+					changed = true;
+				}
+			}
+			if (changed) {
+				continue;
+			}
+			for (int digit = 0; digit < 9; digit++) {
+				int index = base + digit * 3;
+				int once = 0;
+				int twice = 0;
+				for (int band = 0; band < 3; band++) {
+					for (int row = 0; row < 3; row++) {
+						int rowPlaces = (state[index + band] >>> (row * 9)) & ROW_BITS;
+						if (rowPlaces == 0) {
+							return false;
+						}
+						twice |= once & rowPlaces;
+						once |= rowPlaces;
+						if ((rowPlaces & (rowPlaces - 1)) == 0 && (state[base + UNSOLVED + band] & (rowPlaces << (row * 9))) != 0) {
+							if (!place(level, digit, band, Integer.numberOfTrailingZeros(rowPlaces) + row * 9)) {
+								return false;
+							}
+							changed = true;
+						}
+					}
+					for (int box = 0; box < 3; box++) {
+						int boxPlaces = state[index + band] & BOX_MASK[box];
+						if ((boxPlaces & (boxPlaces - 1)) == 0 && (state[base + UNSOLVED + band] & boxPlaces) != 0) {
+							if (!place(level, digit, band, Integer.numberOfTrailingZeros(boxPlaces))) {
+								return false;
+							}
+							changed = true;
+						}
+					}
+				}
+				if (once != ROW_BITS) {
+					return false;
+				}
+				for (int columns = once & ~twice; columns != 0; columns &= columns - 1) {
+					int col = Integer.numberOfTrailingZeros(columns);
+					for (int band = 0; band < 3; band++) {
+						int columnPlaces = state[index + band] & COLUMN_MASK[col];
+						if (columnPlaces != 0) {
+							if ((state[base + UNSOLVED + band] & columnPlaces) != 0) {
+								if (!place(level, digit, band, Integer.numberOfTrailingZeros(columnPlaces))) {
+									return false;
+								}
+								changed = true;
+							}
+							break;
+						}
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns with the columns of the places in a band, as a 9-bit mask
+	 */
+	private static int columns(int places) {
+		return (places | places >>> 9 | places >>> 18) & ROW_BITS;
+	}
+
+	private void writeSolution(int base) {
+		for (int band = 0; band < 3; band++) {
+			for (int digit = 0; digit < 9; digit++) {
+				for (int places = this.stack[base + digit * 3 + band]; places != 0; places &= places - 1) {
+					this.solution[this.solutionOffset + band * BAND_CELLS + Integer.numberOfTrailingZeros(places)] = (byte) (digit + 1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Solves a range of a batch, split in halves down to CHUNK_SIZE puzzles
+	 */
+	private static final class SolveTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final byte[] cells;
+		private final int first;
+		private final int count;
+		private final SolutionCount[] results;
+		private final byte[] solutions;
+
+		SolveTask(byte[] cells, int first, int count, SolutionCount[] results, byte[] solutions) {
+			this.cells = cells;
+			this.first = first;
+			this.count = count;
+			this.results = results;
+			this.solutions = solutions;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.count > CHUNK_SIZE) {
+				int half = this.count / 2;
+				invokeAll(new SolveTask(this.cells, this.first, half, this.results, this.solutions),
+						new SolveTask(this.cells, this.first + half, this.count - half, this.results, this.solutions));
+				return;
+			}
+			SudokuSolver solver = SOLVER.get();
+			for (int grid = this.first; grid < this.first + this.count; grid++) {
+				this.results[grid] = solver.solve(this.cells, grid * BitmaskValidator.CELLS, this.solutions, grid * BitmaskValidator.CELLS);
+			}
+		}
+	}
+
+}
@@ -8,14 +8,49 @@ import java.util.Set;
 import org.slf4j.Logger;
 
 /**
- * Sudoku Table class, the representation of a standard 9x9 sudoku table
+ * Sudoku Table class, the representation of a standard 9x9 sudoku table,
+ * or of an n²×n² table with n×n subtables (see GridGeometry), e.g. 4x4, 16x16 or 25x25
  *  
  * @author Istvan_Simo
  */
 public class SudokuTable {
-	private Integer[][] grid = new Integer[9][9];
+	private final GridGeometry geometry;
+	private final int side;
+	private Integer[][] grid;
 	private Integer errorRow = null;
 	private Integer errorCol = null;
+	private byte[] cells;
+	private BitmaskValidator validator = null;
+	private GridValidator gridValidator = null;
+	private GridRenderer renderer = null;
+	
+	/**
+	 * Creates a standard 9x9 table
+	 */
+	public SudokuTable() {
+		this(GridGeometry.STANDARD);
+	}
+	
+	/**
+	 * Creates a table of the given size
+	 * 
+	 * @param geometry - the size of the table
+	 */
+	public SudokuTable(GridGeometry geometry) {
+		this.geometry = geometry;
+		this.side = geometry.getSide();
+		this.grid = new Integer[this.side][this.side];
+		this.cells = new byte[geometry.getCells()];
+		if (geometry == GridGeometry.STANDARD) {
+			this.validator = new BitmaskValidator();
+		} else {
+			this.gridValidator = new GridValidator(geometry);
+		}
+	}
+	
+	public GridGeometry getGeometry() {
+		return this.geometry;
+	}
 	
 	/**
 	 * Gets a cell value
@@ -37,39 +72,53 @@ public class SudokuTable {
 	public void populateGrid(List<List<String>> rows) {
 		Integer rowIndex = 0;
 		for (List<String> row: rows) {
-			if (rowIndex > 8) {
-				throw new IllegalArgumentException("There are too many rows (" + ((Integer)(rowIndex + 1)).toString() + ") in CSV file, it should be exactly 9!");
+			if (rowIndex >= this.side) {
+				throw GridParser.tooManyRows(rowIndex + 1, this.side);
 			}
 			Integer colIndex = 0;
 			for (String cell: row) {
-				if (colIndex > 8) {
-					throw new IllegalArgumentException("There are too many values (" + ((Integer)(colIndex + 1)).toString() + ") in row " + ((Integer)(rowIndex + 1)).toString() + ", it should be exactly 9!");
+				if (colIndex >= this.side) {
+					throw GridParser.tooManyValues(colIndex + 1, rowIndex + 1, this.side);
 				}
 				Integer sudokuCell = null;
 				try {
 					sudokuCell = Integer.parseInt(cell.trim());
 				} catch(Exception e1) {
-					throw new IllegalArgumentException("Invalid sudoku cell value (\"" + cell + "\") at (row: " + ((Integer)(rowIndex + 1)).toString() + ", column: " + ((Integer)(colIndex + 1)).toString() + "), it should be an integer value!");
+					throw GridParser.notAnInteger(cell, rowIndex + 1, colIndex + 1);
 				}
-				if (sudokuCell < 1 || sudokuCell > 9) {
-					throw new IllegalArgumentException("Invalid sudoku cell value (" + sudokuCell.toString() + ") at (row: " + ((Integer)(rowIndex + 1)).toString() + ", column: " + ((Integer)(colIndex + 1)).toString() + "), it should be between 1 and 9!");
+				if (sudokuCell < 1 || sudokuCell > this.side) {
+					throw GridParser.outOfRange(sudokuCell, rowIndex + 1, colIndex + 1, this.side);
 				} else {
 					grid[rowIndex][colIndex] = sudokuCell;
+					cells[rowIndex * this.side + colIndex] = sudokuCell.byteValue();
 				}
 				colIndex++;
 			}
-			if (colIndex < 9) {
-				throw new IllegalArgumentException("There are too few values (" + colIndex.toString() + ") in row " + ((Integer)(rowIndex + 1)).toString() + ", it should be exactly 9!");
+			if (colIndex < this.side) {
+				throw GridParser.tooFewValues(colIndex, rowIndex + 1, this.side);
 			}
 			rowIndex++;
 		}
-		if (rowIndex < 9) {
-			throw new IllegalArgumentException("There are too few rows (" + rowIndex.toString() + ") in CSV file, it should be exactly 9!");
+		if (rowIndex < this.side) {
+			throw GridParser.tooFewRows(rowIndex, this.side);
 		}
 	}
 
 	/**
-	 * Validates a set of 9 numbers (rows, columns, subtables)
+	 * Populates the grid from a primitive row-major grid, which is already checked by the parser (e.g. GridParser)
+	 * 
+	 * @param cells - the values of the cells, each between 1 and the side length (9 for a standard table)
+	 * @param offset - index of the first cell of the grid
+	 */
+	public void populateCells(byte[] cells, int offset) {
+		for (int cell = 0; cell < this.cells.length; cell++) {
+			grid[cell / this.side][cell % this.side] = Integer.valueOf(cells[offset + cell] & 0xFF);
+		}
+		System.arraycopy(cells, offset, this.cells, 0, this.cells.length);
+	}
+
+	/**
+	 * Validates a set of 9 (or side) numbers (rows, columns, subtables)
 	 * The main idea that the Java Set object doesn't accept an item more than once
 	 * Therefore if there's a duplication, the length of the set will be less then 9
 	 * Additionally it checks that the first and the last element should be 1 and 9, even though the previous check is enough in itself 
@@ -81,9 +130,10 @@ public class SudokuTable {
 	 */
 	private boolean validateSet(Logger LOG, ValidateType validateType, Integer itemIndex) {
 		Set<Integer> items = new HashSet<Integer>();
-		String cellPos = validateType.toString().toLowerCase() + " " + itemIndex.toString();
-		String set = "";
-		for(Integer index = 0; index < 9; index++) {
+		// the set is only built for the debug message
+		StringBuilder set = LOG.isDebugEnabled() ? new StringBuilder(this.side) : null;
+		int boxSize = this.geometry.getBoxSize();
+		for(Integer index = 0; index < this.side; index++) {
 			Integer item = null;
 			Integer setSize = items.size();
 			Integer rowIndex = null;
@@ -98,23 +148,33 @@ public class SudokuTable {
 					colIndex = itemIndex;
 					break;
 				case SUBTABLE:
-					rowIndex = (itemIndex / 3) * 3 + index / 3;
-					colIndex = (itemIndex % 3) * 3 + index % 3;
+					rowIndex = (itemIndex / boxSize) * boxSize + index / boxSize;
+					colIndex = (itemIndex % boxSize) * boxSize + index % boxSize;
 			}
 			item = this.grid[rowIndex][colIndex];
-			set += item.toString();
+			if (set != null) {
+				if (this.side > 9 && set.length() > 0) {
+					set.append(',');
+				}
+				set.append(item.intValue());
+			}
 			items.add(item);
 			if (setSize == items.size()) {
 				this.errorRow = rowIndex;
 				this.errorCol = colIndex;
-				LOG.error("Duplicate value (" + item.toString() + ") found while checking " + cellPos + ", at row: " + rowIndex.toString() + ", col: " + colIndex.toString());
+				if (LOG.isErrorEnabled()) {
+					LOG.error("Duplicate value ({}) found while checking {} {}, at row: {}, col: {}",
+							item, validateType.toString().toLowerCase(), itemIndex, rowIndex, colIndex);
+				}
 			}
 		}
 		Integer minVal = Collections.min(items);
 		Integer maxVal = Collections.max(items);
 		Integer setSize = items.size();
-		LOG.debug("@" + itemIndex.toString() + validateType.toString().substring(0,  1) + " - min: " + minVal.toString() + "; max: " + maxVal.toString() + "; size: " + setSize.toString() + "; set: " + set);
-		return (minVal == 1 && maxVal == 9 && setSize == 9);
+		if (set != null) {
+			LOG.debug("@{}{} - min: {}; max: {}; size: {}; set: {}", itemIndex, validateType.toString().charAt(0), minVal, maxVal, setSize, set);
+		}
+		return (minVal == 1 && maxVal == this.side && setSize == this.side);
 	}
 	
 	/**
@@ -126,7 +186,7 @@ public class SudokuTable {
 	 */
 	public boolean validate(Logger LOG) {
 		boolean retVal = true;
-		for(int index = 0; index < 9; index++) {
+		for(int index = 0; index < this.side; index++) {
 			retVal = retVal && this.validateSet(LOG, ValidateType.ROW, index);
 			retVal = retVal && this.validateSet(LOG, ValidateType.COLUMN, index);
 			retVal = retVal && this.validateSet(LOG, ValidateType.SUBTABLE, index);
@@ -134,33 +194,63 @@ public class SudokuTable {
 		return retVal;
 	}
 	
+	/**
+	 * Allocation-free validation process, see BitmaskValidator and GridValidator
+	 * It gives the same result and marks the same error cell as validate(Logger), but without logging
+	 * 
+	 * @return true if the table is valid
+	 */
+	public boolean validate() {
+		int errorCell = this.validator != null ? this.validator.validate(this.cells, 0) : this.gridValidator.validate(this.cells, 0);
+		if (errorCell == BitmaskValidator.VALID) {
+			return true;
+		}
+		this.errorRow = errorCell / this.side;
+		this.errorCol = errorCell % this.side;
+		return false;
+	}
+	
+	/**
+	 * Full diagnostic validation process, see BitmaskValidator.diagnose and GridValidator.diagnose
+	 * Unlike validate it doesn't stop at the first error, the result contains all the failing units and conflicting cells.
+	 * The error cell shown by toString is the same as after validate.
+	 * 
+	 * @return the validation result
+	 */
+	public ValidationResult diagnose() {
+		ValidationResult result = this.validator != null ? this.validator.diagnose(this.cells, 0) : this.gridValidator.diagnose(this.cells, 0);
+		if (!result.isValid()) {
+			this.errorRow = result.getErrorRow();
+			this.errorCol = result.getErrorCol();
+		}
+		return result;
+	}
+	
 	/**
 	 * Returns with the string representation of the sudoku table
 	 * After a validation it shows the first found error as well by displaying the affected cell between <> signs
 	 */
 	public String toString() {
-		String retVal = "";
-		for (int rowIndex = 0; rowIndex < 9; rowIndex++) {
-			if (rowIndex == 3 || rowIndex == 6) {
-				retVal += "\n+===+===+===+===+===+===+===+===+===+\n|";
-			} else {
-				retVal += "\n+---+---+---+---+---+---+---+---+---+\n|";
-			}
-			for (int colIndex = 0; colIndex < 9; colIndex++) {
-				if (this.errorRow != null && this.errorCol != null && rowIndex == this.errorRow && colIndex == this.errorCol) {
-					retVal += "<" + this.grid[rowIndex][colIndex].toString() + ">";
-				} else {
-					retVal += " " + this.grid[rowIndex][colIndex].toString() + " ";
-				}
-				if (colIndex == 2 || colIndex == 5) {
-					retVal += "║";
-				} else {
-					retVal += "|";
-				}
-			}
+		StringBuilder retVal = new StringBuilder(renderer().getMaxLength());
+		render(retVal);
+		return retVal.toString();
+	}
+	
+	/**
+	 * Appends the string representation of the sudoku table (see toString) to the builder, without any garbage
+	 * 
+	 * @param out - the target
+	 */
+	public void render(StringBuilder out) {
+		int errorCell = this.errorRow != null && this.errorCol != null ? this.errorRow * this.side + this.errorCol : BitmaskValidator.VALID;
+		renderer().render(this.cells, 0, errorCell, out);
+	}
+	
+	private GridRenderer renderer() {
+		if (this.renderer == null) {
+			this.renderer = new GridRenderer(this.geometry, RenderFormat.BOX);
 		}
-		retVal += "\n+---+---+---+---+---+---+---+---+---+";
-		return retVal;
+		return this.renderer;
 	}
 
 }
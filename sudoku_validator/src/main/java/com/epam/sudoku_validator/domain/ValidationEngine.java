@@ -0,0 +1,50 @@
+package com.epam.sudoku_validator.domain;
+
+/**
+ * Validator of already parsed grids of one size, one byte per cell in row-major order
+ * Every engine gives the same result as GridValidator: the first failing unit in the order of
+ * SudokuTable.validate and the same error cell, so the engines can be exchanged without changing the output.
+ * The engines are created by ValidationEngineType, see also EngineCalibrator.
+ *
+ * An engine may hold buffers, so it isn't thread-safe, use one instance per thread.
+ *
+ * @author Istvan_Simo
+ */
+public interface ValidationEngine {
+
+	/**
+	 * Returns with the size of the grids validated by the engine
+	 */
+	public GridGeometry getGeometry();
+
+	/**
+	 * Validates the grid starting at the given offset
+	 *
+	 * @param cells - cell values in row-major order, 1..side for each cell
+	 * @param offset - index of the first cell of the grid
+	 * @return BitmaskValidator.VALID, or the index (row * side + col) of the error cell in the first failing unit
+	 */
+	public int validate(byte[] cells, int offset);
+
+	/**
+	 * Returns with the first failing unit of the last validation, or -1 if the grid was valid
+	 * The units are numbered as in GridGeometry
+	 */
+	public int getFailingUnit();
+
+	/**
+	 * Validates the grids stored back to back, starting at the given offset
+	 *
+	 * @param cells - cell values of the grids
+	 * @param offset - index of the first cell of the first grid
+	 * @param count - number of grids
+	 * @param results - target of the results, as validate(byte[], int) returns them
+	 */
+	public default void validate(byte[] cells, int offset, int count, int[] results) {
+		int size = getGeometry().getCells();
+		for (int i = 0; i < count; i++) {
+			results[i] = validate(cells, offset + i * size);
+		}
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.epam.sudoku_validator.domain;
+
+import org.slf4j.Logger;
+
+/**
+ * Validation engines, see ValidationEngine
+ * All of them give the same results, they differ only in speed. The fastest one on the current JVM and hardware
+ * can be measured by EngineCalibrator.
+ *
+ * @author Istvan_Simo
+ */
+public enum ValidationEngineType {
+	/**
+	 * HashSet per unit, the algorithm of SudokuTable.validate(Logger), see SetValidationEngine
+	 */
+	SET,
+	/**
+	 * Regex backreference per unit, the algorithm of sudoku_validator_nerd, see RegexValidationEngine
+	 */
+	REGEX,
+	/**
+	 * Occupancy mask per unit in one pass over the cells, BitmaskValidator for 9x9 grids, GridValidator for the others
+	 */
+	BITMASK,
+	/**
+	 * All the unit masks in local variables, PackedValidator, 9x9 grids only
+	 */
+	PACKED;
+
+	/**
+	 * Returns with the engine type of the given name, as it's set on the command line or in application.properties
+	 *
+	 * @param name - engine name in any case, or AUTO for the fastest one on this JVM and hardware
+	 * @param geometry - the size of the grids, AUTO measures the engines supporting it
+	 * @param calibrationMillis - warm-up and measurement time of one engine for AUTO, see EngineCalibrator
+	 * @param LOG - the Logger object of the calibration results
+	 * @return the engine type
+	 * @throws IllegalArgumentException if the name is unknown
+	 */
+	public static ValidationEngineType of(String name, GridGeometry geometry, long calibrationMillis, Logger LOG) {
+		if ("AUTO".equalsIgnoreCase(name)) {
+			return new EngineCalibrator(geometry, calibrationMillis).calibrate(LOG);
+		}
+		try {
+			return valueOf(name.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Unknown validation engine: " + name + ", it should be SET, REGEX, BITMASK, PACKED or AUTO");
+		}
+	}
+
+	/**
+	 * Returns with true if the engine can validate grids of the given size
+	 *
+	 * @param geometry - the size of the grids
+	 */
+	public boolean supports(GridGeometry geometry) {
+		return this != PACKED || geometry == GridGeometry.STANDARD;
+	}
+
+	/**
+	 * Creates a new engine
+	 *
+	 * @param geometry - the size of the grids to be validated
+	 * @return the engine, one per thread
+	 * @throws IllegalArgumentException if the engine doesn't support the size
+	 */
+	public ValidationEngine create(GridGeometry geometry) {
+		if (!supports(geometry)) {
+			throw new IllegalArgumentException("The " + this + " validation engine supports 9x9 tables only, not " + geometry);
+		}
+		switch (this) {
+			case SET:
+				return new SetValidationEngine(geometry);
+			case REGEX:
+				return new RegexValidationEngine(geometry);
+			case PACKED:
+				return new PackedValidator();
+			default:
+				return geometry == GridGeometry.STANDARD ? new BitmaskValidator() : new GridValidator(geometry);
+		}
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.epam.sudoku_validator.domain;
+
+/**
+ * Validation kernels of BulkValidator
+ *
+ * @author Istvan_Simo
+ */
+public enum ValidationKernel {
+	/**
+	 * One grid at a time with BitmaskValidator
+	 */
+	SCALAR,
+	/**
+	 * Seven grids at a time, their masks are packed side by side into one long (SIMD within a register)
+	 */
+	SWAR
+}
@@ -0,0 +1,234 @@
+package com.epam.sudoku_validator.domain;
+
+import java.util.Arrays;
+
+/**
+ * Immutable result of a sudoku table validation
+ * It contains every failing unit (row, column, subtable) and every conflicting cell, i.e. the cells, which have
+ * a duplicate in one of their units or have a value out of the 1..side range.
+ * The error row and column are the same as the ones SudokuTable.validate(Logger) marks, for compatibility.
+ * The results of 9x9 tables (see BitmaskValidator) hold their masks in primitive fields, the ones of the other sizes
+ * (see GridValidator) in long arrays, with the units and cells in the same order as GridGeometry.
+ *
+ * @author Istvan_Simo
+ */
+public final class ValidationResult {
+
+	/**
+	 * The result of every valid table
+	 */
+	public static final ValidationResult VALID = new ValidationResult(BitmaskValidator.VALID, 0, 0L, 0L);
+
+	private final GridGeometry geometry;
+	private final int errorCell;
+	private final int failingUnits;
+	private final long conflictsLow;
+	private final long conflictsHigh;
+
+	/**
+	 * Bit masks of the failing units and the conflicting cells of the tables other than 9x9, null for 9x9
+	 */
+	private final long[] unitBits;
+	private final long[] conflictBits;
+
+	/**
+	 * @param errorCell - the error cell (row * 9 + col) as SudokuTable.validate(Logger) finds it, or BitmaskValidator.VALID
+	 * @param failingUnits - bit mask of the failing units, bits 0..8 are the rows, 9..17 the columns and 18..26 the subtables
+	 * @param conflictsLow - bit mask of the conflicting cells 0..63
+	 * @param conflictsHigh - bit mask of the conflicting cells 64..80
+	 */
+	public ValidationResult(int errorCell, int failingUnits, long conflictsLow, long conflictsHigh) {
+		this.geometry = GridGeometry.STANDARD;
+		this.errorCell = errorCell;
+		this.failingUnits = failingUnits;
+		this.conflictsLow = conflictsLow;
+		this.conflictsHigh = conflictsHigh;
+		this.unitBits = null;
+		this.conflictBits = null;
+	}
+
+	/**
+	 * Result of a table of any size, the arrays are owned by the result
+	 *
+	 * @param geometry - the size of the table
+	 * @param errorCell - the error cell (row * side + col) as SudokuTable.validate(Logger) finds it, or BitmaskValidator.VALID
+	 * @param unitBits - bit mask of the failing units in the order of GridGeometry, (getUnits() + 63) / 64 longs
+	 * @param conflictBits - bit mask of the conflicting cells, (getCells() + 63) / 64 longs
+	 */
+	ValidationResult(GridGeometry geometry, int errorCell, long[] unitBits, long[] conflictBits) {
+		this.geometry = geometry;
+		this.errorCell = errorCell;
+		this.failingUnits = (int) unitBits[0];
+		this.conflictsLow = 0;
+		this.conflictsHigh = 0;
+		this.unitBits = unitBits;
+		this.conflictBits = conflictBits;
+	}
+
+	public GridGeometry getGeometry() {
+		return this.geometry;
+	}
+
+	public boolean isValid() {
+		return this.errorCell == BitmaskValidator.VALID;
+	}
+
+	/**
+	 * Returns with the row index of the error cell, or -1 for valid tables
+	 */
+	public int getErrorRow() {
+		return this.errorCell == BitmaskValidator.VALID ? -1 : this.errorCell / this.geometry.getSide();
+	}
+
+	/**
+	 * Returns with the column index of the error cell, or -1 for valid tables
+	 */
+	public int getErrorCol() {
+		return this.errorCell == BitmaskValidator.VALID ? -1 : this.errorCell % this.geometry.getSide();
+	}
+
+	/**
+	 * Returns with the bit mask of the failing units 0..31, that's every unit of a 9x9 table:
+	 * bits 0..8 are the rows, 9..17 the columns and 18..26 the subtables. For the other sizes see isFailingUnit.
+	 */
+	public int getFailingUnits() {
+		return this.failingUnits;
+	}
+
+	/**
+	 * Returns true if the given unit has a duplicate or invalid value
+	 *
+	 * @param unit - unit index in the order of GridGeometry, the rows, then the columns, then the subtables
+	 */
+	public boolean isFailingUnit(int unit) {
+		if (this.unitBits == null) {
+			return (this.failingUnits & (1 << unit)) != 0;
+		}
+		return (this.unitBits[unit >>> 6] & (1L << unit)) != 0;
+	}
+
+	/**
+	 * Returns with the first failing unit in the order of SudokuTable.validate(Logger), the same as
+	 * BitmaskValidator.getFailingUnit after the validation of the table, or -1 for valid tables
+	 */
+	public int getFirstFailingUnit() {
+		if (this.unitBits == null) {
+			for (int i = 0; i < BitmaskValidator.UNITS; i++) {
+				int unit = BitmaskValidator.CHECK_ORDER[i];
+				if ((this.failingUnits & (1 << unit)) != 0) {
+					return unit;
+				}
+			}
+			return -1;
+		}
+		short[] checkOrder = this.geometry.checkOrder;
+		for (int i = 0; i < checkOrder.length; i++) {
+			if (isFailingUnit(checkOrder[i])) {
+				return checkOrder[i];
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns with the error cell (row * side + col) as BitmaskValidator.validate returns it, or BitmaskValidator.VALID
+	 */
+	public int getErrorCell() {
+		return this.errorCell;
+	}
+
+	public int getFailingUnitCount() {
+		if (this.unitBits == null) {
+			return Integer.bitCount(this.failingUnits);
+		}
+		return bitCount(this.unitBits);
+	}
+
+	/**
+	 * Returns true if the given row, column or subtable has a duplicate or invalid value
+	 *
+	 * @param validateType - ROW, COLUMN or SUBTABLE
+	 * @param index - index of the row, column or subtable, 0..side-1
+	 */
+	public boolean isFailing(ValidateType validateType, int index) {
+		return isFailingUnit(validateType.ordinal() * this.geometry.getSide() + index);
+	}
+
+	public boolean isConflicting(int row, int col) {
+		int cell = row * this.geometry.getSide() + col;
+		if (this.conflictBits != null) {
+			return (this.conflictBits[cell >>> 6] & (1L << cell)) != 0;
+		}
+		return cell < 64 ? (this.conflictsLow & (1L << cell)) != 0 : (this.conflictsHigh & (1L << (cell - 64))) != 0;
+	}
+
+	public int getConflictCount() {
+		if (this.conflictBits != null) {
+			return bitCount(this.conflictBits);
+		}
+		return Long.bitCount(this.conflictsLow) + Long.bitCount(this.conflictsHigh);
+	}
+
+	/**
+	 * Copies the indexes (row * side + col) of the conflicting cells into the target in increasing order
+	 *
+	 * @param target - array of at least getConflictCount() elements
+	 * @return the number of conflicting cells
+	 */
+	public int getConflictingCells(int[] target) {
+		int count = 0;
+		if (this.conflictBits != null) {
+			for (int word = 0; word < this.conflictBits.length; word++) {
+				for (long bits = this.conflictBits[word]; bits != 0; bits &= bits - 1) {
+					target[count++] = word * 64 + Long.numberOfTrailingZeros(bits);
+				}
+			}
+			return count;
+		}
+		for (long bits = this.conflictsLow; bits != 0; bits &= bits - 1) {
+			target[count++] = Long.numberOfTrailingZeros(bits);
+		}
+		for (long bits = this.conflictsHigh; bits != 0; bits &= bits - 1) {
+			target[count++] = 64 + Long.numberOfTrailingZeros(bits);
+		}
+		return count;
+	}
+
+	private static int bitCount(long[] bits) {
+		int count = 0;
+		for (long word : bits) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof ValidationResult)) {
+			return false;
+		}
+		ValidationResult result = (ValidationResult) other;
+		return this.geometry == result.geometry && this.errorCell == result.errorCell && this.failingUnits == result.failingUnits
+				&& this.conflictsLow == result.conflictsLow && this.conflictsHigh == result.conflictsHigh
+				&& Arrays.equals(this.unitBits, result.unitBits) && Arrays.equals(this.conflictBits, result.conflictBits);
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 31 * (31 * (31 * this.errorCell + this.failingUnits) + Long.hashCode(this.conflictsLow)) + Long.hashCode(this.conflictsHigh);
+		return 31 * hash + Arrays.hashCode(this.conflictBits);
+	}
+
+	@Override
+	public String toString() {
+		if (isValid()) {
+			return "ValidationResult[valid]";
+		}
+		return "ValidationResult[invalid, error at row: " + (getErrorRow() + 1) + ", column: " + (getErrorCol() + 1)
+				+ ", failing units: " + getFailingUnitCount() + ", conflicting cells: " + getConflictCount() + "]";
+	}
+
+}
@@ -0,0 +1,197 @@
+package com.epam.sudoku_validator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import com.epam.sudoku_validator.dao.AsyncSudokuTableDao;
+import com.epam.sudoku_validator.dao.SimpleSudokuTableDao;
+import com.epam.sudoku_validator.dao.ValidationFlow;
+import com.epam.sudoku_validator.domain.SudokuGrid;
+import com.epam.sudoku_validator.domain.ValidationResult;
+
+public class AsyncSudokuTableDaoTests {
+
+	private static final AsyncSudokuTableDao ASYNC_DAO = new AsyncSudokuTableDao(new SimpleSudokuTableDao(), 2);
+
+	@AfterClass
+	public static void shutdown() {
+		ASYNC_DAO.close();
+	}
+
+	@Test
+	public void testValidateAsync() throws Exception {
+		int[][] invalid = copy(BitmaskValidatorTests.VALID_GRID);
+		invalid[4][4] = invalid[4][5];
+		List<CompletableFuture<ValidationResult>> futures = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			futures.add(ASYNC_DAO.validateAsync(SudokuGrid.of(i % 2 == 0 ? BitmaskValidatorTests.VALID_GRID : invalid)));
+		}
+		ValidationResult expected = new SimpleSudokuTableDao().validate(SudokuGrid.of(invalid));
+		for (int i = 0; i < futures.size(); i++) {
+			assertEquals(i % 2 == 0 ? ValidationResult.VALID : expected, futures.get(i).get(10, TimeUnit.SECONDS));
+		}
+	}
+
+	@Test
+	public void testValidateFileAsync() throws Exception {
+		assertEquals(ValidationResult.VALID, ASYNC_DAO.validateFileAsync("src/main/resources/testValid.csv").get(10, TimeUnit.SECONDS));
+		assertEquals(false, ASYNC_DAO.validateFileAsync("src/main/resources/testInvalid.csv").get(10, TimeUnit.SECONDS).isValid());
+		assertEquals(NoSuchFileException.class, failure(ASYNC_DAO.validateFileAsync("src/main/resources/missingFile.csv")).getClass());
+		Throwable malformed = failure(ASYNC_DAO.validateFileAsync("src/main/resources/testMissingCol.csv"));
+		assertEquals(true, malformed instanceof IllegalArgumentException);
+		assertEquals(true, malformed.getMessage().startsWith("There are too few values (8)"));
+	}
+
+	@Test
+	public void testBackpressure() throws Exception {
+		File file = tablesFile(600);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		ASYNC_DAO.validateAll(file.getPath()).subscribe(subscriber);
+		subscriber.subscription.request(3);
+		subscriber.await(3);
+		Thread.sleep(50);
+		assertEquals(3, subscriber.results.size());
+		subscriber.subscription.request(Long.MAX_VALUE);
+		assertEquals(true, subscriber.completed.await(10, TimeUnit.SECONDS));
+		assertEquals(600, subscriber.results.size());
+		for (int i = 0; i < 600; i++) {
+			assertEquals(i % 3 != 2, subscriber.results.get(i).isValid());
+		}
+		assertEquals(null, subscriber.error);
+	}
+
+	@Test
+	public void testCancelAndInvalidRequest() throws Exception {
+		File file = tablesFile(10);
+		RecordingSubscriber cancelled = new RecordingSubscriber();
+		ASYNC_DAO.validateAll(file.getPath()).subscribe(cancelled);
+		cancelled.subscription.request(2);
+		cancelled.await(2);
+		cancelled.subscription.cancel();
+		cancelled.subscription.request(5);
+		Thread.sleep(50);
+		assertEquals(2, cancelled.results.size());
+		assertEquals(1, cancelled.completed.getCount());
+
+		RecordingSubscriber invalid = new RecordingSubscriber();
+		ASYNC_DAO.validateAll(file.getPath()).subscribe(invalid);
+		invalid.subscription.request(0);
+		assertEquals(true, invalid.completed.await(10, TimeUnit.SECONDS));
+		assertEquals(IllegalArgumentException.class, invalid.error.getClass());
+
+		RecordingSubscriber missing = new RecordingSubscriber();
+		ASYNC_DAO.validateAll("src/main/resources/missingFile.csv").subscribe(missing);
+		missing.subscription.request(1);
+		assertEquals(true, missing.completed.await(10, TimeUnit.SECONDS));
+		assertEquals(true, missing.error instanceof IOException);
+	}
+
+	@Test
+	public void testManySubscriptionsOnFewThreads() throws Exception {
+		File file = tablesFile(1000);
+		List<RecordingSubscriber> subscribers = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			RecordingSubscriber subscriber = new RecordingSubscriber();
+			ASYNC_DAO.validateAll(file.getPath()).subscribe(subscriber);
+			subscriber.subscription.request(Long.MAX_VALUE);
+			subscribers.add(subscriber);
+		}
+		for (RecordingSubscriber subscriber : subscribers) {
+			assertEquals(true, subscriber.completed.await(30, TimeUnit.SECONDS));
+			assertEquals(1000, subscriber.results.size());
+			assertEquals(null, subscriber.error);
+		}
+	}
+
+	/**
+	 * Returns with a CSV file of the given number of tables, every third one is invalid
+	 */
+	private static File tablesFile(int count) throws IOException {
+		File file = File.createTempFile("testAsync", ".csv");
+		file.deleteOnExit();
+		int[][] invalid = copy(BitmaskValidatorTests.VALID_GRID);
+		invalid[0][0] = invalid[0][1];
+		StringBuilder csv = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			csv.append(GridValidatorTests.toCsv(i % 3 == 2 ? invalid : BitmaskValidatorTests.VALID_GRID)).append('\n');
+		}
+		Files.write(file.toPath(), csv.toString().getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private static Throwable failure(CompletableFuture<?> future) throws InterruptedException {
+		try {
+			future.get(10, TimeUnit.SECONDS);
+			assertEquals("ExecutionException expected", true, false);
+		} catch (ExecutionException e) {
+			return e.getCause();
+		} catch (TimeoutException e) {
+			assertEquals("Timeout", true, false);
+		}
+		return null;
+	}
+
+	private static int[][] copy(int[][] grid) {
+		int[][] result = new int[9][];
+		for (int row = 0; row < 9; row++) {
+			result[row] = grid[row].clone();
+		}
+		return result;
+	}
+
+	private static class RecordingSubscriber implements ValidationFlow.Subscriber<ValidationResult> {
+		final List<ValidationResult> results = new ArrayList<>();
+		final CountDownLatch completed = new CountDownLatch(1);
+		volatile ValidationFlow.Subscription subscription;
+		volatile Throwable error;
+
+		@Override
+		public void onSubscribe(ValidationFlow.Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(ValidationResult item) {
+			synchronized (this.results) {
+				this.results.add(item);
+				this.results.notifyAll();
+			}
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			this.error = throwable;
+			this.completed.countDown();
+		}
+
+		@Override
+		public void onComplete() {
+			this.completed.countDown();
+		}
+
+		void await(int count) throws InterruptedException {
+			long deadline = System.currentTimeMillis() + 10_000;
+			synchronized (this.results) {
+				while (this.results.size() < count && System.currentTimeMillis() < deadline) {
+					this.results.wait(100);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,128 @@
+package com.epam.sudoku_validator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import com.epam.sudoku_validator.app.BatchValidator;
+import com.epam.sudoku_validator.app.ParallelBatchValidator;
+import com.epam.sudoku_validator.app.ValidationMetrics;
+import com.epam.sudoku_validator.dao.SimpleSudokuTableDao;
+import com.epam.sudoku_validator.domain.GridParser;
+import com.epam.sudoku_validator.domain.SudokuTable;
+
+import ch.qos.logback.classic.Logger;
+
+public class BatchValidatorTests {
+
+	private static Logger LOG = (Logger) LoggerFactory.getLogger(BatchValidatorTests.class);
+
+	@Test
+	public void testBatchFile() throws IOException {
+		BatchValidator batchValidator = new BatchValidator(new SimpleSudokuTableDao());
+		StringWriter out = new StringWriter();
+		assertEquals(-1, batchValidator.run(LOG, "src/main/resources/testBatch.csv", out));
+		assertEquals(6, batchValidator.getTotal());
+		assertEquals(2, batchValidator.getValid());
+		assertEquals(1, batchValidator.getInvalid());
+		assertEquals(3, batchValidator.getMalformed());
+		String[] lines = out.toString().split("\n");
+		assertEquals("testBatch.csv#1: OK", lines[0]);
+		assertEquals("testBatch.csv#2: Invalid (row: 4, column: 8)", lines[1]);
+		assertEquals("testBatch.csv#3: Error: Invalid sudoku cell value (\"5a\") at (row: 5, column: 5), it should be an integer value!", lines[2]);
+		assertEquals("testBatch.csv#4: Error: There are too few values (8) in row 1, it should be exactly 9!", lines[3]);
+		assertEquals("testBatch.csv#5: Error: There are too few rows (5) in CSV file, it should be exactly 9!", lines[4]);
+		assertEquals("testBatch.csv#6: OK", lines[5]);
+	}
+
+	@Test
+	public void testValidFile() throws IOException {
+		BatchValidator batchValidator = new BatchValidator(new SimpleSudokuTableDao());
+		assertEquals(0, batchValidator.run(LOG, "src/main/resources/testValid.csv", new StringWriter()));
+		assertEquals(1, batchValidator.getTotal());
+	}
+
+	@Test
+	public void testMissingFile() throws IOException {
+		BatchValidator batchValidator = new BatchValidator(new SimpleSudokuTableDao());
+		assertEquals(-1, batchValidator.run(LOG, "src/main/resources/missingFile.csv", new StringWriter()));
+	}
+
+	@Test
+	public void testParallelKeepsInputOrder() throws IOException, InterruptedException {
+		byte[] batch = Files.readAllBytes(new File("src/main/resources/testBatch.csv").toPath());
+		File file = File.createTempFile("testParallel", ".csv");
+		file.deleteOnExit();
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 500; i++) {
+			content.append(new String(batch, StandardCharsets.UTF_8)).append('\n');
+		}
+		Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+
+		BatchValidator batchValidator = new BatchValidator(new SimpleSudokuTableDao());
+		StringWriter expected = new StringWriter();
+		assertEquals(-1, batchValidator.run(LOG, file.getPath(), expected));
+
+		ParallelBatchValidator parallelValidator = new ParallelBatchValidator(new SimpleSudokuTableDao(), 3, 7, 2);
+		StringWriter actual = new StringWriter();
+		assertEquals(-1, parallelValidator.run(LOG, file.getPath(), actual));
+		assertEquals(3000, parallelValidator.getTotal());
+		assertEquals(batchValidator.getValid(), parallelValidator.getValid());
+		assertEquals(batchValidator.getInvalid(), parallelValidator.getInvalid());
+		assertEquals(batchValidator.getMalformed(), parallelValidator.getMalformed());
+		assertEquals(expected.toString(), actual.toString());
+	}
+
+	@Test(timeout = 30_000)
+	public void testParallelWorkerFailure() throws IOException, InterruptedException {
+		ParallelBatchValidator parallelValidator = new ParallelBatchValidator(new SimpleSudokuTableDao(), 2, 1, 2);
+		// every validation task fails, its chunk is reused anyway, so the reader isn't blocked
+		parallelValidator.setMetrics(new ValidationMetrics(true, false, 0) {
+			@Override
+			public void recordValidate(long nanos, int tables) {
+				throw new IllegalStateException("Broken kernel");
+			}
+		});
+		try {
+			parallelValidator.run(LOG, "src/main/resources/testBatch.csv", new StringWriter());
+			assertEquals("IOException expected", true, false);
+		} catch (IOException e) {
+			assertEquals("Table validation failed: java.lang.IllegalStateException: Broken kernel", e.getMessage());
+			assertEquals(IllegalStateException.class, e.getCause().getClass());
+		}
+	}
+
+	@Test
+	public void testRowParserMessages() {
+		List<String> lines = Arrays.asList("5,3,4,6,7,8,9,1,2", " 5, 3,4 ,6,7,8,9,1,+2,", "5,3,4,6,7,8,9,1", "5,3,4,6,7,8,9,1,2,3",
+				"", ",,", "5,,4,6,7,8,9,1,2", "5,3,4,6,7,8,9,1,0", "5,3,4,6,7,8,9,1,-7", "5,3,4,6,7,8,9,1,99999999999",
+				"5,3,4,6,7,8,9,1,-", "5,3,4,6,7,8,9,1,2a", "5,3,4,6,7,8,9,1,2,,,", "5,3,4,6,7,8,9,1,007");
+		for (String line : lines) {
+			String expected = null;
+			try {
+				new SudokuTable().populateGrid(Collections.singletonList(Arrays.asList(line.split(","))));
+			} catch (IllegalArgumentException e) {
+				expected = e.getMessage();
+			}
+			String actual = null;
+			try {
+				GridParser.parseRow(line, 0, new byte[81], 0);
+				actual = "There are too few rows (1) in CSV file, it should be exactly 9!";
+			} catch (IllegalArgumentException e) {
+				actual = e.getMessage();
+			}
+			assertEquals(line, expected, actual);
+		}
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.epam.sudoku_validator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import com.epam.sudoku_validator.app.BatchValidator;
+import com.epam.sudoku_validator.app.GridConverter;
+import com.epam.sudoku_validator.dao.BinaryGridFormat;
+import com.epam.sudoku_validator.dao.BinaryGridReader;
+import com.epam.sudoku_validator.dao.BinaryGridWriter;
+import com.epam.sudoku_validator.dao.SimpleSudokuTableDao;
+
+import ch.qos.logback.classic.Logger;
+
+public class BinaryGridFormatTests {
+
+	private static Logger LOG = (Logger) LoggerFactory.getLogger(BinaryGridFormatTests.class);
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		byte[] cells = BitmaskValidatorTests.toCells(BitmaskValidatorTests.VALID_GRID);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (BinaryGridWriter writer = new BinaryGridWriter(bytes)) {
+			for (int i = 0; i < 5000; i++) {
+				writer.write(cells, 0);
+			}
+		}
+		assertEquals(BinaryGridFormat.HEADER_SIZE + 5000 * BinaryGridFormat.RECORD_SIZE, bytes.size());
+		byte[] actual = new byte[81];
+		int count = 0;
+		try (BinaryGridReader reader = new BinaryGridReader(new ByteArrayInputStream(bytes.toByteArray()))) {
+			while (reader.next(actual, 0)) {
+				assertEquals(Arrays.toString(cells), Arrays.toString(actual));
+				count++;
+			}
+		}
+		assertEquals(5000, count);
+	}
+
+	@Test
+	public void testInvalidCellValue() throws IOException {
+		byte[] cells = BitmaskValidatorTests.toCells(BitmaskValidatorTests.VALID_GRID);
+		cells[40] = 0;
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (BinaryGridWriter writer = new BinaryGridWriter(bytes)) {
+			writer.write(cells, 0);
+		}
+		String message = null;
+		try (BinaryGridReader reader = new BinaryGridReader(new ByteArrayInputStream(bytes.toByteArray()))) {
+			reader.next(new byte[81], 0);
+		} catch (IllegalArgumentException e) {
+			message = e.getMessage();
+		}
+		assertEquals("Invalid sudoku cell value (0) at (row: 5, column: 5), it should be between 1 and 9!", message);
+	}
+
+	@Test(expected = IOException.class)
+	public void testMissingHeader() throws IOException {
+		try (BinaryGridReader reader = new BinaryGridReader(new ByteArrayInputStream("5,3,4,6,7,8,9,1,2".getBytes()))) {
+			reader.next(new byte[81], 0);
+		}
+	}
+
+	@Test
+	public void testConvertAndValidate() throws IOException {
+		File binary = File.createTempFile("testConvert", BinaryGridFormat.FILE_EXTENSION);
+		binary.deleteOnExit();
+		File csv = File.createTempFile("testConvert", ".csv");
+		csv.deleteOnExit();
+		GridConverter toBinary = new GridConverter(new SimpleSudokuTableDao());
+		assertEquals(-1, toBinary.run(LOG, "src/main/resources/testBatch.csv", binary.getPath()));
+		assertEquals(3, toBinary.getConverted());
+		assertEquals(3, toBinary.getSkipped());
+		assertEquals(BinaryGridFormat.HEADER_SIZE + 3 * BinaryGridFormat.RECORD_SIZE, binary.length());
+
+		GridConverter toCsv = new GridConverter(new SimpleSudokuTableDao());
+		assertEquals(0, toCsv.run(LOG, binary.getPath(), csv.getPath()));
+		assertEquals(3, toCsv.getConverted());
+
+		BatchValidator binaryValidator = new BatchValidator(new SimpleSudokuTableDao());
+		StringWriter binaryOut = new StringWriter();
+		binaryValidator.run(LOG, binary.getPath(), binaryOut);
+		BatchValidator csvValidator = new BatchValidator(new SimpleSudokuTableDao());
+		StringWriter csvOut = new StringWriter();
+		csvValidator.run(LOG, csv.getPath(), csvOut);
+		assertEquals(2, binaryValidator.getValid());
+		assertEquals(1, binaryValidator.getInvalid());
+		assertEquals(csvOut.toString().replace(csv.getName(), "x"), binaryOut.toString().replace(binary.getName(), "x"));
+	}
+
+}
@@ -0,0 +1,168 @@
+package com.epam.sudoku_validator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+import com.epam.sudoku_validator.domain.BulkValidator;
+import com.epam.sudoku_validator.domain.IncrementalValidator;
+import com.epam.sudoku_validator.domain.SudokuTable;
+import com.epam.sudoku_validator.domain.ValidateType;
+import com.epam.sudoku_validator.domain.ValidationKernel;
+import com.epam.sudoku_validator.domain.ValidationResult;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+public class BitmaskValidatorTests {
+
+	private static Logger LOG = (Logger) LoggerFactory.getLogger(BitmaskValidatorTests.class);
+
+	static final int[][] VALID_GRID = {
+		{5, 3, 4, 6, 7, 8, 9, 1, 2},
+		{6, 7, 2, 1, 9, 5, 3, 4, 8},
+		{1, 9, 8, 3, 4, 2, 5, 6, 7},
+		{8, 5, 9, 7, 6, 1, 4, 2, 3},
+		{4, 2, 6, 8, 5, 3, 7, 9, 1},
+		{7, 1, 3, 9, 2, 4, 8, 5, 6},
+		{9, 6, 1, 5, 3, 7, 2, 8, 4},
+		{2, 8, 7, 4, 1, 9, 6, 3, 5},
+		{3, 4, 5, 2, 8, 6, 1, 7, 9}
+	};
+
+	static List<List<String>> toRows(int[][] grid) {
+		List<List<String>> rows = new ArrayList<>();
+		for (int[] gridRow : grid) {
+			List<String> row = new ArrayList<>();
+			for (int value : gridRow) {
+				row.add(String.valueOf(value));
+			}
+			rows.add(row);
+		}
+		return rows;
+	}
+
+	static byte[] toCells(int[][] grid) {
+		byte[] cells = new byte[81];
+		for (int i = 0; i < 81; i++) {
+			cells[i] = (byte) grid[i / 9][i % 9];
+		}
+		return cells;
+	}
+
+	@Test
+	public void testValidGrid() {
+		BitmaskValidator validator = new BitmaskValidator();
+		assertEquals(BitmaskValidator.VALID, validator.validate(toCells(VALID_GRID), 0));
+		assertEquals(-1, validator.getFailingUnit());
+	}
+
+	@Test
+	public void testOffset() {
+		byte[] cells = new byte[81 * 2];
+		System.arraycopy(toCells(VALID_GRID), 0, cells, 81, 81);
+		BitmaskValidator validator = new BitmaskValidator();
+		assertEquals(BitmaskValidator.VALID, validator.validate(cells, 81));
+	}
+
+	@Test
+	public void testSameResultAsSetValidation() {
+		Level level = LOG.getLevel();
+		LOG.setLevel(Level.OFF);
+		try {
+			Random random = new Random(20190701L);
+			for (int round = 0; round < 2000; round++) {
+				int[][] grid = new int[9][];
+				for (int row = 0; row < 9; row++) {
+					grid[row] = VALID_GRID[row].clone();
+				}
+				int changes = 1 + random.nextInt(4);
+				for (int i = 0; i < changes; i++) {
+					grid[random.nextInt(9)][random.nextInt(9)] = 1 + random.nextInt(9);
+				}
+				SudokuTable setTable = new SudokuTable();
+				setTable.populateGrid(toRows(grid));
+				SudokuTable bitmaskTable = new SudokuTable();
+				bitmaskTable.populateGrid(toRows(grid));
+				assertEquals(setTable.validate(LOG), bitmaskTable.validate());
+				assertEquals(setTable.toString(), bitmaskTable.toString());
+			}
+		} finally {
+			LOG.setLevel(level);
+		}
+	}
+
+	@Test
+	public void testBulkKernelsSameAsBitmask() {
+		Random random = new Random(20190711L);
+		byte[] validCells = toCells(VALID_GRID);
+		int count = 7 * 50 + 4;
+		byte[] cells = new byte[(count + 1) * 81];
+		for (int grid = 0; grid < count; grid++) {
+			System.arraycopy(validCells, 0, cells, (grid + 1) * 81, 81);
+			int changes = random.nextInt(3);
+			for (int i = 0; i < changes; i++) {
+				cells[(grid + 1) * 81 + random.nextInt(81)] = (byte) random.nextInt(12);
+			}
+		}
+		BitmaskValidator validator = new BitmaskValidator();
+		for (ValidationKernel kernel : ValidationKernel.values()) {
+			int[] results = new int[count];
+			new BulkValidator(kernel).validate(cells, 81, count, results);
+			for (int grid = 0; grid < count; grid++) {
+				assertEquals(kernel + " #" + grid, validator.validate(cells, (grid + 1) * 81), results[grid]);
+			}
+		}
+	}
+
+	@Test
+	public void testDiagnoseValidGrid() {
+		assertEquals(ValidationResult.VALID, new BitmaskValidator().diagnose(toCells(VALID_GRID), 0));
+	}
+
+	@Test
+	public void testDiagnoseFindsAllErrors() {
+		Random random = new Random(20190703L);
+		BitmaskValidator validator = new BitmaskValidator();
+		IncrementalValidator incrementalValidator = new IncrementalValidator();
+		byte[] cells = toCells(VALID_GRID);
+		for (int round = 0; round < 2000; round++) {
+			byte[] grid = cells.clone();
+			int changes = 1 + random.nextInt(6);
+			for (int i = 0; i < changes; i++) {
+				grid[random.nextInt(81)] = (byte) (1 + random.nextInt(9));
+			}
+			ValidationResult result = validator.diagnose(grid, 0);
+			int diagnosedUnit = validator.getFailingUnit();
+			int errorCell = validator.validate(grid, 0);
+			assertEquals(errorCell == BitmaskValidator.VALID, result.isValid());
+			assertEquals(validator.getFailingUnit(), diagnosedUnit);
+			assertEquals(validator.getFailingUnit(), result.getFirstFailingUnit());
+			if (errorCell != BitmaskValidator.VALID) {
+				assertEquals(errorCell / 9, result.getErrorRow());
+				assertEquals(errorCell % 9, result.getErrorCol());
+			}
+			incrementalValidator.load(grid, 0);
+			assertEquals(incrementalValidator.getConflictCount(), result.getConflictCount());
+			for (int cell = 0; cell < 81; cell++) {
+				assertEquals(incrementalValidator.isConflicting(cell / 9, cell % 9), result.isConflicting(cell / 9, cell % 9));
+			}
+			for (ValidateType validateType : ValidateType.values()) {
+				for (int index = 0; index < 9; index++) {
+					boolean failing = false;
+					for (int digit = 1; digit <= 9; digit++) {
+						failing |= incrementalValidator.getDigitCount(validateType, index, digit) != 1;
+					}
+					assertEquals(failing, result.isFailing(validateType, index));
+				}
+			}
+		}
+	}
+
+}
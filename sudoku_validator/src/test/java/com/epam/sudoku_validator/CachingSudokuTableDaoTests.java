@@ -0,0 +1,138 @@
+package com.epam.sudoku_validator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.epam.sudoku_validator.dao.CacheKeyMode;
+import com.epam.sudoku_validator.dao.CachingSudokuTableDao;
+import com.epam.sudoku_validator.dao.SimpleSudokuTableDao;
+import com.epam.sudoku_validator.domain.SudokuGrid;
+import com.epam.sudoku_validator.domain.ValidationResult;
+
+public class CachingSudokuTableDaoTests {
+
+	@Test
+	public void testExactKey() {
+		CachingSudokuTableDao cache = new CachingSudokuTableDao(new SimpleSudokuTableDao(), 100, CacheKeyMode.EXACT);
+		int[][] grid = copy(BitmaskValidatorTests.VALID_GRID);
+		grid[3][7] = 9;
+		ValidationResult first = cache.validate(SudokuGrid.of(grid));
+		assertEquals(true, first == cache.validate(SudokuGrid.of(grid)));
+		assertEquals(first, cache.validate(SudokuGrid.of(relabel(grid, 1))));
+		assertEquals(1, cache.getHits());
+		assertEquals(2, cache.getMisses());
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testRelabelKey() {
+		CachingSudokuTableDao cache = new CachingSudokuTableDao(new SimpleSudokuTableDao(), 100, CacheKeyMode.RELABEL);
+		int[][] grid = copy(BitmaskValidatorTests.VALID_GRID);
+		grid[3][7] = 9;
+		ValidationResult expected = new SimpleSudokuTableDao().validate(SudokuGrid.of(grid));
+		cache.validate(SudokuGrid.of(grid));
+		for (int shift = 1; shift < 9; shift++) {
+			assertEquals(expected, cache.validate(SudokuGrid.of(relabel(grid, shift))));
+		}
+		assertEquals(8, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	public void testSymmetryKey() {
+		CachingSudokuTableDao cache = new CachingSudokuTableDao(new SimpleSudokuTableDao(), 100, CacheKeyMode.SYMMETRY);
+		int[][] valid = BitmaskValidatorTests.VALID_GRID;
+		cache.validate(SudokuGrid.of(valid));
+		assertEquals(ValidationResult.VALID, cache.validate(SudokuGrid.of(relabel(transpose(valid), 4))));
+		assertEquals(ValidationResult.VALID, cache.validate(SudokuGrid.of(swapBands(valid))));
+		assertEquals(2, cache.getHits());
+		int[][] invalid = copy(valid);
+		invalid[3][7] = 9;
+		cache.validate(SudokuGrid.of(invalid));
+		// the same grid relabelled hits, the transposed one is validated again for its own error positions
+		assertEquals(new SimpleSudokuTableDao().validate(SudokuGrid.of(invalid)), cache.validate(SudokuGrid.of(relabel(invalid, 2))));
+		assertEquals(3, cache.getHits());
+		assertEquals(new SimpleSudokuTableDao().validate(SudokuGrid.of(transpose(invalid))), cache.validate(SudokuGrid.of(transpose(invalid))));
+		assertEquals(3, cache.getHits());
+		assertEquals(3, cache.getMisses());
+	}
+
+	@Test
+	public void testEviction() {
+		CachingSudokuTableDao cache = new CachingSudokuTableDao(new SimpleSudokuTableDao(), 64, CacheKeyMode.EXACT);
+		Random random = new Random(20190713L);
+		for (int i = 0; i < 1000; i++) {
+			int[][] grid = copy(BitmaskValidatorTests.VALID_GRID);
+			grid[random.nextInt(9)][random.nextInt(9)] = 1 + random.nextInt(9);
+			grid[random.nextInt(9)][random.nextInt(9)] = 1 + random.nextInt(9);
+			cache.validate(SudokuGrid.of(grid));
+		}
+		assertEquals(true, cache.size() <= 64);
+		assertEquals(cache.getMisses() - cache.size(), cache.getEvictions());
+	}
+
+	@Test
+	public void testSameResultAsUncached() {
+		SimpleSudokuTableDao sudokuTableDao = new SimpleSudokuTableDao();
+		for (CacheKeyMode keyMode : CacheKeyMode.values()) {
+			CachingSudokuTableDao cache = new CachingSudokuTableDao(sudokuTableDao, 1000, keyMode);
+			Random random = new Random(20190714L);
+			for (int i = 0; i < 3000; i++) {
+				int[][] grid = BitmaskValidatorTests.VALID_GRID;
+				if (random.nextBoolean()) {
+					grid = transpose(grid);
+				}
+				if (random.nextBoolean()) {
+					grid = swapBands(grid);
+				}
+				grid = relabel(grid, random.nextInt(9));
+				if (random.nextInt(3) == 0) {
+					grid[random.nextInt(2)][random.nextInt(2)] = 1 + random.nextInt(3);
+				}
+				SudokuGrid sudokuGrid = SudokuGrid.of(grid);
+				assertEquals(keyMode.toString(), sudokuTableDao.validate(sudokuGrid), cache.validate(sudokuGrid));
+			}
+			assertEquals(keyMode.toString(), true, cache.getHits() > 1900);
+		}
+	}
+
+	private static int[][] copy(int[][] grid) {
+		int[][] result = new int[9][];
+		for (int row = 0; row < 9; row++) {
+			result[row] = grid[row].clone();
+		}
+		return result;
+	}
+
+	private static int[][] relabel(int[][] grid, int shift) {
+		int[][] result = new int[9][9];
+		for (int row = 0; row < 9; row++) {
+			for (int col = 0; col < 9; col++) {
+				result[row][col] = (grid[row][col] - 1 + shift) % 9 + 1;
+			}
+		}
+		return result;
+	}
+
+	private static int[][] transpose(int[][] grid) {
+		int[][] result = new int[9][9];
+		for (int row = 0; row < 9; row++) {
+			for (int col = 0; col < 9; col++) {
+				result[row][col] = grid[col][row];
+			}
+		}
+		return result;
+	}
+
+	private static int[][] swapBands(int[][] grid) {
+		int[][] result = new int[9][];
+		for (int row = 0; row < 9; row++) {
+			result[row] = grid[(row + 3) % 9].clone();
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,112 @@
+package com.epam.sudoku_validator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.epam.sudoku_validator.dao.SimpleSudokuTableDao;
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+import com.epam.sudoku_validator.domain.SudokuGrid;
+import com.epam.sudoku_validator.domain.ValidationResult;
+
+public class ConcurrentValidationTests {
+
+	private static final int THREADS = 16;
+	private static final int GRIDS = 2000;
+	private static final int ROUNDS = 20;
+
+	@Test
+	public void testGridIsImmutable() {
+		byte[] cells = BitmaskValidatorTests.toCells(BitmaskValidatorTests.VALID_GRID);
+		SudokuGrid grid = SudokuGrid.of(cells, 0);
+		cells[0] = 9;
+		byte[] copy = new byte[81];
+		grid.copyTo(copy, 0);
+		copy[1] = 9;
+		assertEquals(5, grid.getCell(0, 0));
+		assertEquals(3, grid.getCell(0, 1));
+		assertEquals(SudokuGrid.of(BitmaskValidatorTests.VALID_GRID), grid);
+		assertEquals(ValidationResult.VALID, new SimpleSudokuTableDao().validate(grid));
+	}
+
+	@Test
+	public void testOneDaoManyThreads() throws Exception {
+		Random random = new Random(20190710L);
+		byte[] validCells = BitmaskValidatorTests.toCells(BitmaskValidatorTests.VALID_GRID);
+		SudokuGrid[] grids = new SudokuGrid[GRIDS];
+		ValidationResult[] expected = new ValidationResult[GRIDS];
+		BitmaskValidator validator = new BitmaskValidator();
+		for (int i = 0; i < GRIDS; i++) {
+			byte[] cells = validCells.clone();
+			int changes = random.nextInt(4);
+			for (int j = 0; j < changes; j++) {
+				cells[random.nextInt(81)] = (byte) (1 + random.nextInt(9));
+			}
+			grids[i] = SudokuGrid.of(cells, 0);
+			expected[i] = validator.diagnose(cells, 0);
+		}
+		SimpleSudokuTableDao sudokuTableDao = new SimpleSudokuTableDao();
+		CountDownLatch startSignal = new CountDownLatch(1);
+		ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<Integer>> mismatches = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				int first = t * GRIDS / THREADS;
+				mismatches.add(threads.submit(() -> {
+					startSignal.await();
+					int count = 0;
+					for (int round = 0; round < ROUNDS; round++) {
+						for (int i = 0; i < GRIDS; i++) {
+							int index = (first + i) % GRIDS;
+							if (!expected[index].equals(sudokuTableDao.validate(grids[index]))) {
+								count++;
+							}
+						}
+					}
+					return count;
+				}));
+			}
+			startSignal.countDown();
+			int total = 0;
+			for (Future<Integer> future : mismatches) {
+				total += future.get(60, TimeUnit.SECONDS);
+			}
+			assertEquals(0, total);
+		} finally {
+			threads.shutdown();
+		}
+	}
+
+	@Test
+	public void testReadGridManyThreads() throws Exception {
+		SimpleSudokuTableDao sudokuTableDao = new SimpleSudokuTableDao();
+		ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				String fileName = i % 2 == 0 ? "src/main/resources/testValid.csv" : "src/main/resources/testInvalid.csv";
+				results.add(threads.submit(() -> {
+					ValidationResult result = sudokuTableDao.validate(sudokuTableDao.readGrid(fileName));
+					return result.isValid() ? "OK" : result.getErrorRow() + "," + result.getErrorCol();
+				}));
+			}
+			String invalid = results.get(1).get();
+			for (int i = 0; i < results.size(); i++) {
+				assertEquals(i % 2 == 0 ? "OK" : invalid, results.get(i).get());
+			}
+			assertEquals(false, "OK".equals(invalid));
+		} finally {
+			threads.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,184 @@
+package com.epam.sudoku_validator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import org.junit.Test;
+import org.slf4j.helpers.NOPLogger;
+
+import com.epam.sudoku_validator.app.DirectoryWatcher;
+import com.epam.sudoku_validator.dao.SimpleSudokuTableDao;
+import com.epam.sudoku_validator.domain.GridGeometry;
+import com.epam.sudoku_validator.domain.RenderFormat;
+import com.epam.sudoku_validator.domain.ValidationEngineType;
+
+public class DirectoryWatcherTests {
+
+	@Test
+	public void testIncrementalValidation() throws IOException, InterruptedException {
+		Path directory = Files.createTempDirectory("testWatch");
+		directory.toFile().deleteOnExit();
+		Path batch = directory.resolve("batch.csv");
+		Files.copy(new File("src/main/resources/testBatch.csv").toPath(), batch);
+		Path single = directory.resolve("single.csv");
+		Files.write(directory.resolve("notes.txt"), "not a table".getBytes(StandardCharsets.UTF_8));
+
+		DirectoryWatcher watcher = newWatcher(directory);
+		watcher.start(NOPLogger.NOP_LOGGER, directory.toString());
+		try {
+			// the file already in the directory
+			awaitCount(watcher::getValidatedFiles, 1);
+			assertEquals(6, watcher.getTables());
+
+			// a new file
+			Files.write(single, GridValidatorTests.toCsv(BitmaskValidatorTests.VALID_GRID).getBytes(StandardCharsets.UTF_8));
+			awaitCount(watcher::getValidatedFiles, 2);
+
+			// the same content with a new modification time
+			Files.setLastModifiedTime(batch, FileTime.fromMillis(Files.getLastModifiedTime(batch).toMillis() - 60_000));
+			awaitCount(watcher::getSkippedFiles, 1);
+
+			// a changed file of the same size and time, as on a file system with coarse timestamps
+			FileTime modified = Files.getLastModifiedTime(single);
+			Files.write(single, GridValidatorTests.toCsv(BitmaskValidatorTests.VALID_GRID).replaceFirst("5,3", "5,5").getBytes(StandardCharsets.UTF_8));
+			Files.setLastModifiedTime(single, modified);
+			awaitCount(watcher::getValidatedFiles, 3);
+		} finally {
+			watcher.stop(NOPLogger.NOP_LOGGER);
+		}
+		assertEquals(8, watcher.getTables());
+		assertEquals(0, watcher.getFailedFiles());
+
+		// the index is persisted, nothing has changed since the stop
+		DirectoryWatcher restarted = newWatcher(directory);
+		restarted.start(NOPLogger.NOP_LOGGER, directory.toString());
+		try {
+			awaitCount(restarted::getSkippedFiles, 2);
+		} finally {
+			restarted.stop(NOPLogger.NOP_LOGGER);
+		}
+		assertEquals(0, restarted.getValidatedFiles());
+
+		// the removed files are left out of the index
+		Files.delete(batch);
+		restarted = newWatcher(directory);
+		restarted.start(NOPLogger.NOP_LOGGER, directory.toString());
+		restarted.stop(NOPLogger.NOP_LOGGER);
+		List<String> index = Files.readAllLines(directory.resolve(".sudoku_validator.index"), StandardCharsets.UTF_8);
+		assertEquals(1, index.size());
+		assertEquals(true, index.get(0).endsWith(",single.csv"));
+
+		List<String> report = Files.readAllLines(directory.resolve("validation.report"), StandardCharsets.UTF_8);
+		assertEquals(8, report.size());
+		assertEquals("batch.csv#1: OK", report.get(0));
+		assertEquals("single.csv#1: OK", report.get(6));
+		assertEquals("single.csv#1: Invalid (row: 1, column: 2)", report.get(7));
+		for (File file : directory.toFile().listFiles()) {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testBatchSettings() throws IOException, InterruptedException {
+		Path directory = Files.createTempDirectory("testWatch");
+		directory.toFile().deleteOnExit();
+		Files.write(directory.resolve("small.csv"), "1,2,3,4\n3,4,1,2\n2,1,4,3\n4,3,2,2\n".getBytes(StandardCharsets.UTF_8));
+		DirectoryWatcher watcher = newWatcher(directory);
+		watcher.setGeometry(GridGeometry.of(2));
+		watcher.setEngineType(ValidationEngineType.SET);
+		watcher.setReportFormat(RenderFormat.LINE);
+		watcher.start(NOPLogger.NOP_LOGGER, directory.toString());
+		try {
+			awaitCount(watcher::getValidatedFiles, 1);
+		} finally {
+			watcher.stop(NOPLogger.NOP_LOGGER);
+		}
+		List<String> report = Files.readAllLines(directory.resolve("validation.report"), StandardCharsets.UTF_8);
+		assertEquals(2, report.size());
+		assertEquals("small.csv#1: Invalid (row: 4, column: 4)", report.get(0));
+
+		watcher = newWatcher(directory);
+		watcher.setGeometry(GridGeometry.of(2));
+		watcher.setEngineType(ValidationEngineType.PACKED);
+		try {
+			watcher.start(NOPLogger.NOP_LOGGER, directory.toString());
+			assertEquals("IllegalArgumentException expected", true, false);
+		} catch (IllegalArgumentException e) {
+			assertEquals("The PACKED validation engine supports 9x9 tables only, not 4x4", e.getMessage());
+		}
+		for (File file : directory.toFile().listFiles()) {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testIndexWriteFailure() throws IOException, InterruptedException {
+		Path directory = Files.createTempDirectory("testWatch");
+		directory.toFile().deleteOnExit();
+		// the temporary file of the index can't be written while a directory has its name
+		Path blocker = Files.createDirectory(directory.resolve(".sudoku_validator.index.tmp"));
+		DirectoryWatcher watcher = newWatcher(directory);
+		watcher.start(NOPLogger.NOP_LOGGER, directory.toString());
+		try {
+			Files.write(directory.resolve("first.csv"), GridValidatorTests.toCsv(BitmaskValidatorTests.VALID_GRID).getBytes(StandardCharsets.UTF_8));
+			awaitCount(watcher::getValidatedFiles, 1);
+			Thread.sleep(200);
+			// the watcher keeps working after the failed writes
+			Files.write(directory.resolve("second.csv"), GridValidatorTests.toCsv(BitmaskValidatorTests.VALID_GRID).getBytes(StandardCharsets.UTF_8));
+			awaitCount(watcher::getValidatedFiles, 2);
+			assertEquals(false, Files.exists(directory.resolve(".sudoku_validator.index")));
+			// and the index is saved as soon as it can be written
+			Files.delete(blocker);
+			Path index = directory.resolve(".sudoku_validator.index");
+			long deadline = System.currentTimeMillis() + 30_000;
+			while (!Files.exists(index) && System.currentTimeMillis() < deadline) {
+				Thread.sleep(20);
+			}
+			assertEquals(2, Files.readAllLines(index, StandardCharsets.UTF_8).size());
+		} finally {
+			watcher.stop(NOPLogger.NOP_LOGGER);
+		}
+		assertEquals(false, watcher.isFailed());
+		for (File file : directory.toFile().listFiles()) {
+			file.delete();
+		}
+	}
+
+	@Test(timeout = 30_000)
+	public void testDirectoryRemoved() throws IOException, InterruptedException {
+		Path directory = Files.createTempDirectory("testWatch");
+		DirectoryWatcher watcher = newWatcher(directory);
+		watcher.start(NOPLogger.NOP_LOGGER, directory.toString());
+		for (File file : directory.toFile().listFiles()) {
+			file.delete();
+		}
+		Files.delete(directory);
+		// the watcher stops itself, so the application doesn't wait for nothing
+		watcher.awaitStop();
+		assertEquals(true, watcher.isFailed());
+	}
+
+	private static DirectoryWatcher newWatcher(Path directory) {
+		return new DirectoryWatcher(new SimpleSudokuTableDao(), 2, "validation.report", ".sudoku_validator.index", 50);
+	}
+
+	/**
+	 * Waits until the counter reaches the expected value, the file events arrive asynchronously
+	 */
+	private static void awaitCount(LongSupplier counter, long expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 30_000;
+		while (counter.getAsLong() < expected && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		assertEquals(expected, counter.getAsLong());
+	}
+
+}
@@ -0,0 +1,106 @@
+package com.epam.sudoku_validator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.slf4j.helpers.NOPLogger;
+
+import com.epam.sudoku_validator.app.BatchValidator;
+import com.epam.sudoku_validator.app.LoadGenerator;
+import com.epam.sudoku_validator.dao.SimpleSudokuTableDao;
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+import com.epam.sudoku_validator.domain.GridGenerator;
+import com.epam.sudoku_validator.domain.GridMutation;
+import com.epam.sudoku_validator.domain.ValidationResult;
+
+public class GridGeneratorTests {
+
+	@Test
+	public void testValidGrids() {
+		GridGenerator generator = new GridGenerator(20190807L);
+		GridGenerator sameSeed = new GridGenerator(20190807L);
+		BitmaskValidator validator = new BitmaskValidator();
+		byte[] cells = new byte[BitmaskValidator.CELLS];
+		byte[] sameCells = new byte[BitmaskValidator.CELLS];
+		Set<String> grids = new HashSet<>();
+		int count = 3 * GridGenerator.BASE_GRIDS;
+		for (int i = 0; i < count; i++) {
+			generator.generate(cells, 0);
+			sameSeed.generate(sameCells, 0);
+			assertEquals(BitmaskValidator.VALID, validator.validate(cells, 0));
+			assertEquals(Arrays.toString(cells), Arrays.toString(sameCells));
+			grids.add(Arrays.toString(cells));
+		}
+		assertEquals(count, grids.size());
+		new GridGenerator(20190808L).generate(cells, 0);
+		assertEquals(false, grids.contains(Arrays.toString(cells)));
+	}
+
+	@Test
+	public void testDuplicateMutations() {
+		GridGenerator generator = new GridGenerator(20190809L);
+		BitmaskValidator validator = new BitmaskValidator();
+		byte[] cells = new byte[BitmaskValidator.CELLS];
+		GridMutation[] mutations = { GridMutation.DUPLICATE_ROW, GridMutation.DUPLICATE_COLUMN, GridMutation.DUPLICATE_BOX };
+		for (int type = 0; type < mutations.length; type++) {
+			for (int i = 0; i < 1000; i++) {
+				generator.generate(cells, 0);
+				generator.mutate(cells, 0, mutations[type]);
+				ValidationResult result = validator.diagnose(cells, 0);
+				assertEquals(mutations[type].toString(), false, result.isValid());
+				// only the units of one type fail
+				assertEquals(mutations[type].toString(), 0, result.getFailingUnits() & ~(0x1FF << (type * 9)));
+			}
+		}
+		try {
+			generator.mutate(cells, 0, GridMutation.SHORT_ROW);
+			assertEquals("IllegalArgumentException expected", true, false);
+		} catch (IllegalArgumentException e) {
+			assertEquals("The SHORT_ROW mutation can't be applied to a grid buffer", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testLoadGeneratorFiles() throws IOException, InterruptedException {
+		File single = tempFile(".csv");
+		File parallel = tempFile(".csv");
+		LoadGenerator generator = new LoadGenerator(1, 100, 30, GridMutation.values(), 7L);
+		assertEquals(0, generator.run(NOPLogger.NOP_LOGGER, single.getPath(), 1050));
+		assertEquals(0, new LoadGenerator(3, 100, 30, GridMutation.values(), 7L).run(NOPLogger.NOP_LOGGER, parallel.getPath(), 1050));
+		assertEquals(true, Arrays.equals(Files.readAllBytes(single.toPath()), Files.readAllBytes(parallel.toPath())));
+		assertEquals(1050, generator.getTotal());
+		assertEquals(true, generator.getInvalid() > 0 && generator.getMalformed() > 0);
+		assertSameCounts(generator, single);
+
+		File binary = tempFile(".sdkb");
+		generator = new LoadGenerator(2, 64, 50, GridMutation.values(), 8L);
+		assertEquals(0, generator.run(NOPLogger.NOP_LOGGER, binary.getPath(), 500));
+		assertEquals(0, generator.getMalformed());
+		assertEquals(true, generator.getInvalid() > 0);
+		assertSameCounts(generator, binary);
+	}
+
+	private static void assertSameCounts(LoadGenerator generator, File file) throws IOException {
+		BatchValidator batchValidator = new BatchValidator(new SimpleSudokuTableDao());
+		batchValidator.run(NOPLogger.NOP_LOGGER, file.getPath(), new StringWriter());
+		assertEquals(generator.getTotal(), batchValidator.getTotal());
+		assertEquals(generator.getValid(), batchValidator.getValid());
+		assertEquals(generator.getInvalid(), batchValidator.getInvalid());
+		assertEquals(generator.getMalformed(), batchValidator.getMalformed());
+	}
+
+	private static File tempFile(String extension) throws IOException {
+		File file = File.createTempFile("testGenerator", extension);
+		file.deleteOnExit();
+		return file;
+	}
+
+}
@@ -0,0 +1,144 @@
+package com.epam.sudoku_validator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.Test;
+import org.slf4j.helpers.NOPLogger;
+
+import com.epam.sudoku_validator.app.BatchValidator;
+import com.epam.sudoku_validator.dao.SimpleSudokuTableDao;
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+import com.epam.sudoku_validator.domain.GridGeometry;
+import com.epam.sudoku_validator.domain.GridRenderer;
+import com.epam.sudoku_validator.domain.GridValidator;
+import com.epam.sudoku_validator.domain.RenderFormat;
+import com.epam.sudoku_validator.domain.SudokuTable;
+
+public class GridRendererTests {
+
+	@Test
+	public void testBoxSameAsSudokuTable() {
+		Random random = new Random(20190801L);
+		for (int boxSize : new int[] { 2, 3, 4 }) {
+			GridGeometry geometry = GridGeometry.of(boxSize);
+			GridRenderer renderer = new GridRenderer(geometry, RenderFormat.BOX);
+			StringBuilder out = new StringBuilder(renderer.getMaxLength());
+			for (int i = 0; i < 50; i++) {
+				int[][] grid = GridValidatorTests.patternGrid(boxSize);
+				grid[random.nextInt(geometry.getSide())][random.nextInt(geometry.getSide())] = 1 + random.nextInt(geometry.getSide());
+				SudokuTable sudokuTable = new SudokuTable(geometry);
+				sudokuTable.populateGrid(BitmaskValidatorTests.toRows(grid));
+				sudokuTable.validate();
+				byte[] cells = GridValidatorTests.toCells(grid);
+				int errorCell = new GridValidator(geometry).validate(cells, 0);
+				String expected = legacyToString(geometry, grid, errorCell);
+				assertEquals(expected, sudokuTable.toString());
+				out.setLength(0);
+				renderer.render(cells, 0, errorCell, out);
+				assertEquals(expected, out.toString());
+				assertEquals(true, out.length() <= renderer.getMaxLength());
+			}
+		}
+	}
+
+	@Test
+	public void testLine() {
+		GridRenderer renderer = new GridRenderer(GridGeometry.STANDARD, RenderFormat.LINE);
+		byte[] cells = BitmaskValidatorTests.toCells(BitmaskValidatorTests.VALID_GRID);
+		StringBuilder out = new StringBuilder();
+		renderer.render(cells, 0, BitmaskValidator.VALID, out);
+		assertEquals(81, out.length());
+		assertEquals(true, out.toString().matches("[1-9]{81}"));
+		out.setLength(0);
+		renderer.render(cells, 0, 80, out);
+		assertEquals(83, out.length());
+		assertEquals("<" + cells[80] + ">", out.substring(80));
+
+		GridGeometry geometry = GridGeometry.of(4);
+		renderer = new GridRenderer(geometry, RenderFormat.LINE);
+		int[][] grid = GridValidatorTests.patternGrid(4);
+		out.setLength(0);
+		renderer.render(GridValidatorTests.toCells(grid), 0, 1, out);
+		assertEquals(true, out.toString().startsWith(grid[0][0] + ",<" + grid[0][1] + ">," + grid[0][2] + ","));
+		assertEquals(true, out.length() <= renderer.getMaxLength());
+		assertEquals(256, out.toString().split(",").length);
+	}
+
+	@Test
+	public void testBytesAndWriter() throws IOException {
+		GridRenderer renderer = new GridRenderer(GridGeometry.STANDARD, RenderFormat.BOX);
+		byte[] cells = BitmaskValidatorTests.toCells(BitmaskValidatorTests.VALID_GRID);
+		StringBuilder expected = new StringBuilder();
+		renderer.render(cells, 0, 40, expected);
+		byte[] out = new byte[2 + renderer.getMaxLength() * 3];
+		int end = renderer.render(cells, 0, 40, out, 2);
+		assertEquals(expected.toString(), new String(out, 2, end - 2, StandardCharsets.UTF_8));
+		StringWriter writer = new StringWriter();
+		renderer.render(cells, 0, 40, writer);
+		assertEquals(expected.toString(), writer.toString());
+		// the previous error cell doesn't remain highlighted
+		StringBuilder valid = new StringBuilder();
+		renderer.render(cells, 0, BitmaskValidator.VALID, valid);
+		assertEquals(false, valid.toString().contains("<"));
+	}
+
+	@Test
+	public void testBatchReport() throws IOException {
+		File file = File.createTempFile("testReport", ".csv");
+		file.deleteOnExit();
+		int[][] invalid = GridValidatorTests.patternGrid(3);
+		invalid[8][8] = invalid[8][7];
+		Files.write(file.toPath(), (GridValidatorTests.toCsv(GridValidatorTests.patternGrid(3)) + "\n"
+				+ GridValidatorTests.toCsv(invalid)).getBytes(StandardCharsets.UTF_8));
+		BatchValidator batchValidator = new BatchValidator(new SimpleSudokuTableDao());
+		batchValidator.setReportFormat(RenderFormat.LINE);
+		StringWriter out = new StringWriter();
+		batchValidator.run(NOPLogger.NOP_LOGGER, file.getPath(), out);
+		String[] lines = out.toString().split("\n");
+		assertEquals(3, lines.length);
+		assertEquals(file.getName() + "#1: OK", lines[0]);
+		assertEquals(true, lines[1].startsWith(file.getName() + "#2: Invalid (row: "));
+		assertEquals(83, lines[2].length());
+	}
+
+	/**
+	 * The former SudokuTable.toString, string concatenation on the grid
+	 */
+	private static String legacyToString(GridGeometry geometry, int[][] grid, int errorCell) {
+		int side = geometry.getSide();
+		int boxSize = geometry.getBoxSize();
+		int width = Integer.toString(side).length();
+		String retVal = "";
+		for (int row = 0; row < side; row++) {
+			retVal += "\n+";
+			for (int col = 0; col < side; col++) {
+				for (int i = 0; i < width + 2; i++) {
+					retVal += row > 0 && row % boxSize == 0 ? "=" : "-";
+				}
+				retVal += "+";
+			}
+			retVal += "\n|";
+			for (int col = 0; col < side; col++) {
+				String value = String.format("%" + width + "d", grid[row][col]);
+				retVal += row * side + col == errorCell ? "<" + value + ">" : " " + value + " ";
+				retVal += col % boxSize == boxSize - 1 && col < side - 1 ? "║" : "|";
+			}
+		}
+		retVal += "\n+";
+		for (int col = 0; col < side; col++) {
+			for (int i = 0; i < width + 2; i++) {
+				retVal += "-";
+			}
+			retVal += "+";
+		}
+		return retVal;
+	}
+
+}
@@ -0,0 +1,255 @@
+package com.epam.sudoku_validator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import com.epam.sudoku_validator.app.BatchValidator;
+import com.epam.sudoku_validator.dao.CsvGridReader;
+import com.epam.sudoku_validator.dao.SimpleSudokuTableDao;
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+import com.epam.sudoku_validator.domain.GridGeometry;
+import com.epam.sudoku_validator.domain.GridValidator;
+import com.epam.sudoku_validator.domain.SudokuTable;
+import com.epam.sudoku_validator.domain.ValidateType;
+import com.epam.sudoku_validator.domain.ValidationResult;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+public class GridValidatorTests {
+
+	private static Logger LOG = (Logger) LoggerFactory.getLogger(GridValidatorTests.class);
+
+	/**
+	 * Returns with a valid grid of the given box size, every row is the previous one shifted
+	 */
+	static int[][] patternGrid(int boxSize) {
+		int side = boxSize * boxSize;
+		int[][] grid = new int[side][side];
+		for (int row = 0; row < side; row++) {
+			for (int col = 0; col < side; col++) {
+				grid[row][col] = ((row % boxSize) * boxSize + row / boxSize + col) % side + 1;
+			}
+		}
+		return grid;
+	}
+
+	static byte[] toCells(int[][] grid) {
+		int side = grid.length;
+		byte[] cells = new byte[side * side];
+		for (int i = 0; i < cells.length; i++) {
+			cells[i] = (byte) grid[i / side][i % side];
+		}
+		return cells;
+	}
+
+	static String toCsv(int[][] grid) {
+		StringBuilder csv = new StringBuilder();
+		for (int[] row : grid) {
+			for (int col = 0; col < row.length; col++) {
+				csv.append(col > 0 ? "," : "").append(row[col]);
+			}
+			csv.append('\n');
+		}
+		return csv.toString();
+	}
+
+	@Test
+	public void testValidPatterns() {
+		Level level = LOG.getLevel();
+		LOG.setLevel(Level.OFF);
+		try {
+			for (int boxSize = GridGeometry.MIN_BOX_SIZE; boxSize <= GridGeometry.MAX_BOX_SIZE; boxSize++) {
+				GridGeometry geometry = GridGeometry.of(boxSize);
+				int[][] grid = patternGrid(boxSize);
+				assertEquals(geometry.toString(), BitmaskValidator.VALID, new GridValidator(geometry).validate(toCells(grid), 0));
+				SudokuTable sudokuTable = new SudokuTable(geometry);
+				sudokuTable.populateGrid(BitmaskValidatorTests.toRows(grid));
+				assertEquals(geometry.toString(), true, sudokuTable.validate(LOG));
+				assertEquals(geometry.toString(), true, sudokuTable.validate());
+			}
+		} finally {
+			LOG.setLevel(level);
+		}
+	}
+
+	@Test
+	public void testSameAsBitmaskValidator() {
+		GridValidator gridValidator = new GridValidator(GridGeometry.STANDARD);
+		BitmaskValidator bitmaskValidator = new BitmaskValidator();
+		Random random = new Random(20190715L);
+		for (int i = 0; i < 2000; i++) {
+			byte[] cells = BitmaskValidatorTests.toCells(BitmaskValidatorTests.VALID_GRID);
+			for (int changes = random.nextInt(4); changes > 0; changes--) {
+				cells[random.nextInt(81)] = (byte) random.nextInt(11);
+			}
+			assertEquals(bitmaskValidator.validate(cells, 0), gridValidator.validate(cells, 0));
+			assertEquals(bitmaskValidator.getFailingUnit(), gridValidator.getFailingUnit());
+			ValidationResult expected = bitmaskValidator.diagnose(cells, 0);
+			ValidationResult actual = gridValidator.diagnose(cells, 0);
+			assertEquals(expected.isValid(), actual.isValid());
+			assertEquals(expected.getErrorCell(), actual.getErrorCell());
+			assertEquals(expected.getFailingUnits(), actual.getFailingUnits());
+			assertEquals(expected.getFirstFailingUnit(), actual.getFirstFailingUnit());
+			assertEquals(expected.getConflictCount(), actual.getConflictCount());
+			for (int cell = 0; cell < 81; cell++) {
+				assertEquals(expected.isConflicting(cell / 9, cell % 9), actual.isConflicting(cell / 9, cell % 9));
+			}
+		}
+	}
+
+	@Test
+	public void testSameErrorCellAsSudokuTable() {
+		Level level = LOG.getLevel();
+		LOG.setLevel(Level.OFF);
+		try {
+			Random random = new Random(20190716L);
+			for (int boxSize : new int[] { 2, 4, 5 }) {
+				GridGeometry geometry = GridGeometry.of(boxSize);
+				for (int i = 0; i < 200; i++) {
+					int[][] grid = patternGrid(boxSize);
+					for (int changes = 1 + random.nextInt(3); changes > 0; changes--) {
+						grid[random.nextInt(geometry.getSide())][random.nextInt(geometry.getSide())] = 1 + random.nextInt(geometry.getSide());
+					}
+					SudokuTable expected = new SudokuTable(geometry);
+					expected.populateGrid(BitmaskValidatorTests.toRows(grid));
+					SudokuTable actual = new SudokuTable(geometry);
+					actual.populateCells(toCells(grid), 0);
+					assertEquals(expected.validate(LOG), actual.validate());
+					assertEquals(expected.toString(), actual.toString());
+				}
+			}
+		} finally {
+			LOG.setLevel(level);
+		}
+	}
+
+	@Test
+	public void testToString4x4() {
+		SudokuTable sudokuTable = new SudokuTable(GridGeometry.of(2));
+		int[][] grid = patternGrid(2);
+		grid[3][3] = 1;
+		sudokuTable.populateGrid(BitmaskValidatorTests.toRows(grid));
+		assertEquals(false, sudokuTable.validate());
+		assertEquals("\n+---+---+---+---+"
+				+ "\n| 1 | 2 ║ 3 | 4 |"
+				+ "\n+---+---+---+---+"
+				+ "\n| 3 | 4 ║ 1 | 2 |"
+				+ "\n+===+===+===+===+"
+				+ "\n| 2 | 3 ║ 4 | 1 |"
+				+ "\n+---+---+---+---+"
+				+ "\n| 4 | 1 ║ 2 |<1>|"
+				+ "\n+---+---+---+---+", sudokuTable.toString());
+	}
+
+	@Test
+	public void testDiagnose4x4() {
+		SudokuTable sudokuTable = new SudokuTable(GridGeometry.of(2));
+		sudokuTable.populateGrid(BitmaskValidatorTests.toRows(patternGrid(2)));
+		assertEquals(true, sudokuTable.diagnose().isValid());
+		int[][] grid = patternGrid(2);
+		grid[3][3] = 1;
+		sudokuTable.populateGrid(BitmaskValidatorTests.toRows(grid));
+		ValidationResult result = sudokuTable.diagnose();
+		assertEquals(false, result.isValid());
+		assertEquals(3, result.getErrorRow());
+		assertEquals(3, result.getErrorCol());
+		assertEquals(3, result.getFirstFailingUnit());
+		assertEquals(3, result.getFailingUnitCount());
+		assertEquals(true, result.isFailing(ValidateType.ROW, 3));
+		assertEquals(true, result.isFailing(ValidateType.COLUMN, 3));
+		assertEquals(true, result.isFailing(ValidateType.SUBTABLE, 3));
+		int[] conflicts = new int[result.getConflictCount()];
+		assertEquals(3, result.getConflictingCells(conflicts));
+		assertEquals(2 * 4 + 3, conflicts[0]);
+		assertEquals(3 * 4 + 1, conflicts[1]);
+		assertEquals(3 * 4 + 3, conflicts[2]);
+		assertEquals(true, sudokuTable.toString().contains("|<1>|"));
+	}
+
+	@Test
+	public void testDiagnose16x16() throws IOException {
+		File file = File.createTempFile("test16x16", ".csv");
+		file.deleteOnExit();
+		int[][] grid = patternGrid(4);
+		grid[5][10] = grid[5][11];
+		Files.write(file.toPath(), toCsv(grid).getBytes(StandardCharsets.UTF_8));
+		SimpleSudokuTableDao sudokuTableDao = new SimpleSudokuTableDao();
+		assertEquals(true, sudokuTableDao.loadFromFile(LOG, file.getPath()));
+		ValidationResult result = sudokuTableDao.diagnose();
+		assertEquals(GridGeometry.of(4), result.getGeometry());
+		assertEquals(5, result.getErrorRow());
+		assertEquals(11, result.getErrorCol());
+		assertEquals(5, result.getFirstFailingUnit());
+		assertEquals(3, result.getFailingUnitCount());
+		assertEquals(true, result.isFailing(ValidateType.ROW, 5));
+		assertEquals(true, result.isFailing(ValidateType.COLUMN, 10));
+		assertEquals(true, result.isFailing(ValidateType.SUBTABLE, 6));
+		assertEquals(3, result.getConflictCount());
+		assertEquals(true, result.isConflicting(5, 10));
+		assertEquals(true, result.isConflicting(5, 11));
+		assertEquals(true, result.isConflicting(9, 10));
+		assertEquals(true, new GridValidator(GridGeometry.of(4)).diagnose(toCells(patternGrid(4)), 0).isValid());
+	}
+
+	@Test
+	public void testMultiCharacterCells() throws IOException {
+		GridGeometry geometry = GridGeometry.of(4);
+		int[][] grid = patternGrid(4);
+		String csv = toCsv(grid) + "\n" + toCsv(grid).replaceFirst("16", "17");
+		byte[] cells = new byte[geometry.getCells()];
+		try (CsvGridReader reader = new CsvGridReader(new StringReader(csv), geometry)) {
+			assertEquals(true, reader.next(cells, 0));
+			assertEquals(BitmaskValidator.VALID, new GridValidator(geometry).validate(cells, 0));
+			try {
+				reader.next(cells, 0);
+				assertEquals("IllegalArgumentException expected", true, false);
+			} catch (IllegalArgumentException e) {
+				assertEquals("Invalid sudoku cell value (17) at (row: 1, column: 16), it should be between 1 and 16!", e.getMessage());
+			}
+			assertEquals(false, reader.next(cells, 0));
+		}
+	}
+
+	@Test
+	public void testLoadDetectsSize() throws IOException {
+		File file = File.createTempFile("test16x16", ".csv");
+		file.deleteOnExit();
+		int[][] grid = patternGrid(4);
+		grid[5][10] = grid[5][11];
+		Files.write(file.toPath(), toCsv(grid).getBytes(StandardCharsets.UTF_8));
+		SimpleSudokuTableDao sudokuTableDao = new SimpleSudokuTableDao();
+		assertEquals(true, sudokuTableDao.loadFromFile(LOG, file.getPath()));
+		assertEquals(false, sudokuTableDao.validate());
+		assertEquals(true, sudokuTableDao.toString().contains(String.format("<%2d>", grid[5][11])));
+		assertEquals(true, sudokuTableDao.loadFromFile(LOG, "src/main/resources/testValid.csv"));
+		assertEquals(true, sudokuTableDao.validate());
+	}
+
+	@Test
+	public void testBatch() throws IOException {
+		File file = File.createTempFile("test25x25", ".csv");
+		file.deleteOnExit();
+		int[][] invalid = patternGrid(5);
+		invalid[24][0] = invalid[24][1];
+		Files.write(file.toPath(), (toCsv(patternGrid(5)) + "\n" + toCsv(invalid)).getBytes(StandardCharsets.UTF_8));
+		BatchValidator batchValidator = new BatchValidator(new SimpleSudokuTableDao(), GridGeometry.of(5));
+		StringWriter out = new StringWriter();
+		assertEquals(-1, batchValidator.run(LOG, file.getPath(), out));
+		assertEquals(1, batchValidator.getValid());
+		String[] lines = out.toString().split("\n");
+		assertEquals(file.getName() + "#1: OK", lines[0]);
+		assertEquals(true, lines[1].startsWith(file.getName() + "#2: Invalid (row: "));
+	}
+
+}
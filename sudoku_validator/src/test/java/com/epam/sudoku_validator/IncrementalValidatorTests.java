@@ -0,0 +1,95 @@
+package com.epam.sudoku_validator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+import com.epam.sudoku_validator.domain.IncrementalValidator;
+
+public class IncrementalValidatorTests {
+
+	@Test
+	public void testValidGrid() {
+		IncrementalValidator validator = new IncrementalValidator();
+		validator.load(BitmaskValidatorTests.toCells(BitmaskValidatorTests.VALID_GRID), 0);
+		assertEquals(true, validator.isValid());
+		assertEquals(0, validator.getConflictCount());
+	}
+
+	@Test
+	public void testConflictDelta() {
+		IncrementalValidator validator = new IncrementalValidator();
+		validator.load(BitmaskValidatorTests.toCells(BitmaskValidatorTests.VALID_GRID), 0);
+		// 3 is already in row 0 (column 1), in column 4 (row 6) and in subtable 1 (row 2, column 3)
+		int delta = validator.setCell(0, 4, 3);
+		assertEquals(4, delta);
+		assertEquals(true, validator.isConflicting(0, 4));
+		assertEquals(true, validator.isConflicting(0, 1));
+		assertEquals(true, validator.isConflicting(6, 4));
+		assertEquals(true, validator.isConflicting(2, 3));
+		assertEquals(false, validator.isValid());
+		assertEquals(-4, validator.undo());
+		assertEquals(true, validator.isValid());
+	}
+
+	@Test
+	public void testSameAsFullValidation() {
+		Random random = new Random(20190702L);
+		IncrementalValidator validator = new IncrementalValidator();
+		byte[] cells = BitmaskValidatorTests.toCells(BitmaskValidatorTests.VALID_GRID);
+		validator.load(cells, 0);
+		BitmaskValidator bitmaskValidator = new BitmaskValidator();
+		int[] conflicts = new int[81];
+		for (int step = 0; step < 20000; step++) {
+			int mark = validator.mark();
+			byte[] before = snapshot(validator);
+			int changes = 1 + random.nextInt(5);
+			for (int i = 0; i < changes; i++) {
+				int conflictCount = validator.getConflictCount();
+				int delta = validator.setCell(random.nextInt(9), random.nextInt(9), random.nextInt(10));
+				assertEquals(conflictCount + delta, validator.getConflictCount());
+			}
+			byte[] current = snapshot(validator);
+			boolean[] expected = conflictingCells(current);
+			int count = validator.getConflictingCells(conflicts);
+			int expectedCount = 0;
+			for (int cell = 0; cell < 81; cell++) {
+				assertEquals(expected[cell], validator.isConflicting(cell / 9, cell % 9));
+				if (expected[cell]) {
+					assertEquals(cell, conflicts[expectedCount++]);
+				}
+			}
+			assertEquals(expectedCount, count);
+			assertEquals(bitmaskValidator.validate(current, 0) == BitmaskValidator.VALID, validator.isValid());
+			if (random.nextBoolean()) {
+				validator.undoTo(mark);
+				assertEquals(new String(before), new String(snapshot(validator)));
+			}
+		}
+	}
+
+	private static byte[] snapshot(IncrementalValidator validator) {
+		byte[] cells = new byte[81];
+		for (int cell = 0; cell < 81; cell++) {
+			cells[cell] = (byte) validator.getCell(cell / 9, cell % 9);
+		}
+		return cells;
+	}
+
+	private static boolean[] conflictingCells(byte[] cells) {
+		boolean[] conflicting = new boolean[81];
+		for (int a = 0; a < 81; a++) {
+			for (int b = 0; b < 81; b++) {
+				if (a != b && cells[a] != 0 && cells[a] == cells[b]
+						&& (a / 9 == b / 9 || a % 9 == b % 9 || (a / 27 == b / 27 && (a % 9) / 3 == (b % 9) / 3))) {
+					conflicting[a] = true;
+				}
+			}
+		}
+		return conflicting;
+	}
+
+}
@@ -0,0 +1,172 @@
+package com.epam.sudoku_validator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import com.epam.sudoku_validator.dao.CsvGridReader;
+import com.epam.sudoku_validator.dao.MappedCsvReader;
+import com.epam.sudoku_validator.dao.SimpleSudokuTableDao;
+import com.epam.sudoku_validator.dao.SudokuGridReader;
+import com.epam.sudoku_validator.domain.GridFormatException;
+import com.epam.sudoku_validator.domain.SudokuTable;
+
+import ch.qos.logback.classic.Logger;
+
+public class MappedCsvReaderTests {
+
+	private static Logger LOG = (Logger) LoggerFactory.getLogger(MappedCsvReaderTests.class);
+
+	private static final String[] TEST_FILES = { "testValid.csv", "testInvalid.csv", "testWrongNumber.csv", "testWrongValue.csv",
+			"testTooManyCols.csv", "testMissingCol.csv", "testTooManyRows.csv", "testMissingRow.csv", "testEmptyFile.csv" };
+
+	@Test
+	public void testSameResultAsLoadFromFile() {
+		for (String testFile : TEST_FILES) {
+			String fileName = "src/main/resources/" + testFile;
+			SimpleSudokuTableDao expected = new SimpleSudokuTableDao();
+			SimpleSudokuTableDao actual = new SimpleSudokuTableDao();
+			boolean loaded = expected.loadFromFile(LOG, fileName);
+			assertEquals(testFile, loaded, actual.loadFromMappedFile(LOG, fileName));
+			if (loaded) {
+				assertEquals(testFile, expected.validate(), actual.validate());
+				assertEquals(testFile, expected.toString(), actual.toString());
+			}
+		}
+		assertEquals(false, new SimpleSudokuTableDao().loadFromMappedFile(LOG, "src/main/resources/missingFile.csv"));
+	}
+
+	@Test
+	public void testSameErrorMessages() throws IOException {
+		for (String testFile : TEST_FILES) {
+			File file = new File("src/main/resources/" + testFile);
+			assertEquals(testFile, populateGridMessage(Files.readAllLines(file.toPath())), readTableMessage(file));
+		}
+	}
+
+	@Test
+	public void testLineTerminators() throws IOException {
+		List<String> lines = Files.readAllLines(new File("src/main/resources/testValid.csv").toPath());
+		File file = File.createTempFile("testLineTerminators", ".csv");
+		file.deleteOnExit();
+		String[] terminators = { "\r\n", "\r", "\n" };
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < lines.size(); i++) {
+			content.append(lines.get(i)).append(terminators[i % 3]);
+		}
+		Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+		assertEquals(null, readTableMessage(file));
+		content.append("\r\n");
+		Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+		assertEquals("There are too many rows (10) in CSV file, it should be exactly 9!", readTableMessage(file));
+	}
+
+	@Test
+	public void testSmallWindowsSameAsReader() throws IOException {
+		File file = new File("src/main/resources/testBatch.csv");
+		try (SudokuGridReader expectedReader = new CsvGridReader(new FileReader(file));
+				SudokuGridReader actualReader = new MappedCsvReader(file.toPath(), 40)) {
+			assertSameTables(expectedReader, actualReader);
+		}
+	}
+
+	@Test
+	public void testDigitRowsSameAsReader() throws IOException {
+		String[] replacements = { "x", " 5", "05", "+5", "10", "0", "-3", "", "5,", "5,,", "5 ", "5,5" };
+		Random random = new Random(20190806L);
+		StringBuilder csv = new StringBuilder();
+		for (int table = 0; table < 500; table++) {
+			for (int row = 0; row < 9; row++) {
+				String line = GridValidatorTests.toCsv(BitmaskValidatorTests.VALID_GRID).split("\n")[row];
+				if (random.nextInt(20) == 0) {
+					int col = random.nextInt(9);
+					line = line.substring(0, col * 2) + replacements[random.nextInt(replacements.length)] + line.substring(col * 2 + 1);
+				}
+				csv.append(line).append('\n');
+			}
+			csv.append('\n');
+		}
+		File file = File.createTempFile("testDigitRows", ".csv");
+		file.deleteOnExit();
+		Files.write(file.toPath(), csv.toString().getBytes(StandardCharsets.UTF_8));
+		try (SudokuGridReader expectedReader = new CsvGridReader(new FileReader(file));
+				SudokuGridReader actualReader = new MappedCsvReader(file.toPath())) {
+			assertSameTables(expectedReader, actualReader);
+		}
+	}
+
+	@Test
+	public void testErrorReason() throws IOException {
+		try (MappedCsvReader reader = new MappedCsvReader(new File("src/main/resources/testWrongValue.csv").toPath())) {
+			reader.readTable(new byte[81], 0);
+			assertEquals("GridFormatException expected", true, false);
+		} catch (GridFormatException e) {
+			assertEquals(GridFormatException.Reason.NOT_AN_INTEGER, e.getReason());
+			assertEquals(0, e.getStackTrace().length);
+			assertEquals(true, e.getMessage().endsWith("it should be an integer value!"));
+		}
+	}
+
+	private static void assertSameTables(SudokuGridReader expectedReader, SudokuGridReader actualReader) throws IOException {
+		byte[] expected = new byte[81];
+		byte[] actual = new byte[81];
+		while (true) {
+			String expectedError = null;
+			String actualError = null;
+			boolean expectedNext = false;
+			boolean actualNext = false;
+			try {
+				expectedNext = expectedReader.next(expected, 0);
+			} catch (IllegalArgumentException e) {
+				expectedError = e.getMessage();
+			}
+			try {
+				actualNext = actualReader.next(actual, 0);
+			} catch (IllegalArgumentException e) {
+				actualError = e.getMessage();
+			}
+			assertEquals(expectedError, actualError);
+			assertEquals(expectedNext, actualNext);
+			if (expectedError == null && !expectedNext) {
+				break;
+			}
+			if (expectedError == null) {
+				assertEquals(Arrays.toString(expected), Arrays.toString(actual));
+			}
+		}
+	}
+
+	private static String populateGridMessage(List<String> lines) {
+		List<List<String>> rows = new ArrayList<>();
+		for (String line : lines) {
+			rows.add(Arrays.asList(line.split(",")));
+		}
+		try {
+			new SudokuTable().populateGrid(rows);
+			return null;
+		} catch (IllegalArgumentException e) {
+			return e.getMessage();
+		}
+	}
+
+	private static String readTableMessage(File file) throws IOException {
+		try (MappedCsvReader reader = new MappedCsvReader(file.toPath())) {
+			reader.readTable(new byte[81], 0);
+			return null;
+		} catch (IllegalArgumentException e) {
+			return e.getMessage();
+		}
+	}
+
+}
@@ -0,0 +1,154 @@
+package com.epam.sudoku_validator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.epam.sudoku_validator.dao.BinaryGridWriter;
+import com.epam.sudoku_validator.dao.MappedGridStore;
+import com.epam.sudoku_validator.dao.SimpleSudokuTableDao;
+import com.epam.sudoku_validator.dao.SudokuGridReader;
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+
+public class MappedGridStoreTests {
+
+	@Test
+	public void testRandomAccessAcrossWindows() throws IOException {
+		byte[][] grids = randomGrids(100, 20190801L);
+		File file = binaryFile(grids);
+		byte[] cells = new byte[81];
+		try (MappedGridStore store = new MappedGridStore(file.toPath(), 7)) {
+			assertEquals(100, store.size());
+			Random random = new Random(20190802L);
+			for (int i = 0; i < 1000; i++) {
+				int index = random.nextInt(100);
+				store.read(index, cells, 0);
+				assertEquals(Arrays.toString(grids[index]), Arrays.toString(cells));
+			}
+			try {
+				store.read(100, cells, 0);
+				assertEquals("IndexOutOfBoundsException expected", true, false);
+			} catch (IndexOutOfBoundsException e) {
+				assertEquals("Invalid grid index: 100, size: 100", e.getMessage());
+			}
+		}
+	}
+
+	@Test
+	public void testCursors() throws IOException {
+		byte[][] grids = randomGrids(50, 20190803L);
+		File file = binaryFile(grids);
+		byte[] cells = new byte[81];
+		try (MappedGridStore store = new MappedGridStore(file.toPath(), 16)) {
+			MappedGridStore.Cursor cursor = store.cursor(10, 30);
+			int count = 0;
+			while (cursor.next(cells, 0)) {
+				assertEquals(Arrays.toString(grids[10 + count]), Arrays.toString(cells));
+				count++;
+			}
+			assertEquals(20, count);
+			cursor.seek(29);
+			assertEquals(true, cursor.next(cells, 0));
+			assertEquals(Arrays.toString(grids[29]), Arrays.toString(cells));
+			assertEquals(30, cursor.getPosition());
+			cursor.close();
+			// the cursor doesn't close the store
+			store.read(0, cells, 0);
+			assertEquals(Arrays.toString(grids[0]), Arrays.toString(cells));
+		}
+	}
+
+	@Test
+	public void testSameAsStreamingReader() throws IOException {
+		byte[][] grids = randomGrids(300, 20190804L);
+		grids[5][7] = 0;
+		File file = binaryFile(grids);
+		byte[] cells = new byte[81];
+		try (SudokuGridReader reader = new SimpleSudokuTableDao().openGridReader(file.getPath())) {
+			for (int i = 0; i < 300; i++) {
+				if (i == 5) {
+					try {
+						reader.next(cells, 0);
+						assertEquals("IllegalArgumentException expected", true, false);
+					} catch (IllegalArgumentException e) {
+						assertEquals("Invalid sudoku cell value (0) at (row: 1, column: 8), it should be between 1 and 9!", e.getMessage());
+					}
+					continue;
+				}
+				assertEquals(true, reader.next(cells, 0));
+				assertEquals(Arrays.toString(grids[i]), Arrays.toString(cells));
+			}
+			assertEquals(false, reader.next(cells, 0));
+		}
+	}
+
+	@Test
+	public void testWrongFiles() throws IOException {
+		File file = binaryFile(randomGrids(3, 20190805L));
+		try (FileOutputStream out = new FileOutputStream(file, true)) {
+			out.write(new byte[] { 0x12, 0x34 });
+		}
+		byte[] cells = new byte[81];
+		try (MappedGridStore store = new SimpleSudokuTableDao().openGridStore(file.getPath())) {
+			assertEquals(3, store.size());
+			MappedGridStore.Cursor cursor = store.cursor();
+			for (int i = 0; i < 3; i++) {
+				assertEquals(true, cursor.next(cells, 0));
+			}
+			try {
+				cursor.next(cells, 0);
+				assertEquals("IOException expected", true, false);
+			} catch (IOException e) {
+				assertEquals("Truncated record at the end of the binary sudoku file", e.getMessage());
+			}
+			// a range before the end isn't affected
+			cursor = store.cursor(1, 2);
+			assertEquals(true, cursor.next(cells, 0));
+			assertEquals(false, cursor.next(cells, 0));
+		}
+		File csv = File.createTempFile("testStore", ".sdkb");
+		csv.deleteOnExit();
+		Files.write(csv.toPath(), GridValidatorTests.toCsv(BitmaskValidatorTests.VALID_GRID).getBytes());
+		try {
+			MappedGridStore.open(csv.toPath()).close();
+			assertEquals("IOException expected", true, false);
+		} catch (IOException e) {
+			assertEquals("Not a binary sudoku file, the header is missing", e.getMessage());
+		}
+	}
+
+	/**
+	 * Returns with valid grids with random relabelled digits
+	 */
+	private static byte[][] randomGrids(int count, long seed) {
+		Random random = new Random(seed);
+		byte[] valid = BitmaskValidatorTests.toCells(BitmaskValidatorTests.VALID_GRID);
+		byte[][] grids = new byte[count][BitmaskValidator.CELLS];
+		for (int i = 0; i < count; i++) {
+			int shift = random.nextInt(9);
+			for (int cell = 0; cell < BitmaskValidator.CELLS; cell++) {
+				grids[i][cell] = (byte) ((valid[cell] - 1 + shift) % 9 + 1);
+			}
+		}
+		return grids;
+	}
+
+	private static File binaryFile(byte[][] grids) throws IOException {
+		File file = File.createTempFile("testStore", ".sdkb");
+		file.deleteOnExit();
+		try (BinaryGridWriter writer = new BinaryGridWriter(new FileOutputStream(file))) {
+			for (byte[] grid : grids) {
+				writer.write(grid, 0);
+			}
+		}
+		return file;
+	}
+
+}
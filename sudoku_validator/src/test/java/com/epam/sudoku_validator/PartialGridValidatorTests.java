@@ -0,0 +1,148 @@
+package com.epam.sudoku_validator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.epam.sudoku_validator.dao.CsvGridReader;
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+import com.epam.sudoku_validator.domain.GridGeometry;
+import com.epam.sudoku_validator.domain.IncrementalValidator;
+import com.epam.sudoku_validator.domain.PartialGridValidator;
+
+public class PartialGridValidatorTests {
+
+	static final String PUZZLE = "5,3,,,7,,,,\n"
+			+ "6,,,1,9,5,,,\n"
+			+ ",9,8,,,,,6,\n"
+			+ "8,,,,6,,,,3\n"
+			+ "4,,,8,,3,,,1\n"
+			+ "7,,,,2,,,,6\n"
+			+ ",6,,,,,2,8,\n"
+			+ ",,,4,1,9,,,5\n"
+			+ ",,,,8,,,7,9\n";
+
+	static byte[] readPartial(String csv) throws IOException {
+		byte[] cells = new byte[BitmaskValidator.CELLS];
+		try (CsvGridReader reader = new CsvGridReader(new StringReader(csv), GridGeometry.STANDARD, true)) {
+			assertEquals(true, reader.next(cells, 0));
+		}
+		return cells;
+	}
+
+	@Test
+	public void testPuzzle() throws IOException {
+		byte[] cells = readPartial(PUZZLE);
+		byte[] solution = BitmaskValidatorTests.toCells(BitmaskValidatorTests.VALID_GRID);
+		short[] candidates = new short[BitmaskValidator.CELLS];
+		PartialGridValidator validator = new PartialGridValidator();
+		assertEquals(BitmaskValidator.VALID, validator.validate(cells, 0, candidates, 0));
+		assertEquals(51, validator.getEmptyCells());
+		assertEquals(-1, validator.getDeadCell());
+		assertEquals(0b1011, candidates[2]);
+		assertEquals("[1, 2, 4]", Arrays.toString(PartialGridValidator.digits(candidates[2])));
+		for (int cell = 0; cell < BitmaskValidator.CELLS; cell++) {
+			if (cells[cell] == PartialGridValidator.EMPTY) {
+				assertEquals(true, (candidates[cell] & (1 << (solution[cell] - 1))) != 0);
+			} else {
+				assertEquals(solution[cell], cells[cell]);
+				assertEquals(0, candidates[cell]);
+			}
+		}
+	}
+
+	@Test
+	public void testZeroIsEmpty() throws IOException {
+		byte[] blank = readPartial(PUZZLE);
+		byte[] zero = readPartial(PUZZLE.replace(",,", ",0,").replace(",,", ",0,").replace("\n,", "\n0,").replace(",\n", ",0\n"));
+		assertEquals(Arrays.toString(blank), Arrays.toString(zero));
+	}
+
+	@Test
+	public void testWrongValue() throws IOException {
+		try {
+			readPartial(PUZZLE.replaceFirst("7", "10"));
+			assertEquals("IllegalArgumentException expected", true, false);
+		} catch (IllegalArgumentException e) {
+			assertEquals("Invalid sudoku cell value (10) at (row: 1, column: 5), it should be between 1 and 9, or 0 / empty for an empty cell!", e.getMessage());
+		}
+		try {
+			readPartial(PUZZLE.replaceFirst("5,3,,,7,,,,", "5,3,,,7,,,"));
+			assertEquals("IllegalArgumentException expected", true, false);
+		} catch (IllegalArgumentException e) {
+			assertEquals("There are too few values (8) in row 1, it should be exactly 9!", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testConflictingGivens() throws IOException {
+		byte[] cells = readPartial(PUZZLE);
+		cells[8] = 5;
+		PartialGridValidator validator = new PartialGridValidator();
+		short[] candidates = new short[BitmaskValidator.CELLS];
+		assertEquals(8, validator.validate(cells, 0, candidates, 0));
+		assertEquals(0, validator.getFailingUnit());
+		IncrementalValidator incrementalValidator = new IncrementalValidator();
+		incrementalValidator.load(cells, 0);
+		assertEquals(true, incrementalValidator.isConflicting(0, 8));
+	}
+
+	@Test
+	public void testDeadCell() {
+		byte[] cells = new byte[BitmaskValidator.CELLS];
+		for (int col = 0; col < 8; col++) {
+			cells[col] = (byte) (col + 1);
+		}
+		cells[4 * 9 + 8] = 9;
+		PartialGridValidator validator = new PartialGridValidator();
+		assertEquals(BitmaskValidator.VALID, validator.validate(cells, 0, null, 0));
+		assertEquals(8, validator.getDeadCell());
+		assertEquals(72, validator.getEmptyCells());
+	}
+
+	@Test
+	public void testSameAsBitmaskForFullGrids() {
+		PartialGridValidator partialValidator = new PartialGridValidator();
+		BitmaskValidator bitmaskValidator = new BitmaskValidator();
+		Random random = new Random(20190717L);
+		for (int i = 0; i < 2000; i++) {
+			byte[] cells = BitmaskValidatorTests.toCells(BitmaskValidatorTests.VALID_GRID);
+			for (int changes = random.nextInt(4); changes > 0; changes--) {
+				cells[random.nextInt(81)] = (byte) (1 + random.nextInt(9));
+			}
+			assertEquals(bitmaskValidator.validate(cells, 0), partialValidator.validate(cells, 0, null, 0));
+			assertEquals(bitmaskValidator.getFailingUnit(), partialValidator.getFailingUnit());
+		}
+	}
+
+	@Test
+	public void testBatch() throws IOException {
+		Random random = new Random(20190718L);
+		int count = 50;
+		byte[] puzzle = readPartial(PUZZLE);
+		byte[] cells = new byte[count * BitmaskValidator.CELLS];
+		for (int grid = 0; grid < count; grid++) {
+			System.arraycopy(puzzle, 0, cells, grid * BitmaskValidator.CELLS, BitmaskValidator.CELLS);
+			cells[grid * BitmaskValidator.CELLS + random.nextInt(81)] = (byte) random.nextInt(10);
+		}
+		int[] results = new int[count];
+		short[] candidates = new short[count * BitmaskValidator.CELLS];
+		PartialGridValidator validator = new PartialGridValidator();
+		validator.validate(cells, 0, count, results, candidates);
+		short[] expected = new short[BitmaskValidator.CELLS];
+		for (int grid = 0; grid < count; grid++) {
+			assertEquals(validator.validate(cells, grid * BitmaskValidator.CELLS, expected, 0), results[grid]);
+			if (results[grid] == BitmaskValidator.VALID) {
+				for (int cell = 0; cell < BitmaskValidator.CELLS; cell++) {
+					assertEquals(expected[cell], candidates[grid * BitmaskValidator.CELLS + cell]);
+				}
+			}
+		}
+	}
+
+}
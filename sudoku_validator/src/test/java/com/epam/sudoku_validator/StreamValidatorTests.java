@@ -0,0 +1,148 @@
+package com.epam.sudoku_validator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import com.epam.sudoku_validator.app.StreamValidator;
+import com.epam.sudoku_validator.dao.BinaryGridFormat;
+import com.epam.sudoku_validator.dao.SimpleSudokuTableDao;
+import com.epam.sudoku_validator.dao.SudokuGridWriter;
+import com.epam.sudoku_validator.domain.GridParser;
+
+import ch.qos.logback.classic.Logger;
+
+public class StreamValidatorTests {
+
+	private static Logger LOG = (Logger) LoggerFactory.getLogger(StreamValidatorTests.class);
+
+	static final String VALID_LINE = "534678912672195348198342567859761423426853791713924856961537284287419635345286179";
+
+	@Test
+	public void testMixedInput() throws IOException {
+		String input = new String(Files.readAllBytes(new File("src/main/resources/testBatch.csv").toPath()), StandardCharsets.UTF_8)
+				+ "\n" + VALID_LINE + "\n"
+				+ "  " + VALID_LINE.replace("534", "535") + "  \n"
+				+ VALID_LINE.substring(1) + "\n"
+				+ VALID_LINE.replace("345", "3x5") + "\n";
+		StreamValidator streamValidator = new StreamValidator(new SimpleSudokuTableDao());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertEquals(-1, streamValidator.run(LOG, new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out));
+		String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+		assertEquals(10, lines.length);
+		assertEquals("{\"valid\":true}", lines[0]);
+		assertEquals("{\"valid\":false,\"row\":4,\"column\":8}", lines[1]);
+		assertEquals("{\"error\":\"Invalid sudoku cell value (\\\"5a\\\") at (row: 5, column: 5), it should be an integer value!\"}", lines[2]);
+		assertEquals("{\"error\":\"There are too few rows (5) in CSV file, it should be exactly 9!\"}", lines[4]);
+		assertEquals("{\"valid\":true}", lines[5]);
+		assertEquals("{\"valid\":true}", lines[6]);
+		assertEquals("{\"valid\":false,\"row\":1,\"column\":3}", lines[7]);
+		assertEquals("{\"error\":\"There are too few values (80) in the line, it should be exactly 81!\"}", lines[8]);
+		assertEquals("{\"error\":\"Invalid sudoku cell value (\\\"x\\\") at (row: 9, column: 2), it should be an integer value!\"}", lines[9]);
+		assertEquals(10, streamValidator.getTotal());
+		assertEquals(3, streamValidator.getValid());
+		assertEquals(2, streamValidator.getInvalid());
+		assertEquals(5, streamValidator.getMalformed());
+	}
+
+	@Test
+	public void testValidInput() throws IOException {
+		StreamValidator streamValidator = new StreamValidator(new SimpleSudokuTableDao());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] input = (VALID_LINE + "\r\n" + VALID_LINE).getBytes(StandardCharsets.UTF_8);
+		assertEquals(0, streamValidator.run(LOG, new ByteArrayInputStream(input), out));
+		assertEquals("{\"valid\":true}\n{\"valid\":true}\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+		assertEquals(-1, new StreamValidator(new SimpleSudokuTableDao()).run(LOG, new ByteArrayInputStream(new byte[0]), out));
+	}
+
+	@Test
+	public void testBinaryInput() throws IOException {
+		File binary = File.createTempFile("testStream", BinaryGridFormat.FILE_EXTENSION);
+		binary.deleteOnExit();
+		SimpleSudokuTableDao sudokuTableDao = new SimpleSudokuTableDao();
+		byte[] cells = BitmaskValidatorTests.toCells(BitmaskValidatorTests.VALID_GRID);
+		try (SudokuGridWriter writer = sudokuTableDao.openGridWriter(binary.getPath())) {
+			writer.write(cells, 0);
+			cells[0] = cells[1];
+			writer.write(cells, 0);
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new StreamValidator(sudokuTableDao).run(LOG, new ByteArrayInputStream(Files.readAllBytes(binary.toPath())), out);
+		assertEquals("{\"valid\":true}\n{\"valid\":false,\"row\":1,\"column\":2}\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testFlushBeforeWaiting() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] first = (VALID_LINE + "\n").getBytes(StandardCharsets.UTF_8);
+		byte[] second = (VALID_LINE.replace("534", "535") + "\n").getBytes(StandardCharsets.UTF_8);
+		// a producer, which sends the second table only after the result of the first one
+		InputStream in = new InputStream() {
+			private int chunk = 0;
+			private int position = 0;
+
+			@Override
+			public int read() throws IOException {
+				byte[] b = new byte[1];
+				return read(b, 0, 1) < 0 ? -1 : b[0];
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				if (chunk == 1 && position == 0) {
+					assertEquals("{\"valid\":true}\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+				}
+				byte[] data = chunk == 0 ? first : chunk == 1 ? second : null;
+				if (data == null) {
+					return -1;
+				}
+				int n = Math.min(len, data.length - position);
+				System.arraycopy(data, position, b, off, n);
+				position += n;
+				if (position == data.length) {
+					chunk++;
+					position = 0;
+				}
+				return n;
+			}
+
+			@Override
+			public int available() {
+				// nothing is available until the previous table is answered
+				return chunk == 0 ? first.length - position : 0;
+			}
+		};
+		new StreamValidator(new SimpleSudokuTableDao()).run(LOG, in, out);
+		assertEquals("{\"valid\":true}\n{\"valid\":false,\"row\":1,\"column\":3}\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testParseLine() {
+		byte[] cells = new byte[81];
+		GridParser.parseLine(VALID_LINE, cells, 0);
+		assertEquals(5, cells[0]);
+		assertEquals(9, cells[80]);
+		try {
+			GridParser.parseLine(VALID_LINE.replace("345", "305"), cells, 0);
+			assertEquals("IllegalArgumentException expected", true, false);
+		} catch (IllegalArgumentException e) {
+			assertEquals("Invalid sudoku cell value (0) at (row: 9, column: 2), it should be between 1 and 9!", e.getMessage());
+		}
+		try {
+			GridParser.parseLine(VALID_LINE + "1", cells, 0);
+			assertEquals("IllegalArgumentException expected", true, false);
+		} catch (IllegalArgumentException e) {
+			assertEquals("There are too many values (82) in the line, it should be exactly 81!", e.getMessage());
+		}
+	}
+
+}
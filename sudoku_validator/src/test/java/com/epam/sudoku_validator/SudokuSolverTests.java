@@ -0,0 +1,161 @@
+package com.epam.sudoku_validator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+import com.epam.sudoku_validator.domain.SolutionCount;
+import com.epam.sudoku_validator.domain.SudokuSolver;
+
+public class SudokuSolverTests {
+
+	static final String[] HARD_PUZZLES = {
+			"8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..",
+			"1....7.9..3..2...8..96..5....53..9...1..8...26....4...3......1..4......7..7...3..",
+			"4.....8.5.3..........7......2.....6.....8.4......1.......6.3.7.5..2.....1.4......",
+			"52...6.........7.13...........4..8..6......5...........418.........3..2...87.....",
+			"6.....8.3.4.7.................5.4.7.3..2.....1.6.......2.....5.....8.6......1....",
+			"48.3............71.2.......7.5....6....2..8.............1.76...3.....4......5...." };
+
+	static byte[] toCells(String puzzle) {
+		byte[] cells = new byte[BitmaskValidator.CELLS];
+		for (int cell = 0; cell < BitmaskValidator.CELLS; cell++) {
+			char c = puzzle.charAt(cell);
+			cells[cell] = (byte) (c == '.' ? 0 : c - '0');
+		}
+		return cells;
+	}
+
+	@Test
+	public void testClassicPuzzle() throws IOException {
+		byte[] puzzle = PartialGridValidatorTests.readPartial(PartialGridValidatorTests.PUZZLE);
+		byte[] solution = new byte[BitmaskValidator.CELLS];
+		SudokuSolver solver = new SudokuSolver();
+		assertEquals(SolutionCount.UNIQUE, solver.solve(puzzle, 0, solution, 0));
+		assertEquals(toString(BitmaskValidatorTests.toCells(BitmaskValidatorTests.VALID_GRID)), toString(solution));
+	}
+
+	@Test
+	public void testHardPuzzles() {
+		SudokuSolver solver = new SudokuSolver();
+		BitmaskValidator validator = new BitmaskValidator();
+		byte[] solution = new byte[BitmaskValidator.CELLS];
+		for (String hardPuzzle : HARD_PUZZLES) {
+			byte[] puzzle = toCells(hardPuzzle);
+			assertEquals(hardPuzzle, SolutionCount.UNIQUE, solver.solve(puzzle, 0, solution, 0));
+			assertEquals(hardPuzzle, BitmaskValidator.VALID, validator.validate(solution, 0));
+			for (int cell = 0; cell < BitmaskValidator.CELLS; cell++) {
+				assertEquals(true, puzzle[cell] == 0 || puzzle[cell] == solution[cell]);
+			}
+		}
+		assertEquals("812753649943682175675491283154237896369845721287169534521974368438526917796318452",
+				toString(solveUnique(HARD_PUZZLES[0])));
+	}
+
+	@Test
+	public void testMultipleSolutions() {
+		SudokuSolver solver = new SudokuSolver();
+		assertEquals(SolutionCount.MULTIPLE, solver.solve(new byte[BitmaskValidator.CELLS], 0, null, 0));
+		// without the 1s and 2s, they can be swapped
+		byte[] cells = BitmaskValidatorTests.toCells(BitmaskValidatorTests.VALID_GRID);
+		for (int cell = 0; cell < BitmaskValidator.CELLS; cell++) {
+			if (cells[cell] == 1 || cells[cell] == 2) {
+				cells[cell] = 0;
+			}
+		}
+		byte[] solution = new byte[BitmaskValidator.CELLS];
+		assertEquals(SolutionCount.MULTIPLE, solver.solve(cells, 0, solution, 0));
+		assertEquals(BitmaskValidator.VALID, new BitmaskValidator().validate(solution, 0));
+	}
+
+	@Test
+	public void testNoSolution() {
+		SudokuSolver solver = new SudokuSolver();
+		byte[] conflicting = toCells(HARD_PUZZLES[0]);
+		conflicting[8] = 8;
+		assertEquals(SolutionCount.NONE, solver.solve(conflicting, 0, null, 0));
+		// consistent givens, but (0, 8) has no candidate
+		byte[] dead = new byte[BitmaskValidator.CELLS];
+		for (int col = 0; col < 8; col++) {
+			dead[col] = (byte) (col + 1);
+		}
+		dead[4 * 9 + 8] = 9;
+		assertEquals(SolutionCount.NONE, solver.solve(dead, 0, null, 0));
+		byte[] wrongValue = toCells(HARD_PUZZLES[0]);
+		wrongValue[1] = 10;
+		assertEquals(SolutionCount.NONE, solver.solve(wrongValue, 0, null, 0));
+		byte[] solution = new byte[BitmaskValidator.CELLS];
+		byte[] invalidGrid = BitmaskValidatorTests.toCells(BitmaskValidatorTests.VALID_GRID);
+		invalidGrid[40] = invalidGrid[41];
+		assertEquals(SolutionCount.NONE, solver.solve(invalidGrid, 0, solution, 0));
+		assertEquals(0, solution[0]);
+	}
+
+	@Test
+	public void testCompleteGrid() {
+		byte[] cells = BitmaskValidatorTests.toCells(BitmaskValidatorTests.VALID_GRID);
+		byte[] solution = new byte[BitmaskValidator.CELLS];
+		assertEquals(SolutionCount.UNIQUE, new SudokuSolver().solve(cells, 0, solution, 0));
+		assertEquals(toString(cells), toString(solution));
+	}
+
+	@Test
+	public void testSolveAll() {
+		Random random = new Random(20190719L);
+		int count = 500;
+		byte[] solved = BitmaskValidatorTests.toCells(BitmaskValidatorTests.VALID_GRID);
+		byte[] cells = new byte[count * BitmaskValidator.CELLS];
+		for (int grid = 0; grid < count; grid++) {
+			int offset = grid * BitmaskValidator.CELLS;
+			if (grid % 3 == 0) {
+				System.arraycopy(toCells(HARD_PUZZLES[grid % HARD_PUZZLES.length]), 0, cells, offset, BitmaskValidator.CELLS);
+				continue;
+			}
+			System.arraycopy(solved, 0, cells, offset, BitmaskValidator.CELLS);
+			for (int empty = 30 + random.nextInt(30); empty > 0; empty--) {
+				cells[offset + random.nextInt(81)] = 0;
+			}
+			if (grid % 7 == 0) {
+				cells[offset + random.nextInt(81)] = (byte) (1 + random.nextInt(9));
+			}
+		}
+		SolutionCount[] results = new SolutionCount[count];
+		byte[] solutions = new byte[count * BitmaskValidator.CELLS];
+		SudokuSolver.solveAll(new ForkJoinPool(4), cells, count, results, solutions);
+		SudokuSolver solver = new SudokuSolver();
+		byte[] solution = new byte[BitmaskValidator.CELLS];
+		int[] counts = new int[SolutionCount.values().length];
+		for (int grid = 0; grid < count; grid++) {
+			assertEquals(solver.solve(cells, grid * BitmaskValidator.CELLS, solution, 0), results[grid]);
+			counts[results[grid].ordinal()]++;
+			if (results[grid] == SolutionCount.UNIQUE) {
+				for (int cell = 0; cell < BitmaskValidator.CELLS; cell++) {
+					assertEquals(solution[cell], solutions[grid * BitmaskValidator.CELLS + cell]);
+				}
+			}
+		}
+		assertEquals(true, counts[SolutionCount.NONE.ordinal()] > 0);
+		assertEquals(true, counts[SolutionCount.UNIQUE.ordinal()] > 0);
+		assertEquals(true, counts[SolutionCount.MULTIPLE.ordinal()] > 0);
+	}
+
+	private static byte[] solveUnique(String puzzle) {
+		byte[] solution = new byte[BitmaskValidator.CELLS];
+		assertEquals(SolutionCount.UNIQUE, new SudokuSolver().solve(toCells(puzzle), 0, solution, 0));
+		return solution;
+	}
+
+	private static String toString(byte[] cells) {
+		StringBuilder result = new StringBuilder(BitmaskValidator.CELLS);
+		for (byte cell : cells) {
+			result.append(cell);
+		}
+		return result.toString();
+	}
+
+}
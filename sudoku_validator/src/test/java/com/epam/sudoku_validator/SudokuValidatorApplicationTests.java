@@ -29,63 +29,63 @@ public class SudokuValidatorApplicationTests {
 	@Test
 	public void testValid() {
         SimpleSudokuTableDao sudokuTableDao = context.getBean(SimpleSudokuTableDao.class);
-		assertEquals(true, sudokuTableDao.loadFromFile(LOG, "src\\main\\resources\\testValid.csv"));
+		assertEquals(true, sudokuTableDao.loadFromFile(LOG, "src/main/resources/testValid.csv"));
 		assertEquals(true, sudokuTableDao.validate(LOG));
 	}
 
 	@Test
 	public void testInvalid() {
         SimpleSudokuTableDao sudokuTableDao = context.getBean(SimpleSudokuTableDao.class);
-		assertEquals(true, sudokuTableDao.loadFromFile(LOG, "src\\main\\resources\\testInvalid.csv"));
+		assertEquals(true, sudokuTableDao.loadFromFile(LOG, "src/main/resources/testInvalid.csv"));
 		assertEquals(false, sudokuTableDao.validate(LOG));
 	}
 
 	@Test
 	public void testWrongNumber() {
         SimpleSudokuTableDao sudokuTableDao = context.getBean(SimpleSudokuTableDao.class);
-		assertEquals(false, sudokuTableDao.loadFromFile(LOG, "src\\main\\resources\\testWrongNumber.csv"));
+		assertEquals(false, sudokuTableDao.loadFromFile(LOG, "src/main/resources/testWrongNumber.csv"));
 	}
 
 	@Test
 	public void testWrongValue() {
         SimpleSudokuTableDao sudokuTableDao = context.getBean(SimpleSudokuTableDao.class);
-		assertEquals(false, sudokuTableDao.loadFromFile(LOG, "src\\main\\resources\\testWrongValue.csv"));
+		assertEquals(false, sudokuTableDao.loadFromFile(LOG, "src/main/resources/testWrongValue.csv"));
 	}
 
 	@Test
 	public void testTooManyCols() {
         SimpleSudokuTableDao sudokuTableDao = context.getBean(SimpleSudokuTableDao.class);
-		assertEquals(false, sudokuTableDao.loadFromFile(LOG, "src\\main\\resources\\testTooManyCols.csv"));
+		assertEquals(false, sudokuTableDao.loadFromFile(LOG, "src/main/resources/testTooManyCols.csv"));
 	}
 
 	@Test
 	public void testMissingCol() {
         SimpleSudokuTableDao sudokuTableDao = context.getBean(SimpleSudokuTableDao.class);
-		assertEquals(false, sudokuTableDao.loadFromFile(LOG, "src\\main\\resources\\testMissingCol.csv"));
+		assertEquals(false, sudokuTableDao.loadFromFile(LOG, "src/main/resources/testMissingCol.csv"));
 	}
 
 	@Test
 	public void testTooManyRows() {
         SimpleSudokuTableDao sudokuTableDao = context.getBean(SimpleSudokuTableDao.class);
-		assertEquals(false, sudokuTableDao.loadFromFile(LOG, "src\\main\\resources\\testTooManyRows.csv"));
+		assertEquals(false, sudokuTableDao.loadFromFile(LOG, "src/main/resources/testTooManyRows.csv"));
 	}
 
 	@Test
 	public void testMissingRow() {
         SimpleSudokuTableDao sudokuTableDao = context.getBean(SimpleSudokuTableDao.class);
-		assertEquals(false, sudokuTableDao.loadFromFile(LOG, "src\\main\\resources\\testMissingRow.csv"));
+		assertEquals(false, sudokuTableDao.loadFromFile(LOG, "src/main/resources/testMissingRow.csv"));
 	}
 
 	@Test
 	public void testEmptyFile() {
         SimpleSudokuTableDao sudokuTableDao = context.getBean(SimpleSudokuTableDao.class);
-		assertEquals(false, sudokuTableDao.loadFromFile(LOG, "src\\main\\resources\\testEmptyFile.csv"));
+		assertEquals(false, sudokuTableDao.loadFromFile(LOG, "src/main/resources/testEmptyFile.csv"));
 	}
 
 	@Test
 	public void testMissingFile() {
         SimpleSudokuTableDao sudokuTableDao = context.getBean(SimpleSudokuTableDao.class);
-		assertEquals(false, sudokuTableDao.loadFromFile(LOG, "src\\main\\resources\\missingFile.csv"));
+		assertEquals(false, sudokuTableDao.loadFromFile(LOG, "src/main/resources/missingFile.csv"));
 	}
 
 }
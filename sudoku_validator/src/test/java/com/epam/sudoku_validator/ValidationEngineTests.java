@@ -0,0 +1,114 @@
+package com.epam.sudoku_validator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.slf4j.helpers.NOPLogger;
+
+import com.epam.sudoku_validator.app.BatchValidator;
+import com.epam.sudoku_validator.dao.SimpleSudokuTableDao;
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+import com.epam.sudoku_validator.domain.EngineCalibrator;
+import com.epam.sudoku_validator.domain.GridGeometry;
+import com.epam.sudoku_validator.domain.GridValidator;
+import com.epam.sudoku_validator.domain.ValidationEngine;
+import com.epam.sudoku_validator.domain.ValidationEngineType;
+
+public class ValidationEngineTests {
+
+	@Test
+	public void testSameResultsAsGridValidator() {
+		for (int boxSize = 2; boxSize <= 4; boxSize++) {
+			GridGeometry geometry = GridGeometry.of(boxSize);
+			byte[] grids = randomGrids(geometry, 500, 20190806L + boxSize);
+			GridValidator reference = new GridValidator(geometry);
+			for (ValidationEngineType type : ValidationEngineType.values()) {
+				if (!type.supports(geometry)) {
+					continue;
+				}
+				ValidationEngine engine = type.create(geometry);
+				assertEquals(geometry, engine.getGeometry());
+				int[] results = new int[500];
+				engine.validate(grids, 0, 500, results);
+				for (int grid = 0; grid < 500; grid++) {
+					int offset = grid * geometry.getCells();
+					int expected = reference.validate(grids, offset);
+					assertEquals(type + " " + geometry + " #" + grid, expected, engine.validate(grids, offset));
+					assertEquals(type + " " + geometry + " #" + grid, reference.getFailingUnit(), engine.getFailingUnit());
+					assertEquals(type + " " + geometry + " bulk #" + grid, expected, results[grid]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testUnsupportedSize() {
+		assertEquals(true, ValidationEngineType.PACKED.supports(GridGeometry.STANDARD));
+		assertEquals(false, ValidationEngineType.PACKED.supports(GridGeometry.of(4)));
+		try {
+			ValidationEngineType.PACKED.create(GridGeometry.of(4));
+			assertEquals("IllegalArgumentException expected", true, false);
+		} catch (IllegalArgumentException e) {
+			assertEquals("The PACKED validation engine supports 9x9 tables only, not 16x16", e.getMessage());
+		}
+		BatchValidator batchValidator = new BatchValidator(new SimpleSudokuTableDao(), GridGeometry.of(4));
+		try {
+			batchValidator.setEngine(new BitmaskValidator());
+			assertEquals("IllegalArgumentException expected", true, false);
+		} catch (IllegalArgumentException e) {
+			assertEquals("The validation engine is for 9x9 tables, not for 16x16", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testEngineNames() {
+		assertEquals(ValidationEngineType.PACKED, ValidationEngineType.of("packed", GridGeometry.STANDARD, 5, NOPLogger.NOP_LOGGER));
+		assertEquals(true, ValidationEngineType.of("AUTO", GridGeometry.STANDARD, 5, NOPLogger.NOP_LOGGER) != null);
+		try {
+			ValidationEngineType.of("BOGUS", GridGeometry.STANDARD, 5, NOPLogger.NOP_LOGGER);
+			assertEquals("IllegalArgumentException expected", true, false);
+		} catch (IllegalArgumentException e) {
+			assertEquals("Unknown validation engine: BOGUS, it should be SET, REGEX, BITMASK, PACKED or AUTO", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testCalibration() {
+		EngineCalibrator calibrator = new EngineCalibrator(GridGeometry.STANDARD, 5);
+		ValidationEngineType fastest = calibrator.calibrate(NOPLogger.NOP_LOGGER);
+		for (ValidationEngineType type : ValidationEngineType.values()) {
+			assertEquals(type.toString(), true, calibrator.getThroughput(type) > 0);
+			assertEquals(type.toString(), true, calibrator.getThroughput(type) <= calibrator.getThroughput(fastest));
+		}
+		calibrator = new EngineCalibrator(GridGeometry.of(4), 5);
+		assertEquals(true, calibrator.calibrate(NOPLogger.NOP_LOGGER).supports(GridGeometry.of(4)));
+		assertEquals(-1, calibrator.getThroughput(ValidationEngineType.PACKED));
+	}
+
+	/**
+	 * Returns with relabelled pattern grids, half of them with a few random values, some out of range
+	 */
+	private static byte[] randomGrids(GridGeometry geometry, int count, long seed) {
+		Random random = new Random(seed);
+		int side = geometry.getSide();
+		byte[] pattern = GridValidatorTests.toCells(GridValidatorTests.patternGrid(geometry.getBoxSize()));
+		byte[] grids = new byte[count * pattern.length];
+		for (int grid = 0; grid < count; grid++) {
+			int offset = grid * pattern.length;
+			int shift = random.nextInt(side);
+			for (int cell = 0; cell < pattern.length; cell++) {
+				grids[offset + cell] = (byte) ((pattern[cell] - 1 + shift) % side + 1);
+			}
+			if (random.nextBoolean()) {
+				int changes = 1 + random.nextInt(3);
+				for (int i = 0; i < changes; i++) {
+					grids[offset + random.nextInt(pattern.length)] = (byte) random.nextInt(side + 2);
+				}
+			}
+		}
+		return grids;
+	}
+
+}
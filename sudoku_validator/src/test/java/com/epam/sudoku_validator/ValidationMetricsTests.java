@@ -0,0 +1,122 @@
+package com.epam.sudoku_validator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import com.epam.sudoku_validator.app.BatchValidator;
+import com.epam.sudoku_validator.app.ParallelBatchValidator;
+import com.epam.sudoku_validator.app.ValidationMetrics;
+import com.epam.sudoku_validator.dao.SimpleSudokuTableDao;
+import com.epam.sudoku_validator.domain.ValidateType;
+
+import ch.qos.logback.classic.Logger;
+
+public class ValidationMetricsTests {
+
+	private static Logger LOG = (Logger) LoggerFactory.getLogger(ValidationMetricsTests.class);
+
+	@Test
+	public void testBatchMetrics() throws IOException {
+		ValidationMetrics metrics = new ValidationMetrics(true, false, 0);
+		BatchValidator batchValidator = new BatchValidator(new SimpleSudokuTableDao());
+		batchValidator.setMetrics(metrics);
+		batchValidator.run(LOG, "src/main/resources/testBatch.csv", new StringWriter());
+		assertEquals(6, metrics.getTables());
+		assertEquals(2, metrics.getValid());
+		assertEquals(1, metrics.getInvalid());
+		assertEquals(3, metrics.getMalformed());
+		assertEquals(1, metrics.getRowFailures() + metrics.getColumnFailures() + metrics.getSubtableFailures());
+		assertEquals(new File("src/main/resources/testBatch.csv").length(), metrics.getBytesRead());
+		assertEquals(true, metrics.getParseMaxNanos() > 0);
+		assertEquals(true, metrics.getValidateP50Nanos() <= metrics.getValidateP99Nanos());
+		assertEquals(true, metrics.getValidateP99Nanos() <= metrics.getValidateMaxNanos());
+	}
+
+	@Test
+	public void testParallelSameAsBatch() throws IOException, InterruptedException {
+		ValidationMetrics expected = new ValidationMetrics(true, false, 0);
+		BatchValidator batchValidator = new BatchValidator(new SimpleSudokuTableDao());
+		batchValidator.setMetrics(expected);
+		batchValidator.run(LOG, "src/main/resources", new StringWriter());
+		ValidationMetrics actual = new ValidationMetrics(true, false, 0);
+		ParallelBatchValidator parallelValidator = new ParallelBatchValidator(new SimpleSudokuTableDao(), 2, 3, 2);
+		parallelValidator.setMetrics(actual);
+		parallelValidator.run(LOG, "src/main/resources", new StringWriter());
+		assertEquals(expected.getTables(), actual.getTables());
+		assertEquals(expected.getValid(), actual.getValid());
+		assertEquals(expected.getMalformed(), actual.getMalformed());
+		assertEquals(expected.getRowFailures(), actual.getRowFailures());
+		assertEquals(expected.getColumnFailures(), actual.getColumnFailures());
+		assertEquals(expected.getSubtableFailures(), actual.getSubtableFailures());
+		assertEquals(expected.getBytesRead(), actual.getBytesRead());
+	}
+
+	@Test
+	public void testDisabled() throws IOException {
+		BatchValidator batchValidator = new BatchValidator(new SimpleSudokuTableDao());
+		batchValidator.run(LOG, "src/main/resources/testBatch.csv", new StringWriter());
+		assertEquals(0, ValidationMetrics.DISABLED.getTables());
+		assertEquals(0, ValidationMetrics.DISABLED.getParseMeanNanos());
+		assertEquals(-1, ValidationMetrics.DISABLED.getAllocatedBytesPerTable());
+	}
+
+	@Test
+	public void testHistogram() {
+		ValidationMetrics metrics = new ValidationMetrics(true, false, 0);
+		for (int i = 0; i < 98; i++) {
+			metrics.recordValidate(100);
+		}
+		metrics.recordValidate(200_000, 2);
+		assertEquals(127, metrics.getValidateP50Nanos());
+		assertEquals(100_000, metrics.getValidateP99Nanos());
+		assertEquals(100_000, metrics.getValidateMaxNanos());
+		assertEquals((98 * 100 + 2 * 100_000) / 100, metrics.getValidateMeanNanos());
+		metrics.recordInvalid(ValidateType.COLUMN);
+		assertEquals(1, metrics.getColumnFailures());
+		metrics.reset();
+		assertEquals(0, metrics.getValidateMaxNanos());
+		assertEquals(0, metrics.getTables());
+	}
+
+	@Test
+	public void testThroughputSinceStart() throws InterruptedException {
+		ValidationMetrics metrics = new ValidationMetrics(true, false, 0);
+		Thread.sleep(500);
+		metrics.start(LOG);
+		try {
+			metrics.recordValid();
+			// 1 table in much less than the 500 ms before the start
+			assertEquals(true, metrics.getTablesPerSecond() > 2);
+		} finally {
+			metrics.stop(LOG);
+		}
+	}
+
+	@Test
+	public void testJmx() throws JMException {
+		ValidationMetrics metrics = new ValidationMetrics(true, true, 0);
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName("com.epam.sudoku_validator:type=ValidationMetrics");
+		metrics.start(LOG);
+		try {
+			metrics.recordValid();
+			assertEquals(1L, server.getAttribute(name, "Tables"));
+			assertEquals(1L, server.getAttribute(name, "Valid"));
+		} finally {
+			metrics.stop(LOG);
+		}
+		assertEquals(false, server.isRegistered(name));
+	}
+
+}
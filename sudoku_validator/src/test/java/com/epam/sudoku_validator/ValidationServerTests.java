@@ -0,0 +1,219 @@
+package com.epam.sudoku_validator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import com.epam.sudoku_validator.app.ValidationServer;
+import com.epam.sudoku_validator.dao.BinaryGridWriter;
+import com.epam.sudoku_validator.dao.CacheKeyMode;
+import com.epam.sudoku_validator.dao.CachingSudokuTableDao;
+import com.epam.sudoku_validator.dao.SimpleSudokuTableDao;
+
+import ch.qos.logback.classic.Logger;
+
+public class ValidationServerTests {
+
+	private static Logger LOG = (Logger) LoggerFactory.getLogger(ValidationServerTests.class);
+
+	private static final String BATCH_RESULT = "{\"results\":[{\"valid\":true},{\"valid\":false,\"row\":4,\"column\":8},"
+			+ "{\"error\":\"Invalid sudoku cell value (\\\"5a\\\") at (row: 5, column: 5), it should be an integer value!\"},"
+			+ "{\"error\":\"There are too few values (8) in row 1, it should be exactly 9!\"},"
+			+ "{\"error\":\"There are too few rows (5) in CSV file, it should be exactly 9!\"},"
+			+ "{\"valid\":true}],\"tables\":6,\"valid\":2,\"invalid\":1,\"malformed\":3}";
+
+	private static ValidationServer server;
+
+	@BeforeClass
+	public static void startServer() throws IOException {
+		server = new ValidationServer(new SimpleSudokuTableDao(), "127.0.0.1", 0, 4, 16, 5000);
+		server.start(LOG);
+	}
+
+	@AfterClass
+	public static void stopServer() {
+		server.stop(LOG);
+	}
+
+	@Test
+	public void testValidateCsv() throws IOException {
+		byte[] body = Files.readAllBytes(new File("src/main/resources/testBatch.csv").toPath());
+		assertEquals("200 " + BATCH_RESULT, request("POST", "/validate", body));
+	}
+
+	@Test
+	public void testValidateBinary() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (BinaryGridWriter writer = new BinaryGridWriter(bytes)) {
+			writer.write(BitmaskValidatorTests.toCells(BitmaskValidatorTests.VALID_GRID), 0);
+		}
+		assertEquals("200 {\"results\":[{\"valid\":true}],\"tables\":1,\"valid\":1,\"invalid\":0,\"malformed\":0}",
+				request("POST", "/validate", bytes.toByteArray()));
+	}
+
+	@Test
+	public void testCandidates() throws IOException {
+		String body = PartialGridValidatorTests.PUZZLE + "\n" + PartialGridValidatorTests.PUZZLE.replaceFirst("5,3", "5,5");
+		String response = request("POST", "/candidates", body.getBytes(StandardCharsets.UTF_8));
+		assertEquals(true, response.startsWith("200 {\"results\":[{\"valid\":true,\"empty\":51,\"candidates\":[0,0,11,"));
+		assertEquals(true, response.endsWith("]},{\"valid\":false,\"row\":1,\"column\":2}],\"tables\":2,\"valid\":1,\"invalid\":1,\"malformed\":0}"));
+	}
+
+	@Test
+	public void testBadRequests() throws IOException {
+		assertEquals("405 {\"error\":\"Only POST is supported\"}", request("GET", "/validate", null));
+		assertEquals("400 {\"error\":\"There's no sudoku table in the request\"}", request("POST", "/validate", new byte[0]));
+		StringBuilder tooMany = new StringBuilder();
+		for (int i = 0; i < 5001; i++) {
+			for (int[] row : BitmaskValidatorTests.VALID_GRID) {
+				for (int col = 0; col < 9; col++) {
+					tooMany.append(col == 0 ? "" : ",").append(row[col]);
+				}
+				tooMany.append('\n');
+			}
+		}
+		assertEquals("413 {\"error\":\"Too many tables in the request, the limit is 5000\"}",
+				request("POST", "/validate", tooMany.toString().getBytes(StandardCharsets.UTF_8)));
+		assertEquals("200 {\"status\":\"UP\"}", request("GET", "/health", null));
+	}
+
+	@Test
+	public void testCachedResults() throws IOException {
+		CachingSudokuTableDao cache = new CachingSudokuTableDao(new SimpleSudokuTableDao(), 100, CacheKeyMode.EXACT);
+		ValidationServer cachingServer = new ValidationServer(new SimpleSudokuTableDao(), "127.0.0.1", 0, 2, 16, 5000);
+		cachingServer.setCache(cache);
+		cachingServer.start(LOG);
+		try {
+			byte[] body = Files.readAllBytes(new File("src/main/resources/testBatch.csv").toPath());
+			for (int i = 0; i < 3; i++) {
+				assertEquals("200 " + BATCH_RESULT, request(cachingServer, "POST", "/validate", body));
+			}
+		} finally {
+			cachingServer.stop(LOG);
+		}
+		// the 2 valid tables are the same, the malformed ones aren't validated
+		assertEquals(2, cache.getMisses());
+		assertEquals(7, cache.getHits());
+	}
+
+	@Test
+	public void testBodyLimit() throws IOException {
+		byte[] body = Files.readAllBytes(new File("src/main/resources/testBatch.csv").toPath());
+		ValidationServer limitedServer = new ValidationServer(new SimpleSudokuTableDao(), "127.0.0.1", 0, 1, 16, 5000);
+		limitedServer.setMaxBodyBytes(body.length - 1);
+		limitedServer.start(LOG);
+		try {
+			String tooLarge = "413 {\"error\":\"The request body is too large, the limit is " + (body.length - 1) + " bytes\"}";
+			// by the Content-Length
+			assertEquals(tooLarge, request(limitedServer, "POST", "/validate", body));
+			// while reading a chunked body
+			assertEquals(tooLarge, request(limitedServer, "POST", "/candidates", body, 64));
+			limitedServer.setMaxBodyBytes(body.length);
+			assertEquals("200 " + BATCH_RESULT, request(limitedServer, "POST", "/validate", body, 64));
+		} finally {
+			limitedServer.stop(LOG);
+		}
+	}
+
+	@Test
+	public void testBusy() throws Exception {
+		ValidationServer busyServer = new ValidationServer(new SimpleSudokuTableDao(), "127.0.0.1", 0, 1, 1, 5000);
+		busyServer.start(LOG);
+		// the first request holds the only handler thread, the second one waits in the queue
+		try (Socket handled = openRequest(busyServer); Socket queued = openRequest(busyServer)) {
+			long deadline = System.currentTimeMillis() + 10_000;
+			while (busyServer.getRequests() < 1 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			Thread.sleep(200);
+			assertEquals("503 {\"error\":\"The server is busy, try again later\"}", request(busyServer, "POST", "/validate", new byte[0]));
+			assertEquals(1, busyServer.getRejected());
+		} finally {
+			busyServer.stop(LOG);
+		}
+	}
+
+	@Test
+	public void testConcurrentRequests() throws Exception {
+		byte[] body = Files.readAllBytes(new File("src/main/resources/testBatch.csv").toPath());
+		ExecutorService clients = Executors.newFixedThreadPool(16);
+		try {
+			List<Future<String>> responses = new ArrayList<>();
+			for (int i = 0; i < 400; i++) {
+				responses.add(clients.submit(() -> request("POST", "/validate", body)));
+			}
+			for (Future<String> response : responses) {
+				assertEquals("200 " + BATCH_RESULT, response.get());
+			}
+		} finally {
+			clients.shutdown();
+		}
+	}
+
+	private static String request(String method, String path, byte[] body) throws IOException {
+		return request(server, method, path, body);
+	}
+
+	private static String request(ValidationServer server, String method, String path, byte[] body) throws IOException {
+		return request(server, method, path, body, 0);
+	}
+
+	/**
+	 * @param chunkLength - the body is sent in chunks of this size without Content-Length, 0 means a fixed length body
+	 */
+	private static String request(ValidationServer server, String method, String path, byte[] body, int chunkLength) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() + path).openConnection();
+		connection.setRequestMethod(method);
+		connection.setReadTimeout(10_000);
+		if (body != null) {
+			connection.setDoOutput(true);
+			if (chunkLength > 0) {
+				connection.setChunkedStreamingMode(chunkLength);
+			}
+			try (OutputStream out = connection.getOutputStream()) {
+				out.write(body);
+			}
+		}
+		int status = connection.getResponseCode();
+		ByteArrayOutputStream response = new ByteArrayOutputStream();
+		try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+			byte[] buffer = new byte[4096];
+			int count;
+			while ((count = in.read(buffer)) > 0) {
+				response.write(buffer, 0, count);
+			}
+		}
+		return status + " " + new String(response.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Sends the headers and the beginning of a request body, so the request is stuck until the socket is closed
+	 */
+	private static Socket openRequest(ValidationServer server) throws IOException {
+		Socket socket = new Socket("127.0.0.1", server.getPort());
+		OutputStream out = socket.getOutputStream();
+		out.write(("POST /validate HTTP/1.1\r\nHost: 127.0.0.1\r\nContent-Length: 1000\r\n\r\n5,3,4").getBytes(StandardCharsets.US_ASCII));
+		out.flush();
+		return socket;
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.epam.sudoku_validator.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+import com.epam.sudoku_validator.domain.BulkValidator;
+import com.epam.sudoku_validator.domain.ValidationKernel;
+
+/**
+ * Validation of a chunk of already parsed tables by each kernel of BulkValidator, the score is tables/s
+ * The tables are relabelled copies of the valid table, invalidPercent of them get one random cell changed.
+ *
+ * @author Istvan_Simo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkValidationBenchmark {
+
+	private static final int TABLES = 1008;
+
+	@Param({"SCALAR", "SWAR"})
+	private ValidationKernel kernel;
+
+	@Param({"0", "5"})
+	private int invalidPercent;
+
+	private byte[] cells;
+	private int[] results;
+	private BulkValidator validator;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(20190711L);
+		byte[] valid = GridCorpus.VALID.cells();
+		this.cells = new byte[TABLES * BitmaskValidator.CELLS];
+		byte[] labels = new byte[10];
+		for (int table = 0; table < TABLES; table++) {
+			for (int digit = 1; digit <= 9; digit++) {
+				labels[digit] = (byte) digit;
+			}
+			for (int digit = 9; digit > 1; digit--) {
+				int other = 1 + random.nextInt(digit);
+				byte label = labels[digit];
+				labels[digit] = labels[other];
+				labels[other] = label;
+			}
+			int offset = table * BitmaskValidator.CELLS;
+			for (int cell = 0; cell < BitmaskValidator.CELLS; cell++) {
+				this.cells[offset + cell] = labels[valid[cell]];
+			}
+			if (random.nextInt(100) < this.invalidPercent) {
+				int cell = offset + random.nextInt(BitmaskValidator.CELLS);
+				this.cells[cell] = (byte) (this.cells[cell] % 9 + 1);
+			}
+		}
+		this.results = new int[TABLES];
+		this.validator = new BulkValidator(this.kernel);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TABLES)
+	public int[] validate() {
+		this.validator.validate(this.cells, 0, TABLES, this.results);
+		return this.results;
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.epam.sudoku_validator.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.epam.sudoku_validator.dao.CacheKeyMode;
+import com.epam.sudoku_validator.dao.CachingSudokuTableDao;
+import com.epam.sudoku_validator.dao.SimpleSudokuTableDao;
+import com.epam.sudoku_validator.domain.SudokuGrid;
+import com.epam.sudoku_validator.domain.ValidationResult;
+
+/**
+ * Cache hit of CachingSudokuTableDao in each key mode, against the uncached validation of the same grid, the score is ns/op
+ *
+ * @author Istvan_Simo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+
+	@Param({"VALID", "INVALID_LATE"})
+	private GridCorpus grid;
+
+	@Param({"EXACT", "RELABEL", "SYMMETRY"})
+	private CacheKeyMode keyMode;
+
+	private SudokuGrid sudokuGrid;
+	private SimpleSudokuTableDao sudokuTableDao;
+	private CachingSudokuTableDao cache;
+
+	@Setup
+	public void setup() {
+		this.sudokuGrid = SudokuGrid.of(this.grid.cells(), 0);
+		this.sudokuTableDao = new SimpleSudokuTableDao();
+		this.cache = new CachingSudokuTableDao(this.sudokuTableDao, 1024, this.keyMode);
+		this.cache.validate(this.sudokuGrid);
+	}
+
+	@Benchmark
+	public ValidationResult uncached() {
+		return this.sudokuTableDao.validate(this.sudokuGrid);
+	}
+
+	@Benchmark
+	public ValidationResult cacheHit() {
+		return this.cache.validate(this.sudokuGrid);
+	}
+
+}
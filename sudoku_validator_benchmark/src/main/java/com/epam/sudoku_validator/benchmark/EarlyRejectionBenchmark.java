@@ -0,0 +1,127 @@
+package com.epam.sudoku_validator.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.helpers.NOPLogger;
+
+import com.epam.sudoku_validator.app.BatchValidator;
+import com.epam.sudoku_validator.dao.SimpleSudokuTableDao;
+
+/**
+ * Batch validation of a CSV file, where invalidPercent of the tables are rejected: half of them have a duplicate,
+ * the other half is malformed (a letter, an extra value or a 0 in a random row), the score is tables/s
+ * The result lines are written into a writer, which drops them.
+ *
+ * @author Istvan_Simo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EarlyRejectionBenchmark {
+
+	private static final int TABLES = 10000;
+
+	@Param({"0", "90"})
+	private int invalidPercent;
+
+	private File file;
+	private BatchValidator batchValidator;
+	private final Writer out = new NullWriter();
+
+	@Setup
+	public void setup() throws IOException {
+		Random random = new Random(20190805L);
+		byte[] valid = GridCorpus.VALID.cells();
+		StringBuilder csv = new StringBuilder();
+		for (int table = 0; table < TABLES; table++) {
+			byte[] cells = valid.clone();
+			boolean rejected = random.nextInt(100) < this.invalidPercent;
+			boolean malformed = rejected && random.nextBoolean();
+			if (rejected && !malformed) {
+				int cell = random.nextInt(cells.length);
+				cells[cell] = (byte) (cells[cell] % 9 + 1);
+			}
+			int malformedRow = random.nextInt(9);
+			int kind = random.nextInt(3);
+			for (int row = 0; row < 9; row++) {
+				for (int col = 0; col < 9; col++) {
+					if (col > 0) {
+						csv.append(',');
+					}
+					if (malformed && row == malformedRow && col == 4 && kind != 1) {
+						csv.append(kind == 0 ? 'x' : '0');
+					} else {
+						csv.append(cells[row * 9 + col]);
+					}
+				}
+				if (malformed && row == malformedRow && kind == 1) {
+					csv.append(",5");
+				}
+				csv.append('\n');
+			}
+			csv.append('\n');
+		}
+		this.file = File.createTempFile("earlyRejection", ".csv");
+		Files.write(this.file.toPath(), csv.toString().getBytes(StandardCharsets.US_ASCII));
+		this.batchValidator = new BatchValidator(new SimpleSudokuTableDao());
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.file.delete();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TABLES)
+	public long batch() throws IOException {
+		this.batchValidator.run(NOPLogger.NOP_LOGGER, this.file.getPath(), this.out);
+		return this.batchValidator.getTotal();
+	}
+
+	private static class NullWriter extends Writer {
+		@Override
+		public void write(char[] buffer, int offset, int length) {
+		}
+
+		@Override
+		public Writer append(CharSequence text) {
+			return this;
+		}
+
+		@Override
+		public Writer append(char c) {
+			return this;
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+}
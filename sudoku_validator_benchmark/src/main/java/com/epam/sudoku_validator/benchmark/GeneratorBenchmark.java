@@ -0,0 +1,55 @@
+package com.epam.sudoku_validator.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+import com.epam.sudoku_validator.domain.GridGenerator;
+import com.epam.sudoku_validator.domain.GridMutation;
+
+/**
+ * Random grids of GridGenerator on one thread, including the base solutions solved after every 1024 grids
+ *
+ * @author Istvan_Simo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneratorBenchmark {
+
+	private GridGenerator generator;
+	private byte[] cells;
+
+	@Setup
+	public void setup() {
+		this.generator = new GridGenerator(20190810L);
+		this.cells = new byte[BitmaskValidator.CELLS];
+	}
+
+	@Benchmark
+	public byte[] generate() {
+		this.generator.generate(this.cells, 0);
+		return this.cells;
+	}
+
+	@Benchmark
+	public byte[] generateDuplicateBox() {
+		this.generator.generate(this.cells, 0);
+		this.generator.mutate(this.cells, 0, GridMutation.DUPLICATE_BOX);
+		return this.cells;
+	}
+
+}
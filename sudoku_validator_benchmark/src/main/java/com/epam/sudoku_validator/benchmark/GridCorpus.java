@@ -0,0 +1,122 @@
+package com.epam.sudoku_validator.benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fixed grids for the benchmarks, all of them are derived from the valid table of testValid.csv
+ * VALID         - the valid table
+ * INVALID_EARLY - the first checked unit (row 0) has a duplicate
+ * INVALID_LATE  - only columns 7 and 8 have duplicates, so 22 of the 27 units pass before the first error
+ * 
+ * Usage (from the project root):
+ * mvn -pl sudoku_validator_benchmark -am package
+ * java -jar sudoku_validator_benchmark/target/benchmarks.jar -prof gc                - ops/s and allocation rate
+ * java -jar sudoku_validator_benchmark/target/benchmarks.jar -bm sample -tu ns       - latency percentiles (p0.99)
+ * 
+ * @author Istvan_Simo
+ */
+public enum GridCorpus {
+	VALID(new int[][] {
+		{5, 3, 4, 6, 7, 8, 9, 1, 2},
+		{6, 7, 2, 1, 9, 5, 3, 4, 8},
+		{1, 9, 8, 3, 4, 2, 5, 6, 7},
+		{8, 5, 9, 7, 6, 1, 4, 2, 3},
+		{4, 2, 6, 8, 5, 3, 7, 9, 1},
+		{7, 1, 3, 9, 2, 4, 8, 5, 6},
+		{9, 6, 1, 5, 3, 7, 2, 8, 4},
+		{2, 8, 7, 4, 1, 9, 6, 3, 5},
+		{3, 4, 5, 2, 8, 6, 1, 7, 9}
+	}),
+	INVALID_EARLY(new int[][] {
+		{3, 3, 4, 6, 7, 8, 9, 1, 2},
+		{6, 7, 2, 1, 9, 5, 3, 4, 8},
+		{1, 9, 8, 3, 4, 2, 5, 6, 7},
+		{8, 5, 9, 7, 6, 1, 4, 2, 3},
+		{4, 2, 6, 8, 5, 3, 7, 9, 1},
+		{7, 1, 3, 9, 2, 4, 8, 5, 6},
+		{9, 6, 1, 5, 3, 7, 2, 8, 4},
+		{2, 8, 7, 4, 1, 9, 6, 3, 5},
+		{3, 4, 5, 2, 8, 6, 1, 7, 9}
+	}),
+	INVALID_LATE(new int[][] {
+		{5, 3, 4, 6, 7, 8, 9, 1, 2},
+		{6, 7, 2, 1, 9, 5, 3, 4, 8},
+		{1, 9, 8, 3, 4, 2, 5, 6, 7},
+		{8, 5, 9, 7, 6, 1, 4, 2, 3},
+		{4, 2, 6, 8, 5, 3, 7, 9, 1},
+		{7, 1, 3, 9, 2, 4, 8, 5, 6},
+		{9, 6, 1, 5, 3, 7, 2, 8, 4},
+		{2, 8, 7, 4, 1, 9, 6, 3, 5},
+		{3, 4, 5, 2, 8, 6, 1, 9, 7}
+	});
+
+	/**
+	 * Target of the console output of the regex validator
+	 */
+	public static final PrintStream NULL_OUT = new PrintStream(new OutputStream() {
+		@Override
+		public void write(int b) {
+		}
+	});
+
+	private final int[][] grid;
+
+	private GridCorpus(int[][] grid) {
+		this.grid = grid;
+	}
+
+	/**
+	 * Returns with the CSV lines of the table
+	 */
+	public String[] csvLines() {
+		String[] lines = new String[9];
+		for (int row = 0; row < 9; row++) {
+			StringBuilder line = new StringBuilder();
+			for (int col = 0; col < 9; col++) {
+				if (col > 0) {
+					line.append(',');
+				}
+				line.append(this.grid[row][col]);
+			}
+			lines[row] = line.toString();
+		}
+		return lines;
+	}
+
+	/**
+	 * Returns with the nested lists of strings as SudokuTable.populateGrid expects them
+	 */
+	public List<List<String>> rows() {
+		List<List<String>> rows = new ArrayList<>();
+		for (String line : csvLines()) {
+			rows.add(Arrays.asList(line.split(",")));
+		}
+		return rows;
+	}
+
+	/**
+	 * Returns with the primitive row-major grid
+	 */
+	public byte[] cells() {
+		byte[] cells = new byte[81];
+		for (int i = 0; i < 81; i++) {
+			cells[i] = (byte) this.grid[i / 9][i % 9];
+		}
+		return cells;
+	}
+
+	/**
+	 * Returns with the digit strings of the rows as the regex validator stores them
+	 */
+	public String[] digitRows() {
+		String[] lines = csvLines();
+		for (int row = 0; row < 9; row++) {
+			lines[row] = lines[row].replace(",", "");
+		}
+		return lines;
+	}
+}
@@ -0,0 +1,72 @@
+package com.epam.sudoku_validator.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.epam.sudoku_validator.domain.GridGeometry;
+import com.epam.sudoku_validator.domain.GridValidator;
+
+/**
+ * Validation of valid grids of every size by GridValidator, the score is ns per table
+ * Divided by the number of cells (16, 81, 256, 625, 1296, 4096) it gives the cost per cell of each size,
+ * and boxSize 3 can be compared with BitmaskValidator in ValidationBenchmark.
+ *
+ * @author Istvan_Simo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LargeGridBenchmark {
+
+	private static final int TABLES = 64;
+
+	@Param({"2", "3", "4", "5", "6", "8"})
+	private int boxSize;
+
+	private byte[] cells;
+	private int tableCells;
+	private GridValidator gridValidator;
+
+	@Setup
+	public void setup() {
+		GridGeometry geometry = GridGeometry.of(this.boxSize);
+		int side = geometry.getSide();
+		this.tableCells = geometry.getCells();
+		this.cells = new byte[TABLES * this.tableCells];
+		for (int table = 0; table < TABLES; table++) {
+			for (int row = 0; row < side; row++) {
+				for (int col = 0; col < side; col++) {
+					// relabelled by the table number, so the tables differ
+					int value = ((row % this.boxSize) * this.boxSize + row / this.boxSize + col + table) % side + 1;
+					this.cells[table * this.tableCells + row * side + col] = (byte) value;
+				}
+			}
+		}
+		this.gridValidator = new GridValidator(geometry);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TABLES)
+	public void validate(Blackhole blackhole) {
+		for (int table = 0; table < TABLES; table++) {
+			blackhole.consume(this.gridValidator.validate(this.cells, table * this.tableCells));
+		}
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.epam.sudoku_validator.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.epam.sudoku_validator.domain.GridParser;
+import com.epam.sudoku_validator.domain.SudokuTable;
+import com.epam.sudoku_validator_nerd.Main;
+
+/**
+ * Parsing of the CSV lines of one table into the representation of each validator
+ * 
+ * @author Istvan_Simo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParsingBenchmark {
+
+	@Param({"VALID", "INVALID_EARLY", "INVALID_LATE"})
+	private GridCorpus corpus;
+
+	private String[] lines;
+	private SudokuTable table;
+	private byte[] cells;
+	private String[] digitRows;
+
+	@Setup
+	public void setup() {
+		this.lines = this.corpus.csvLines();
+		this.table = new SudokuTable();
+		this.cells = new byte[81];
+		this.digitRows = new String[9];
+	}
+
+	/**
+	 * SimpleSudokuTableDao.loadFromFile and SudokuTable.populateGrid, without the file reading
+	 */
+	@Benchmark
+	public SudokuTable splitAndPopulate() {
+		List<List<String>> rows = new ArrayList<>();
+		for (String line : this.lines) {
+			rows.add(Arrays.asList(line.split(",")));
+		}
+		this.table.populateGrid(rows);
+		return this.table;
+	}
+
+	@Benchmark
+	public byte[] gridParser() {
+		for (int row = 0; row < 9; row++) {
+			GridParser.parseRow(this.lines[row], row, this.cells, 0);
+		}
+		return this.cells;
+	}
+
+	@Benchmark
+	public String[] regexParser() {
+		for (int row = 0; row < 9; row++) {
+			this.digitRows[row] = Main.parseLine(this.lines[row]);
+		}
+		return this.digitRows;
+	}
+
+}
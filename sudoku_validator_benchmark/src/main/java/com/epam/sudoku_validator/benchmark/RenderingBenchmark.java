@@ -0,0 +1,86 @@
+package com.epam.sudoku_validator.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+import com.epam.sudoku_validator.domain.GridGeometry;
+import com.epam.sudoku_validator.domain.GridRenderer;
+import com.epam.sudoku_validator.domain.RenderFormat;
+import com.epam.sudoku_validator.domain.SudokuTable;
+
+/**
+ * Rendering of a validated table, as the application logs it after each validation,
+ * and the garbage-free rendering of GridRenderer into reused targets
+ * 
+ * @author Istvan_Simo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderingBenchmark {
+
+	@Param({"VALID", "INVALID_EARLY", "INVALID_LATE"})
+	private GridCorpus corpus;
+
+	private SudokuTable table;
+	private byte[] cells;
+	private int errorCell;
+	private GridRenderer boxRenderer;
+	private GridRenderer lineRenderer;
+	private StringBuilder builder;
+	private byte[] bytes;
+
+	@Setup
+	public void setup() {
+		this.table = new SudokuTable();
+		this.table.populateGrid(this.corpus.rows());
+		this.table.validate();
+		this.cells = new byte[BitmaskValidator.CELLS];
+		for (int cell = 0; cell < BitmaskValidator.CELLS; cell++) {
+			this.cells[cell] = (byte) this.table.getCellAt(cell % 9, cell / 9);
+		}
+		this.errorCell = new BitmaskValidator().validate(this.cells, 0);
+		this.boxRenderer = new GridRenderer(GridGeometry.STANDARD, RenderFormat.BOX);
+		this.lineRenderer = new GridRenderer(GridGeometry.STANDARD, RenderFormat.LINE);
+		this.builder = new StringBuilder(this.boxRenderer.getMaxLength());
+		this.bytes = new byte[this.boxRenderer.getMaxLength() * 3];
+	}
+
+	@Benchmark
+	public String tableToString() {
+		return this.table.toString();
+	}
+
+	@Benchmark
+	public int boxToBuilder() {
+		this.builder.setLength(0);
+		this.boxRenderer.render(this.cells, 0, this.errorCell, this.builder);
+		return this.builder.length();
+	}
+
+	@Benchmark
+	public int boxToBytes() {
+		return this.boxRenderer.render(this.cells, 0, this.errorCell, this.bytes, 0);
+	}
+
+	@Benchmark
+	public int lineToBytes() {
+		return this.lineRenderer.render(this.cells, 0, this.errorCell, this.bytes, 0);
+	}
+
+}
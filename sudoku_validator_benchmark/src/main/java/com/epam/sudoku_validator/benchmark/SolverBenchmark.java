@@ -0,0 +1,78 @@
+package com.epam.sudoku_validator.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+import com.epam.sudoku_validator.domain.SudokuSolver;
+
+/**
+ * Uniqueness check of 9x9 puzzles by SudokuSolver on one thread, the score is ns per puzzle (averaged over the set)
+ * "hard" are well-known puzzles with 17-24 givens, which need tens or hundreds of guesses, "easy" is a classic
+ * puzzle solved by singles only.
+ *
+ * @author Istvan_Simo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+
+	private static final String[] HARD = {
+			"8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..",
+			"1....7.9..3..2...8..96..5....53..9...1..8...26....4...3......1..4......7..7...3..",
+			"4.....8.5.3..........7......2.....6.....8.4......1.......6.3.7.5..2.....1.4......",
+			"52...6.........7.13...........4..8..6......5...........418.........3..2...87.....",
+			"6.....8.3.4.7.................5.4.7.3..2.....1.6.......2.....5.....8.6......1....",
+			"48.3............71.2.......7.5....6....2..8.............1.76...3.....4......5...." };
+
+	private static final String[] EASY = {
+			"53..7....6..195....98....6.8...6...34..8.3..17...2...6.6....28....419..5....8..79" };
+
+	@Param({"hard", "easy"})
+	private String puzzles;
+
+	private byte[] cells;
+	private int count;
+	private int next;
+	private byte[] solution;
+	private SudokuSolver solver;
+
+	@Setup
+	public void setup() {
+		String[] source = "hard".equals(this.puzzles) ? HARD : EASY;
+		this.count = source.length;
+		this.cells = new byte[this.count * BitmaskValidator.CELLS];
+		for (int puzzle = 0; puzzle < this.count; puzzle++) {
+			for (int cell = 0; cell < BitmaskValidator.CELLS; cell++) {
+				char c = source[puzzle].charAt(cell);
+				this.cells[puzzle * BitmaskValidator.CELLS + cell] = (byte) (c == '.' ? 0 : c - '0');
+			}
+		}
+		this.solution = new byte[BitmaskValidator.CELLS];
+		this.solver = new SudokuSolver();
+	}
+
+	@Benchmark
+	public void solve(Blackhole blackhole) {
+		int puzzle = this.next;
+		this.next = puzzle + 1 == this.count ? 0 : puzzle + 1;
+		blackhole.consume(this.solver.solve(this.cells, puzzle * BitmaskValidator.CELLS, this.solution, 0));
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.epam.sudoku_validator.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.helpers.NOPLogger;
+
+import com.epam.sudoku_validator.domain.BitmaskValidator;
+import com.epam.sudoku_validator.domain.PackedValidator;
+import com.epam.sudoku_validator.domain.SudokuTable;
+import com.epam.sudoku_validator.domain.ValidationResult;
+import com.epam.sudoku_validator_nerd.Main;
+
+/**
+ * Validation of one already parsed table by each validator
+ * 
+ * @author Istvan_Simo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+	private static final Logger NOP = NOPLogger.NOP_LOGGER;
+
+	@Param({"VALID", "INVALID_EARLY", "INVALID_LATE"})
+	private GridCorpus corpus;
+
+	private SudokuTable table;
+	private byte[] cells;
+	private BitmaskValidator bitmaskValidator;
+	private PackedValidator packedValidator;
+	private String[] digitRows;
+
+	@Setup
+	public void setup() {
+		this.table = new SudokuTable();
+		this.table.populateGrid(this.corpus.rows());
+		this.cells = this.corpus.cells();
+		this.bitmaskValidator = new BitmaskValidator();
+		this.packedValidator = new PackedValidator();
+		this.digitRows = this.corpus.digitRows();
+	}
+
+	/**
+	 * SudokuTable.validate(Logger), the HashSet based validator
+	 */
+	@Benchmark
+	public boolean setBased() {
+		return this.table.validate(NOP);
+	}
+
+	@Benchmark
+	public int bitmask() {
+		return this.bitmaskValidator.validate(this.cells, 0);
+	}
+
+	/**
+	 * PACKED validation engine, the unit masks in local variables
+	 */
+	@Benchmark
+	public int packed() {
+		return this.packedValidator.validate(this.cells, 0);
+	}
+
+	/**
+	 * Full diagnostic mode, it should be as fast as bitmask on valid tables
+	 */
+	@Benchmark
+	public ValidationResult bitmaskDiagnose() {
+		return this.bitmaskValidator.diagnose(this.cells, 0);
+	}
+
+	/**
+	 * sudoku_validator_nerd, the regex backreference based validator
+	 */
+	@Benchmark
+	public boolean regex() {
+		return Main.validateGrid(this.digitRows, GridCorpus.NULL_OUT);
+	}
+
+}
@@ -5,6 +5,7 @@ import java.io.FileInputStream;
 import java.io.InputStreamReader;
 import java.io.BufferedReader;
 import java.io.FileNotFoundException;
+import java.io.PrintStream;
 
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -25,7 +26,7 @@ public class Main
 				for(int i = 0; i < 9; i++) {
 					lineBuf = bufReader.readLine();
 					if (lineBuf != null) {
-						grid[i] = lineBuf.replaceAll("(?![1-9]).", "");
+						grid[i] = parseLine(lineBuf);
 						//grid[i] = lineBuf.replaceAll("\\D", "");
 						if (grid[i].length() != 9) {
 							retVal = false;
@@ -58,7 +59,11 @@ public class Main
 		return retVal;
 	}
 
-	private static boolean validateGrid() {
+	public static String parseLine(String lineBuf) {
+		return lineBuf.replaceAll("(?![1-9]).", "");
+	}
+
+	public static boolean validateGrid(String[] grid, PrintStream out) {
 		boolean retVal = false;
 		String set = "";
 		String tgt = "";
@@ -92,7 +97,7 @@ public class Main
 				retVal = retVal || res;
 				log += " | " + tgt + ":" + set + " " + (res ? "!" : " ");
 			}
-			System.out.println(log);
+			out.println(log);
 		}
 		return !retVal;
 	}
@@ -104,7 +109,7 @@ public class Main
 			System.out.println("Validate sudoku CSV: " + args[0]);
 			boolean isLoaded = loadFromFile(args[0]);
 			if (isLoaded) {
-				boolean isValid = validateGrid();
+				boolean isValid = validateGrid(grid, System.out);
 				if (isValid) {
 					System.out.println("Validate result: OK");
 					exitCode = 0;